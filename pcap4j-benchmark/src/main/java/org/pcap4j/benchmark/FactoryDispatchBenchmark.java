@@ -0,0 +1,171 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.factory.PacketFactory;
+import org.pcap4j.packet.factory.statik.AbstractStaticPacketFactory;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.packet.namednumber.NamedNumber;
+import org.pcap4j.packet.namednumber.TcpPort;
+import org.pcap4j.packet.namednumber.UdpPort;
+
+/**
+ * Measures the time the static packet factories take to dispatch on numbers, by calling <code>
+ * getTargetClass(number)</code> of the EtherType, IpNumber, TcpPort, and UdpPort factories with
+ * numbers they know and numbers they don't know. The time is reported per lookup.
+ *
+ * <p>To compare the dispatch table of the factories with the <code>HashMap</code> they used before,
+ * the same numbers are also looked up in the tables of the factories themselves (<code>
+ * *DispatchMap</code>) and in <code>HashMap</code> copies of them (<code>*HashMap</code>).
+ *
+ * <pre>
+ * mvn -P benchmark -pl pcap4j-benchmark -am package
+ * java -jar pcap4j-benchmark/target/benchmarks.jar FactoryDispatchBenchmark
+ * </pre>
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryDispatchBenchmark {
+
+  private final PacketFactory<Packet, EtherType> etherTypeFactory =
+      PacketFactories.getFactory(Packet.class, EtherType.class);
+  private final PacketFactory<Packet, IpNumber> ipNumberFactory =
+      PacketFactories.getFactory(Packet.class, IpNumber.class);
+  private final PacketFactory<Packet, TcpPort> tcpPortFactory =
+      PacketFactories.getFactory(Packet.class, TcpPort.class);
+  private final PacketFactory<Packet, UdpPort> udpPortFactory =
+      PacketFactories.getFactory(Packet.class, UdpPort.class);
+
+  private final EtherType knownEtherType = EtherType.IPV4;
+  private final IpNumber knownIpNumber = IpNumber.TCP;
+  private final TcpPort knownTcpPort = TcpPort.DOMAIN;
+  private final UdpPort knownUdpPort = UdpPort.DOMAIN;
+
+  private final EtherType unknownEtherType = EtherType.getInstance((short) 0x1234);
+  private final IpNumber unknownIpNumber = IpNumber.getInstance((byte) 253);
+  private final TcpPort unknownTcpPort = TcpPort.getInstance((short) 50000);
+  private final UdpPort unknownUdpPort = UdpPort.getInstance((short) 50000);
+
+  private Map<EtherType, Object> etherTypeDispatchMap;
+  private Map<IpNumber, Object> ipNumberDispatchMap;
+  private Map<TcpPort, Object> tcpPortDispatchMap;
+  private Map<UdpPort, Object> udpPortDispatchMap;
+
+  private Map<EtherType, Object> etherTypeHashMap;
+  private Map<IpNumber, Object> ipNumberHashMap;
+  private Map<TcpPort, Object> tcpPortHashMap;
+  private Map<UdpPort, Object> udpPortHashMap;
+
+  /** @throws Exception if the tables of the factories can't be read. */
+  @Setup
+  public void setUp() throws Exception {
+    etherTypeDispatchMap = getInstantiaters(etherTypeFactory);
+    ipNumberDispatchMap = getInstantiaters(ipNumberFactory);
+    tcpPortDispatchMap = getInstantiaters(tcpPortFactory);
+    udpPortDispatchMap = getInstantiaters(udpPortFactory);
+
+    etherTypeHashMap = new HashMap<EtherType, Object>(etherTypeDispatchMap);
+    ipNumberHashMap = new HashMap<IpNumber, Object>(ipNumberDispatchMap);
+    tcpPortHashMap = new HashMap<TcpPort, Object>(tcpPortDispatchMap);
+    udpPortHashMap = new HashMap<UdpPort, Object>(udpPortDispatchMap);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <N extends NamedNumber<?, ?>> Map<N, Object> getInstantiaters(
+      PacketFactory<Packet, N> factory) throws Exception {
+    Field field = AbstractStaticPacketFactory.class.getDeclaredField("instantiaters");
+    field.setAccessible(true);
+    return (Map<N, Object>) field.get(factory);
+  }
+
+  /** @param bh bh */
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void known(Blackhole bh) {
+    bh.consume(etherTypeFactory.getTargetClass(knownEtherType));
+    bh.consume(ipNumberFactory.getTargetClass(knownIpNumber));
+    bh.consume(tcpPortFactory.getTargetClass(knownTcpPort));
+    bh.consume(udpPortFactory.getTargetClass(knownUdpPort));
+  }
+
+  /** @param bh bh */
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void unknown(Blackhole bh) {
+    bh.consume(etherTypeFactory.getTargetClass(unknownEtherType));
+    bh.consume(ipNumberFactory.getTargetClass(unknownIpNumber));
+    bh.consume(tcpPortFactory.getTargetClass(unknownTcpPort));
+    bh.consume(udpPortFactory.getTargetClass(unknownUdpPort));
+  }
+
+  /** @param bh bh */
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void knownDispatchMap(Blackhole bh) {
+    bh.consume(etherTypeDispatchMap.get(knownEtherType));
+    bh.consume(ipNumberDispatchMap.get(knownIpNumber));
+    bh.consume(tcpPortDispatchMap.get(knownTcpPort));
+    bh.consume(udpPortDispatchMap.get(knownUdpPort));
+  }
+
+  /** @param bh bh */
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void unknownDispatchMap(Blackhole bh) {
+    bh.consume(etherTypeDispatchMap.get(unknownEtherType));
+    bh.consume(ipNumberDispatchMap.get(unknownIpNumber));
+    bh.consume(tcpPortDispatchMap.get(unknownTcpPort));
+    bh.consume(udpPortDispatchMap.get(unknownUdpPort));
+  }
+
+  /** @param bh bh */
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void knownHashMap(Blackhole bh) {
+    bh.consume(etherTypeHashMap.get(knownEtherType));
+    bh.consume(ipNumberHashMap.get(knownIpNumber));
+    bh.consume(tcpPortHashMap.get(knownTcpPort));
+    bh.consume(udpPortHashMap.get(knownUdpPort));
+  }
+
+  /** @param bh bh */
+  @Benchmark
+  @OperationsPerInvocation(4)
+  public void unknownHashMap(Blackhole bh) {
+    bh.consume(etherTypeHashMap.get(unknownEtherType));
+    bh.consume(ipNumberHashMap.get(unknownIpNumber));
+    bh.consume(tcpPortHashMap.get(unknownTcpPort));
+    bh.consume(udpPortHashMap.get(unknownUdpPort));
+  }
+}
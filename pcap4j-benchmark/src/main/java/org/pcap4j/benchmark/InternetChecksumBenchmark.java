@@ -0,0 +1,146 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.benchmark;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.TcpPacket;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.InternetChecksum;
+
+/**
+ * Measures {@link InternetChecksum}: summing an array range and a direct buffer, validating the
+ * checksum of a decoded TCP segment by {@link TcpPacket#hasValidChecksum(InetAddress, InetAddress,
+ * boolean)}, and updating a checksum for a modified 16-bit and 32-bit field.
+ *
+ * <p>Run with the GC profiler to see the bytes allocated per call, which is reported as <code>
+ * gc.alloc.rate.norm</code>:
+ *
+ * <pre>
+ * mvn -P benchmark -pl pcap4j-benchmark -am package
+ * java -jar pcap4j-benchmark/target/benchmarks.jar InternetChecksumBenchmark -prof gc
+ * </pre>
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InternetChecksumBenchmark {
+
+  /** The length of the data summed and of the payload of the TCP segment validated. */
+  @Param({"64", "1460"})
+  public int length;
+
+  private byte[] data;
+  private ByteBuffer directData;
+  private TcpPacket tcp;
+  private InetAddress srcAddr;
+  private InetAddress dstAddr;
+  private short checksum;
+  private short oldPort;
+  private short newPort;
+  private int oldAddr;
+  private int newAddr;
+
+  /** @throws Exception if the TCP segment can't be built. */
+  @Setup
+  public void setUp() throws Exception {
+    Random random = new Random(1);
+    data = new byte[length];
+    random.nextBytes(data);
+    directData = ByteBuffer.allocateDirect(length);
+    directData.duplicate().put(data);
+
+    srcAddr = InetAddress.getByName("192.0.2.1");
+    dstAddr = InetAddress.getByName("198.51.100.2");
+    tcp = newTcpPacket(data);
+
+    checksum = InternetChecksum.calc(data, 0, data.length);
+    oldPort = ByteArrays.getShort(data, 0);
+    newPort = (short) (oldPort + 1);
+    oldAddr = ByteArrays.getInt(data, 4);
+    newAddr = oldAddr ^ 0x00FF00FF;
+  }
+
+  /** Decodes an IPv4/TCP packet whose TCP checksum is correct. */
+  private TcpPacket newTcpPacket(byte[] payload) throws IllegalRawDataException {
+    byte[] rawData =
+        ByteArrays.parseByteArray(
+            "4500000000004000400600000000000000000000" // IPv4 header
+                + "c350005000000001000000005018fad800000000", // TCP header
+            "");
+    rawData = ByteArrays.concatenate(rawData, payload);
+    System.arraycopy(ByteArrays.toByteArray((short) rawData.length), 0, rawData, 2, 2);
+    System.arraycopy(srcAddr.getAddress(), 0, rawData, 12, 4);
+    System.arraycopy(dstAddr.getAddress(), 0, rawData, 16, 4);
+
+    int tcpLength = rawData.length - 20;
+    short tcpChecksum =
+        InternetChecksum.fold(
+            InternetChecksum.sum(rawData, 20, tcpLength)
+                + InternetChecksum.pseudoHeaderSum(srcAddr, dstAddr, IpNumber.TCP, tcpLength));
+    System.arraycopy(ByteArrays.toByteArray(tcpChecksum), 0, rawData, 36, 2);
+
+    TcpPacket packet = IpV4Packet.newPacket(rawData, 0, rawData.length).get(TcpPacket.class);
+    if (!packet.hasValidChecksum(srcAddr, dstAddr, false)) {
+      throw new AssertionError("Invalid checksum: " + packet);
+    }
+    return packet;
+  }
+
+  /** @return the sum of the array range. */
+  @Benchmark
+  public long sumArray() {
+    return InternetChecksum.sum(data, 0, data.length);
+  }
+
+  /** @return the sum of the direct buffer. */
+  @Benchmark
+  public long sumDirectBuffer() {
+    return InternetChecksum.sum(directData);
+  }
+
+  /** @return true if the checksum of the TCP segment is valid. */
+  @Benchmark
+  public boolean hasValidChecksum() {
+    return tcp.hasValidChecksum(srcAddr, dstAddr, false);
+  }
+
+  /** @return the checksum updated for a modified port. */
+  @Benchmark
+  public short update16() {
+    return InternetChecksum.update(checksum, oldPort, newPort);
+  }
+
+  /** @return the checksum updated for a modified IPv4 address. */
+  @Benchmark
+  public short update32() {
+    return InternetChecksum.update(checksum, oldAddr, newAddr);
+  }
+}
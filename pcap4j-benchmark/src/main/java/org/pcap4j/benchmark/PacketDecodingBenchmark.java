@@ -0,0 +1,90 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.util.ByteArrays;
+
+/**
+ * Measures the time and the allocation to decode a 74-byte Ethernet/IPv4/TCP frame with the static
+ * packet factories and to read the values cached by {@link org.pcap4j.packet.AbstractPacket
+ * AbstractPacket} and {@link org.pcap4j.packet.AbstractPacket.AbstractHeader AbstractHeader}.
+ *
+ * <p>Run with the GC profiler to see the bytes allocated per packet (<code>gc.alloc.rate.norm
+ * </code>):
+ *
+ * <pre>
+ * mvn -P benchmark -pl pcap4j-benchmark -am package
+ * java -jar pcap4j-benchmark/target/benchmarks.jar PacketDecodingBenchmark -prof gc
+ * </pre>
+ *
+ * <p>The caches are held by each packet and header as long as it's alive, so the objects they
+ * allocate count toward the resident size of the packets as well.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketDecodingBenchmark {
+
+  // A TCP SYN segment with the MSS, SACK permitted, timestamps, and window scale options.
+  private final byte[] frame =
+      ByteArrays.parseByteArray(
+          "001122334455" // dst MAC
+              + "0066778899aa" // src MAC
+              + "0800" // IPv4
+              + "4500003c1c4640004006b1e6c0a80001c0a800c7" // IPv4 header
+              + "c35000500000000000000000a002fad8f3c80000" // TCP header
+              + "020405b40402080a0000000000000000" // TCP options
+              + "01030307",
+          "");
+
+  /**
+   * @return a decoded packet.
+   * @throws IllegalRawDataException if the frame is malformed.
+   */
+  @Benchmark
+  public Packet decode() throws IllegalRawDataException {
+    return EthernetPacket.newPacket(frame, 0, frame.length);
+  }
+
+  /**
+   * Decodes a packet and reads its cached values, which are built on the first calls.
+   *
+   * @param bh bh
+   * @throws IllegalRawDataException if the frame is malformed.
+   */
+  @Benchmark
+  public void decodeAndRead(Blackhole bh) throws IllegalRawDataException {
+    Packet packet = EthernetPacket.newPacket(frame, 0, frame.length);
+    bh.consume(packet.length());
+    bh.consume(packet.getRawData());
+    bh.consume(packet.hashCode());
+    Packet.Header header = packet.getPayload().getHeader();
+    bh.consume(header.length());
+    bh.consume(header.hashCode());
+  }
+}
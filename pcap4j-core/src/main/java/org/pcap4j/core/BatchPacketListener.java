@@ -0,0 +1,21 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+/**
+ * A listener which receives all the packets processed by a single call of <code>pcap_dispatch()
+ * </code> at once.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public interface BatchPacketListener {
+
+  /** @param packets packets, which are never empty. */
+  public void gotPackets(PacketBatch packets);
+}
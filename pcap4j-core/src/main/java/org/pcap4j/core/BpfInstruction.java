@@ -0,0 +1,118 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.io.Serializable;
+
+/**
+ * An instruction of a BPF program, which corresponds to struct bpf_insn.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class BpfInstruction implements Serializable {
+
+  /** */
+  private static final long serialVersionUID = -2469727366733414416L;
+
+  private final short code;
+  private final byte jt;
+  private final byte jf;
+  private final int k;
+
+  private BpfInstruction(short code, byte jt, byte jf, int k) {
+    this.code = code;
+    this.jt = jt;
+    this.jf = jf;
+    this.k = k;
+  }
+
+  /**
+   * @param code the operation code.
+   * @param jt the offset to jump to if the condition is true.
+   * @param jf the offset to jump to if the condition is false.
+   * @param k the generic field.
+   * @return a new BpfInstruction object.
+   */
+  public static BpfInstruction newInstance(short code, byte jt, byte jf, int k) {
+    return new BpfInstruction(code, jt, jf, k);
+  }
+
+  /** @return code */
+  public short getCode() {
+    return code;
+  }
+
+  /** @return code */
+  public int getCodeAsInt() {
+    return code & 0xFFFF;
+  }
+
+  /** @return jt */
+  public byte getJt() {
+    return jt;
+  }
+
+  /** @return jt */
+  public int getJtAsInt() {
+    return jt & 0xFF;
+  }
+
+  /** @return jf */
+  public byte getJf() {
+    return jf;
+  }
+
+  /** @return jf */
+  public int getJfAsInt() {
+    return jf & 0xFF;
+  }
+
+  /** @return k */
+  public int getK() {
+    return k;
+  }
+
+  @Override
+  public String toString() {
+    // The format of "tcpdump -dd".
+    StringBuilder sb = new StringBuilder(50);
+    sb.append("{ 0x")
+        .append(Integer.toHexString(getCodeAsInt()))
+        .append(", ")
+        .append(getJtAsInt())
+        .append(", ")
+        .append(getJfAsInt())
+        .append(", 0x")
+        .append(String.format("%08x", k))
+        .append(" }");
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (!this.getClass().isInstance(obj)) {
+      return false;
+    }
+    BpfInstruction other = (BpfInstruction) obj;
+    return code == other.code && jt == other.jt && jf == other.jf && k == other.k;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 17;
+    result = 31 * result + code;
+    result = 31 * result + jt;
+    result = 31 * result + jf;
+    result = 31 * result + k;
+    return result;
+  }
+}
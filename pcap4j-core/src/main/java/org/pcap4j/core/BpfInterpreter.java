@@ -0,0 +1,475 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.util.Arrays;
+
+/**
+ * An interpreter of BPF programs in Java, which runs a program in the same way as bpf_filter() of
+ * libpcap without calling the native library.
+ *
+ * <p>A program is validated like bpf_validate() and translated into a compact form, where the
+ * operations are numbered densely and the jump offsets are resolved into the absolute indexes, when
+ * this object is created. An object of this class is immutable and thread-safe.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class BpfInterpreter {
+
+  /** The maximum number of instructions in a program. (BPF_MAXINSNS) */
+  public static final int MAX_INSTRUCTIONS = 4096;
+
+  private static final int MEM_WORDS = 16;
+
+  // The operations of the translated programs.
+  private static final int RET_K = 0;
+  private static final int RET_A = 1;
+  private static final int LD_W_ABS = 2;
+  private static final int LD_H_ABS = 3;
+  private static final int LD_B_ABS = 4;
+  private static final int LD_W_IND = 5;
+  private static final int LD_H_IND = 6;
+  private static final int LD_B_IND = 7;
+  private static final int LD_W_LEN = 8;
+  private static final int LDX_W_LEN = 9;
+  private static final int LDX_B_MSH = 10;
+  private static final int LD_IMM = 11;
+  private static final int LDX_IMM = 12;
+  private static final int LD_MEM = 13;
+  private static final int LDX_MEM = 14;
+  private static final int ST = 15;
+  private static final int STX = 16;
+  private static final int JA = 17;
+  private static final int JEQ_K = 18;
+  private static final int JGT_K = 19;
+  private static final int JGE_K = 20;
+  private static final int JSET_K = 21;
+  private static final int JEQ_X = 22;
+  private static final int JGT_X = 23;
+  private static final int JGE_X = 24;
+  private static final int JSET_X = 25;
+  private static final int ADD_K = 26;
+  private static final int SUB_K = 27;
+  private static final int MUL_K = 28;
+  private static final int DIV_K = 29;
+  private static final int MOD_K = 30;
+  private static final int AND_K = 31;
+  private static final int OR_K = 32;
+  private static final int XOR_K = 33;
+  private static final int LSH_K = 34;
+  private static final int RSH_K = 35;
+  private static final int ADD_X = 36;
+  private static final int SUB_X = 37;
+  private static final int MUL_X = 38;
+  private static final int DIV_X = 39;
+  private static final int MOD_X = 40;
+  private static final int AND_X = 41;
+  private static final int OR_X = 42;
+  private static final int XOR_X = 43;
+  private static final int LSH_X = 44;
+  private static final int RSH_X = 45;
+  private static final int NEG = 46;
+  private static final int TAX = 47;
+  private static final int TXA = 48;
+
+  /** The operations indexed by the codes of struct bpf_insn. -1 for invalid codes. */
+  private static final int[] OPERATIONS = new int[256];
+
+  static {
+    Arrays.fill(OPERATIONS, -1);
+    OPERATIONS[0x06] = RET_K; // BPF_RET|BPF_K
+    OPERATIONS[0x16] = RET_A; // BPF_RET|BPF_A
+    OPERATIONS[0x20] = LD_W_ABS; // BPF_LD|BPF_W|BPF_ABS
+    OPERATIONS[0x28] = LD_H_ABS; // BPF_LD|BPF_H|BPF_ABS
+    OPERATIONS[0x30] = LD_B_ABS; // BPF_LD|BPF_B|BPF_ABS
+    OPERATIONS[0x40] = LD_W_IND; // BPF_LD|BPF_W|BPF_IND
+    OPERATIONS[0x48] = LD_H_IND; // BPF_LD|BPF_H|BPF_IND
+    OPERATIONS[0x50] = LD_B_IND; // BPF_LD|BPF_B|BPF_IND
+    OPERATIONS[0x80] = LD_W_LEN; // BPF_LD|BPF_W|BPF_LEN
+    OPERATIONS[0x81] = LDX_W_LEN; // BPF_LDX|BPF_W|BPF_LEN
+    OPERATIONS[0xb1] = LDX_B_MSH; // BPF_LDX|BPF_B|BPF_MSH
+    OPERATIONS[0x00] = LD_IMM; // BPF_LD|BPF_IMM
+    OPERATIONS[0x01] = LDX_IMM; // BPF_LDX|BPF_IMM
+    OPERATIONS[0x60] = LD_MEM; // BPF_LD|BPF_MEM
+    OPERATIONS[0x61] = LDX_MEM; // BPF_LDX|BPF_MEM
+    OPERATIONS[0x02] = ST; // BPF_ST
+    OPERATIONS[0x03] = STX; // BPF_STX
+    OPERATIONS[0x05] = JA; // BPF_JMP|BPF_JA
+    OPERATIONS[0x15] = JEQ_K; // BPF_JMP|BPF_JEQ|BPF_K
+    OPERATIONS[0x25] = JGT_K; // BPF_JMP|BPF_JGT|BPF_K
+    OPERATIONS[0x35] = JGE_K; // BPF_JMP|BPF_JGE|BPF_K
+    OPERATIONS[0x45] = JSET_K; // BPF_JMP|BPF_JSET|BPF_K
+    OPERATIONS[0x1d] = JEQ_X; // BPF_JMP|BPF_JEQ|BPF_X
+    OPERATIONS[0x2d] = JGT_X; // BPF_JMP|BPF_JGT|BPF_X
+    OPERATIONS[0x3d] = JGE_X; // BPF_JMP|BPF_JGE|BPF_X
+    OPERATIONS[0x4d] = JSET_X; // BPF_JMP|BPF_JSET|BPF_X
+    // BPF_ALU|BPF_ADD|BPF_K, BPF_SUB, BPF_MUL, BPF_DIV, BPF_MOD, BPF_AND, BPF_OR, BPF_XOR, BPF_LSH,
+    // and BPF_RSH, and then the BPF_X variants.
+    int[] aluCodes = {0x04, 0x14, 0x24, 0x34, 0x94, 0x54, 0x44, 0xa4, 0x64, 0x74};
+    for (int i = 0; i < aluCodes.length; i++) {
+      OPERATIONS[aluCodes[i]] = ADD_K + i;
+      OPERATIONS[aluCodes[i] | 0x08] = ADD_X + i;
+    }
+    OPERATIONS[0x84] = NEG; // BPF_ALU|BPF_NEG
+    OPERATIONS[0x07] = TAX; // BPF_MISC|BPF_TAX
+    OPERATIONS[0x87] = TXA; // BPF_MISC|BPF_TXA
+  }
+
+  private final BpfInstruction[] instructions;
+  private final int[] operations;
+  private final int[] ks;
+  private final int[] trueTargets;
+  private final int[] falseTargets;
+  private final boolean usesMemory;
+
+  private BpfInterpreter(BpfInstruction[] instructions) {
+    int length = instructions.length;
+    if (length == 0 || length > MAX_INSTRUCTIONS) {
+      throw new IllegalArgumentException("Invalid number of instructions: " + length);
+    }
+
+    this.instructions = instructions.clone();
+    this.operations = new int[length];
+    this.ks = new int[length];
+    this.trueTargets = new int[length];
+    this.falseTargets = new int[length];
+    boolean memory = false;
+    for (int pc = 0; pc < length; pc++) {
+      BpfInstruction insn = this.instructions[pc];
+      if (insn == null) {
+        throw new NullPointerException("instructions[" + pc + "] is null.");
+      }
+      int code = insn.getCodeAsInt();
+      int operation = code < OPERATIONS.length ? OPERATIONS[code] : -1;
+      if (operation < 0) {
+        throw new IllegalArgumentException("Invalid code at " + pc + ": " + insn);
+      }
+      int k = insn.getK();
+      switch (operation) {
+        case LD_MEM:
+        case LDX_MEM:
+        case ST:
+        case STX:
+          if (k < 0 || k >= MEM_WORDS) {
+            throw new IllegalArgumentException("Invalid memory index at " + pc + ": " + insn);
+          }
+          memory = true;
+          break;
+        case DIV_K:
+        case MOD_K:
+          if (k == 0) {
+            throw new IllegalArgumentException("Division by zero at " + pc + ": " + insn);
+          }
+          break;
+        case JA:
+          if (k < 0 || k >= length - pc - 1) {
+            throw new IllegalArgumentException("Invalid jump at " + pc + ": " + insn);
+          }
+          trueTargets[pc] = pc + 1 + k;
+          break;
+        case JEQ_K:
+        case JGT_K:
+        case JGE_K:
+        case JSET_K:
+        case JEQ_X:
+        case JGT_X:
+        case JGE_X:
+        case JSET_X:
+          trueTargets[pc] = pc + 1 + insn.getJtAsInt();
+          falseTargets[pc] = pc + 1 + insn.getJfAsInt();
+          if (trueTargets[pc] >= length || falseTargets[pc] >= length) {
+            throw new IllegalArgumentException("Invalid jump at " + pc + ": " + insn);
+          }
+          break;
+        default:
+          break;
+      }
+      operations[pc] = operation;
+      ks[pc] = k;
+    }
+    if (operations[length - 1] != RET_K && operations[length - 1] != RET_A) {
+      throw new IllegalArgumentException("The last instruction isn't a return.");
+    }
+    this.usesMemory = memory;
+  }
+
+  /**
+   * Validates a program and creates an interpreter of it.
+   *
+   * @param instructions the instructions of a program.
+   * @return a new BpfInterpreter object.
+   * @throws IllegalArgumentException if the program is invalid.
+   */
+  public static BpfInterpreter newInstance(BpfInstruction... instructions) {
+    if (instructions == null) {
+      throw new NullPointerException("instructions must not be null.");
+    }
+    return new BpfInterpreter(instructions);
+  }
+
+  /** @return the instructions of the program. */
+  public BpfInstruction[] getInstructions() {
+    return instructions.clone();
+  }
+
+  /**
+   * Apply the filter on a given packet. Return true if the packet given passes the filter.
+   *
+   * @param packet the packet to apply the filter on
+   * @return true if the packet passes the filter; false otherwise.
+   */
+  public boolean applyFilter(byte[] packet) {
+    return execute(packet, 0, packet.length, packet.length) != 0;
+  }
+
+  /**
+   * Apply the filter on a given packet. Return true if the packet given passes the filter.
+   *
+   * @param packet a byte array including the packet to apply the filter on
+   * @param orgPacketLen the length of the original packet
+   * @param packetLen the length of the packet present
+   * @return true if the packet passes the filter; false otherwise.
+   */
+  public boolean applyFilter(byte[] packet, int orgPacketLen, int packetLen) {
+    return execute(packet, 0, orgPacketLen, packetLen) != 0;
+  }
+
+  /**
+   * Runs the program on a packet like bpf_filter().
+   *
+   * @param packet a byte array including the packet
+   * @param offset the offset of the packet in the array
+   * @param orgPacketLen the length of the original packet
+   * @param packetLen the length of the packet present
+   * @return the value the program returns, which is the number of the bytes to capture. 0 if the
+   *     packet doesn't pass the filter or the program has read beyond the packet.
+   */
+  public int execute(byte[] packet, int offset, int orgPacketLen, int packetLen) {
+    if (offset < 0 || packetLen < 0 || offset > packet.length - packetLen) {
+      StringBuilder sb = new StringBuilder(100);
+      sb.append("packet.length: ")
+          .append(packet.length)
+          .append(", offset: ")
+          .append(offset)
+          .append(", packetLen: ")
+          .append(packetLen);
+      throw new ArrayIndexOutOfBoundsException(sb.toString());
+    }
+
+    int[] mem = usesMemory ? new int[MEM_WORDS] : null;
+    int a = 0;
+    int x = 0;
+    int pc = 0;
+    while (true) {
+      int k = ks[pc];
+      long index;
+      switch (operations[pc]) {
+        case RET_K:
+          return k;
+        case RET_A:
+          return a;
+        case LD_W_ABS:
+          if (k < 0 || k > packetLen - 4) {
+            return 0;
+          }
+          a = getInt(packet, offset + k);
+          break;
+        case LD_H_ABS:
+          if (k < 0 || k > packetLen - 2) {
+            return 0;
+          }
+          a = getShort(packet, offset + k);
+          break;
+        case LD_B_ABS:
+          if (k < 0 || k >= packetLen) {
+            return 0;
+          }
+          a = packet[offset + k] & 0xFF;
+          break;
+        case LD_W_IND:
+          index = (x & 0xFFFFFFFFL) + (k & 0xFFFFFFFFL);
+          if (index + 4 > packetLen) {
+            return 0;
+          }
+          a = getInt(packet, offset + (int) index);
+          break;
+        case LD_H_IND:
+          index = (x & 0xFFFFFFFFL) + (k & 0xFFFFFFFFL);
+          if (index + 2 > packetLen) {
+            return 0;
+          }
+          a = getShort(packet, offset + (int) index);
+          break;
+        case LD_B_IND:
+          index = (x & 0xFFFFFFFFL) + (k & 0xFFFFFFFFL);
+          if (index >= packetLen) {
+            return 0;
+          }
+          a = packet[offset + (int) index] & 0xFF;
+          break;
+        case LD_W_LEN:
+          a = orgPacketLen;
+          break;
+        case LDX_W_LEN:
+          x = orgPacketLen;
+          break;
+        case LDX_B_MSH:
+          if (k < 0 || k >= packetLen) {
+            return 0;
+          }
+          x = (packet[offset + k] & 0x0F) << 2;
+          break;
+        case LD_IMM:
+          a = k;
+          break;
+        case LDX_IMM:
+          x = k;
+          break;
+        case LD_MEM:
+          a = mem[k];
+          break;
+        case LDX_MEM:
+          x = mem[k];
+          break;
+        case ST:
+          mem[k] = a;
+          break;
+        case STX:
+          mem[k] = x;
+          break;
+        case JA:
+          pc = trueTargets[pc];
+          continue;
+        case JEQ_K:
+          pc = a == k ? trueTargets[pc] : falseTargets[pc];
+          continue;
+        case JGT_K:
+          pc =
+              (a ^ Integer.MIN_VALUE) > (k ^ Integer.MIN_VALUE)
+                  ? trueTargets[pc]
+                  : falseTargets[pc];
+          continue;
+        case JGE_K:
+          pc =
+              (a ^ Integer.MIN_VALUE) >= (k ^ Integer.MIN_VALUE)
+                  ? trueTargets[pc]
+                  : falseTargets[pc];
+          continue;
+        case JSET_K:
+          pc = (a & k) != 0 ? trueTargets[pc] : falseTargets[pc];
+          continue;
+        case JEQ_X:
+          pc = a == x ? trueTargets[pc] : falseTargets[pc];
+          continue;
+        case JGT_X:
+          pc =
+              (a ^ Integer.MIN_VALUE) > (x ^ Integer.MIN_VALUE)
+                  ? trueTargets[pc]
+                  : falseTargets[pc];
+          continue;
+        case JGE_X:
+          pc =
+              (a ^ Integer.MIN_VALUE) >= (x ^ Integer.MIN_VALUE)
+                  ? trueTargets[pc]
+                  : falseTargets[pc];
+          continue;
+        case JSET_X:
+          pc = (a & x) != 0 ? trueTargets[pc] : falseTargets[pc];
+          continue;
+        case ADD_K:
+          a += k;
+          break;
+        case ADD_X:
+          a += x;
+          break;
+        case SUB_K:
+          a -= k;
+          break;
+        case SUB_X:
+          a -= x;
+          break;
+        case MUL_K:
+          a *= k;
+          break;
+        case MUL_X:
+          a *= x;
+          break;
+        case DIV_K:
+          a = (int) ((a & 0xFFFFFFFFL) / (k & 0xFFFFFFFFL));
+          break;
+        case DIV_X:
+          if (x == 0) {
+            return 0;
+          }
+          a = (int) ((a & 0xFFFFFFFFL) / (x & 0xFFFFFFFFL));
+          break;
+        case MOD_K:
+          a = (int) ((a & 0xFFFFFFFFL) % (k & 0xFFFFFFFFL));
+          break;
+        case MOD_X:
+          if (x == 0) {
+            return 0;
+          }
+          a = (int) ((a & 0xFFFFFFFFL) % (x & 0xFFFFFFFFL));
+          break;
+        case AND_K:
+          a &= k;
+          break;
+        case AND_X:
+          a &= x;
+          break;
+        case OR_K:
+          a |= k;
+          break;
+        case OR_X:
+          a |= x;
+          break;
+        case XOR_K:
+          a ^= k;
+          break;
+        case XOR_X:
+          a ^= x;
+          break;
+        case LSH_K:
+          // Unlike Java, shifting by 32 or more bits results in 0.
+          a = k >= 0 && k < 32 ? a << k : 0;
+          break;
+        case LSH_X:
+          a = x >= 0 && x < 32 ? a << x : 0;
+          break;
+        case RSH_K:
+          a = k >= 0 && k < 32 ? a >>> k : 0;
+          break;
+        case RSH_X:
+          a = x >= 0 && x < 32 ? a >>> x : 0;
+          break;
+        case NEG:
+          a = -a;
+          break;
+        case TAX:
+          x = a;
+          break;
+        case TXA:
+          a = x;
+          break;
+        default:
+          throw new AssertionError("Never get here.");
+      }
+      pc++;
+    }
+  }
+
+  private static int getShort(byte[] data, int offset) {
+    return (data[offset] & 0xFF) << 8 | (data[offset + 1] & 0xFF);
+  }
+
+  private static int getInt(byte[] data, int offset) {
+    return getShort(data, offset) << 16 | getShort(data, offset + 2);
+  }
+}
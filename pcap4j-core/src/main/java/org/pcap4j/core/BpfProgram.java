@@ -7,8 +7,11 @@
 
 package org.pcap4j.core;
 
+import com.sun.jna.Pointer;
 import org.pcap4j.core.NativeMappings.bpf_program;
 import org.pcap4j.packet.Packet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Kaito Yamada
@@ -16,10 +19,14 @@ import org.pcap4j.packet.Packet;
  */
 public final class BpfProgram {
 
+  private static final Logger logger = LoggerFactory.getLogger(BpfProgram.class);
+
   private final bpf_program program;
   private final String expression;
   private volatile boolean freed = false;
   private final Object lock = new Object();
+  private volatile BpfInterpreter interpreter = null;
+  private volatile boolean interpretable = true;
 
   BpfProgram(bpf_program program, String expression) {
     this.program = program;
@@ -67,6 +74,16 @@ public final class BpfProgram {
    * @return true if this program is not freed and the packet passes the filter; false otherwise.
    */
   public boolean applyFilter(byte[] packet, int orgPacketLen, int packetLen) {
+    if (freed) {
+      return false;
+    }
+
+    // The interpreter works on a copy of the program and doesn't need the lock.
+    BpfInterpreter interp = prepareInterpreter();
+    if (interp != null) {
+      return interp.applyFilter(packet, orgPacketLen, packetLen);
+    }
+
     synchronized (lock) {
       if (freed) {
         return false;
@@ -80,6 +97,72 @@ public final class BpfProgram {
     }
   }
 
+  /**
+   * Copies the instructions of this program out of the native memory.
+   *
+   * @return the instructions of this program.
+   * @throws IllegalStateException if this program has been freed.
+   */
+  public BpfInstruction[] getInstructions() {
+    synchronized (lock) {
+      if (freed) {
+        throw new IllegalStateException("This program has been freed.");
+      }
+
+      if (program.bf_insns == null) {
+        program.read();
+      }
+
+      BpfInstruction[] instructions = new BpfInstruction[program.bf_len];
+      Pointer insns = program.bf_insns.getPointer();
+      for (int i = 0; i < instructions.length; i++) {
+        // struct bpf_insn is 8 bytes: u_short code, u_char jt, u_char jf, and bpf_u_int32 k.
+        long offset = i * 8L;
+        instructions[i] =
+            BpfInstruction.newInstance(
+                insns.getShort(offset),
+                insns.getByte(offset + 2),
+                insns.getByte(offset + 3),
+                insns.getInt(offset + 4));
+      }
+      return instructions;
+    }
+  }
+
+  /**
+   * Returns the interpreter which runs this program in Java. {@link #applyFilter(byte[], int, int)}
+   * uses it instead of bpf_filter() of the native library, if the program is valid for it.
+   *
+   * @return a {@link BpfInterpreter} of this program, or null if this program can't be interpreted.
+   * @throws IllegalStateException if this program has been freed before the interpreter is created.
+   */
+  public BpfInterpreter getInterpreter() {
+    BpfInterpreter interp = prepareInterpreter();
+    if (interp == null && interpretable) {
+      throw new IllegalStateException("This program has been freed.");
+    }
+    return interp;
+  }
+
+  private BpfInterpreter prepareInterpreter() {
+    BpfInterpreter interp = interpreter;
+    if (interp != null || !interpretable) {
+      return interp;
+    }
+
+    synchronized (lock) {
+      if (interpreter == null && interpretable && !freed) {
+        try {
+          interpreter = BpfInterpreter.newInstance(getInstructions());
+        } catch (IllegalArgumentException e) {
+          logger.warn("Falling back to bpf_filter() for \"" + expression + "\": " + e.getMessage());
+          interpretable = false;
+        }
+      }
+      return interpreter;
+    }
+  }
+
   /** @return true if the bpf_program represented by this object is freed; false otherwise. */
   public boolean isFreed() {
     return freed;
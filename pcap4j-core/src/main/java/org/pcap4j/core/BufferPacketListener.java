@@ -0,0 +1,24 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+/**
+ * A listener which receives captured packets as {@link PacketBuffer}s without copying them to the
+ * Java heap.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public interface BufferPacketListener {
+
+  /**
+   * @param packet packet, which is valid only until this method returns. Call {@link
+   *     PacketBuffer#copy()} to keep the data.
+   */
+  public void gotPacket(PacketBuffer packet);
+}
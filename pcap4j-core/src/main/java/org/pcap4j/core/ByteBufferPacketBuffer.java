@@ -0,0 +1,129 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link PacketBuffer} over a region of a {@link ByteBuffer}. The same instance is re-pointed to
+ * each packet by {@link #reset(ByteBuffer, int, int, int, long, int)} and invalidated by {@link
+ * #invalidate()}.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+final class ByteBufferPacketBuffer extends PacketBuffer {
+
+  private ByteBuffer buffer;
+  private int offset;
+  private int caplen;
+  private int len;
+  private long timestampSeconds;
+  private int timestampNanos;
+
+  /**
+   * @param buffer a buffer whose byte order is {@link ByteOrder#BIG_ENDIAN}.
+   * @param offset the offset of the packet in the buffer.
+   * @param caplen the captured length of the packet.
+   * @param len the original length of the packet.
+   * @param timestampSeconds the seconds part of the timestamp.
+   * @param timestampNanos the nanoseconds part of the timestamp.
+   */
+  void reset(
+      ByteBuffer buffer,
+      int offset,
+      int caplen,
+      int len,
+      long timestampSeconds,
+      int timestampNanos) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.caplen = caplen;
+    this.len = len;
+    this.timestampSeconds = timestampSeconds;
+    this.timestampNanos = timestampNanos;
+  }
+
+  void invalidate() {
+    this.buffer = null;
+    this.offset = 0;
+    this.caplen = 0;
+    this.len = 0;
+    this.timestampSeconds = 0;
+    this.timestampNanos = 0;
+  }
+
+  private ByteBuffer buffer() {
+    if (buffer == null) {
+      throw new IllegalStateException("This PacketBuffer is no longer valid.");
+    }
+    return buffer;
+  }
+
+  @Override
+  public int length() {
+    return caplen;
+  }
+
+  @Override
+  public int getOriginalLength() {
+    return len;
+  }
+
+  @Override
+  public long getTimestampSeconds() {
+    buffer();
+    return timestampSeconds;
+  }
+
+  @Override
+  public int getTimestampNanos() {
+    buffer();
+    return timestampNanos;
+  }
+
+  @Override
+  public byte getByte(int index) {
+    ByteBuffer b = buffer();
+    checkIndex(index, 1);
+    return b.get(offset + index);
+  }
+
+  @Override
+  public short getShort(int index) {
+    ByteBuffer b = buffer();
+    checkIndex(index, 2);
+    return b.getShort(offset + index);
+  }
+
+  @Override
+  public int getInt(int index) {
+    ByteBuffer b = buffer();
+    checkIndex(index, 4);
+    return b.getInt(offset + index);
+  }
+
+  @Override
+  public void getBytes(int index, byte[] dst, int dstOffset, int length) {
+    ByteBuffer b = buffer();
+    checkIndex(index, length);
+    ByteBuffer d = b.duplicate();
+    ((Buffer) d).position(offset + index);
+    d.get(dst, dstOffset, length);
+  }
+
+  @Override
+  public ByteBuffer asByteBuffer() {
+    ByteBuffer d = buffer().duplicate();
+    ((Buffer) d).limit(offset + caplen);
+    ((Buffer) d).position(offset);
+    return d.slice().asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+  }
+}
@@ -51,6 +51,11 @@ final class NativeMappings {
 
   static final int SBIOCSTIME = 0x4201;
 
+  // see linux/if_packet.h
+  static final int SOL_PACKET = 263;
+  static final int PACKET_FANOUT = 18;
+  static final int PACKET_FANOUT_FLAG_DEFRAG = 0x8000;
+
   static final Pointer ERRNO_P =
       Platform.isSolaris()
           ? NativeLibrary.getInstance(PCAP_LIB_NAME).getGlobalVariableAddress("errno")
@@ -78,6 +83,7 @@ final class NativeMappings {
     funcMap.put("pcap_open_dead_with_tstamp_precision", "pcap_open_dead_with_tstamp_precision");
     funcMap.put("pcap_set_tstamp_precision", "pcap_set_tstamp_precision");
     funcMap.put("pcap_set_immediate_mode", "pcap_set_immediate_mode");
+    funcMap.put("setsockopt", "setsockopt");
 
     NATIVE_LOAD_LIBRARY_OPTIONS.put(
         Library.OPTION_FUNCTION_MAPPER,
@@ -137,6 +143,10 @@ final class NativeMappings {
   // void pcap_dump(u_char *user, const struct pcap_pkthdr *h, const u_char *sp)
   static native void pcap_dump(Pointer user, pcap_pkthdr header, byte[] packet);
 
+  static native void pcap_dump(Pointer user, Pointer header, byte[] packet);
+
+  static native void pcap_dump(Pointer user, Pointer header, Pointer packet);
+
   // int pcap_dump_flush(pcap_dumper_t *p)
   static native int pcap_dump_flush(Pointer p);
 
@@ -191,6 +201,8 @@ final class NativeMappings {
   // int pcap_sendpacket(pcap_t *p, const u_char *buf, int size)
   static native int pcap_sendpacket(Pointer p, byte[] buf, int size);
 
+  static native int pcap_sendpacket(Pointer p, Pointer buf, int size);
+
   // void pcap_close(pcap_t *p)
   static native void pcap_close(Pointer p);
 
@@ -260,6 +272,9 @@ final class NativeMappings {
   // int pcap_activate(pcap_t *p)
   static native int pcap_activate(Pointer p);
 
+  // int pcap_fileno(pcap_t *p)
+  static native int pcap_fileno(Pointer p);
+
   // interface mappings
   interface PcapLibrary extends Library {
 
@@ -296,6 +311,9 @@ final class NativeMappings {
 
     // int pcap_set_immediate_mode(pcap_t *p, int immediate_mode)
     int pcap_set_immediate_mode(Pointer p, int immediate_mode);
+
+    // int setsockopt(int sockfd, int level, int optname, const void *optval, socklen_t optlen)
+    int setsockopt(int sockfd, int level, int optname, IntByReference optval, int optlen);
   }
 
   static interface pcap_handler extends Callback {
@@ -603,6 +621,7 @@ final class NativeMappings {
     public static final int TS_OFFSET;
     public static final int CAPLEN_OFFSET;
     public static final int LEN_OFFSET;
+    public static final int SIZE;
 
     public timeval ts; // struct timeval
     public int caplen; // bpf_u_int32
@@ -613,6 +632,7 @@ final class NativeMappings {
       TS_OFFSET = ph.fieldOffset("ts");
       CAPLEN_OFFSET = ph.fieldOffset("caplen");
       LEN_OFFSET = ph.fieldOffset("len");
+      SIZE = ph.size();
     }
 
     public pcap_pkthdr() {}
@@ -633,12 +653,42 @@ final class NativeMappings {
       return list;
     }
 
-    static NativeLong getTvSec(Pointer p) {
-      return p.getNativeLong(TS_OFFSET + timeval.TV_SEC_OFFSET);
+    static long getTvSecAsLong(Pointer p) {
+      return getNativeLongValue(p, TS_OFFSET + timeval.TV_SEC_OFFSET);
+    }
+
+    static long getTvUsecAsLong(Pointer p) {
+      return getNativeLongValue(p, TS_OFFSET + timeval.TV_USEC_OFFSET);
+    }
+
+    static void setTvSec(Pointer p, long tvSec) {
+      setNativeLongValue(p, TS_OFFSET + timeval.TV_SEC_OFFSET, tvSec);
     }
 
-    static NativeLong getTvUsec(Pointer p) {
-      return p.getNativeLong(TS_OFFSET + timeval.TV_USEC_OFFSET);
+    static void setTvUsec(Pointer p, long tvUsec) {
+      setNativeLongValue(p, TS_OFFSET + timeval.TV_USEC_OFFSET, tvUsec);
+    }
+
+    static void setCaplen(Pointer p, int caplen) {
+      p.setInt(CAPLEN_OFFSET, caplen);
+    }
+
+    static void setLen(Pointer p, int len) {
+      p.setInt(LEN_OFFSET, len);
+    }
+
+    // reads a C long without allocating a NativeLong.
+    private static long getNativeLongValue(Pointer p, int offset) {
+      return Native.LONG_SIZE == 8 ? p.getLong(offset) : p.getInt(offset);
+    }
+
+    // writes a C long without allocating a NativeLong.
+    private static void setNativeLongValue(Pointer p, int offset, long value) {
+      if (Native.LONG_SIZE == 8) {
+        p.setLong(offset, value);
+      } else {
+        p.setInt(offset, (int) value);
+      }
     }
 
     static int getCaplen(Pointer p) {
@@ -0,0 +1,113 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import com.sun.jna.Pointer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.pcap4j.core.NativeMappings.pcap_pkthdr;
+
+/**
+ * A {@link PacketBuffer} over a packet in the buffer of the pcap library. The same instance is
+ * re-pointed to each packet by {@link #reset(Pointer, Pointer, long, int)} and invalidated by
+ * {@link #invalidate()}.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+final class NativePacketBuffer extends PacketBuffer {
+
+  private static final boolean NEEDS_SWAP =
+      NativeMappings.NATIVE_BYTE_ORDER.equals(ByteOrder.LITTLE_ENDIAN);
+
+  private Pointer data;
+  private int caplen;
+  private int len;
+  private long timestampSeconds;
+  private int timestampNanos;
+
+  void reset(Pointer header, Pointer data, long timestampSeconds, int timestampNanos) {
+    this.data = data;
+    this.caplen = pcap_pkthdr.getCaplen(header);
+    this.len = pcap_pkthdr.getLen(header);
+    this.timestampSeconds = timestampSeconds;
+    this.timestampNanos = timestampNanos;
+  }
+
+  void invalidate() {
+    this.data = null;
+    this.caplen = 0;
+    this.len = 0;
+    this.timestampSeconds = 0;
+    this.timestampNanos = 0;
+  }
+
+  private Pointer data() {
+    if (data == null) {
+      throw new IllegalStateException("This PacketBuffer is no longer valid.");
+    }
+    return data;
+  }
+
+  @Override
+  public int length() {
+    return caplen;
+  }
+
+  @Override
+  public int getOriginalLength() {
+    return len;
+  }
+
+  @Override
+  public long getTimestampSeconds() {
+    data();
+    return timestampSeconds;
+  }
+
+  @Override
+  public int getTimestampNanos() {
+    data();
+    return timestampNanos;
+  }
+
+  @Override
+  public byte getByte(int index) {
+    Pointer p = data();
+    checkIndex(index, 1);
+    return p.getByte(index);
+  }
+
+  @Override
+  public short getShort(int index) {
+    Pointer p = data();
+    checkIndex(index, 2);
+    short value = p.getShort(index);
+    return NEEDS_SWAP ? Short.reverseBytes(value) : value;
+  }
+
+  @Override
+  public int getInt(int index) {
+    Pointer p = data();
+    checkIndex(index, 4);
+    int value = p.getInt(index);
+    return NEEDS_SWAP ? Integer.reverseBytes(value) : value;
+  }
+
+  @Override
+  public void getBytes(int index, byte[] dst, int dstOffset, int length) {
+    Pointer p = data();
+    checkIndex(index, length);
+    p.read(index, dst, dstOffset, length);
+  }
+
+  @Override
+  public ByteBuffer asByteBuffer() {
+    return data().getByteBuffer(0, caplen).asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+  }
+}
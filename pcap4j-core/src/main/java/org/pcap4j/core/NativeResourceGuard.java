@@ -0,0 +1,120 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Guards a native resource such as a pcap_t against being freed while it's in use.
+ *
+ * <p>Users of the resource call {@link #enter()} and {@link #exit()} around each use, which costs a
+ * compare-and-set and a decrement on a counter. {@link #close()} makes further {@link #enter()}s
+ * fail and blocks until all the users in progress have exited, after which the resource can be
+ * freed safely. Unlike a read lock, a thread which has entered doesn't record anything in
+ * thread-local storage, and entering multiple times from the same thread is allowed.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+final class NativeResourceGuard {
+
+  private static final int CLOSED = 0x80000000;
+
+  // CLOSED bit | the number of users in progress
+  private final AtomicInteger state = new AtomicInteger(0);
+  private volatile Thread closer = null;
+
+  /** @return true if entered; false if this guard has been closed. */
+  boolean enter() {
+    for (; ; ) {
+      int s = state.get();
+      if ((s & CLOSED) != 0) {
+        return false;
+      }
+      if (state.compareAndSet(s, s + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Must be called once for each successful {@link #enter()}. */
+  void exit() {
+    if (state.decrementAndGet() == CLOSED) {
+      Thread t = closer;
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+    }
+  }
+
+  /** @return true if this guard has been closed; false otherwise. */
+  boolean isClosed() {
+    return (state.get() & CLOSED) != 0;
+  }
+
+  /**
+   * Makes further {@link #enter()}s fail and waits for all the users in progress to exit. Must not
+   * be called by a thread which has entered and not exited.
+   *
+   * @return true if this call closed this guard; false if it had already been closed.
+   */
+  boolean close() {
+    return close(null);
+  }
+
+  /**
+   * Makes further {@link #enter()}s fail, runs the given task, and waits for all the users in
+   * progress to exit. The task is for waking up the users which may block in the resource, e.g. by
+   * pcap_breakloop(), and can use the resource since it's not freed yet. Must not be called by a
+   * thread which has entered and not exited.
+   *
+   * @param wakeUp a task to be run before waiting, or null.
+   * @return true if this call closed this guard; false if it had already been closed.
+   */
+  boolean close(Runnable wakeUp) {
+    for (; ; ) {
+      int s = state.get();
+      if ((s & CLOSED) != 0) {
+        return false;
+      }
+      if (state.compareAndSet(s, s | CLOSED)) {
+        break;
+      }
+    }
+
+    closer = Thread.currentThread();
+    if (wakeUp != null && state.get() != CLOSED) {
+      wakeUp.run();
+    }
+    boolean interrupted = false;
+    while (state.get() != CLOSED) {
+      LockSupport.park(this);
+      if (Thread.interrupted()) {
+        interrupted = true;
+      }
+    }
+    closer = null;
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    int s = state.get();
+    StringBuilder sb = new StringBuilder(40);
+    sb.append("[Closed: ")
+        .append((s & CLOSED) != 0)
+        .append(" Users: ")
+        .append(s & ~CLOSED)
+        .append("]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,227 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import com.sun.jna.Pointer;
+import java.sql.Timestamp;
+
+/**
+ * A batch of packets captured by a single call of {@link PcapHandle#dispatch(int, PacketBatch)}.
+ *
+ * <p>The data of all the packets in a batch are packed into one byte array which is returned by
+ * {@link #getBuffer()}, and each packet is located by {@link #getOffset(int)} and {@link
+ * #getLength(int)}. The arrays are grown as needed and reused after {@link #clear()}, so that a
+ * PacketBatch can be filled over and over without allocating per packet.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class PacketBatch {
+
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private byte[] buffer;
+  private int bufferUsed = 0;
+  private int size = 0;
+  private int[] offsets;
+  private int[] lengths;
+  private int[] originalLengths;
+  private long[] timestampSeconds;
+  private int[] timestampNanos;
+
+  /** */
+  public PacketBatch() {
+    this(DEFAULT_CAPACITY, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param initialCapacity the number of packets this batch can hold before growing.
+   * @param initialBufferSize the size (in bytes) of the buffer before growing.
+   * @throws IllegalArgumentException if any of the arguments is not positive.
+   */
+  public PacketBatch(int initialCapacity, int initialBufferSize) {
+    if (initialCapacity <= 0 || initialBufferSize <= 0) {
+      StringBuilder sb = new StringBuilder(80);
+      sb.append("initialCapacity: ")
+          .append(initialCapacity)
+          .append(" initialBufferSize: ")
+          .append(initialBufferSize);
+      throw new IllegalArgumentException(sb.toString());
+    }
+    this.buffer = new byte[initialBufferSize];
+    this.offsets = new int[initialCapacity];
+    this.lengths = new int[initialCapacity];
+    this.originalLengths = new int[initialCapacity];
+    this.timestampSeconds = new long[initialCapacity];
+    this.timestampNanos = new int[initialCapacity];
+  }
+
+  /** @return the number of packets in this batch. */
+  public int size() {
+    return size;
+  }
+
+  /** @return true if this batch has no packets; false otherwise. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Removes all the packets from this batch. The internal arrays are kept for reuse. */
+  public void clear() {
+    size = 0;
+    bufferUsed = 0;
+  }
+
+  /**
+   * Returns the internal buffer which holds the data of all the packets in this batch. The returned
+   * array is not a copy and must not be modified. It may be longer than the total length of the
+   * packets.
+   *
+   * @return the internal buffer.
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return the offset of the packet in {@link #getBuffer()}.
+   */
+  public int getOffset(int index) {
+    checkIndex(index);
+    return offsets[index];
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return the captured length of the packet.
+   */
+  public int getLength(int index) {
+    checkIndex(index);
+    return lengths[index];
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return the original length of the packet.
+   */
+  public int getOriginalLength(int index) {
+    checkIndex(index);
+    return originalLengths[index];
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return the seconds part of the timestamp of the packet since the epoch.
+   */
+  public long getTimestampSeconds(int index) {
+    checkIndex(index);
+    return timestampSeconds[index];
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return the nanoseconds part of the timestamp of the packet.
+   */
+  public int getTimestampNanos(int index) {
+    checkIndex(index);
+    return timestampNanos[index];
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return a new Timestamp object representing the timestamp of the packet.
+   */
+  public Timestamp getTimestamp(int index) {
+    checkIndex(index);
+    Timestamp ts = new Timestamp(timestampSeconds[index] * 1000L);
+    ts.setNanos(timestampNanos[index]);
+    return ts;
+  }
+
+  /**
+   * @param index the index of a packet in this batch.
+   * @return a new array holding a copy of the data of the packet.
+   */
+  public byte[] getPacket(int index) {
+    checkIndex(index);
+    byte[] packet = new byte[lengths[index]];
+    System.arraycopy(buffer, offsets[index], packet, 0, packet.length);
+    return packet;
+  }
+
+  /** @return the number of bytes used in the buffer. */
+  int getBufferUsed() {
+    return bufferUsed;
+  }
+
+  void add(Pointer data, int caplen, int len, long tsSec, int tsNanos) {
+    int offset = reserve(caplen);
+    data.read(0, buffer, offset, caplen);
+    index(offset, caplen, len, tsSec, tsNanos);
+  }
+
+  void add(byte[] data, int dataOffset, int caplen, int len, long tsSec, int tsNanos) {
+    int offset = reserve(caplen);
+    System.arraycopy(data, dataOffset, buffer, offset, caplen);
+    index(offset, caplen, len, tsSec, tsNanos);
+  }
+
+  private int reserve(int caplen) {
+    if (size == offsets.length) {
+      int newCapacity = offsets.length * 2;
+      offsets = grow(offsets, newCapacity);
+      lengths = grow(lengths, newCapacity);
+      originalLengths = grow(originalLengths, newCapacity);
+      timestampNanos = grow(timestampNanos, newCapacity);
+      long[] newTimestampSeconds = new long[newCapacity];
+      System.arraycopy(timestampSeconds, 0, newTimestampSeconds, 0, size);
+      timestampSeconds = newTimestampSeconds;
+    }
+    if (bufferUsed + caplen > buffer.length) {
+      int newSize = Math.max(buffer.length * 2, bufferUsed + caplen);
+      byte[] newBuffer = new byte[newSize];
+      System.arraycopy(buffer, 0, newBuffer, 0, bufferUsed);
+      buffer = newBuffer;
+    }
+    return bufferUsed;
+  }
+
+  private void index(int offset, int caplen, int len, long tsSec, int tsNanos) {
+    offsets[size] = offset;
+    lengths[size] = caplen;
+    originalLengths[size] = len;
+    timestampSeconds[size] = tsSec;
+    timestampNanos[size] = tsNanos;
+    bufferUsed += caplen;
+    size++;
+  }
+
+  private int[] grow(int[] array, int newCapacity) {
+    int[] newArray = new int[newCapacity];
+    System.arraycopy(array, 0, newArray, 0, size);
+    return newArray;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(60);
+    sb.append("[PacketBatch (").append(size).append(" packets, ").append(bufferUsed);
+    sb.append(" bytes)]");
+    return sb.toString();
+  }
+}
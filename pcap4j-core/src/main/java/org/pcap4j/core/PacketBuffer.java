@@ -0,0 +1,137 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+
+/**
+ * A read-only view of a captured packet which is handed to a {@link BufferPacketListener}.
+ *
+ * <p>A PacketBuffer doesn't own the packet data but refers to a buffer managed by the pcap library
+ * (or by the reader which produced it), and the same instance is reused for the next packet. So, a
+ * PacketBuffer is valid only until the listener method it was passed to returns. Use {@link
+ * #copy()} to keep the packet data beyond that.
+ *
+ * <p>Multibyte values are read in network byte order.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public abstract class PacketBuffer {
+
+  PacketBuffer() {}
+
+  /** @return the number of bytes available in this buffer (i.e. the captured length). */
+  public abstract int length();
+
+  /** @return the original length of the packet, which may be larger than {@link #length()}. */
+  public abstract int getOriginalLength();
+
+  /**
+   * @return the seconds part of the timestamp of the packet since the epoch.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract long getTimestampSeconds();
+
+  /**
+   * @return the nanoseconds part of the timestamp of the packet, which is in the range of 0 to
+   *     999,999,999.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract int getTimestampNanos();
+
+  /**
+   * @return a new Timestamp object representing the timestamp of the packet.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public Timestamp getTimestamp() {
+    Timestamp ts = new Timestamp(getTimestampSeconds() * 1000L);
+    ts.setNanos(getTimestampNanos());
+    return ts;
+  }
+
+  /**
+   * @param index index
+   * @return the byte at the given index.
+   * @throws IndexOutOfBoundsException if index is out of bounds.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract byte getByte(int index);
+
+  /**
+   * @param index index
+   * @return the short value at the given index.
+   * @throws IndexOutOfBoundsException if index is out of bounds.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract short getShort(int index);
+
+  /**
+   * @param index index
+   * @return the int value at the given index.
+   * @throws IndexOutOfBoundsException if index is out of bounds.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract int getInt(int index);
+
+  /**
+   * @param index the index in this buffer to start copying from.
+   * @param dst the array to copy into.
+   * @param dstOffset the offset in dst.
+   * @param length the number of bytes to copy.
+   * @throws IndexOutOfBoundsException if any of the ranges is out of bounds.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract void getBytes(int index, byte[] dst, int dstOffset, int length);
+
+  /**
+   * Returns a read-only ByteBuffer over the packet data. The returned ByteBuffer shares the
+   * underlying memory and has the same validity as this PacketBuffer.
+   *
+   * @return a read-only ByteBuffer whose position is 0 and limit is {@link #length()}.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public abstract ByteBuffer asByteBuffer();
+
+  /**
+   * Copies the packet data to a new array, which can be kept after the callback returned.
+   *
+   * @return a new byte array.
+   * @throws IllegalStateException if this buffer is used after the callback returned.
+   */
+  public byte[] copy() {
+    byte[] data = new byte[length()];
+    getBytes(0, data, 0, data.length);
+    return data;
+  }
+
+  void checkIndex(int index, int size) {
+    if (index < 0 || size < 0 || index > length() - size) {
+      StringBuilder sb = new StringBuilder(80);
+      sb.append("index: ")
+          .append(index)
+          .append(", size: ")
+          .append(size)
+          .append(", length: ")
+          .append(length());
+      throw new IndexOutOfBoundsException(sb.toString());
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(60);
+    sb.append("[PacketBuffer (")
+        .append(length())
+        .append("/")
+        .append(getOriginalLength())
+        .append(" bytes)]");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,389 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.pcap4j.core.PcapFileReader.Checkpoint;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.factory.PacketFactoryBinder;
+
+/**
+ * Reads a pcap or pcapng file in parallel.
+ *
+ * <p>At {@link Builder#build()}, the file is scanned once to split it into chunks of about {@link
+ * Builder#chunkSize(int)} bytes whose boundaries are aligned to records. Only the record headers
+ * are read by the scan. Then, {@link #loop(PacketListener)} reads and parses each chunk into Packet
+ * objects in a thread of an {@link ExecutorService}, so that the parsing, which costs much more
+ * than the reading, runs on all the cores.
+ *
+ * <p>If ordered (the default), the packets are passed to the listener in the calling thread in the
+ * order in the file, and at most {@link Builder#maxPendingChunks(int)} parsed chunks are held in
+ * memory at a time. Otherwise, the packets are passed to the listener in the worker threads as soon
+ * as they are parsed, so that the listener must be thread-safe. Within a chunk, the packets are
+ * always passed in the order in the file.
+ *
+ * <p>A ParallelPcapFileReader doesn't hold the file open between loops and can loop over the file
+ * any number of times.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class ParallelPcapFileReader {
+
+  /** The default size (in bytes) of chunks. */
+  public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+  private final String filePath;
+  private final boolean ordered;
+  private final ExecutorService executor;
+  private final int parallelism;
+  private final int maxPendingChunks;
+  private final List<Chunk> chunks;
+  private final long packetCount;
+  private final PacketFactoryBinder packetFactoryBinder;
+
+  private ParallelPcapFileReader(Builder builder) throws IOException {
+    this.filePath = builder.filePath;
+    this.ordered = builder.ordered;
+    this.executor = builder.executor;
+    this.packetFactoryBinder = builder.packetFactoryBinder;
+    this.parallelism =
+        builder.parallelism > 0 ? builder.parallelism : Runtime.getRuntime().availableProcessors();
+    this.maxPendingChunks =
+        builder.maxPendingChunks > 0 ? builder.maxPendingChunks : parallelism * 2;
+
+    List<Chunk> chunkList = new ArrayList<Chunk>();
+    long total = 0;
+    PcapFileReader reader = new PcapFileReader(filePath);
+    try {
+      Checkpoint start = reader.checkpoint();
+      int count = 0;
+      while (reader.next()) {
+        count++;
+        if (reader.getPosition() - start.getPosition() >= builder.chunkSize) {
+          chunkList.add(new Chunk(start, reader.getPosition(), count));
+          total += count;
+          start = reader.checkpoint();
+          count = 0;
+        }
+      }
+      if (count != 0) {
+        chunkList.add(new Chunk(start, reader.getPosition(), count));
+        total += count;
+      }
+    } finally {
+      reader.close();
+    }
+    this.chunks = Collections.unmodifiableList(chunkList);
+    this.packetCount = total;
+  }
+
+  /** @return the path of the file. */
+  public String getFilePath() {
+    return filePath;
+  }
+
+  /** @return the number of chunks the file has been split into. */
+  public int getChunkCount() {
+    return chunks.size();
+  }
+
+  /** @return the number of packets in the file. */
+  public long getPacketCount() {
+    return packetCount;
+  }
+
+  /** @return true if packets are passed to listeners in the order in the file; false otherwise. */
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  /**
+   * Reads all the packets in the file in parallel and passes Packet objects created from them to
+   * <code>listener.gotPacket(Packet)</code>.
+   *
+   * @param listener listener. Must be thread-safe if this reader is not ordered.
+   * @return the number of packets read.
+   * @throws IOException if an I/O error occurs or the file is malformed. An {@link
+   *     InterruptedIOException} is thrown if a thread parsing a chunk is interrupted, e.g. by
+   *     <code>shutdownNow()</code> of the executor.
+   * @throws InterruptedException if the calling thread is interrupted while waiting for chunks.
+   */
+  public long loop(PacketListener listener) throws IOException, InterruptedException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+
+    ExecutorService exec = executor != null ? executor : Executors.newFixedThreadPool(parallelism);
+    try {
+      return ordered ? loopInOrder(exec, listener) : loopOutOfOrder(exec, listener);
+    } finally {
+      if (executor == null) {
+        exec.shutdownNow();
+      }
+    }
+  }
+
+  private long loopInOrder(ExecutorService exec, PacketListener listener)
+      throws IOException, InterruptedException {
+    LinkedList<Future<List<Packet>>> pending = new LinkedList<Future<List<Packet>>>();
+    int nextChunk = 0;
+    long count = 0;
+    try {
+      while (nextChunk < chunks.size() || !pending.isEmpty()) {
+        while (nextChunk < chunks.size() && pending.size() < maxPendingChunks) {
+          final Chunk chunk = chunks.get(nextChunk++);
+          pending.add(
+              exec.submit(
+                  new Callable<List<Packet>>() {
+                    @Override
+                    public List<Packet> call() throws IOException {
+                      final List<Packet> packets = new ArrayList<Packet>(chunk.packetCount);
+                      parse(
+                          chunk,
+                          new PacketListener() {
+                            @Override
+                            public void gotPacket(Packet packet) {
+                              packets.add(packet);
+                            }
+                          });
+                      return packets;
+                    }
+                  }));
+        }
+        List<Packet> packets = await(pending.removeFirst());
+        for (Packet packet : packets) {
+          listener.gotPacket(packet);
+        }
+        count += packets.size();
+      }
+      return count;
+    } finally {
+      for (Future<?> f : pending) {
+        f.cancel(true);
+      }
+    }
+  }
+
+  private long loopOutOfOrder(ExecutorService exec, final PacketListener listener)
+      throws IOException, InterruptedException {
+    List<Future<Integer>> futures = new ArrayList<Future<Integer>>(chunks.size());
+    try {
+      for (final Chunk chunk : chunks) {
+        futures.add(
+            exec.submit(
+                new Callable<Integer>() {
+                  @Override
+                  public Integer call() throws IOException {
+                    return parse(chunk, listener);
+                  }
+                }));
+      }
+      long count = 0;
+      for (Future<Integer> f : futures) {
+        count += await(f);
+      }
+      return count;
+    } finally {
+      for (Future<?> f : futures) {
+        f.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * @param chunk chunk
+   * @param listener listener
+   * @return the number of the packets passed to the listener.
+   * @throws InterruptedIOException if the current thread is interrupted.
+   */
+  private int parse(Chunk chunk, PacketListener listener) throws IOException {
+    long length = chunk.end - chunk.start.getPosition();
+    int windowSize = (int) Math.min(PcapFileReader.DEFAULT_WINDOW_SIZE, Math.max(length, 64L));
+    int count = 0;
+    PcapFileReader reader = new PcapFileReader(filePath, windowSize, chunk.start);
+    try {
+      while (reader.getPosition() < chunk.end && reader.next()) {
+        if (Thread.currentThread().isInterrupted()) {
+          // Another chunk has failed or the loop has been abandoned.
+          throw new InterruptedIOException("Interrupted while parsing a chunk.");
+        }
+        byte[] ba = reader.copyCurrent();
+        Packet packet =
+            PacketFactories.newPacket(ba, 0, ba.length, reader.getDlt(), packetFactoryBinder);
+        listener.gotPacket(packet);
+        count++;
+      }
+    } finally {
+      reader.close();
+    }
+    return count;
+  }
+
+  private static <T> T await(Future<T> future) throws IOException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(100);
+    sb.append("File: [")
+        .append(filePath)
+        .append("] Chunks: [")
+        .append(chunks.size())
+        .append("] Packets: [")
+        .append(packetCount)
+        .append("] Ordered: [")
+        .append(ordered)
+        .append("]");
+    return sb.toString();
+  }
+
+  private static final class Chunk {
+
+    private final Checkpoint start;
+    private final long end;
+    private final int packetCount;
+
+    private Chunk(Checkpoint start, long end, int packetCount) {
+      this.start = start;
+      this.end = end;
+      this.packetCount = packetCount;
+    }
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private final String filePath;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean ordered = true;
+    private ExecutorService executor = null;
+    private int parallelism = 0;
+    private int maxPendingChunks = 0;
+    private PacketFactoryBinder packetFactoryBinder = null;
+
+    /** @param filePath the path of a pcap or pcapng file. */
+    public Builder(String filePath) {
+      if (filePath == null || filePath.length() == 0) {
+        throw new IllegalArgumentException("filePath: " + filePath);
+      }
+      this.filePath = filePath;
+    }
+
+    /**
+     * @param chunkSize the approximate size (in bytes) of chunks. If this method isn't called,
+     *     {@link ParallelPcapFileReader#DEFAULT_CHUNK_SIZE} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder chunkSize(int chunkSize) {
+      if (chunkSize <= 0) {
+        throw new IllegalArgumentException("chunkSize: " + chunkSize);
+      }
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * @param ordered true to pass packets to listeners in the order in the file (the default);
+     *     false to pass them in worker threads as soon as they are parsed.
+     * @return this Builder object for method chaining.
+     */
+    public Builder ordered(boolean ordered) {
+      this.ordered = ordered;
+      return this;
+    }
+
+    /**
+     * @param executor the executor which parses chunks. It is not shut down by the reader. If this
+     *     method isn't called, a thread pool of {@link #parallelism(int)} threads is created and
+     *     shut down for each loop.
+     * @return this Builder object for method chaining.
+     */
+    public Builder executor(ExecutorService executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @param parallelism the number of threads of the thread pool which is created if no executor
+     *     is given. If this method isn't called, the number of available processors is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder parallelism(int parallelism) {
+      if (parallelism <= 0) {
+        throw new IllegalArgumentException("parallelism: " + parallelism);
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * @param maxPendingChunks the maximum number of chunks which are being parsed or waiting to be
+     *     passed to the listener in an ordered loop. If this method isn't called, twice the
+     *     parallelism is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxPendingChunks(int maxPendingChunks) {
+      if (maxPendingChunks <= 0) {
+        throw new IllegalArgumentException("maxPendingChunks: " + maxPendingChunks);
+      }
+      this.maxPendingChunks = maxPendingChunks;
+      return this;
+    }
+
+    /**
+     * @param packetFactoryBinder the binder which provides the factories to build Packet objects
+     *     from the packets read. If this method isn't called, the one found by {@link
+     *     PacketFactories} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder packetFactoryBinder(PacketFactoryBinder packetFactoryBinder) {
+      this.packetFactoryBinder = packetFactoryBinder;
+      return this;
+    }
+
+    /**
+     * Scans the file and splits it into chunks.
+     *
+     * @return a new ParallelPcapFileReader object.
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public ParallelPcapFileReader build() throws IOException {
+      return new ParallelPcapFileReader(this);
+    }
+  }
+}
@@ -0,0 +1,523 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.pcap4j.core.BpfProgram.BpfCompileMode;
+import org.pcap4j.core.PcapHandle.FanoutMode;
+import org.pcap4j.core.PcapHandle.PcapDirection;
+import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.core.PcapNetworkInterface.PromiscuousMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A group of live capture handles on the same device, which join a Linux PACKET_FANOUT group and
+ * each of which is run by its own capture thread.
+ *
+ * <p>The kernel distributes the packets received by the device among the handles. In {@link
+ * FanoutMode#HASH} mode (the default), all the packets of a flow go to the same handle, so that the
+ * capture and the processing of packets scale with the number of cores while each flow is still
+ * processed in order by a single thread. A listener given to <code>start()</code> is shared by all
+ * the capture threads and must be thread-safe, but per-flow state kept in thread-local storage
+ * doesn't need synchronization in HASH mode.
+ *
+ * <p>Only Linux supports PACKET_FANOUT.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class PcapCaptureGroup implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(PcapCaptureGroup.class);
+
+  /** The default time in milliseconds {@link #stop()} waits for the capture threads to finish. */
+  public static final long DEFAULT_STOP_TIMEOUT_MILLIS = 5000L;
+
+  private final String deviceName;
+  private final int groupId;
+  private final FanoutMode mode;
+  private final List<PcapHandle> handles;
+  private final List<Thread> threads = new ArrayList<Thread>();
+  private final Object lock = new Object();
+
+  private volatile boolean open = true;
+
+  private PcapCaptureGroup(Builder builder) throws PcapNativeException {
+    this.deviceName = builder.deviceName;
+    this.groupId = builder.groupId;
+    this.mode = builder.mode;
+
+    List<PcapHandle> handleList = new ArrayList<PcapHandle>(builder.size);
+    try {
+      for (int i = 0; i < builder.size; i++) {
+        PcapHandle handle = builder.newHandleBuilder().build();
+        handleList.add(handle);
+        // The filter must be set before joining the group, or the handle may receive packets which
+        // don't pass it.
+        if (builder.filter != null) {
+          handle.setFilter(builder.filter, builder.filterMode);
+        }
+        handle.joinFanout(groupId, mode, builder.defrag);
+      }
+    } catch (PcapNativeException e) {
+      for (PcapHandle handle : handleList) {
+        handle.close();
+      }
+      throw e;
+    } catch (NotOpenException e) {
+      throw new AssertionError("Never get here.");
+    }
+    this.handles = Collections.unmodifiableList(handleList);
+  }
+
+  /** @return the name of the device. */
+  public String getDeviceName() {
+    return deviceName;
+  }
+
+  /** @return the ID of the fanout group. */
+  public int getGroupId() {
+    return groupId;
+  }
+
+  /** @return the fanout mode. */
+  public FanoutMode getMode() {
+    return mode;
+  }
+
+  /** @return the handles in this group, e.g. to get statistics of each of them. */
+  public List<PcapHandle> getHandles() {
+    return handles;
+  }
+
+  /** @return true if this group is open; false otherwise. */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /** @return true if the capture threads have been started and not stopped; false otherwise. */
+  public boolean isRunning() {
+    synchronized (lock) {
+      return !threads.isEmpty();
+    }
+  }
+
+  /**
+   * Starts a capture thread per handle, which passes Packet objects to the listener.
+   *
+   * @param listener a thread-safe listener.
+   * @throws NotOpenException if this group is not open.
+   * @throws IllegalStateException if the capture threads are already running.
+   */
+  public void start(final PacketListener listener) throws NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+    startThreads(
+        new CaptureTask() {
+          @Override
+          public void run(PcapHandle handle)
+              throws PcapNativeException, InterruptedException, NotOpenException {
+            handle.loop(-1, listener);
+          }
+        });
+  }
+
+  /**
+   * Starts a capture thread per handle, which passes packets to the listener.
+   *
+   * @param listener a thread-safe listener.
+   * @throws NotOpenException if this group is not open.
+   * @throws IllegalStateException if the capture threads are already running.
+   */
+  public void start(final RawPacketListener listener) throws NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+    startThreads(
+        new CaptureTask() {
+          @Override
+          public void run(PcapHandle handle)
+              throws PcapNativeException, InterruptedException, NotOpenException {
+            handle.loop(-1, listener);
+          }
+        });
+  }
+
+  /**
+   * Starts a capture thread per handle, which passes packets to the listener without copying them.
+   *
+   * @param listener a thread-safe listener.
+   * @throws NotOpenException if this group is not open.
+   * @throws IllegalStateException if the capture threads are already running.
+   */
+  public void start(final BufferPacketListener listener) throws NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+    startThreads(
+        new CaptureTask() {
+          @Override
+          public void run(PcapHandle handle)
+              throws PcapNativeException, InterruptedException, NotOpenException {
+            handle.loop(-1, listener);
+          }
+        });
+  }
+
+  private void startThreads(final CaptureTask task) throws NotOpenException {
+    synchronized (lock) {
+      if (!open) {
+        throw new NotOpenException();
+      }
+      if (!threads.isEmpty()) {
+        throw new IllegalStateException("Already running.");
+      }
+
+      for (int i = 0; i < handles.size(); i++) {
+        final PcapHandle handle = handles.get(i);
+        Thread t =
+            new Thread(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    try {
+                      task.run(handle);
+                    } catch (InterruptedException e) {
+                      // broken by stop()
+                    } catch (NotOpenException e) {
+                      logger.warn("The handle has been closed.");
+                    } catch (PcapNativeException e) {
+                      logger.error("The capture thread has been terminated.", e);
+                    }
+                  }
+                },
+                "PcapCaptureGroup-" + deviceName + "-" + i);
+        threads.add(t);
+      }
+      for (Thread t : threads) {
+        t.start();
+      }
+    }
+    logger.info("Started " + handles.size() + " capture threads on " + deviceName + ".");
+  }
+
+  /**
+   * Breaks the loops of all the handles and waits up to {@link #DEFAULT_STOP_TIMEOUT_MILLIS} for
+   * the capture threads to finish.
+   *
+   * @return true if all the capture threads have finished; false otherwise.
+   * @throws InterruptedException if interrupted while waiting.
+   * @see #stop(long)
+   */
+  public boolean stop() throws InterruptedException {
+    return stop(DEFAULT_STOP_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * Breaks the loops of all the handles and waits for the capture threads to finish. If some of
+   * them don't finish in time, e.g. because the listener blocks, they are still regarded as running
+   * and this method can be called again.
+   *
+   * @param timeoutMillis the maximum time to wait in milliseconds. 0 means to wait forever.
+   * @return true if all the capture threads have finished; false otherwise.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public boolean stop(long timeoutMillis) throws InterruptedException {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("timeoutMillis: " + timeoutMillis);
+    }
+
+    synchronized (lock) {
+      for (PcapHandle handle : handles) {
+        try {
+          handle.breakLoop();
+        } catch (NotOpenException e) {
+          // the thread will stop by itself.
+        }
+      }
+
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      Iterator<Thread> iter = threads.iterator();
+      while (iter.hasNext()) {
+        Thread t = iter.next();
+        if (timeoutMillis == 0) {
+          t.join();
+        } else {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining > 0) {
+            t.join(remaining);
+          }
+        }
+        if (!t.isAlive()) {
+          iter.remove();
+        }
+      }
+
+      if (!threads.isEmpty()) {
+        logger.warn(threads.size() + " capture threads didn't stop in " + timeoutMillis + " ms.");
+        return false;
+      }
+      return true;
+    }
+  }
+
+  /** Stops the capture threads and closes all the handles. */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (!open) {
+        logger.warn("Already closed.");
+        return;
+      }
+      open = false;
+      try {
+        if (!stop()) {
+          logger.warn("Closing the handles used by the capture threads still running.");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.warn("Interrupted while waiting for the capture threads to stop.");
+      }
+      for (PcapHandle handle : handles) {
+        handle.close();
+      }
+    }
+    logger.info("Closed.");
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(100);
+    sb.append("Device: [")
+        .append(deviceName)
+        .append("] Group ID: [")
+        .append(groupId)
+        .append("] Mode: [")
+        .append(mode)
+        .append("] Size: [")
+        .append(handles.size())
+        .append("] Open: [")
+        .append(open)
+        .append("]");
+    return sb.toString();
+  }
+
+  private static interface CaptureTask {
+    void run(PcapHandle handle) throws PcapNativeException, InterruptedException, NotOpenException;
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private final String deviceName;
+    private final int size;
+    private final int groupId;
+    private FanoutMode mode = FanoutMode.HASH;
+    private boolean defrag = true;
+    private int snaplen;
+    private boolean isSnaplenSet = false;
+    private PromiscuousMode promiscuousMode = null;
+    private int timeoutMillis;
+    private boolean isTimeoutMillisSet = false;
+    private int bufferSize;
+    private boolean isBufferSizeSet = false;
+    private TimestampPrecision timestampPrecision = null;
+    private PcapDirection direction = null;
+    private boolean immediateMode;
+    private boolean isImmediateModeSet = false;
+    private String filter = null;
+    private BpfCompileMode filterMode = null;
+
+    /**
+     * @param deviceName A value {@link PcapNetworkInterface#getName()} returns.
+     * @param size the number of handles (and capture threads), which is usually the number of cores
+     *     to use.
+     * @param groupId the ID of the fanout group (0 to 65535). The kernel lets a socket join an
+     *     existing group with the same ID and mode on the same device without an error, in which
+     *     case the packets are split between this group and the sockets already in the group, e.g.
+     *     of another process. So, the ID must not be used by anything else in the system.
+     */
+    public Builder(String deviceName, int size, int groupId) {
+      if (deviceName == null
+          || deviceName.length() == 0
+          || size <= 0
+          || groupId < 0
+          || groupId > 0xFFFF) {
+        StringBuilder sb = new StringBuilder(80);
+        sb.append("deviceName: ")
+            .append(deviceName)
+            .append(" size: ")
+            .append(size)
+            .append(" groupId: ")
+            .append(groupId);
+        throw new IllegalArgumentException(sb.toString());
+      }
+      this.deviceName = deviceName;
+      this.size = size;
+      this.groupId = groupId;
+    }
+
+    /**
+     * @param mode the fanout mode. If this method isn't called, {@link FanoutMode#HASH} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder mode(FanoutMode mode) {
+      if (mode == null) {
+        throw new NullPointerException("mode must not be null.");
+      }
+      this.mode = mode;
+      return this;
+    }
+
+    /**
+     * @param defrag whether the kernel reassembles IP fragments before distributing them. If this
+     *     method isn't called, true is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder defrag(boolean defrag) {
+      this.defrag = defrag;
+      return this;
+    }
+
+    /**
+     * @param snaplen Snapshot length.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#snaplen(int)
+     */
+    public Builder snaplen(int snaplen) {
+      this.snaplen = snaplen;
+      this.isSnaplenSet = true;
+      return this;
+    }
+
+    /**
+     * @param promiscuousMode Promiscuous mode.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#promiscuousMode(PromiscuousMode)
+     */
+    public Builder promiscuousMode(PromiscuousMode promiscuousMode) {
+      this.promiscuousMode = promiscuousMode;
+      return this;
+    }
+
+    /**
+     * @param timeoutMillis Read timeout.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#timeoutMillis(int)
+     */
+    public Builder timeoutMillis(int timeoutMillis) {
+      this.timeoutMillis = timeoutMillis;
+      this.isTimeoutMillisSet = true;
+      return this;
+    }
+
+    /**
+     * @param bufferSize The buffer size of each handle, which is in units of bytes.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#bufferSize(int)
+     */
+    public Builder bufferSize(int bufferSize) {
+      this.bufferSize = bufferSize;
+      this.isBufferSizeSet = true;
+      return this;
+    }
+
+    /**
+     * @param timestampPrecision The timestamp precision.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#timestampPrecision(TimestampPrecision)
+     */
+    public Builder timestampPrecision(TimestampPrecision timestampPrecision) {
+      this.timestampPrecision = timestampPrecision;
+      return this;
+    }
+
+    /**
+     * @param direction The direction of packets to capture.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#direction(PcapDirection)
+     */
+    public Builder direction(PcapDirection direction) {
+      this.direction = direction;
+      return this;
+    }
+
+    /**
+     * @param immediateMode Whether immediate mode should be set.
+     * @return this Builder object for method chaining.
+     * @see PcapHandle.Builder#immediateMode(boolean)
+     */
+    public Builder immediateMode(boolean immediateMode) {
+      this.immediateMode = immediateMode;
+      this.isImmediateModeSet = true;
+      return this;
+    }
+
+    /**
+     * @param bpfExpression a filter expression set to each handle.
+     * @param mode mode
+     * @return this Builder object for method chaining.
+     */
+    public Builder filter(String bpfExpression, BpfCompileMode mode) {
+      if (bpfExpression == null || mode == null) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("bpfExpression: ").append(bpfExpression).append(" mode: ").append(mode);
+        throw new NullPointerException(sb.toString());
+      }
+      this.filter = bpfExpression;
+      this.filterMode = mode;
+      return this;
+    }
+
+    private PcapHandle.Builder newHandleBuilder() {
+      PcapHandle.Builder hb = new PcapHandle.Builder(deviceName);
+      if (isSnaplenSet) {
+        hb.snaplen(snaplen);
+      }
+      if (promiscuousMode != null) {
+        hb.promiscuousMode(promiscuousMode);
+      }
+      if (isTimeoutMillisSet) {
+        hb.timeoutMillis(timeoutMillis);
+      }
+      if (isBufferSizeSet) {
+        hb.bufferSize(bufferSize);
+      }
+      if (timestampPrecision != null) {
+        hb.timestampPrecision(timestampPrecision);
+      }
+      if (direction != null) {
+        hb.direction(direction);
+      }
+      if (isImmediateModeSet) {
+        hb.immediateMode(immediateMode);
+      }
+      return hb;
+    }
+
+    /**
+     * Opens the handles, sets the filter to them, and makes them join the fanout group.
+     *
+     * @return a new PcapCaptureGroup object.
+     * @throws PcapNativeException if an error occurs in the pcap native library or the platform
+     *     doesn't support PACKET_FANOUT.
+     */
+    public PcapCaptureGroup build() throws PcapNativeException {
+      return new PcapCaptureGroup(this);
+    }
+  }
+}
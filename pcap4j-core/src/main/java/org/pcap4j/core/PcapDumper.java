@@ -7,14 +7,16 @@
 
 package org.pcap4j.core;
 
+import com.sun.jna.Memory;
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
 import java.io.Closeable;
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
 import org.pcap4j.core.NativeMappings.pcap_pkthdr;
-import org.pcap4j.core.NativeMappings.timeval;
 import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.AbstractPacket;
 import org.pcap4j.packet.Packet;
 import org.pcap4j.util.ByteArrays;
 import org.slf4j.Logger;
@@ -28,9 +30,17 @@ public final class PcapDumper implements Closeable {
 
   private static final Logger logger = LoggerFactory.getLogger(PcapDumper.class);
 
+  private static final int MIN_PACKET_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_CACHED_PACKET_BUFFER_SIZE = 4 * 1024 * 1024;
+
   private final Pointer dumper;
   private final TimestampPrecision timestampPrecision;
-  private final ReentrantReadWriteLock dumperLock = new ReentrantReadWriteLock(true);
+  private final NativeResourceGuard dumperGuard = new NativeResourceGuard();
+
+  // The native buffers to stage headers and packets to dump, which are taken by a writer while
+  // they're used so that concurrent writers don't share them, and released by close().
+  private final AtomicReference<Memory> headerBuffer = new AtomicReference<Memory>();
+  private final AtomicReference<Memory> packetBuffer = new AtomicReference<Memory>();
 
   private volatile boolean open = true;
 
@@ -53,7 +63,8 @@ public final class PcapDumper implements Closeable {
    * @throws NotOpenException if this PcapHandle is not open.
    */
   public void dump(Packet packet) throws NotOpenException {
-    dump(packet, new Timestamp(System.currentTimeMillis()));
+    long now = System.currentTimeMillis();
+    dump(packet, now / 1000L, (int) (now % 1000L) * 1000000);
   }
 
   /**
@@ -68,10 +79,54 @@ public final class PcapDumper implements Closeable {
       throw new NullPointerException(sb.toString());
     }
 
+    dump(packet, timestamp.getTime() / 1000L, timestamp.getNanos());
+  }
+
+  /**
+   * @param packet packet
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public void dump(Packet packet, long timestampSeconds, int timestampNanos)
+      throws NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
     if (logger.isDebugEnabled()) {
       logger.debug("Dumping a packet: " + packet);
     }
-    dumpRaw(packet.getRawData(), timestamp);
+    if (!(packet instanceof AbstractPacket)) {
+      dumpRaw(packet.getRawData(), timestampSeconds, timestampNanos);
+      return;
+    }
+
+    if (!open) {
+      throw new NotOpenException();
+    }
+
+    // Copy the raw data into native memory directly without building a byte array of it.
+    ByteBuffer data = ((AbstractPacket) packet).rawDataView();
+    int len = data.remaining();
+    Memory header = takeHeaderBuffer();
+    Memory buf = takePacketBuffer(len);
+    try {
+      buf.getByteBuffer(0, len).put(data);
+      prepareHeader(header, len, timestampSeconds, timestampNanos);
+
+      if (!dumperGuard.enter()) {
+        throw new NotOpenException();
+      }
+      try {
+        NativeMappings.pcap_dump(dumper, header, buf);
+      } finally {
+        dumperGuard.exit();
+      }
+    } finally {
+      releaseBuffer(packetBuffer, buf);
+      releaseBuffer(headerBuffer, header);
+    }
   }
 
   /**
@@ -79,7 +134,8 @@ public final class PcapDumper implements Closeable {
    * @throws NotOpenException if this PcapHandle is not open.
    */
   public void dumpRaw(byte[] packet) throws NotOpenException {
-    dumpRaw(packet, new Timestamp(System.currentTimeMillis()));
+    long now = System.currentTimeMillis();
+    dumpRaw(packet, now / 1000L, (int) (now % 1000L) * 1000000);
   }
 
   /**
@@ -94,39 +150,95 @@ public final class PcapDumper implements Closeable {
       throw new NullPointerException(sb.toString());
     }
 
+    dumpRaw(packet, timestamp.getTime() / 1000L, timestamp.getNanos());
+  }
+
+  /**
+   * Dumps a packet with a timestamp given as primitives. Unlike {@link #dumpRaw(byte[],
+   * Timestamp)}, this method doesn't create any objects.
+   *
+   * @param packet packet
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public void dumpRaw(byte[] packet, long timestampSeconds, int timestampNanos)
+      throws NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
     if (!open) {
       throw new NotOpenException();
     }
 
-    pcap_pkthdr header = new pcap_pkthdr();
-    header.len = header.caplen = packet.length;
-    header.ts = new timeval();
-    header.ts.tv_sec = new NativeLong(timestamp.getTime() / 1000L);
+    Memory header = takeHeaderBuffer();
+    try {
+      prepareHeader(header, packet.length, timestampSeconds, timestampNanos);
+
+      if (!dumperGuard.enter()) {
+        throw new NotOpenException();
+      }
+      try {
+        NativeMappings.pcap_dump(dumper, header, packet);
+      } finally {
+        dumperGuard.exit();
+      }
+    } finally {
+      releaseBuffer(headerBuffer, header);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Dumped a packet: " + ByteArrays.toHexString(packet, " "));
+    }
+  }
+
+  private void prepareHeader(Pointer header, int len, long timestampSeconds, int timestampNanos) {
+    pcap_pkthdr.setCaplen(header, len);
+    pcap_pkthdr.setLen(header, len);
+    pcap_pkthdr.setTvSec(header, timestampSeconds);
     switch (timestampPrecision) {
       case MICRO:
-        header.ts.tv_usec = new NativeLong(timestamp.getNanos() / 1000L);
+        pcap_pkthdr.setTvUsec(header, timestampNanos / 1000);
         break;
       case NANO:
-        header.ts.tv_usec = new NativeLong(timestamp.getNanos());
+        pcap_pkthdr.setTvUsec(header, timestampNanos);
         break;
       default:
         throw new AssertionError("Never get here.");
     }
+  }
 
-    if (!dumperLock.readLock().tryLock()) {
-      throw new NotOpenException();
+  private Memory takeHeaderBuffer() {
+    Memory buf = headerBuffer.getAndSet(null);
+    if (buf == null) {
+      buf = new Memory(pcap_pkthdr.SIZE);
     }
-    try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-      NativeMappings.pcap_dump(dumper, header, packet);
-    } finally {
-      dumperLock.readLock().unlock();
+    return buf;
+  }
+
+  private Memory takePacketBuffer(int size) {
+    Memory buf = packetBuffer.getAndSet(null);
+    if (buf == null || buf.size() < size) {
+      buf = new Memory(Math.max(size, MIN_PACKET_BUFFER_SIZE));
     }
+    return buf;
+  }
 
-    if (logger.isDebugEnabled()) {
-      logger.debug("Dumped a packet: " + ByteArrays.toHexString(packet, " "));
+  private void releaseBuffer(AtomicReference<Memory> cache, Memory buf) {
+    // Don't keep a huge buffer for a rare huge packet.
+    if (buf.size() > MAX_CACHED_PACKET_BUFFER_SIZE) {
+      return;
+    }
+    // close() drops the cached buffers after closing dumperGuard, so a buffer put back while the
+    // guard is entered is never left behind a closed dumper.
+    if (!dumperGuard.enter()) {
+      return;
+    }
+    try {
+      cache.set(buf);
+    } finally {
+      dumperGuard.exit();
     }
   }
 
@@ -140,16 +252,13 @@ public final class PcapDumper implements Closeable {
     }
 
     int rc;
-    if (!dumperLock.readLock().tryLock()) {
+    if (!dumperGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       rc = NativeMappings.pcap_dump_flush(dumper);
     } finally {
-      dumperLock.readLock().unlock();
+      dumperGuard.exit();
     }
 
     if (rc < 0) {
@@ -168,16 +277,13 @@ public final class PcapDumper implements Closeable {
     }
 
     NativeLong nposition;
-    if (!dumperLock.readLock().tryLock()) {
+    if (!dumperGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       nposition = NativeMappings.pcap_dump_ftell(dumper);
     } finally {
-      dumperLock.readLock().unlock();
+      dumperGuard.exit();
     }
 
     long position = nposition.longValue();
@@ -196,18 +302,15 @@ public final class PcapDumper implements Closeable {
       return;
     }
 
-    dumperLock.writeLock().lock();
-    try {
-      if (!open) {
-        logger.warn("Already closed.");
-        return;
-      }
-      open = false;
-    } finally {
-      dumperLock.writeLock().unlock();
+    if (!dumperGuard.close()) {
+      logger.warn("Already closed.");
+      return;
     }
+    open = false;
 
     NativeMappings.pcap_dump_close(dumper);
+    headerBuffer.set(null);
+    packetBuffer.set(null);
     logger.info("Closed.");
   }
 }
@@ -0,0 +1,903 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import org.pcap4j.core.PcapHandle.SwappedType;
+import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.factory.PacketFactoryBinder;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pure Java reader of pcap and pcapng files.
+ *
+ * <p>Unlike {@link Pcaps#openOffline(String)}, this class doesn't use the pcap native library but
+ * memory-maps the file by windows of a fixed size and parses the record headers by itself. So, it
+ * works even where the pcap library isn't installed, and it doesn't cross the JNA boundary per
+ * packet. Timestamps of all the formats are converted to seconds and nanoseconds.
+ *
+ * <p>This class is not thread-safe except for {@link #breakLoop()} and {@link #close()}.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class PcapFileReader implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(PcapFileReader.class);
+
+  /** The default size of the windows (in bytes) by which a file is mapped. */
+  public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private static final int PCAP_MAGIC_MICRO = 0xA1B2C3D4;
+  private static final int PCAP_MAGIC_NANO = 0xA1B23C4D;
+  private static final int PCAP_FILE_HEADER_SIZE = 24;
+  private static final int PCAP_RECORD_HEADER_SIZE = 16;
+
+  private static final int PCAPNG_BOM = 0x1A2B3C4D;
+  private static final int PCAPNG_SHB = 0x0A0D0D0A;
+  private static final int PCAPNG_IDB = 0x00000001;
+  private static final int PCAPNG_PB = 0x00000002;
+  private static final int PCAPNG_SPB = 0x00000003;
+  private static final int PCAPNG_EPB = 0x00000006;
+  private static final int PCAPNG_OPT_ENDOFOPT = 0;
+  private static final int PCAPNG_OPT_IF_TSRESOL = 9;
+  private static final int PCAPNG_OPT_IF_TSOFFSET = 14;
+
+  private static final int MAX_RECORD_LENGTH = 256 * 1024 * 1024;
+
+  private static final long[] POWERS_OF_TEN = new long[19];
+
+  static {
+    POWERS_OF_TEN[0] = 1L;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+    }
+  }
+
+  private final String filePath;
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final long fileSize;
+  private final int windowSize;
+  private final boolean ng;
+  private final List<NgInterface> interfaces = new ArrayList<NgInterface>();
+  private final ByteBufferPacketBuffer packetBuffer = new ByteBufferPacketBuffer();
+
+  private ByteOrder byteOrder;
+  private TimestampPrecision timestampPrecision;
+  private DataLinkType dlt;
+  private int snaplen;
+  private int majorVersion;
+  private int minorVersion;
+
+  private MappedByteBuffer window;
+  private ByteBuffer bigEndianWindow;
+  private long windowStart = 0;
+  private long windowEnd = 0;
+  private long position;
+
+  private boolean captured = false;
+  private int dataIndex;
+  private int caplen;
+  private int len;
+  private long timestampSeconds;
+  private int timestampNanos;
+
+  private volatile PacketFactoryBinder packetFactoryBinder = null;
+  private volatile boolean open = true;
+  private volatile boolean breakRequested = false;
+
+  /**
+   * @param filePath the path of a pcap or pcapng file.
+   * @throws IOException if the file can't be read or is not a pcap or pcapng file.
+   */
+  public PcapFileReader(String filePath) throws IOException {
+    this(filePath, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * @param filePath the path of a pcap or pcapng file.
+   * @param windowSize the size (in bytes) of the windows by which the file is mapped. A record
+   *     larger than this is mapped by a window of its size.
+   * @throws IOException if the file can't be read or is not a pcap or pcapng file.
+   */
+  public PcapFileReader(String filePath, int windowSize) throws IOException {
+    this(filePath, windowSize, null);
+  }
+
+  /**
+   * @param filePath the path of a pcap or pcapng file.
+   * @param windowSize the size (in bytes) of the windows by which the file is mapped.
+   * @param checkpoint a checkpoint taken by {@link #checkpoint()} of a reader of the same file. If
+   *     not null, this reader starts reading from there instead of from the beginning of the file.
+   * @throws IOException if the file can't be read or is not a pcap or pcapng file.
+   */
+  PcapFileReader(String filePath, int windowSize, Checkpoint checkpoint) throws IOException {
+    if (filePath == null) {
+      throw new NullPointerException("filePath must not be null.");
+    }
+    if (windowSize < PCAP_FILE_HEADER_SIZE) {
+      throw new IllegalArgumentException("windowSize is too small: " + windowSize);
+    }
+
+    this.filePath = filePath;
+    this.windowSize = windowSize;
+    this.file = new RandomAccessFile(filePath, "r");
+    try {
+      this.channel = file.getChannel();
+      this.fileSize = channel.size();
+      if (fileSize < 4) {
+        throw new IOException("Too short to be a pcap or pcapng file: " + filePath);
+      }
+
+      if (checkpoint != null) {
+        this.ng = checkpoint.ng;
+        restore(checkpoint);
+        return;
+      }
+
+      int magic = ensure(0, 4).order(ByteOrder.BIG_ENDIAN).getInt(0);
+      if (magic == PCAPNG_SHB) {
+        this.ng = true;
+        this.position = 0;
+        readNgHeaderBlocks();
+      } else {
+        this.ng = false;
+        readPcapFileHeader(magic);
+      }
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    } catch (RuntimeException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  private void restore(Checkpoint checkpoint) throws IOException {
+    if (checkpoint.position > fileSize) {
+      throw new IOException("The checkpoint is beyond the end of " + filePath);
+    }
+    this.position = checkpoint.position;
+    this.byteOrder = checkpoint.byteOrder;
+    this.timestampPrecision = checkpoint.timestampPrecision;
+    this.dlt = checkpoint.dlt;
+    this.snaplen = checkpoint.snaplen;
+    this.majorVersion = checkpoint.majorVersion;
+    this.minorVersion = checkpoint.minorVersion;
+    this.interfaces.addAll(checkpoint.interfaces);
+  }
+
+  private void readPcapFileHeader(int bigEndianMagic) throws IOException {
+    if (bigEndianMagic == PCAP_MAGIC_MICRO || bigEndianMagic == PCAP_MAGIC_NANO) {
+      byteOrder = ByteOrder.BIG_ENDIAN;
+    } else if (Integer.reverseBytes(bigEndianMagic) == PCAP_MAGIC_MICRO
+        || Integer.reverseBytes(bigEndianMagic) == PCAP_MAGIC_NANO) {
+      byteOrder = ByteOrder.LITTLE_ENDIAN;
+    } else {
+      throw new IOException("Unknown file format: " + filePath);
+    }
+    if (fileSize < PCAP_FILE_HEADER_SIZE) {
+      throw new IOException("Truncated pcap file header: " + filePath);
+    }
+
+    ByteBuffer buf = ensure(0, PCAP_FILE_HEADER_SIZE);
+    int magic = buf.getInt(0);
+    timestampPrecision =
+        magic == PCAP_MAGIC_NANO ? TimestampPrecision.NANO : TimestampPrecision.MICRO;
+    majorVersion = buf.getShort(4) & 0xFFFF;
+    minorVersion = buf.getShort(6) & 0xFFFF;
+    snaplen = buf.getInt(16);
+    dlt = DataLinkType.getInstance(buf.getInt(20) & 0x03FFFFFF);
+    position = PCAP_FILE_HEADER_SIZE;
+  }
+
+  /** @return true if the file is a pcapng file; false if a pcap file. */
+  public boolean isPcapNg() {
+    return ng;
+  }
+
+  /**
+   * @return the Data Link Type of the last packet read. If no packets have been read yet, the Data
+   *     Link Type of the file (or of the first interface of a pcapng file). May be null if a pcapng
+   *     file has no interfaces.
+   */
+  public DataLinkType getDlt() {
+    return dlt;
+  }
+
+  /**
+   * @return the snapshot length of the file (or of the interface of the last packet read from a
+   *     pcapng file).
+   */
+  public int getSnapshot() {
+    return snaplen;
+  }
+
+  /** @return the major version number of the file format. */
+  public int getMajorVersion() {
+    return majorVersion;
+  }
+
+  /** @return the minor version number of the file format. */
+  public int getMinorVersion() {
+    return minorVersion;
+  }
+
+  /**
+   * @return the timestamp precision of a pcap file. For a pcapng file, {@link
+   *     TimestampPrecision#NANO} since timestamps are converted to nanoseconds.
+   */
+  public TimestampPrecision getTimestampPrecision() {
+    return ng ? TimestampPrecision.NANO : timestampPrecision;
+  }
+
+  /**
+   * @return {@link SwappedType#SWAPPED} if the byte order of the file (or of the current section of
+   *     a pcapng file) differs from the native byte order; {@link SwappedType#NOT_SWAPPED}
+   *     otherwise.
+   */
+  public SwappedType isSwapped() {
+    return byteOrder.equals(ByteOrder.nativeOrder())
+        ? SwappedType.NOT_SWAPPED
+        : SwappedType.SWAPPED;
+  }
+
+  /**
+   * @param binder the binder which provides the factories to build Packet objects from the packets
+   *     read. null to use the one found by {@link PacketFactories}.
+   */
+  public void setPacketFactoryBinder(PacketFactoryBinder binder) {
+    this.packetFactoryBinder = binder;
+  }
+
+  /** @return the binder set to this reader. May be null. */
+  public PacketFactoryBinder getPacketFactoryBinder() {
+    return packetFactoryBinder;
+  }
+
+  /** @return true if this reader is open; false otherwise. */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * @return the timestamp of the last packet read. Null if no packets have been read.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public Timestamp getTimestamp() throws NotOpenException {
+    checkOpen();
+    if (!captured) {
+      return null;
+    }
+    Timestamp ts = new Timestamp(timestampSeconds * 1000L);
+    ts.setNanos(timestampNanos);
+    return ts;
+  }
+
+  /**
+   * @return the seconds part of the timestamp of the last packet read.
+   * @throws NotOpenException if this reader is not open.
+   * @throws IllegalStateException if no packets have been read.
+   */
+  public long getTimestampSeconds() throws NotOpenException {
+    checkCaptured();
+    return timestampSeconds;
+  }
+
+  /**
+   * @return the nanoseconds part of the timestamp of the last packet read.
+   * @throws NotOpenException if this reader is not open.
+   * @throws IllegalStateException if no packets have been read.
+   */
+  public int getTimestampNanos() throws NotOpenException {
+    checkCaptured();
+    return timestampNanos;
+  }
+
+  /**
+   * @return the original length of the last packet read. Null if no packets have been read.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public Integer getOriginalLength() throws NotOpenException {
+    checkOpen();
+    if (!captured) {
+      return null;
+    }
+    return len;
+  }
+
+  /**
+   * @return a Packet object created from the next packet using the packet factory. Null if there
+   *     are no more packets.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public Packet getNextPacket() throws IOException, NotOpenException {
+    byte[] ba = getNextRawPacket();
+    if (ba == null) {
+      return null;
+    }
+    return PacketFactories.newPacket(ba, 0, ba.length, dlt, packetFactoryBinder);
+  }
+
+  /**
+   * @return the next packet. Null if there are no more packets.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public byte[] getNextRawPacket() throws IOException, NotOpenException {
+    checkOpen();
+    if (!readNext()) {
+      return null;
+    }
+    return copyCurrent();
+  }
+
+  /**
+   * @return a Packet object created from the next packet using the packet factory. Not null.
+   * @throws EOFException if there are no more packets.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public Packet getNextPacketEx() throws EOFException, IOException, NotOpenException {
+    byte[] ba = getNextRawPacketEx();
+    return PacketFactories.newPacket(ba, 0, ba.length, dlt, packetFactoryBinder);
+  }
+
+  /**
+   * @return the next packet. Not null.
+   * @throws EOFException if there are no more packets.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public byte[] getNextRawPacketEx() throws EOFException, IOException, NotOpenException {
+    checkOpen();
+    if (!readNext()) {
+      throw new EOFException();
+    }
+    return copyCurrent();
+  }
+
+  /**
+   * Reads packets and passes Packet objects created from them to <code>
+   * listener.gotPacket(Packet)</code> in the calling thread.
+   *
+   * @param packetCount the number of packets to read. -1 means all the remaining packets.
+   * @param listener listener
+   * @return the number of packets read, which is smaller than packetCount if the end of the file is
+   *     reached.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public int loop(int packetCount, PacketListener listener)
+      throws IOException, InterruptedException, NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+
+    checkOpen();
+    breakRequested = false;
+    int count = 0;
+    while (packetCount < 0 || count < packetCount) {
+      if (!readNext()) {
+        break;
+      }
+      count++;
+      byte[] ba = copyCurrent();
+      listener.gotPacket(PacketFactories.newPacket(ba, 0, ba.length, dlt, packetFactoryBinder));
+      checkBreak();
+    }
+    return count;
+  }
+
+  /**
+   * Reads packets and passes them to <code>listener.gotPacket(byte[])</code> in the calling thread.
+   *
+   * @param packetCount the number of packets to read. -1 means all the remaining packets.
+   * @param listener listener
+   * @return the number of packets read, which is smaller than packetCount if the end of the file is
+   *     reached.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public int loop(int packetCount, RawPacketListener listener)
+      throws IOException, InterruptedException, NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+
+    checkOpen();
+    breakRequested = false;
+    int count = 0;
+    while (packetCount < 0 || count < packetCount) {
+      if (!readNext()) {
+        break;
+      }
+      count++;
+      listener.gotPacket(copyCurrent());
+      checkBreak();
+    }
+    return count;
+  }
+
+  /**
+   * Reads packets and passes them to <code>listener.gotPacket(PacketBuffer)</code> in the calling
+   * thread without copying them. The {@link PacketBuffer} points to the mapped file and is valid
+   * only until the <code>gotPacket()</code> returns.
+   *
+   * @param packetCount the number of packets to read. -1 means all the remaining packets.
+   * @param listener listener
+   * @return the number of packets read, which is smaller than packetCount if the end of the file is
+   *     reached.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this reader is not open.
+   */
+  public int loop(int packetCount, BufferPacketListener listener)
+      throws IOException, InterruptedException, NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+
+    checkOpen();
+    breakRequested = false;
+    int count = 0;
+    while (packetCount < 0 || count < packetCount) {
+      if (!readNext()) {
+        break;
+      }
+      count++;
+      packetBuffer.reset(bigEndianWindow, dataIndex, caplen, len, timestampSeconds, timestampNanos);
+      try {
+        listener.gotPacket(packetBuffer);
+      } finally {
+        packetBuffer.invalidate();
+      }
+      checkBreak();
+    }
+    return count;
+  }
+
+  /**
+   * Breaks a loop which this reader is working on. The loop returns after the listener returns from
+   * the current packet.
+   */
+  public void breakLoop() {
+    breakRequested = true;
+  }
+
+  /** Closes this reader. */
+  @Override
+  public void close() {
+    if (!open) {
+      logger.warn("Already closed.");
+      return;
+    }
+    open = false;
+
+    // MappedByteBuffers are unmapped when they are garbage-collected.
+    window = null;
+    bigEndianWindow = null;
+    try {
+      file.close();
+    } catch (IOException e) {
+      logger.error("Failed to close " + filePath, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(100);
+    sb.append("File: [")
+        .append(filePath)
+        .append("] Format: [")
+        .append(ng ? "pcapng" : "pcap")
+        .append("] Link type: [")
+        .append(dlt)
+        .append("] Open: [")
+        .append(open)
+        .append("]");
+    return sb.toString();
+  }
+
+  private void checkOpen() throws NotOpenException {
+    if (!open) {
+      throw new NotOpenException();
+    }
+  }
+
+  private void checkCaptured() throws NotOpenException {
+    checkOpen();
+    if (!captured) {
+      throw new IllegalStateException("No packets have been read.");
+    }
+  }
+
+  private void checkBreak() throws InterruptedException {
+    if (breakRequested) {
+      breakRequested = false;
+      logger.info("Broken.");
+      throw new InterruptedException();
+    }
+  }
+
+  /** @return the position in the file of the next record to read. */
+  long getPosition() {
+    return position;
+  }
+
+  /**
+   * @return a checkpoint from which another reader of the same file can start reading the next
+   *     record.
+   */
+  Checkpoint checkpoint() {
+    return new Checkpoint(this);
+  }
+
+  /**
+   * Advances to the next packet without copying it.
+   *
+   * @return true if a packet has been read; false if there are no more packets.
+   * @throws IOException if an I/O error occurs or the file is malformed.
+   */
+  boolean next() throws IOException {
+    return readNext();
+  }
+
+  byte[] copyCurrent() {
+    byte[] data = new byte[caplen];
+    ByteBuffer d = window.duplicate();
+    ((Buffer) d).position(dataIndex);
+    d.get(data);
+    return data;
+  }
+
+  /**
+   * Makes the region [pos, pos + length) of the file available in the window.
+   *
+   * @return the window, whose byte order is set to the current byte order.
+   */
+  private ByteBuffer ensure(long pos, int length) throws IOException {
+    if (window == null || pos < windowStart || pos + length > windowEnd) {
+      long size = Math.min(fileSize - pos, Math.max(windowSize, length));
+      window = channel.map(MapMode.READ_ONLY, pos, size);
+      bigEndianWindow = window.duplicate().order(ByteOrder.BIG_ENDIAN);
+      windowStart = pos;
+      windowEnd = pos + size;
+    }
+    if (byteOrder != null) {
+      window.order(byteOrder);
+    }
+    return window;
+  }
+
+  private int index(long pos) {
+    return (int) (pos - windowStart);
+  }
+
+  private void setCurrent(int caplen, int len, long tsSec, long tsNanos) {
+    this.caplen = caplen;
+    this.len = len;
+    if (tsNanos >= 1000000000L) {
+      tsSec += tsNanos / 1000000000L;
+      tsNanos %= 1000000000L;
+    }
+    this.timestampSeconds = tsSec;
+    this.timestampNanos = (int) tsNanos;
+    this.captured = true;
+  }
+
+  private boolean readNext() throws IOException {
+    return ng ? readNextNg() : readNextPcap();
+  }
+
+  private boolean readNextPcap() throws IOException {
+    if (position == fileSize) {
+      return false;
+    }
+    if (position + PCAP_RECORD_HEADER_SIZE > fileSize) {
+      throw new IOException(
+          "Truncated record header at " + position + " (" + (fileSize - position) + " bytes)");
+    }
+
+    ByteBuffer buf = ensure(position, PCAP_RECORD_HEADER_SIZE);
+    int idx = index(position);
+    long tsSec = buf.getInt(idx) & 0xFFFFFFFFL;
+    long tsFrac = buf.getInt(idx + 4) & 0xFFFFFFFFL;
+    int incl = buf.getInt(idx + 8);
+    int orig = buf.getInt(idx + 12);
+    if (incl < 0 || incl > MAX_RECORD_LENGTH) {
+      throw new IOException("Invalid captured length " + incl + " at " + position);
+    }
+
+    long dataPos = position + PCAP_RECORD_HEADER_SIZE;
+    if (dataPos + incl > fileSize) {
+      throw new IOException(
+          "Truncated record at "
+              + position
+              + ": "
+              + incl
+              + " bytes expected, but only "
+              + (fileSize - dataPos)
+              + " bytes available");
+    }
+    ensure(dataPos, incl);
+    dataIndex = index(dataPos);
+    setCurrent(
+        incl, orig, tsSec, timestampPrecision == TimestampPrecision.NANO ? tsFrac : tsFrac * 1000L);
+    position = dataPos + incl;
+    return true;
+  }
+
+  private void readNgHeaderBlocks() throws IOException {
+    while (position < fileSize) {
+      int type = peekNgBlockType();
+      if (type == PCAPNG_EPB || type == PCAPNG_SPB || type == PCAPNG_PB) {
+        return;
+      }
+      readNgBlock();
+    }
+  }
+
+  private boolean readNextNg() throws IOException {
+    while (position < fileSize) {
+      if (readNgBlock()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int peekNgBlockType() throws IOException {
+    if (position + 12 > fileSize) {
+      throw new IOException("Truncated block at " + position);
+    }
+    ByteBuffer buf = ensure(position, 12);
+    return buf.getInt(index(position));
+  }
+
+  /** @return true if a packet block has been read; false otherwise. */
+  private boolean readNgBlock() throws IOException {
+    int type = peekNgBlockType();
+    if (type == PCAPNG_SHB) {
+      ByteBuffer buf = ensure(position, 12).order(ByteOrder.BIG_ENDIAN);
+      int bom = buf.getInt(index(position) + 8);
+      if (bom == PCAPNG_BOM) {
+        byteOrder = ByteOrder.BIG_ENDIAN;
+      } else if (Integer.reverseBytes(bom) == PCAPNG_BOM) {
+        byteOrder = ByteOrder.LITTLE_ENDIAN;
+      } else {
+        throw new IOException("Invalid byte-order magic at " + position);
+      }
+    }
+
+    ByteBuffer buf = ensure(position, 12);
+    int totalLength = buf.getInt(index(position) + 4);
+    if (totalLength < 12
+        || totalLength % 4 != 0
+        || totalLength > MAX_RECORD_LENGTH
+        || position + totalLength > fileSize) {
+      throw new IOException("Invalid block length " + totalLength + " at " + position);
+    }
+
+    buf = ensure(position, totalLength);
+    int base = index(position);
+    int bodyLength = totalLength - 12;
+    long blockPos = position;
+    position += totalLength;
+
+    switch (type) {
+      case PCAPNG_SHB:
+        if (bodyLength < 16) {
+          throw new IOException("Too short section header block at " + blockPos);
+        }
+        majorVersion = buf.getShort(base + 12) & 0xFFFF;
+        minorVersion = buf.getShort(base + 14) & 0xFFFF;
+        interfaces.clear();
+        return false;
+      case PCAPNG_IDB:
+        {
+          if (bodyLength < 8) {
+            throw new IOException("Too short interface description block at " + blockPos);
+          }
+          NgInterface ifc =
+              new NgInterface(
+                  DataLinkType.getInstance(buf.getShort(base + 8) & 0xFFFF), buf.getInt(base + 12));
+          readIdbOptions(buf, base + 16, base + 8 + bodyLength, ifc);
+          interfaces.add(ifc);
+          if (interfaces.size() == 1 && !captured) {
+            dlt = ifc.dlt;
+            snaplen = ifc.snaplen;
+          }
+          return false;
+        }
+      case PCAPNG_EPB:
+        {
+          if (bodyLength < 20) {
+            throw new IOException("Too short enhanced packet block at " + blockPos);
+          }
+          NgInterface ifc = getInterface(buf.getInt(base + 8), blockPos);
+          long ts =
+              ((buf.getInt(base + 12) & 0xFFFFFFFFL) << 32) | (buf.getInt(base + 16) & 0xFFFFFFFFL);
+          int incl = buf.getInt(base + 20);
+          if (incl < 0 || incl > bodyLength - 20) {
+            throw new IOException("Invalid captured length " + incl + " at " + blockPos);
+          }
+          setNgCurrent(ifc, base + 28, incl, buf.getInt(base + 24), ts);
+          return true;
+        }
+      case PCAPNG_SPB:
+        {
+          if (bodyLength < 4) {
+            throw new IOException("Too short simple packet block at " + blockPos);
+          }
+          NgInterface ifc = getInterface(0, blockPos);
+          int orig = buf.getInt(base + 8);
+          int incl = Math.min(orig, bodyLength - 4);
+          if (ifc.snaplen > 0) {
+            incl = Math.min(incl, ifc.snaplen);
+          }
+          if (incl < 0) {
+            throw new IOException("Invalid original length " + orig + " at " + blockPos);
+          }
+          // Simple packet blocks have no timestamps.
+          dataIndex = base + 12;
+          dlt = ifc.dlt;
+          snaplen = ifc.snaplen;
+          setCurrent(incl, orig, 0L, 0L);
+          return true;
+        }
+      case PCAPNG_PB:
+        {
+          if (bodyLength < 20) {
+            throw new IOException("Too short packet block at " + blockPos);
+          }
+          NgInterface ifc = getInterface(buf.getShort(base + 8) & 0xFFFF, blockPos);
+          long ts =
+              ((buf.getInt(base + 12) & 0xFFFFFFFFL) << 32) | (buf.getInt(base + 16) & 0xFFFFFFFFL);
+          int incl = buf.getInt(base + 20);
+          if (incl < 0 || incl > bodyLength - 20) {
+            throw new IOException("Invalid captured length " + incl + " at " + blockPos);
+          }
+          setNgCurrent(ifc, base + 28, incl, buf.getInt(base + 24), ts);
+          return true;
+        }
+      default:
+        // Skip other blocks such as name resolution blocks and interface statistics blocks.
+        return false;
+    }
+  }
+
+  private void readIdbOptions(ByteBuffer buf, int index, int end, NgInterface ifc)
+      throws IOException {
+    while (index + 4 <= end) {
+      int code = buf.getShort(index) & 0xFFFF;
+      int length = buf.getShort(index + 2) & 0xFFFF;
+      int valueIndex = index + 4;
+      if (code == PCAPNG_OPT_ENDOFOPT) {
+        return;
+      }
+      if (valueIndex + length > end) {
+        throw new IOException("Invalid option length " + length);
+      }
+      if (code == PCAPNG_OPT_IF_TSRESOL && length >= 1) {
+        int tsresol = buf.get(valueIndex) & 0xFF;
+        ifc.binaryResolution = (tsresol & 0x80) != 0;
+        ifc.resolutionExponent = tsresol & 0x7F;
+      } else if (code == PCAPNG_OPT_IF_TSOFFSET && length >= 8) {
+        ifc.tsOffset = buf.getLong(valueIndex);
+      }
+      index = valueIndex + ((length + 3) & ~3);
+    }
+  }
+
+  private NgInterface getInterface(int interfaceId, long blockPos) throws IOException {
+    if (interfaceId < 0 || interfaceId >= interfaces.size()) {
+      throw new IOException("Unknown interface ID " + interfaceId + " at " + blockPos);
+    }
+    return interfaces.get(interfaceId);
+  }
+
+  private void setNgCurrent(NgInterface ifc, int dataIndex, int incl, int orig, long ts) {
+    long sec;
+    long nanos;
+    int exp = ifc.resolutionExponent;
+    if (ifc.binaryResolution) {
+      if (exp >= 63) {
+        sec = 0;
+        nanos = 0;
+      } else {
+        long frac = ts & ((1L << exp) - 1);
+        sec = ts >>> exp;
+        nanos =
+            exp > 33 ? ((frac >>> (exp - 33)) * 1000000000L) >>> 33 : (frac * 1000000000L) >>> exp;
+      }
+    } else {
+      if (exp > 18) {
+        sec = 0;
+        nanos = 0;
+      } else {
+        long unitsPerSec = POWERS_OF_TEN[exp];
+        sec = ts / unitsPerSec;
+        long frac = ts % unitsPerSec;
+        nanos = exp <= 9 ? frac * POWERS_OF_TEN[9 - exp] : frac / POWERS_OF_TEN[exp - 9];
+      }
+    }
+    this.dataIndex = dataIndex;
+    this.dlt = ifc.dlt;
+    this.snaplen = ifc.snaplen;
+    setCurrent(incl, orig, sec + ifc.tsOffset, nanos);
+  }
+
+  /**
+   * The position of a record together with the state of the file (byte order, link type,
+   * interfaces, etc.) needed to read the record.
+   */
+  static final class Checkpoint {
+
+    private final long position;
+    private final boolean ng;
+    private final ByteOrder byteOrder;
+    private final TimestampPrecision timestampPrecision;
+    private final DataLinkType dlt;
+    private final int snaplen;
+    private final int majorVersion;
+    private final int minorVersion;
+    // NgInterface objects are never modified once added to the list.
+    private final List<NgInterface> interfaces;
+
+    private Checkpoint(PcapFileReader reader) {
+      this.position = reader.position;
+      this.ng = reader.ng;
+      this.byteOrder = reader.byteOrder;
+      this.timestampPrecision = reader.timestampPrecision;
+      this.dlt = reader.dlt;
+      this.snaplen = reader.snaplen;
+      this.majorVersion = reader.majorVersion;
+      this.minorVersion = reader.minorVersion;
+      this.interfaces = new ArrayList<NgInterface>(reader.interfaces);
+    }
+
+    long getPosition() {
+      return position;
+    }
+  }
+
+  private static final class NgInterface {
+
+    private final DataLinkType dlt;
+    private final int snaplen;
+    private boolean binaryResolution = false;
+    private int resolutionExponent = 6;
+    private long tsOffset = 0;
+
+    private NgInterface(DataLinkType dlt, int snaplen) {
+      this.dlt = dlt;
+      this.snaplen = snaplen;
+    }
+  }
+}
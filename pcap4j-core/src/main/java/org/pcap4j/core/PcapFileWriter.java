@@ -0,0 +1,615 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.sql.Timestamp;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.AbstractPacket;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pure Java writer of pcap files.
+ *
+ * <p>Unlike {@link PcapDumper}, which calls the pcap native library for each packet, this class
+ * serializes the file header and the record headers by itself into a direct buffer and writes the
+ * buffer to the file by {@link FileChannel#write(ByteBuffer)} only when it is full or flushed. If
+ * the background writing is enabled, a full buffer is handed to a dedicated thread and the next
+ * packet is written into a spare buffer, so that the dumping thread doesn't wait for the disk
+ * unless all the buffers are full.
+ *
+ * <p>The file is written in the native byte order in the same format as libpcap writes. This class
+ * is thread-safe. Packets written are not guaranteed to be in the file until {@link #flush()} or
+ * {@link #close()} is called.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class PcapFileWriter implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(PcapFileWriter.class);
+
+  /** The default size (in bytes) of the buffers. */
+  public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+  private static final int PCAP_MAGIC_MICRO = 0xA1B2C3D4;
+  private static final int PCAP_MAGIC_NANO = 0xA1B23C4D;
+  private static final int PCAP_FILE_HEADER_SIZE = 24;
+  private static final int PCAP_RECORD_HEADER_SIZE = 16;
+
+  private final String filePath;
+  private final DataLinkType dlt;
+  private final int snaplen;
+  private final TimestampPrecision timestampPrecision;
+  private final FileOutputStream out;
+  private final FileChannel channel;
+  private final Object lock = new Object();
+
+  // for background writing. null if disabled.
+  private final ExecutorService writerExecutor;
+  private final BlockingQueue<ByteBuffer> freeBuffers;
+  private Future<?> lastWrite;
+  private volatile IOException writeError;
+
+  private ByteBuffer buffer;
+  private long position = 0;
+  private long packetCount = 0;
+  private volatile boolean open = true;
+
+  private PcapFileWriter(Builder builder) throws IOException {
+    this.filePath = builder.filePath;
+    this.dlt = builder.dlt;
+    this.snaplen = builder.snaplen;
+    this.timestampPrecision = builder.timestampPrecision;
+    this.buffer = newBuffer(builder.bufferSize);
+
+    if (builder.backgroundWrite) {
+      this.freeBuffers = new ArrayBlockingQueue<ByteBuffer>(builder.bufferCount - 1);
+      for (int i = 1; i < builder.bufferCount; i++) {
+        freeBuffers.add(newBuffer(builder.bufferSize));
+      }
+    } else {
+      this.freeBuffers = null;
+    }
+
+    this.out = new FileOutputStream(filePath);
+    this.channel = out.getChannel();
+
+    buffer.putInt(
+        timestampPrecision == TimestampPrecision.NANO ? PCAP_MAGIC_NANO : PCAP_MAGIC_MICRO);
+    buffer.putShort((short) 2);
+    buffer.putShort((short) 4);
+    buffer.putInt(0); // thiszone
+    buffer.putInt(0); // sigfigs
+    buffer.putInt(snaplen);
+    buffer.putInt(dlt.value());
+    position = PCAP_FILE_HEADER_SIZE;
+
+    if (builder.backgroundWrite) {
+      final String threadName = "PcapFileWriter-" + filePath;
+      this.writerExecutor =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                  Thread t = new Thread(r, threadName);
+                  t.setDaemon(true);
+                  return t;
+                }
+              });
+    } else {
+      this.writerExecutor = null;
+    }
+  }
+
+  private static ByteBuffer newBuffer(int size) {
+    return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+  }
+
+  /** @return the path of the file. */
+  public String getFilePath() {
+    return filePath;
+  }
+
+  /** @return the Data Link Type of the file. */
+  public DataLinkType getDlt() {
+    return dlt;
+  }
+
+  /** @return the snapshot length of the file. */
+  public int getSnapshot() {
+    return snaplen;
+  }
+
+  /** @return the timestamp precision of the file. */
+  public TimestampPrecision getTimestampPrecision() {
+    return timestampPrecision;
+  }
+
+  /** @return true if background writing is enabled; false otherwise. */
+  public boolean isBackgroundWrite() {
+    return writerExecutor != null;
+  }
+
+  /** @return true if this writer is open; false otherwise. */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * @return the size of the file including the packets which have been dumped but not written to
+   *     the file yet.
+   */
+  public long getPosition() {
+    synchronized (lock) {
+      return position;
+    }
+  }
+
+  /** @return the number of packets which have been dumped. */
+  public long getPacketCount() {
+    synchronized (lock) {
+      return packetCount;
+    }
+  }
+
+  /**
+   * @param packet packet
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(Packet packet) throws IOException, NotOpenException {
+    long now = System.currentTimeMillis();
+    dump(packet, now / 1000L, (int) (now % 1000L) * 1000000);
+  }
+
+  /**
+   * @param packet packet
+   * @param timestamp timestamp
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(Packet packet, Timestamp timestamp) throws IOException, NotOpenException {
+    if (packet == null || timestamp == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("packet: ").append(packet).append(" ts: ").append(timestamp);
+      throw new NullPointerException(sb.toString());
+    }
+
+    dump(packet, timestamp.getTime() / 1000L, timestamp.getNanos());
+  }
+
+  /**
+   * @param packet packet
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(Packet packet, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
+    if (!(packet instanceof AbstractPacket)) {
+      dumpRaw(packet.getRawData(), timestampSeconds, timestampNanos);
+      return;
+    }
+
+    // Write the raw data directly into the buffer without building a byte array of it.
+    ByteBuffer data = ((AbstractPacket) packet).rawDataView();
+    dump(data, data.remaining(), timestampSeconds, timestampNanos);
+  }
+
+  /**
+   * Dumps a packet passed to a {@link BufferPacketListener} without copying it to a byte array.
+   *
+   * @param packet packet
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(PacketBuffer packet) throws IOException, NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
+    dump(
+        packet.asByteBuffer(),
+        packet.getOriginalLength(),
+        packet.getTimestampSeconds(),
+        packet.getTimestampNanos());
+  }
+
+  private void dump(ByteBuffer data, int originalLength, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    synchronized (lock) {
+      ByteBuffer buf =
+          putRecordHeader(data.remaining(), originalLength, timestampSeconds, timestampNanos);
+      if (buf == null) {
+        write(data);
+        return;
+      }
+      buf.put(data);
+    }
+  }
+
+  /**
+   * @param packet packet
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(byte[] packet) throws IOException, NotOpenException {
+    long now = System.currentTimeMillis();
+    dumpRaw(packet, now / 1000L, (int) (now % 1000L) * 1000000);
+  }
+
+  /**
+   * @param packet packet
+   * @param timestamp timestamp
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(byte[] packet, Timestamp timestamp) throws IOException, NotOpenException {
+    if (packet == null || timestamp == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("packet: ").append(packet).append(" timestamp: ").append(timestamp);
+      throw new NullPointerException(sb.toString());
+    }
+
+    dumpRaw(packet, timestamp.getTime() / 1000L, timestamp.getNanos());
+  }
+
+  /**
+   * @param packet packet
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(byte[] packet, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
+    dumpRaw(packet, 0, packet.length, packet.length, timestampSeconds, timestampNanos);
+  }
+
+  /**
+   * @param data an array which contains a packet.
+   * @param offset the offset of the packet in data.
+   * @param length the captured length of the packet.
+   * @param originalLength the original length of the packet.
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(
+      byte[] data,
+      int offset,
+      int length,
+      int originalLength,
+      long timestampSeconds,
+      int timestampNanos)
+      throws IOException, NotOpenException {
+    if (data == null) {
+      throw new NullPointerException("data must not be null.");
+    }
+    if (offset < 0 || length < 0 || offset > data.length - length) {
+      StringBuilder sb = new StringBuilder(80);
+      sb.append("data.length: ")
+          .append(data.length)
+          .append(" offset: ")
+          .append(offset)
+          .append(" length: ")
+          .append(length);
+      throw new ArrayIndexOutOfBoundsException(sb.toString());
+    }
+
+    synchronized (lock) {
+      ByteBuffer buf = putRecordHeader(length, originalLength, timestampSeconds, timestampNanos);
+      if (buf == null) {
+        write(ByteBuffer.wrap(data, offset, length));
+        return;
+      }
+      buf.put(data, offset, length);
+    }
+  }
+
+  /**
+   * Puts a record header into the buffer, making room for the data as well if possible.
+   *
+   * @return the buffer to put the data into, or null if the data doesn't fit in a buffer and must
+   *     be written directly to the file, in which case the header has already been written.
+   */
+  private ByteBuffer putRecordHeader(int caplen, int len, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    if (!open) {
+      throw new NotOpenException();
+    }
+    checkWriteError();
+
+    int recordLength = PCAP_RECORD_HEADER_SIZE + caplen;
+    if (buffer.remaining() < recordLength) {
+      swapBuffer();
+    }
+
+    buffer.putInt((int) timestampSeconds);
+    buffer.putInt(
+        timestampPrecision == TimestampPrecision.NANO ? timestampNanos : timestampNanos / 1000);
+    buffer.putInt(caplen);
+    buffer.putInt(len);
+    position += recordLength;
+    packetCount++;
+
+    if (buffer.remaining() < caplen) {
+      // The record is larger than a buffer.
+      swapBuffer();
+      waitForLastWrite();
+      return null;
+    }
+    return buffer;
+  }
+
+  /** Hands the current buffer to the writer and takes a free one. */
+  private void swapBuffer() throws IOException {
+    ((Buffer) buffer).flip();
+    if (writerExecutor == null) {
+      write(buffer);
+      ((Buffer) buffer).clear();
+      return;
+    }
+
+    final ByteBuffer filled = buffer;
+    ByteBuffer next;
+    try {
+      next = freeBuffers.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      ((Buffer) filled).clear();
+      throw new IOException("Interrupted while waiting for a free buffer.");
+    }
+    lastWrite =
+        writerExecutor.submit(
+            new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  if (writeError == null) {
+                    write(filled);
+                  }
+                } catch (IOException e) {
+                  logger.error("Failed to write to " + filePath, e);
+                  writeError = e;
+                } finally {
+                  ((Buffer) filled).clear();
+                  freeBuffers.add(filled);
+                }
+              }
+            });
+    buffer = next;
+  }
+
+  private void write(ByteBuffer src) throws IOException {
+    while (src.hasRemaining()) {
+      channel.write(src);
+    }
+  }
+
+  private void waitForLastWrite() throws IOException {
+    if (lastWrite == null) {
+      return;
+    }
+    try {
+      lastWrite.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the writer.");
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+    lastWrite = null;
+    checkWriteError();
+  }
+
+  private void checkWriteError() throws IOException {
+    IOException e = writeError;
+    if (e != null) {
+      throw new IOException("Failed to write to " + filePath, e);
+    }
+  }
+
+  /**
+   * Writes all the buffered packets to the file.
+   *
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void flush() throws IOException, NotOpenException {
+    synchronized (lock) {
+      if (!open) {
+        throw new NotOpenException();
+      }
+      checkWriteError();
+      swapBuffer();
+      waitForLastWrite();
+    }
+  }
+
+  /**
+   * Writes all the buffered packets to the file and forces them to the storage device.
+   *
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void sync() throws IOException, NotOpenException {
+    synchronized (lock) {
+      flush();
+      channel.force(false);
+    }
+  }
+
+  /** Flushes and closes this writer. */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (!open) {
+        logger.warn("Already closed.");
+        return;
+      }
+      try {
+        swapBuffer();
+        waitForLastWrite();
+      } catch (IOException e) {
+        logger.error("Failed to flush " + filePath, e);
+      } finally {
+        open = false;
+        if (writerExecutor != null) {
+          writerExecutor.shutdown();
+        }
+        try {
+          out.close();
+        } catch (IOException e) {
+          logger.error("Failed to close " + filePath, e);
+        }
+      }
+    }
+    logger.info("Closed.");
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(100);
+    sb.append("File: [")
+        .append(filePath)
+        .append("] Link type: [")
+        .append(dlt)
+        .append("] Timestamp precision: [")
+        .append(timestampPrecision)
+        .append("] Open: [")
+        .append(open)
+        .append("]");
+    return sb.toString();
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private final String filePath;
+    private final DataLinkType dlt;
+    private int snaplen = 262144;
+    private TimestampPrecision timestampPrecision = TimestampPrecision.MICRO;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private boolean backgroundWrite = false;
+    private int bufferCount = 3;
+
+    /**
+     * @param filePath the path of the file to write. If it exists, it's truncated.
+     * @param dlt the Data Link Type of the packets to write.
+     */
+    public Builder(String filePath, DataLinkType dlt) {
+      if (filePath == null || filePath.length() == 0 || dlt == null) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("filePath: ").append(filePath).append(" dlt: ").append(dlt);
+        throw new IllegalArgumentException(sb.toString());
+      }
+      this.filePath = filePath;
+      this.dlt = dlt;
+    }
+
+    /**
+     * @param snaplen the snapshot length written in the file header. If this method isn't called,
+     *     262144 is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder snaplen(int snaplen) {
+      this.snaplen = snaplen;
+      return this;
+    }
+
+    /**
+     * @param timestampPrecision the precision of the timestamps in the file. If this method isn't
+     *     called, {@link TimestampPrecision#MICRO} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder timestampPrecision(TimestampPrecision timestampPrecision) {
+      if (timestampPrecision == null) {
+        throw new NullPointerException("timestampPrecision must not be null.");
+      }
+      this.timestampPrecision = timestampPrecision;
+      return this;
+    }
+
+    /**
+     * @param bufferSize the size (in bytes) of each buffer. If this method isn't called, {@link
+     *     PcapFileWriter#DEFAULT_BUFFER_SIZE} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder bufferSize(int bufferSize) {
+      if (bufferSize < PCAP_FILE_HEADER_SIZE) {
+        throw new IllegalArgumentException("bufferSize: " + bufferSize);
+      }
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    /**
+     * @param backgroundWrite true to write full buffers to the file in a background thread; false
+     *     to write them in the dumping thread (the default).
+     * @return this Builder object for method chaining.
+     */
+    public Builder backgroundWrite(boolean backgroundWrite) {
+      this.backgroundWrite = backgroundWrite;
+      return this;
+    }
+
+    /**
+     * @param bufferCount the number of buffers used for background writing, which must be 2 or
+     *     more. If this method isn't called, 3 is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder bufferCount(int bufferCount) {
+      if (bufferCount < 2) {
+        throw new IllegalArgumentException("bufferCount: " + bufferCount);
+      }
+      this.bufferCount = bufferCount;
+      return this;
+    }
+
+    /**
+     * Creates the file and writes the file header to the buffer.
+     *
+     * @return a new PcapFileWriter object.
+     * @throws IOException if the file can't be created.
+     */
+    public PcapFileWriter build() throws IOException {
+      return new PcapFileWriter(this);
+    }
+  }
+}
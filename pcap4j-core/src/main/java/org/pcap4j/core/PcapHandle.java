@@ -7,6 +7,8 @@
 
 package org.pcap4j.core;
 
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
 import com.sun.jna.Platform;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
@@ -16,12 +18,15 @@ import java.io.EOFException;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import org.pcap4j.core.BpfProgram.BpfCompileMode;
 import org.pcap4j.core.NativeMappings.PcapErrbuf;
 import org.pcap4j.core.NativeMappings.PcapLibrary;
@@ -29,8 +34,11 @@ import org.pcap4j.core.NativeMappings.bpf_program;
 import org.pcap4j.core.NativeMappings.pcap_pkthdr;
 import org.pcap4j.core.NativeMappings.pcap_stat;
 import org.pcap4j.core.PcapNetworkInterface.PromiscuousMode;
+import org.pcap4j.packet.AbstractPacket;
 import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.factory.DecodingProfile;
 import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.factory.PacketFactoryBinder;
 import org.pcap4j.packet.namednumber.DataLinkType;
 import org.pcap4j.util.ByteArrays;
 import org.slf4j.Logger;
@@ -46,16 +54,35 @@ public final class PcapHandle implements Closeable {
 
   private static final Logger logger = LoggerFactory.getLogger(PcapHandle.class);
 
+  private static final int MIN_SEND_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_CACHED_SEND_BUFFER_SIZE = 4 * 1024 * 1024;
+  private static final int EINVAL = 22; // on Linux
+
   private volatile DataLinkType dlt;
   private final TimestampPrecision timestampPrecision;
   private final Pointer handle;
-  private final ThreadLocal<Timestamp> timestamps = new ThreadLocal<Timestamp>();
-  private final ThreadLocal<Integer> originalLengths = new ThreadLocal<Integer>();
-  private final ReentrantReadWriteLock handleLock = new ReentrantReadWriteLock(true);
+  private final ThreadLocal<LastPacketInfo> lastPacketInfos =
+      new ThreadLocal<LastPacketInfo>() {
+        @Override
+        protected LastPacketInfo initialValue() {
+          return new LastPacketInfo();
+        }
+      };
+  private final NativeResourceGuard handleGuard = new NativeResourceGuard();
   private static final Object compileLock = new Object();
+  // The native buffer to stage packets to send, which is taken by a sender while it's used so that
+  // concurrent senders don't share it, and released by close().
+  private final AtomicReference<Memory> sendBuffer = new AtomicReference<Memory>();
+  // The batch for the listeners called in the dispatching thread, which is taken by a dispatch
+  // while it's used so that concurrent dispatches don't share it.
+  private final AtomicReference<PacketBatch> reusableBatch = new AtomicReference<PacketBatch>();
 
   private volatile boolean open = true;
   private volatile String filteringExpression = "";
+  private final Object decodingBinderLock = new Object();
+  private volatile PacketFactoryBinder packetFactoryBinder = null;
+  private volatile DecodingProfile decodingProfile = null;
+  private volatile PacketFactoryBinder decodingBinder = null;
 
   /**
    * The netmask used for {@link #setFilter(String, BpfProgram.BpfCompileMode, Inet4Address)} or
@@ -172,11 +199,89 @@ public final class PcapHandle implements Closeable {
           throw new PcapNativeException("Failed to set direction: " + getError(), rc);
         }
       }
+      if (builder.fanoutMode != null) {
+        try {
+          joinFanoutGroup(builder.fanoutGroupId, builder.fanoutMode, builder.fanoutDefrag);
+        } catch (PcapNativeException e) {
+          NativeMappings.pcap_close(handle);
+          throw e;
+        }
+      }
     } catch (NotOpenException e) {
       throw new AssertionError("Never get here.");
     }
 
     this.dlt = getDltByNative();
+    this.packetFactoryBinder = builder.packetFactoryBinder;
+    this.decodingBinder = builder.packetFactoryBinder;
+  }
+
+  /**
+   * Makes this PcapHandle join a fanout group, e.g. after setting a filter so that no packet which
+   * doesn't pass the filter is distributed to this handle. See {@link Builder#fanout(int,
+   * FanoutMode, boolean)}.
+   *
+   * @param groupId the ID of the group (0 to 65535).
+   * @param mode how packets are distributed among the members of the group.
+   * @param defrag whether the kernel reassembles IP fragments before distributing them.
+   * @throws PcapNativeException if the platform doesn't support PACKET_FANOUT or failed to join.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  void joinFanout(int groupId, FanoutMode mode, boolean defrag)
+      throws PcapNativeException, NotOpenException {
+    if (!open) {
+      throw new NotOpenException();
+    }
+
+    if (!handleGuard.enter()) {
+      throw new NotOpenException();
+    }
+    try {
+      joinFanoutGroup(groupId, mode, defrag);
+    } finally {
+      handleGuard.exit();
+    }
+  }
+
+  private void joinFanoutGroup(int groupId, FanoutMode mode, boolean defrag)
+      throws PcapNativeException {
+    if (!Platform.isLinux()) {
+      throw new PcapNativeException("PACKET_FANOUT is supported only on Linux.");
+    }
+
+    int rc;
+    try {
+      rc =
+          PcapLibrary.INSTANCE.setsockopt(
+              NativeMappings.pcap_fileno(handle),
+              NativeMappings.SOL_PACKET,
+              NativeMappings.PACKET_FANOUT,
+              new IntByReference(getFanoutArg(groupId, mode, defrag)),
+              4);
+    } catch (UnsatisfiedLinkError e) {
+      logger.error("Failed to join the fanout group.", e);
+      throw new PcapNativeException("setsockopt is not available in this environment.");
+    }
+    if (rc != 0) {
+      int errno = Native.getLastError();
+      StringBuilder sb = new StringBuilder(80);
+      sb.append("Failed to join the fanout group ")
+          .append(groupId)
+          .append(" in ")
+          .append(mode)
+          .append(" mode. errno: ")
+          .append(errno);
+      if (errno == EINVAL) {
+        sb.append(
+            " (The group may be used by another socket in another mode or on another device.)");
+      }
+      throw new PcapNativeException(sb.toString(), rc);
+    }
+  }
+
+  static int getFanoutArg(int groupId, FanoutMode mode, boolean defrag) {
+    int flags = defrag ? NativeMappings.PACKET_FANOUT_FLAG_DEFRAG : 0;
+    return (groupId & 0xFFFF) | ((mode.getValue() | flags) << 16);
   }
 
   private DataLinkType getDltByNative() {
@@ -201,20 +306,16 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       int rc = NativeMappings.pcap_set_datalink(handle, dlt.value());
       if (rc < 0) {
         throw new PcapNativeException(getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     this.dlt = dlt;
@@ -238,6 +339,56 @@ public final class PcapHandle implements Closeable {
     return timestampPrecision;
   }
 
+  /**
+   * Sets a binder which provides the factories to build Packet objects from the packets captured by
+   * this PcapHandle, so that handles in the same JVM can decode packets differently.
+   *
+   * @param binder binder. null to use the one found by {@link PacketFactories}.
+   */
+  public void setPacketFactoryBinder(PacketFactoryBinder binder) {
+    synchronized (decodingBinderLock) {
+      this.packetFactoryBinder = binder;
+      updateDecodingBinder();
+    }
+  }
+
+  /** @return the binder set to this PcapHandle. May be null. */
+  public PacketFactoryBinder getPacketFactoryBinder() {
+    return packetFactoryBinder;
+  }
+
+  /**
+   * Sets a profile to limit the protocols decoded from the packets captured by this PcapHandle. The
+   * parts of the packets which are not decoded due to the profile are built as {@link
+   * org.pcap4j.packet.UnknownPacket UnknownPacket}. The profile is applied to the binder set by
+   * {@link #setPacketFactoryBinder(PacketFactoryBinder)} if any.
+   *
+   * @param profile profile. null to decode all the protocols.
+   */
+  public void setDecodingProfile(DecodingProfile profile) {
+    synchronized (decodingBinderLock) {
+      this.decodingProfile = profile;
+      updateDecodingBinder();
+    }
+  }
+
+  /** @return the profile set by {@link #setDecodingProfile(DecodingProfile)}. May be null. */
+  public DecodingProfile getDecodingProfile() {
+    return decodingProfile;
+  }
+
+  private void updateDecodingBinder() {
+    PacketFactoryBinder binder = packetFactoryBinder;
+    if (decodingProfile != null) {
+      binder = decodingProfile.apply(binder != null ? binder : PacketFactories.getDefaultBinder());
+    }
+    this.decodingBinder = binder;
+  }
+
+  private Packet decodePacket(byte[] ba, DataLinkType dlt) {
+    return PacketFactories.newPacket(ba, 0, ba.length, dlt, decodingBinder);
+  }
+
   /**
    * Set direction flag, which controls whether we accept only incoming packets, only outgoing
    * packets, or both. Note that, depending on the platform, some or all direction arguments might
@@ -255,33 +406,88 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       int rc = NativeMappings.pcap_setdirection(handle, direction.getValue());
       if (rc < 0) {
         throw new PcapNativeException("Failed to set direction: " + getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
-  /** @return the timestamp of the last packet captured by this handle in the current thread. */
+  /**
+   * @return the timestamp of the last packet captured by this handle in the current thread. Null if
+   *     no packets have been captured in the current thread.
+   */
   public Timestamp getTimestamp() {
-    return timestamps.get();
+    LastPacketInfo info = lastPacketInfos.get();
+    if (!info.captured) {
+      return null;
+    }
+    Timestamp ts = new Timestamp(info.timestampSeconds * 1000L);
+    ts.setNanos(info.timestampNanos);
+    return ts;
+  }
+
+  /**
+   * Returns the seconds part of the timestamp of the last packet captured by this handle in the
+   * current thread. Unlike {@link #getTimestamp()}, this method doesn't create any objects.
+   *
+   * @return the seconds since the epoch.
+   * @throws IllegalStateException if no packets have been captured in the current thread.
+   */
+  public long getTimestampSeconds() {
+    LastPacketInfo info = lastPacketInfos.get();
+    if (!info.captured) {
+      throw new IllegalStateException("No packets have been captured in the current thread.");
+    }
+    return info.timestampSeconds;
+  }
+
+  /**
+   * Returns the nanoseconds part of the timestamp of the last packet captured by this handle in the
+   * current thread. Unlike {@link #getTimestamp()}, this method doesn't create any objects.
+   *
+   * @return the nanoseconds, which is in the range of 0 to 999,999,999.
+   * @throws IllegalStateException if no packets have been captured in the current thread.
+   */
+  public int getTimestampNanos() {
+    LastPacketInfo info = lastPacketInfos.get();
+    if (!info.captured) {
+      throw new IllegalStateException("No packets have been captured in the current thread.");
+    }
+    return info.timestampNanos;
   }
 
   /**
    * @return the original length of the last packet captured by this handle in the current thread.
+   *     Null if no packets have been captured in the current thread.
    */
   public Integer getOriginalLength() {
-    return originalLengths.get();
+    LastPacketInfo info = lastPacketInfos.get();
+    if (!info.captured) {
+      return null;
+    }
+    return info.originalLength;
+  }
+
+  private void setLastPacketInfo(long timestampSeconds, int timestampNanos, int originalLength) {
+    LastPacketInfo info = lastPacketInfos.get();
+    info.timestampSeconds = timestampSeconds;
+    info.timestampNanos = timestampNanos;
+    info.originalLength = originalLength;
+    info.captured = true;
+  }
+
+  private void setLastPacketInfo(Pointer header) {
+    setLastPacketInfo(
+        pcap_pkthdr.getTvSecAsLong(header),
+        buildTimestampNanos(header),
+        pcap_pkthdr.getLen(header));
   }
 
   /**
@@ -293,16 +499,13 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       return NativeMappings.pcap_snapshot(handle);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -316,16 +519,13 @@ public final class PcapHandle implements Closeable {
     }
 
     int rc;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       rc = NativeMappings.pcap_is_swapped(handle);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     switch (rc) {
@@ -350,16 +550,13 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       return NativeMappings.pcap_major_version(handle);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -372,16 +569,13 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       return NativeMappings.pcap_minor_version(handle);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -410,14 +604,10 @@ public final class PcapHandle implements Closeable {
     }
 
     bpf_program prog;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       prog = new bpf_program();
       int rc;
       synchronized (compileLock) {
@@ -433,7 +623,7 @@ public final class PcapHandle implements Closeable {
         throw new PcapNativeException(getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     return new BpfProgram(prog, bpfExpression);
@@ -463,14 +653,10 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       bpf_program prog = new bpf_program();
       try {
         int mask = ByteArrays.getInt(ByteArrays.toByteArray(netmask), 0);
@@ -492,7 +678,7 @@ public final class PcapHandle implements Closeable {
         NativeMappings.pcap_freecode(prog);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -522,20 +708,16 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       int rc = NativeMappings.pcap_setfilter(handle, prog.getProgram());
       if (rc < 0) {
         throw new PcapNativeException("Failed to set filter: " + getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     this.filteringExpression = prog.getExpression();
@@ -556,21 +738,17 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       PcapErrbuf errbuf = new PcapErrbuf();
       int rc = NativeMappings.pcap_setnonblock(handle, mode.getValue(), errbuf);
       if (rc < 0) {
         throw new PcapNativeException(errbuf.toString(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -586,16 +764,13 @@ public final class PcapHandle implements Closeable {
 
     PcapErrbuf errbuf = new PcapErrbuf();
     int rc;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       rc = NativeMappings.pcap_getnonblock(handle, errbuf);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     if (rc == 0) {
@@ -617,8 +792,7 @@ public final class PcapHandle implements Closeable {
       return null;
     }
 
-    return PacketFactories.getFactory(Packet.class, DataLinkType.class)
-        .newInstance(ba, 0, ba.length, dlt);
+    return decodePacket(ba, dlt);
   }
 
   /**
@@ -633,22 +807,18 @@ public final class PcapHandle implements Closeable {
     pcap_pkthdr header = new pcap_pkthdr();
     header.setAutoSynch(false);
     Pointer packet;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       packet = NativeMappings.pcap_next(handle, header);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     if (packet != null) {
       Pointer headerP = header.getPointer();
-      timestamps.set(buildTimestamp(headerP));
-      originalLengths.set(pcap_pkthdr.getLen(headerP));
+      setLastPacketInfo(headerP);
       return packet.getByteArray(0, pcap_pkthdr.getCaplen(headerP));
     } else {
       return null;
@@ -666,8 +836,7 @@ public final class PcapHandle implements Closeable {
   public Packet getNextPacketEx()
       throws PcapNativeException, EOFException, TimeoutException, NotOpenException {
     byte[] ba = getNextRawPacketEx();
-    return PacketFactories.getFactory(Packet.class, DataLinkType.class)
-        .newInstance(ba, 0, ba.length, dlt);
+    return decodePacket(ba, dlt);
   }
 
   /**
@@ -684,14 +853,10 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       PointerByReference headerPP = new PointerByReference();
       PointerByReference dataPP = new PointerByReference();
       int rc = NativeMappings.pcap_next_ex(handle, headerPP, dataPP);
@@ -706,8 +871,7 @@ public final class PcapHandle implements Closeable {
                 "Failed to get packet. *header: " + headerP + " *data: " + dataP);
           }
 
-          timestamps.set(buildTimestamp(headerP));
-          originalLengths.set(pcap_pkthdr.getLen(headerP));
+          setLastPacketInfo(headerP);
           return dataP.getByteArray(0, pcap_pkthdr.getCaplen(headerP));
         case -1:
           throw new PcapNativeException("Error occurred in pcap_next_ex(): " + getError(), rc);
@@ -717,7 +881,7 @@ public final class PcapHandle implements Closeable {
           throw new PcapNativeException("Unexpected error occurred: " + getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -815,6 +979,32 @@ public final class PcapHandle implements Closeable {
     doLoop(packetCount, new GotRawPacketFuncExecutor(listener, executor));
   }
 
+  /**
+   * A wrapper method for <code>int pcap_loop(pcap_t *, int, pcap_handler, u_char *)</code>. When a
+   * packet is captured, <code>listener.gotPacket(PacketBuffer)</code> is called in the thread which
+   * called the <code>loop()</code> with a {@link PacketBuffer} pointing to the packet in the pcap
+   * buffer. No copy of the packet is made, so the PacketBuffer is valid only until the <code>
+   * gotPacket()</code> returns. For the same reason, there is no variant of this method which takes
+   * an executor.
+   *
+   * <p>{@link #getTimestamp()} and {@link #getOriginalLength()} are not updated by this method. Use
+   * {@link PacketBuffer#getTimestampSeconds()} and so on instead.
+   *
+   * @param packetCount the number of packets to capture. -1 is equivalent to infinity. 0 may result
+   *     in different behaviors between platforms and pcap library versions.
+   * @param listener listener
+   * @throws PcapNativeException if an error occurs in the pcap native library.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public void loop(int packetCount, BufferPacketListener listener)
+      throws PcapNativeException, InterruptedException, NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+    doLoop(packetCount, new GotBufferPacketFunc(listener));
+  }
+
   private void doLoop(int packetCount, NativeMappings.pcap_handler handler)
       throws PcapNativeException, InterruptedException, NotOpenException {
 
@@ -822,14 +1012,10 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       logger.info("Starting loop.");
       int rc = NativeMappings.pcap_loop(handle, packetCount, handler, null);
       switch (rc) {
@@ -845,7 +1031,7 @@ public final class PcapHandle implements Closeable {
           throw new PcapNativeException("Unexpected error occurred: " + getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -921,6 +1107,138 @@ public final class PcapHandle implements Closeable {
     return doDispatch(packetCount, new GotRawPacketFuncExecutor(listener, executor));
   }
 
+  /**
+   * Processes packets in the pcap buffer or pcap file passing them to <code>
+   * listener.gotPacket(PacketBuffer)</code> without copying them. The {@link PacketBuffer} is valid
+   * only until the <code>gotPacket()</code> returns.
+   *
+   * <p>{@link #getTimestamp()} and {@link #getOriginalLength()} are not updated by this method. Use
+   * {@link PacketBuffer#getTimestampSeconds()} and so on instead.
+   *
+   * @param packetCount the maximum number of packets to process. If -1 is specified, all the
+   *     packets in the pcap buffer or pcap file will be processed before returning. 0 may result in
+   *     different behaviors between platforms and pcap library versions.
+   * @param listener listener
+   * @return the number of captured packets.
+   * @throws PcapNativeException if an error occurs in the pcap native library.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int dispatch(int packetCount, BufferPacketListener listener)
+      throws PcapNativeException, InterruptedException, NotOpenException {
+    if (listener == null) {
+      throw new NullPointerException("listener must not be null.");
+    }
+    return doDispatch(packetCount, new GotBufferPacketFunc(listener));
+  }
+
+  /**
+   * Processes packets in the pcap buffer or pcap file copying them into the given {@link
+   * PacketBatch}. The batch is cleared before being filled, so that the same PacketBatch object can
+   * be reused for every call to avoid allocations.
+   *
+   * <p>{@link #getTimestamp()} and {@link #getOriginalLength()} are not updated by this method. Use
+   * {@link PacketBatch#getTimestampSeconds(int)} and so on instead.
+   *
+   * @param packetCount the maximum number of packets to process. If -1 is specified, all the
+   *     packets in the pcap buffer or pcap file will be processed before returning. 0 may result in
+   *     different behaviors between platforms and pcap library versions.
+   * @param batch the batch to fill.
+   * @return the number of captured packets.
+   * @throws PcapNativeException if an error occurs in the pcap native library.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int dispatch(int packetCount, PacketBatch batch)
+      throws PcapNativeException, InterruptedException, NotOpenException {
+    if (batch == null) {
+      throw new NullPointerException("batch must not be null.");
+    }
+    batch.clear();
+    return doDispatch(packetCount, new GotPacketBatchFunc(batch));
+  }
+
+  /**
+   * Processes packets in the pcap buffer or pcap file and passes all of them to <code>
+   * listener.gotPackets(PacketBatch)</code> at once in the thread which called the <code>dispatch()
+   * </code>. The listener is not called if no packets are processed. The {@link PacketBatch} passed
+   * to the listener is reused by the next call, so the listener must not keep it after returning.
+   *
+   * <p>{@link #getTimestamp()} and {@link #getOriginalLength()} are not updated by this method.
+   *
+   * @param packetCount the maximum number of packets to process. If -1 is specified, all the
+   *     packets in the pcap buffer or pcap file will be processed before returning. 0 may result in
+   *     different behaviors between platforms and pcap library versions.
+   * @param listener listener
+   * @return the number of captured packets.
+   * @throws PcapNativeException if an error occurs in the pcap native library.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int dispatch(int packetCount, BatchPacketListener listener)
+      throws PcapNativeException, InterruptedException, NotOpenException {
+    return dispatch(packetCount, listener, SimpleExecutor.getInstance());
+  }
+
+  /**
+   * Processes packets in the pcap buffer or pcap file and passes all of them to <code>
+   * listener.gotPackets(PacketBatch)</code> at once. Unlike {@link #dispatch(int,
+   * RawPacketListener, Executor)}, the {@link java.util.concurrent.Executor#execute(Runnable)
+   * executor.execute()} is called only once per call of this method rather than once per packet.
+   * The listener is not called if no packets are processed. The {@link PacketBatch} passed to the
+   * listener is newly created for each call and may be kept by the listener.
+   *
+   * <p>{@link #getTimestamp()} and {@link #getOriginalLength()} are not updated by this method.
+   *
+   * @param packetCount the maximum number of packets to process. If -1 is specified, all the
+   *     packets in the pcap buffer or pcap file will be processed before returning. 0 may result in
+   *     different behaviors between platforms and pcap library versions.
+   * @param listener listener
+   * @param executor executor
+   * @return the number of captured packets.
+   * @throws PcapNativeException if an error occurs in the pcap native library.
+   * @throws InterruptedException if the loop terminated due to a call to {@link #breakLoop()}.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int dispatch(int packetCount, final BatchPacketListener listener, Executor executor)
+      throws PcapNativeException, InterruptedException, NotOpenException {
+    if (listener == null || executor == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("listener: ").append(listener).append(" executor: ").append(executor);
+      throw new NullPointerException(sb.toString());
+    }
+
+    // A batch passed to the listener in this thread can be reused by the next call, but one handed
+    // to another thread can't.
+    boolean synchronous = executor == SimpleExecutor.getInstance();
+    PacketBatch reused = synchronous ? reusableBatch.getAndSet(null) : null;
+    final PacketBatch batch = reused != null ? reused : new PacketBatch();
+    batch.clear();
+    try {
+      int rc = doDispatch(packetCount, new GotPacketBatchFunc(batch));
+      if (batch.isEmpty()) {
+        return rc;
+      }
+
+      try {
+        executor.execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                listener.gotPackets(batch);
+              }
+            });
+      } catch (Throwable e) {
+        logger.error("The executor has thrown an exception.", e);
+      }
+      return rc;
+    } finally {
+      if (synchronous) {
+        reusableBatch.set(batch);
+      }
+    }
+  }
+
   private int doDispatch(int packetCount, NativeMappings.pcap_handler handler)
       throws PcapNativeException, InterruptedException, NotOpenException {
     if (!open) {
@@ -928,14 +1246,10 @@ public final class PcapHandle implements Closeable {
     }
 
     int rc;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       logger.info("Starting dispatch.");
       rc = NativeMappings.pcap_dispatch(handle, packetCount, handler, null);
       if (rc < 0) {
@@ -950,7 +1264,7 @@ public final class PcapHandle implements Closeable {
         }
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     logger.info("Finish dispatch.");
@@ -973,20 +1287,16 @@ public final class PcapHandle implements Closeable {
     }
 
     Pointer dumper;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       dumper = NativeMappings.pcap_dump_open(handle, filePath);
       if (dumper == null) {
         throw new PcapNativeException(getError());
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     return new PcapDumper(dumper, timestampPrecision);
@@ -1008,14 +1318,10 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       logger.info("Starting dump loop.");
       int rc =
           NativeMappings.pcap_loop(
@@ -1034,7 +1340,7 @@ public final class PcapHandle implements Closeable {
           throw new PcapNativeException("Unexpected error occurred: " + getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -1051,18 +1357,14 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       logger.info("Break loop.");
       NativeMappings.pcap_breakloop(handle);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -1076,7 +1378,36 @@ public final class PcapHandle implements Closeable {
     if (packet == null) {
       throw new NullPointerException("packet may not be null");
     }
-    sendPacket(packet.getRawData());
+    if (!(packet instanceof AbstractPacket)) {
+      sendPacket(packet.getRawData());
+      return;
+    }
+
+    if (!open) {
+      throw new NotOpenException();
+    }
+
+    // Copy the raw data into native memory directly without building a byte array of it.
+    ByteBuffer data = ((AbstractPacket) packet).rawDataView();
+    int len = data.remaining();
+    Memory buf = takeSendBuffer(len);
+    try {
+      buf.getByteBuffer(0, len).put(data);
+
+      if (!handleGuard.enter()) {
+        throw new NotOpenException();
+      }
+      try {
+        int rc = NativeMappings.pcap_sendpacket(handle, buf, len);
+        if (rc < 0) {
+          throw new PcapNativeException("Error occurred in pcap_sendpacket(): " + getError(), rc);
+        }
+      } finally {
+        handleGuard.exit();
+      }
+    } finally {
+      releaseSendBuffer(buf);
+    }
   }
 
   /**
@@ -1105,20 +1436,294 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       int rc = NativeMappings.pcap_sendpacket(handle, bytes, len);
       if (rc < 0) {
         throw new PcapNativeException("Error occurred in pcap_sendpacket(): " + getError(), rc);
       }
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
+    }
+  }
+
+  /**
+   * Sends packets in a row. Equivalent to <code>sendPackets(packets, 0)</code>.
+   *
+   * @param packets packets
+   * @return the number of packets sent successfully.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int sendPackets(List<byte[]> packets) throws NotOpenException {
+    return sendPackets(packets, 0);
+  }
+
+  /**
+   * Sends packets in a row. Unlike calling {@link #sendPacket(byte[])} for each packet, this method
+   * copies all the packets to native memory at once and sends them from there, so that they don't
+   * need to be marshaled for each packet, and checks the state of this handle only once for all
+   * the packets. A packet which fails to be sent is skipped and not counted in the return value.
+   *
+   * @param packets packets
+   * @param packetsPerSecond the rate at which packets are sent. 0 or less means as fast as
+   *     possible.
+   * @return the number of packets sent successfully.
+   * @throws NotOpenException if this PcapHandle is not open.
+   * @throws IllegalArgumentException if the packets are too large in total to be staged.
+   */
+  public int sendPackets(List<byte[]> packets, long packetsPerSecond) throws NotOpenException {
+    if (packets == null) {
+      throw new NullPointerException("packets may not be null");
+    }
+
+    int count = packets.size();
+    int[] offsets = new int[count];
+    int[] lengths = new int[count];
+    long sum = 0;
+    for (int i = 0; i < count; i++) {
+      byte[] bytes = packets.get(i);
+      if (bytes == null) {
+        throw new NullPointerException("packets[" + i + "] may not be null");
+      }
+      offsets[i] = (int) sum;
+      lengths[i] = bytes.length;
+      // Summed up in a long so that many large packets can't overflow and pass the check below.
+      sum += bytes.length;
+      if (sum > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            "The packets (" + sum + " bytes or more) are too large in total.");
+      }
+    }
+    if (count == 0) {
+      return 0;
+    }
+
+    Memory staging = takeSendBuffer((int) sum);
+    try {
+      for (int i = 0; i < count; i++) {
+        staging.write(offsets[i], packets.get(i), 0, lengths[i]);
+      }
+      return sendPackets(staging, offsets, lengths, count, packetsPerSecond);
+    } finally {
+      releaseSendBuffer(staging);
+    }
+  }
+
+  /**
+   * Sends all the packets in a batch. Equivalent to <code>sendPackets(batch, 0)</code>.
+   *
+   * @param batch batch
+   * @return the number of packets sent successfully.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int sendPackets(PacketBatch batch) throws NotOpenException {
+    return sendPackets(batch, 0);
+  }
+
+  /**
+   * Sends all the packets in a batch, e.g. one filled by {@link #dispatch(int, PacketBatch)}. The
+   * data of the packets are copied to native memory at once and sent from there, so that they don't
+   * need to be copied for each packet. A packet which fails to be sent is skipped and not counted
+   * in the return value.
+   *
+   * @param batch batch
+   * @param packetsPerSecond the rate at which packets are sent. 0 or less means as fast as
+   *     possible.
+   * @return the number of packets sent successfully.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int sendPackets(PacketBatch batch, long packetsPerSecond) throws NotOpenException {
+    if (batch == null) {
+      throw new NullPointerException("batch may not be null");
+    }
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    int[] offsets = new int[batch.size()];
+    int[] lengths = new int[batch.size()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = batch.getOffset(i);
+      lengths[i] = batch.getLength(i);
+    }
+    Memory staging = takeSendBuffer(batch.getBufferUsed());
+    try {
+      staging.write(0, batch.getBuffer(), 0, batch.getBufferUsed());
+      return sendPackets(staging, offsets, lengths, offsets.length, packetsPerSecond);
+    } finally {
+      releaseSendBuffer(staging);
+    }
+  }
+
+  /**
+   * Sends packets packed in a buffer. Equivalent to <code>
+   * sendPackets(buffer, lengths, count, 0)</code>.
+   *
+   * @param buffer a buffer which contains packets back to back from its position.
+   * @param lengths the lengths of the packets.
+   * @param count the number of packets to send.
+   * @return the number of packets sent successfully.
+   * @throws NotOpenException if this PcapHandle is not open.
+   */
+  public int sendPackets(ByteBuffer buffer, int[] lengths, int count) throws NotOpenException {
+    return sendPackets(buffer, lengths, count, 0);
+  }
+
+  /**
+   * Sends packets packed in a buffer. If the buffer is a direct buffer, the packets are sent
+   * directly from it without being copied. Otherwise, they are copied to native memory at once. The
+   * position of the buffer is advanced past the packets. A packet which fails to be sent is skipped
+   * and not counted in the return value.
+   *
+   * @param buffer a buffer which contains packets back to back from its position.
+   * @param lengths the lengths of the packets.
+   * @param count the number of packets to send.
+   * @param packetsPerSecond the rate at which packets are sent. 0 or less means as fast as
+   *     possible.
+   * @return the number of packets sent successfully.
+   * @throws NotOpenException if this PcapHandle is not open.
+   * @throws IllegalArgumentException if the packets exceed the buffer.
+   */
+  public int sendPackets(ByteBuffer buffer, int[] lengths, int count, long packetsPerSecond)
+      throws NotOpenException {
+    if (buffer == null || lengths == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("buffer: ").append(buffer).append(" lengths: ").append(lengths);
+      throw new NullPointerException(sb.toString());
+    }
+    if (count < 0 || count > lengths.length) {
+      throw new IllegalArgumentException("count: " + count + ", lengths.length: " + lengths.length);
+    }
+
+    int[] offsets = new int[count];
+    long sum = 0;
+    for (int i = 0; i < count; i++) {
+      if (lengths[i] < 0) {
+        throw new IllegalArgumentException("lengths[" + i + "]: " + lengths[i]);
+      }
+      offsets[i] = (int) sum;
+      // Summed up in a long so that huge lengths can't overflow and pass the check below.
+      sum += lengths[i];
+      if (sum > buffer.remaining()) {
+        StringBuilder sb = new StringBuilder(80);
+        sb.append("The packets (")
+            .append(sum)
+            .append(" bytes or more) exceed the buffer (")
+            .append(buffer.remaining())
+            .append(" bytes remaining).");
+        throw new IllegalArgumentException(sb.toString());
+      }
+    }
+    int total = (int) sum;
+    if (count == 0) {
+      return 0;
+    }
+
+    int sent;
+    if (buffer.isDirect()) {
+      Pointer base = Native.getDirectBufferPointer(buffer).share(buffer.position());
+      sent = sendPackets(base, offsets, lengths, count, packetsPerSecond);
+    } else {
+      Memory staging = takeSendBuffer(total);
+      try {
+        if (buffer.hasArray()) {
+          staging.write(0, buffer.array(), buffer.arrayOffset() + buffer.position(), total);
+        } else {
+          // A read-only heap buffer.
+          ByteBuffer src = buffer.duplicate();
+          ((Buffer) src).limit(src.position() + total);
+          staging.getByteBuffer(0, total).put(src);
+        }
+        sent = sendPackets(staging, offsets, lengths, count, packetsPerSecond);
+      } finally {
+        releaseSendBuffer(staging);
+      }
+    }
+
+    ((Buffer) buffer).position(buffer.position() + total);
+    return sent;
+  }
+
+  private int sendPackets(
+      Pointer base, int[] offsets, int[] lengths, int count, long packetsPerSecond)
+      throws NotOpenException {
+    if (!open) {
+      throw new NotOpenException();
+    }
+
+    int sent = 0;
+    if (!handleGuard.enter()) {
+      throw new NotOpenException();
+    }
+    try {
+      // A single Pointer is moved from packet to packet instead of sharing base for each of them.
+      long address = Pointer.nativeValue(base);
+      Pointer packet = new Pointer(address);
+      long start = System.nanoTime();
+      for (int i = 0; i < count; i++) {
+        if (packetsPerSecond > 0) {
+          pace(start, i, packetsPerSecond);
+        }
+        Pointer.nativeValue(packet, address + offsets[i]);
+        if (NativeMappings.pcap_sendpacket(handle, packet, lengths[i]) < 0) {
+          logSendFailure(i);
+        } else {
+          sent++;
+        }
+      }
+    } finally {
+      handleGuard.exit();
+    }
+    return sent;
+  }
+
+  private Memory takeSendBuffer(int size) {
+    Memory buf = sendBuffer.getAndSet(null);
+    if (buf == null || buf.size() < size) {
+      buf = new Memory(Math.max(size, MIN_SEND_BUFFER_SIZE));
+    }
+    return buf;
+  }
+
+  private void releaseSendBuffer(Memory buf) {
+    // Don't keep a huge buffer for a rare huge batch.
+    if (buf.size() > MAX_CACHED_SEND_BUFFER_SIZE) {
+      return;
+    }
+    // close() drops the cached buffer after closing handleGuard, so a buffer put back while the
+    // guard is entered is never left behind a closed handle.
+    if (!handleGuard.enter()) {
+      return;
+    }
+    try {
+      sendBuffer.set(buf);
+    } finally {
+      handleGuard.exit();
+    }
+  }
+
+  // Must be called while handleGuard is entered.
+  private void logSendFailure(int index) {
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "Failed to send the packet at "
+              + index
+              + ": "
+              + NativeMappings.pcap_geterr(handle).getString(0));
+    }
+  }
+
+  /** Waits until the time to send the index-th packet since start comes. */
+  private static void pace(long start, long index, long packetsPerSecond) {
+    long deadline = start + index * 1000000000L / packetsPerSecond;
+    long wait;
+    while ((wait = deadline - System.nanoTime()) > 0) {
+      if (wait > 100000L) {
+        // Sleep coarsely and spin for the rest.
+        LockSupport.parkNanos(wait - 50000L);
+      }
     }
   }
 
@@ -1132,14 +1737,10 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       if (Platform.isWindows()) {
         IntByReference pcapStatSize = new IntByReference();
         Pointer psp = PcapLibrary.INSTANCE.win_pcap_stats_ex(handle, pcapStatSize);
@@ -1164,7 +1765,7 @@ public final class PcapHandle implements Closeable {
 
       return new PcapStat(ps.getPointer(), false);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -1199,14 +1800,10 @@ public final class PcapHandle implements Closeable {
     }
 
     List<DataLinkType> list;
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
-
       PointerByReference dltBufPP = new PointerByReference();
       int rc = NativeMappings.pcap_list_datalinks(handle, dltBufPP);
       if (rc < 0) {
@@ -1220,7 +1817,7 @@ public final class PcapHandle implements Closeable {
       }
       NativeMappings.pcap_free_datalinks(dltBufP);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
 
     return list;
@@ -1235,16 +1832,13 @@ public final class PcapHandle implements Closeable {
       throw new NotOpenException();
     }
 
-    if (!handleLock.readLock().tryLock()) {
+    if (!handleGuard.enter()) {
       throw new NotOpenException();
     }
     try {
-      if (!open) {
-        throw new NotOpenException();
-      }
       return NativeMappings.pcap_geterr(handle).getString(0);
     } finally {
-      handleLock.readLock().unlock();
+      handleGuard.exit();
     }
   }
 
@@ -1256,16 +1850,22 @@ public final class PcapHandle implements Closeable {
       return;
     }
 
-    handleLock.writeLock().lock();
-    try {
-      if (!open) {
-        logger.warn("Already closed.");
-        return;
-      }
-      open = false;
-    } finally {
-      handleLock.writeLock().unlock();
+    // Break the loop in progress, if any, which would otherwise keep the guard waiting forever
+    // since breakLoop() can't enter the closed guard.
+    boolean closed =
+        handleGuard.close(
+            new Runnable() {
+              @Override
+              public void run() {
+                NativeMappings.pcap_breakloop(handle);
+              }
+            });
+    if (!closed) {
+      logger.warn("Already closed.");
+      return;
     }
+    open = false;
+    sendBuffer.set(null);
 
     NativeMappings.pcap_close(handle);
     logger.info("Closed.");
@@ -1288,6 +1888,13 @@ public final class PcapHandle implements Closeable {
     return sb.toString();
   }
 
+  private static final class LastPacketInfo {
+    private boolean captured = false;
+    private long timestampSeconds;
+    private int timestampNanos;
+    private int originalLength;
+  }
+
   private static final class SimpleExecutor implements Executor {
 
     private SimpleExecutor() {}
@@ -1318,7 +1925,8 @@ public final class PcapHandle implements Closeable {
 
     @Override
     public void got_packet(Pointer args, Pointer header, final Pointer packet) {
-      final Timestamp ts = buildTimestamp(header);
+      final long tsSec = pcap_pkthdr.getTvSecAsLong(header);
+      final int tsNanos = buildTimestampNanos(header);
       final int len = pcap_pkthdr.getLen(header);
       final byte[] ba = packet.getByteArray(0, pcap_pkthdr.getCaplen(header));
 
@@ -1327,11 +1935,8 @@ public final class PcapHandle implements Closeable {
             new Runnable() {
               @Override
               public void run() {
-                timestamps.set(ts);
-                originalLengths.set(len);
-                listener.gotPacket(
-                    PacketFactories.getFactory(Packet.class, DataLinkType.class)
-                        .newInstance(ba, 0, ba.length, dlt));
+                setLastPacketInfo(tsSec, tsNanos, len);
+                listener.gotPacket(decodePacket(ba, dlt));
               }
             });
       } catch (Throwable e) {
@@ -1352,7 +1957,8 @@ public final class PcapHandle implements Closeable {
 
     @Override
     public void got_packet(Pointer args, Pointer header, final Pointer packet) {
-      final Timestamp ts = buildTimestamp(header);
+      final long tsSec = pcap_pkthdr.getTvSecAsLong(header);
+      final int tsNanos = buildTimestampNanos(header);
       final int len = pcap_pkthdr.getLen(header);
       final byte[] ba = packet.getByteArray(0, pcap_pkthdr.getCaplen(header));
 
@@ -1361,8 +1967,7 @@ public final class PcapHandle implements Closeable {
             new Runnable() {
               @Override
               public void run() {
-                timestamps.set(ts);
-                originalLengths.set(len);
+                setLastPacketInfo(tsSec, tsNanos, len);
                 listener.gotPacket(ba);
               }
             });
@@ -1372,19 +1977,56 @@ public final class PcapHandle implements Closeable {
     }
   }
 
-  private Timestamp buildTimestamp(Pointer header) {
-    Timestamp ts = new Timestamp(pcap_pkthdr.getTvSec(header).longValue() * 1000L);
+  private final class GotBufferPacketFunc implements NativeMappings.pcap_handler {
+
+    private final BufferPacketListener listener;
+    private final NativePacketBuffer buffer = new NativePacketBuffer();
+
+    public GotBufferPacketFunc(BufferPacketListener listener) {
+      this.listener = listener;
+    }
+
+    @Override
+    public void got_packet(Pointer args, Pointer header, Pointer packet) {
+      buffer.reset(header, packet, pcap_pkthdr.getTvSecAsLong(header), buildTimestampNanos(header));
+      try {
+        listener.gotPacket(buffer);
+      } catch (Throwable e) {
+        logger.error("The listener has thrown an exception.", e);
+      } finally {
+        buffer.invalidate();
+      }
+    }
+  }
+
+  private final class GotPacketBatchFunc implements NativeMappings.pcap_handler {
+
+    private final PacketBatch batch;
+
+    public GotPacketBatchFunc(PacketBatch batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    public void got_packet(Pointer args, Pointer header, Pointer packet) {
+      batch.add(
+          packet,
+          pcap_pkthdr.getCaplen(header),
+          pcap_pkthdr.getLen(header),
+          pcap_pkthdr.getTvSecAsLong(header),
+          buildTimestampNanos(header));
+    }
+  }
+
+  private int buildTimestampNanos(Pointer header) {
     switch (timestampPrecision) {
       case MICRO:
-        ts.setNanos(pcap_pkthdr.getTvUsec(header).intValue() * 1000);
-        break;
+        return (int) pcap_pkthdr.getTvUsecAsLong(header) * 1000;
       case NANO:
-        ts.setNanos(pcap_pkthdr.getTvUsec(header).intValue());
-        break;
+        return (int) pcap_pkthdr.getTvUsecAsLong(header);
       default:
         throw new AssertionError("Never get here.");
     }
-    return ts;
   }
 
   /**
@@ -1411,6 +2053,10 @@ public final class PcapHandle implements Closeable {
     private PcapDirection direction = null;
     private boolean immediateMode;
     private boolean isImmediateModeSet = false;
+    private int fanoutGroupId;
+    private FanoutMode fanoutMode = null;
+    private boolean fanoutDefrag;
+    private PacketFactoryBinder packetFactoryBinder = null;
 
     /** @param deviceName A value {@link PcapNetworkInterface#getName()} returns. */
     public Builder(String deviceName) {
@@ -1521,6 +2167,41 @@ public final class PcapHandle implements Closeable {
       return this;
     }
 
+    /**
+     * Makes the PcapHandle join a fanout group, among whose members the kernel distributes the
+     * packets received by the device. Only Linux supports it. Handles which join the same group
+     * must be on the same device and with the same mode.
+     *
+     * @param groupId the ID of the group (0 to 65535).
+     * @param mode how packets are distributed among the members of the group.
+     * @param defrag if true, the kernel reassembles IP fragments before distributing them, so that
+     *     all the fragments of a packet go to the same member.
+     * @return this Builder object for method chaining.
+     */
+    public Builder fanout(int groupId, FanoutMode mode, boolean defrag) {
+      if (groupId < 0 || groupId > 0xFFFF || mode == null) {
+        StringBuilder sb = new StringBuilder(60);
+        sb.append("groupId: ").append(groupId).append(" mode: ").append(mode);
+        throw new IllegalArgumentException(sb.toString());
+      }
+      this.fanoutGroupId = groupId;
+      this.fanoutMode = mode;
+      this.fanoutDefrag = defrag;
+      return this;
+    }
+
+    /**
+     * @param packetFactoryBinder the binder which provides the factories to build Packet objects
+     *     from captured packets. If this method isn't called, the one found by {@link
+     *     PacketFactories} is used. See {@link
+     *     PcapHandle#setPacketFactoryBinder(PacketFactoryBinder)}.
+     * @return this Builder object for method chaining.
+     */
+    public Builder packetFactoryBinder(PacketFactoryBinder packetFactoryBinder) {
+      this.packetFactoryBinder = packetFactoryBinder;
+      return this;
+    }
+
     /**
      * @return a new PcapHandle object representing a live capture handle.
      * @throws PcapNativeException if an error occurs in the pcap native library.
@@ -1641,4 +2322,42 @@ public final class PcapHandle implements Closeable {
       return value;
     }
   }
+
+  /**
+   * Modes of Linux PACKET_FANOUT.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static enum FanoutMode {
+
+    /** By the hash of the flow (addresses and ports) of a packet. */
+    HASH(0),
+
+    /** Round-robin. */
+    LB(1),
+
+    /** By the CPU which received a packet. */
+    CPU(2),
+
+    /** To the first member which has room. */
+    ROLLOVER(3),
+
+    /** At random. */
+    RND(4),
+
+    /** By the recorded queue mapping of a packet. */
+    QM(5);
+
+    private final int value;
+
+    private FanoutMode(int value) {
+      this.value = value;
+    }
+
+    /** @return value */
+    public int getValue() {
+      return value;
+    }
+  }
 }
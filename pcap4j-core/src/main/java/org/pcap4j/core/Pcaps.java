@@ -21,6 +21,7 @@ import org.pcap4j.core.NativeMappings.PcapLibrary;
 import org.pcap4j.core.NativeMappings.bpf_program;
 import org.pcap4j.core.NativeMappings.pcap_if;
 import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.factory.PacketFactoryBinder;
 import org.pcap4j.packet.namednumber.DataLinkType;
 import org.pcap4j.util.ByteArrays;
 import org.pcap4j.util.Inet4NetworkAddress;
@@ -196,6 +197,20 @@ public final class Pcaps {
     return new PcapHandle(handle, TimestampPrecision.MICRO);
   }
 
+  /**
+   * @param filePath "-" means stdin
+   * @param binder the binder which provides the factories to build Packet objects from the packets
+   *     read. See {@link PcapHandle#setPacketFactoryBinder(PacketFactoryBinder)}.
+   * @return a new PcapHandle object.
+   * @throws PcapNativeException if an error occurs in the pcap native library.
+   */
+  public static PcapHandle openOffline(String filePath, PacketFactoryBinder binder)
+      throws PcapNativeException {
+    PcapHandle handle = openOffline(filePath);
+    handle.setPacketFactoryBinder(binder);
+    return handle;
+  }
+
   /**
    * @param filePath "-" means stdin
    * @param precision precision
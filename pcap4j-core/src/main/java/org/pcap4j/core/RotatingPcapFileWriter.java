@@ -0,0 +1,564 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pcap file writer which rolls over to a new file when the current file reaches a size, a
+ * duration, or a number of packets, like <code>tcpdump -C</code>, <code>-G</code>, and <code>-W
+ * </code>.
+ *
+ * <p>Each file is written by a {@link PcapFileWriter} and named by appending a sequence number to
+ * the given file path. If {@link Builder#maxFiles(int)} is set, the files form a ring which holds
+ * maxFiles - 1 finished files and the current one, and the oldest file is overwritten.
+ *
+ * <p>The next file is opened in advance, and a finished file is flushed, synced, and closed, in a
+ * background thread, so that the dumping thread doesn't wait for opening or closing files. In a
+ * ring, the file opened in advance takes one extra slot so as not to truncate the oldest finished
+ * file, that is, the sequence number wraps around at maxFiles + 1 and is zero-padded to the same
+ * width. The file opened in advance is deleted by {@link #close()}, so that at most maxFiles files
+ * are left.
+ *
+ * <p>The duration of a file is measured by the timestamps of the packets. This class is
+ * thread-safe.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class RotatingPcapFileWriter implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(RotatingPcapFileWriter.class);
+
+  private static final int PCAP_RECORD_HEADER_SIZE = 16;
+
+  private final String filePath;
+  private final Builder builder;
+  private final int width;
+  private final long maxFileSize;
+  private final long maxDurationNanos;
+  private final long maxPackets;
+  private final int maxFiles;
+  private final int slots;
+  private final ExecutorService rotationExecutor;
+  private final Object lock = new Object();
+
+  private PcapFileWriter current;
+  private Future<PcapFileWriter> next;
+  private long sequence = 0;
+  private long currentPackets = 0;
+  private long currentStartSeconds;
+  private int currentStartNanos;
+  private volatile boolean open = true;
+
+  private RotatingPcapFileWriter(Builder builder) throws IOException {
+    this.filePath = builder.filePath;
+    this.maxFileSize = builder.maxFileSize;
+    this.maxDurationNanos = builder.maxDurationNanos;
+    this.maxPackets = builder.maxPackets;
+    this.maxFiles = builder.maxFiles;
+
+    this.builder = builder;
+    // One more slot for the file opened in advance.
+    this.slots = maxFiles > 0 ? maxFiles + 1 : 0;
+    this.width = slots > 0 ? String.valueOf(slots - 1).length() : 0;
+
+    final String threadName = "RotatingPcapFileWriter-" + filePath;
+    this.rotationExecutor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+              @Override
+              public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+              }
+            });
+
+    try {
+      this.current = writerBuilder(0).build();
+    } catch (IOException e) {
+      rotationExecutor.shutdown();
+      throw e;
+    }
+    this.next = openInBackground(1);
+  }
+
+  private static String pad(long number, int width) {
+    StringBuilder sb = new StringBuilder(width);
+    String s = String.valueOf(number);
+    for (int i = s.length(); i < width; i++) {
+      sb.append('0');
+    }
+    return sb.append(s).toString();
+  }
+
+  private PcapFileWriter.Builder writerBuilder(long seq) {
+    String suffix = slots > 0 ? pad(seq % slots, width) : String.valueOf(seq);
+    return builder.newWriterBuilder(filePath + suffix);
+  }
+
+  private Future<PcapFileWriter> openInBackground(long seq) {
+    final PcapFileWriter.Builder wb = writerBuilder(seq);
+    return rotationExecutor.submit(
+        new Callable<PcapFileWriter>() {
+          @Override
+          public PcapFileWriter call() throws IOException {
+            return wb.build();
+          }
+        });
+  }
+
+  private void closeInBackground(final PcapFileWriter writer) {
+    rotationExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              writer.sync();
+            } catch (IOException e) {
+              logger.error("Failed to sync " + writer.getFilePath(), e);
+            } catch (NotOpenException e) {
+              logger.error("Already closed: " + writer.getFilePath(), e);
+            }
+            writer.close();
+          }
+        });
+  }
+
+  /** @return the path of the file which is being written. */
+  public String getCurrentFilePath() {
+    synchronized (lock) {
+      return current.getFilePath();
+    }
+  }
+
+  /** @return the number of rotations so far. */
+  public long getRotationCount() {
+    synchronized (lock) {
+      return sequence;
+    }
+  }
+
+  /** @return true if this writer is open; false otherwise. */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * @param packet packet
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(Packet packet) throws IOException, NotOpenException {
+    long now = System.currentTimeMillis();
+    dump(packet, now / 1000L, (int) (now % 1000L) * 1000000);
+  }
+
+  /**
+   * @param packet packet
+   * @param timestamp timestamp
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(Packet packet, Timestamp timestamp) throws IOException, NotOpenException {
+    if (packet == null || timestamp == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("packet: ").append(packet).append(" ts: ").append(timestamp);
+      throw new NullPointerException(sb.toString());
+    }
+
+    dump(packet, timestamp.getTime() / 1000L, timestamp.getNanos());
+  }
+
+  /**
+   * @param packet packet
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(Packet packet, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
+    synchronized (lock) {
+      prepare(packet.length(), timestampSeconds, timestampNanos);
+      current.dump(packet, timestampSeconds, timestampNanos);
+    }
+  }
+
+  /**
+   * Dumps a packet passed to a {@link BufferPacketListener} without copying it to a byte array.
+   *
+   * @param packet packet
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dump(PacketBuffer packet) throws IOException, NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
+    synchronized (lock) {
+      prepare(packet.length(), packet.getTimestampSeconds(), packet.getTimestampNanos());
+      current.dump(packet);
+    }
+  }
+
+  /**
+   * @param packet packet
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(byte[] packet) throws IOException, NotOpenException {
+    long now = System.currentTimeMillis();
+    dumpRaw(packet, now / 1000L, (int) (now % 1000L) * 1000000);
+  }
+
+  /**
+   * @param packet packet
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(byte[] packet, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    if (packet == null) {
+      throw new NullPointerException("packet must not be null.");
+    }
+
+    dumpRaw(packet, 0, packet.length, packet.length, timestampSeconds, timestampNanos);
+  }
+
+  /**
+   * @param data an array which contains a packet.
+   * @param offset the offset of the packet in data.
+   * @param length the captured length of the packet.
+   * @param originalLength the original length of the packet.
+   * @param timestampSeconds the seconds part of the timestamp since the epoch.
+   * @param timestampNanos the nanoseconds part of the timestamp (0 to 999,999,999).
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void dumpRaw(
+      byte[] data,
+      int offset,
+      int length,
+      int originalLength,
+      long timestampSeconds,
+      int timestampNanos)
+      throws IOException, NotOpenException {
+    if (data == null) {
+      throw new NullPointerException("data must not be null.");
+    }
+
+    synchronized (lock) {
+      prepare(length, timestampSeconds, timestampNanos);
+      current.dumpRaw(data, offset, length, originalLength, timestampSeconds, timestampNanos);
+    }
+  }
+
+  /** Rotates the file if the packet to be dumped next doesn't fit in the current file. */
+  private void prepare(int caplen, long timestampSeconds, int timestampNanos)
+      throws IOException, NotOpenException {
+    if (!open) {
+      throw new NotOpenException();
+    }
+
+    if (currentPackets != 0) {
+      boolean rotate = false;
+      if (maxPackets > 0 && currentPackets >= maxPackets) {
+        rotate = true;
+      } else if (maxFileSize > 0
+          && current.getPosition() + PCAP_RECORD_HEADER_SIZE + caplen > maxFileSize) {
+        rotate = true;
+      } else if (maxDurationNanos > 0) {
+        long elapsed =
+            (timestampSeconds - currentStartSeconds) * 1000000000L
+                + (timestampNanos - currentStartNanos);
+        rotate = elapsed >= maxDurationNanos;
+      }
+      if (rotate) {
+        rotate();
+      }
+    }
+
+    if (currentPackets == 0) {
+      currentStartSeconds = timestampSeconds;
+      currentStartNanos = timestampNanos;
+    }
+    currentPackets++;
+  }
+
+  private void rotate() throws IOException {
+    PcapFileWriter nextWriter;
+    try {
+      nextWriter = next.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the next file to be opened.");
+    } catch (ExecutionException e) {
+      // Try again at the next packet.
+      next = openInBackground(sequence + 1);
+      throw new IOException("Failed to open the next file.", e.getCause());
+    }
+
+    closeInBackground(current);
+    current = nextWriter;
+    currentPackets = 0;
+    sequence++;
+    next = openInBackground(sequence + 1);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Rotated to " + current.getFilePath());
+    }
+  }
+
+  /**
+   * Writes all the buffered packets to the current file.
+   *
+   * @throws IOException if an I/O error occurs.
+   * @throws NotOpenException if this writer is not open.
+   */
+  public void flush() throws IOException, NotOpenException {
+    synchronized (lock) {
+      if (!open) {
+        throw new NotOpenException();
+      }
+      current.flush();
+    }
+  }
+
+  /**
+   * Flushes and closes the current file, deletes the file opened in advance, and waits for the
+   * background thread to finish.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (!open) {
+        logger.warn("Already closed.");
+        return;
+      }
+      open = false;
+
+      closeInBackground(current);
+      final Future<PcapFileWriter> unused = next;
+      rotationExecutor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              try {
+                PcapFileWriter writer = unused.get();
+                writer.close();
+                if (!new File(writer.getFilePath()).delete()) {
+                  logger.warn("Failed to delete " + writer.getFilePath());
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } catch (ExecutionException e) {
+                logger.debug("The next file had not been opened.", e.getCause());
+              }
+            }
+          });
+      rotationExecutor.shutdown();
+      try {
+        while (!rotationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+          logger.info("Waiting for the files to be closed.");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    logger.info("Closed.");
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(100);
+    sb.append("File: [")
+        .append(filePath)
+        .append("] Max file size: [")
+        .append(maxFileSize)
+        .append("] Max duration (ns): [")
+        .append(maxDurationNanos)
+        .append("] Max packets: [")
+        .append(maxPackets)
+        .append("] Max files: [")
+        .append(maxFiles)
+        .append("] Open: [")
+        .append(open)
+        .append("]");
+    return sb.toString();
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private final String filePath;
+    private final DataLinkType dlt;
+    private int snaplen = 262144;
+    private TimestampPrecision timestampPrecision = TimestampPrecision.MICRO;
+    private int bufferSize = PcapFileWriter.DEFAULT_BUFFER_SIZE;
+    private boolean backgroundWrite = false;
+    private long maxFileSize = 0;
+    private long maxDurationNanos = 0;
+    private long maxPackets = 0;
+    private int maxFiles = 0;
+
+    /**
+     * @param filePath the base path of the files, to which a sequence number is appended.
+     * @param dlt the Data Link Type of the packets to write.
+     */
+    public Builder(String filePath, DataLinkType dlt) {
+      if (filePath == null || filePath.length() == 0 || dlt == null) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("filePath: ").append(filePath).append(" dlt: ").append(dlt);
+        throw new IllegalArgumentException(sb.toString());
+      }
+      this.filePath = filePath;
+      this.dlt = dlt;
+    }
+
+    /**
+     * @param snaplen the snapshot length written in the file headers.
+     * @return this Builder object for method chaining.
+     * @see PcapFileWriter.Builder#snaplen(int)
+     */
+    public Builder snaplen(int snaplen) {
+      this.snaplen = snaplen;
+      return this;
+    }
+
+    /**
+     * @param timestampPrecision the precision of the timestamps in the files.
+     * @return this Builder object for method chaining.
+     * @see PcapFileWriter.Builder#timestampPrecision(TimestampPrecision)
+     */
+    public Builder timestampPrecision(TimestampPrecision timestampPrecision) {
+      if (timestampPrecision == null) {
+        throw new NullPointerException("timestampPrecision must not be null.");
+      }
+      this.timestampPrecision = timestampPrecision;
+      return this;
+    }
+
+    /**
+     * @param bufferSize the size (in bytes) of the buffers of each file.
+     * @return this Builder object for method chaining.
+     * @see PcapFileWriter.Builder#bufferSize(int)
+     */
+    public Builder bufferSize(int bufferSize) {
+      this.bufferSize = bufferSize;
+      return this;
+    }
+
+    /**
+     * @param backgroundWrite true to write the buffers in a background thread.
+     * @return this Builder object for method chaining.
+     * @see PcapFileWriter.Builder#backgroundWrite(boolean)
+     */
+    public Builder backgroundWrite(boolean backgroundWrite) {
+      this.backgroundWrite = backgroundWrite;
+      return this;
+    }
+
+    /**
+     * @param maxFileSize the maximum size (in bytes) of a file. A file exceeds this only if it has
+     *     a single packet larger than this.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxFileSize(long maxFileSize) {
+      if (maxFileSize <= 0) {
+        throw new IllegalArgumentException("maxFileSize: " + maxFileSize);
+      }
+      this.maxFileSize = maxFileSize;
+      return this;
+    }
+
+    /**
+     * @param maxDuration the maximum time span of the timestamps of the packets in a file.
+     * @param unit the unit of maxDuration.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxDuration(long maxDuration, TimeUnit unit) {
+      if (maxDuration <= 0 || unit == null) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("maxDuration: ").append(maxDuration).append(" unit: ").append(unit);
+        throw new IllegalArgumentException(sb.toString());
+      }
+      this.maxDurationNanos = unit.toNanos(maxDuration);
+      return this;
+    }
+
+    /**
+     * @param maxPackets the maximum number of packets in a file.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxPackets(long maxPackets) {
+      if (maxPackets <= 0) {
+        throw new IllegalArgumentException("maxPackets: " + maxPackets);
+      }
+      this.maxPackets = maxPackets;
+      return this;
+    }
+
+    /**
+     * @param maxFiles the number of files in the ring, which must be 2 or more. Another file is
+     *     opened in advance for the next rotation while writing. If this method isn't called, files
+     *     are never overwritten.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxFiles(int maxFiles) {
+      if (maxFiles < 2) {
+        throw new IllegalArgumentException("maxFiles: " + maxFiles);
+      }
+      this.maxFiles = maxFiles;
+      return this;
+    }
+
+    private PcapFileWriter.Builder newWriterBuilder(String path) {
+      return new PcapFileWriter.Builder(path, dlt)
+          .snaplen(snaplen)
+          .timestampPrecision(timestampPrecision)
+          .bufferSize(bufferSize)
+          .backgroundWrite(backgroundWrite);
+    }
+
+    /**
+     * Opens the first file, and the second one in the background.
+     *
+     * @return a new RotatingPcapFileWriter object.
+     * @throws IOException if the first file can't be created.
+     */
+    public RotatingPcapFileWriter build() throws IOException {
+      return new RotatingPcapFileWriter(this);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Abstract mutable flyweight view of a header in a frame. Unlike {@link Packet.Header}, a view
+ * doesn't copy or parse the header when it's created. It's re-pointed at a header in a byte array
+ * or a {@link ByteBuffer} by <code>wrap</code> methods and reads each field from there by getters
+ * returning primitives, so that reading headers of many frames allocates nothing.
+ *
+ * <p>Getters must be called only while the view is wrapping a header, i.e. after a <code>wrap
+ * </code> method returned true. A view doesn't copy the data, so getters return values of the data
+ * at the time they are called. Views are not thread safe.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public abstract class AbstractHeaderView {
+
+  private byte[] array = null;
+  private ByteBuffer buffer = null;
+  private int offset = 0;
+  private int length = 0;
+
+  /**
+   * Points this view at a header in a byte array.
+   *
+   * @param rawData rawData
+   * @param offset the offset of the header in the rawData.
+   * @param length the length of the header and the data following it.
+   * @return true if the data hold a whole header; false otherwise, in which case this view is
+   *     cleared.
+   */
+  public boolean wrap(byte[] rawData, int offset, int length) {
+    if (rawData == null) {
+      throw new NullPointerException("rawData must not be null.");
+    }
+    validateBounds(rawData.length, offset, length);
+
+    this.array = rawData;
+    this.buffer = null;
+    this.offset = offset;
+    this.length = length;
+    if (!isValid()) {
+      clear();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Points this view at a header in a {@link ByteBuffer}. The header and the data following it must
+   * lie before the limit of the buffer. The position and the limit of the buffer are not changed.
+   *
+   * @param buffer buffer
+   * @param offset the absolute offset of the header in the buffer.
+   * @param length the length of the header and the data following it.
+   * @return true if the data hold a whole header; false otherwise, in which case this view is
+   *     cleared.
+   */
+  public boolean wrap(ByteBuffer buffer, int offset, int length) {
+    if (buffer == null) {
+      throw new NullPointerException("buffer must not be null.");
+    }
+    validateBounds(buffer.limit(), offset, length);
+
+    this.array = null;
+    this.buffer = buffer;
+    this.offset = offset;
+    this.length = length;
+    if (!isValid()) {
+      clear();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Points this view at the header which follows the one another view is wrapping.
+   *
+   * @param outer a view wrapping the outer header.
+   * @return true if the data hold a whole header; false otherwise, in which case this view is
+   *     cleared.
+   */
+  public boolean wrapPayloadOf(AbstractHeaderView outer) {
+    if (outer.array != null) {
+      return wrap(outer.array, outer.getPayloadOffset(), outer.getPayloadLength());
+    } else if (outer.buffer != null) {
+      return wrap(outer.buffer, outer.getPayloadOffset(), outer.getPayloadLength());
+    } else {
+      clear();
+      return false;
+    }
+  }
+
+  /** Makes this view wrap nothing and release the reference to the data. */
+  public void clear() {
+    this.array = null;
+    this.buffer = null;
+    this.offset = 0;
+    this.length = 0;
+  }
+
+  /** @return true if this view is wrapping a header; false otherwise. */
+  public boolean isWrapping() {
+    return array != null || buffer != null;
+  }
+
+  /** @return the offset of the header this view is wrapping. */
+  public int getOffset() {
+    return offset;
+  }
+
+  /** @return the length of the header this view is wrapping and the data following it. */
+  public int getLength() {
+    return length;
+  }
+
+  /** @return the length of the header this view is wrapping. */
+  public abstract int getHeaderLength();
+
+  /** @return the offset of the payload of the header this view is wrapping. */
+  public int getPayloadOffset() {
+    return offset + getHeaderLength();
+  }
+
+  /**
+   * @return the length of the payload of the header this view is wrapping. This subclass have to
+   *     override this method if the header has a field to indicate it.
+   */
+  public int getPayloadLength() {
+    return length - getHeaderLength();
+  }
+
+  /**
+   * Checks if the wrapped data hold a whole header. Called by <code>wrap</code> methods after this
+   * view is pointed at the data.
+   *
+   * @return true if the data are valid as the header; false otherwise.
+   */
+  protected abstract boolean isValid();
+
+  /**
+   * @param relativeOffset an offset relative to the beginning of the header.
+   * @return a byte value.
+   */
+  protected final byte getByte(int relativeOffset) {
+    if (array != null) {
+      return array[offset + relativeOffset];
+    } else {
+      return buffer.get(offset + relativeOffset);
+    }
+  }
+
+  /**
+   * @param relativeOffset an offset relative to the beginning of the header.
+   * @return an unsigned byte value.
+   */
+  protected final int getUnsignedByte(int relativeOffset) {
+    return getByte(relativeOffset) & 0xFF;
+  }
+
+  /**
+   * @param relativeOffset an offset relative to the beginning of the header.
+   * @return an unsigned short value in big endian.
+   */
+  protected final int getUnsignedShort(int relativeOffset) {
+    int i = offset + relativeOffset;
+    if (array != null) {
+      return ((array[i] & 0xFF) << 8) | (array[i + 1] & 0xFF);
+    } else {
+      return ((buffer.get(i) & 0xFF) << 8) | (buffer.get(i + 1) & 0xFF);
+    }
+  }
+
+  /**
+   * @param relativeOffset an offset relative to the beginning of the header.
+   * @return an int value in big endian.
+   */
+  protected final int getInt(int relativeOffset) {
+    int i = offset + relativeOffset;
+    if (array != null) {
+      return (array[i] << 24)
+          | ((array[i + 1] & 0xFF) << 16)
+          | ((array[i + 2] & 0xFF) << 8)
+          | (array[i + 3] & 0xFF);
+    } else {
+      return (buffer.get(i) << 24)
+          | ((buffer.get(i + 1) & 0xFF) << 16)
+          | ((buffer.get(i + 2) & 0xFF) << 8)
+          | (buffer.get(i + 3) & 0xFF);
+    }
+  }
+
+  private static void validateBounds(int size, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > size - length) {
+      StringBuilder sb = new StringBuilder(80);
+      sb.append("size: ")
+          .append(size)
+          .append(", offset: ")
+          .append(offset)
+          .append(", length: ")
+          .append(length);
+      throw new IndexOutOfBoundsException(sb.toString());
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(60);
+    sb.append("[")
+        .append(getClass().getSimpleName())
+        .append(" offset: ")
+        .append(offset)
+        .append(" length: ")
+        .append(length)
+        .append(" wrapping: ")
+        .append(isWrapping())
+        .append("]");
+    return sb.toString();
+  }
+}
@@ -7,12 +7,11 @@
 
 package org.pcap4j.packet;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import org.pcap4j.util.ByteArrays;
-import org.pcap4j.util.LazyValue;
-import org.pcap4j.util.LazyValue.BuildValueCommand;
 
 /**
  * Abstract immutable packet class. If you use {@link
@@ -28,54 +27,64 @@ public abstract class AbstractPacket implements Packet {
   /** */
   private static final long serialVersionUID = -3016622134481071576L;
 
-  private final LazyValue<Integer> lengthCache;
-  private final LazyValue<byte[]> rawDataCache;
-  private final LazyValue<String> hexStringCache;
-  private final LazyValue<String> stringCache;
-  private final LazyValue<Integer> hashCodeCache;
+  // Caches of the values derived from the immutable state. They are computed without locks when
+  // they are requested for the first time, and may be computed more than once by racing threads,
+  // which is harmless. 0 or null means not computed yet. They are not serialized.
+  private transient int lengthCache;
+  private transient volatile byte[] rawDataCache;
+  private transient String hexStringCache;
+  private transient String stringCache;
+  private transient int hashCodeCache;
+
+  private static volatile boolean rawDataSharing =
+      PacketPropertiesLoader.getInstance().shareRawData();
+
+  // The slice of the raw data this packet was decoded from. The array is shared with the caller of
+  // the newPacket method and the other layers, and never modified. Null if this packet was built by
+  // a builder or deserialized, or if raw data sharing is disabled by the property
+  // PacketPropertiesLoader#SHARE_RAW_DATA_KEY.
+  private final transient byte[] rawDataSource;
+  private final transient int rawDataSourceOffset;
+  private final transient int rawDataSourceLength;
 
   /** */
   public AbstractPacket() {
-    this.lengthCache =
-        new LazyValue<Integer>(
-            new BuildValueCommand<Integer>() {
-              @Override
-              public Integer buildValue() {
-                return calcLength();
-              }
-            });
-    this.rawDataCache =
-        new LazyValue<byte[]>(
-            new BuildValueCommand<byte[]>() {
-              @Override
-              public byte[] buildValue() {
-                return buildRawData();
-              }
-            });
-    this.hexStringCache =
-        new LazyValue<String>(
-            new BuildValueCommand<String>() {
-              @Override
-              public String buildValue() {
-                return buildHexString();
-              }
-            });
-    this.stringCache =
-        new LazyValue<String>(
-            new BuildValueCommand<String>() {
-              @Override
-              public String buildValue() {
-                return buildString();
-              }
-            });
-    this.hashCodeCache =
-        new LazyValue<Integer>(
-            new BuildValueCommand<Integer>() {
-              @Override
-              public Integer buildValue() {
-                return calcHashCode();
-              }
-            });
+    this.rawDataSource = null;
+    this.rawDataSourceOffset = 0;
+    this.rawDataSourceLength = 0;
+  }
+
+  /**
+   * A constructor for a packet decoded from raw data. If raw data sharing is enabled by the
+   * property {@link PacketPropertiesLoader#SHARE_RAW_DATA_KEY}, the packet remembers the given
+   * slice of the raw data so that {@link #getRawData()} and {@link #rawDataView()} can serve bytes
+   * from it instead of rebuilding them from the header and the payload, and the array must not be
+   * modified after this call. Otherwise, this constructor is the same as {@link #AbstractPacket()}.
+   *
+   * @param rawData the array this packet is decoded from.
+   * @param offset the offset of this packet in rawData.
+   * @param length the length of the slice of rawData this packet is decoded from.
+   */
+  protected AbstractPacket(byte[] rawData, int offset, int length) {
+    if (rawDataSharing) {
+      this.rawDataSource = rawData;
+      this.rawDataSourceOffset = offset;
+      this.rawDataSourceLength = length;
+    } else {
+      this.rawDataSource = null;
+      this.rawDataSourceOffset = 0;
+      this.rawDataSourceLength = 0;
+    }
+  }
+
+  /** @return true if raw data sharing is enabled; false otherwise. */
+  static boolean isRawDataSharingEnabled() {
+    return rawDataSharing;
+  }
+
+  /** @param enabled enabled */
+  static void setRawDataSharingEnabled(boolean enabled) {
+    AbstractPacket.rawDataSharing = enabled;
   }
 
   /**
@@ -123,7 +132,12 @@ public abstract class AbstractPacket implements Packet {
    */
   @Override
   public int length() {
-    return lengthCache.getValue();
+    int length = lengthCache;
+    if (length == 0) {
+      length = calcLength();
+      lengthCache = length;
+    }
+    return length;
   }
 
   /**
@@ -152,20 +166,69 @@ public abstract class AbstractPacket implements Packet {
   }
 
   /**
-   * Returns this packet's raw data. This method calls {@link #buildRawData buildRawData()} and
-   * caches the return value when it is called for the first time, and then, this method returns the
-   * cached value from the second time. More correctly, this method returns a copy of the cached
-   * value, so that the cache can't be changed.
+   * Returns this packet's raw data. If this packet shares the raw data it was decoded from, this
+   * method returns a copy of the slice of it. Otherwise, this method calls {@link #buildRawData
+   * buildRawData()} and caches the return value when it is called for the first time, and then,
+   * this method returns the cached value from the second time. More correctly, this method returns
+   * a copy of the cached value, so that the cache can't be changed.
    */
   @Override
   public byte[] getRawData() {
-    byte[] rawData = rawDataCache.getValue();
+    if (hasRawDataSource()) {
+      return ByteArrays.getSubArray(rawDataSource, rawDataSourceOffset, rawDataSourceLength);
+    }
 
+    byte[] rawData = getCachedRawData();
     byte[] copy = new byte[rawData.length];
     System.arraycopy(rawData, 0, copy, 0, copy.length);
     return copy;
   }
 
+  /**
+   * Returns a read-only view of this packet's raw data. Unlike {@link #getRawData()}, this method
+   * never copies the raw data; the returned buffer is backed by the array this packet was decoded
+   * from if this packet shares it, or by the value cached by {@link #getRawData()} otherwise. If
+   * you write this subclass which overrides {@link #getRawData()} instead of {@link
+   * #buildRawData()}, you should override this method as well.
+   *
+   * @return a read-only buffer whose position is 0 and limit is {@link #length()}.
+   */
+  public ByteBuffer rawDataView() {
+    if (hasRawDataSource()) {
+      return ByteBuffer.wrap(rawDataSource, rawDataSourceOffset, rawDataSourceLength)
+          .slice()
+          .asReadOnlyBuffer();
+    }
+    return ByteBuffer.wrap(getCachedRawData()).asReadOnlyBuffer();
+  }
+
+  /**
+   * Returns whether this packet is made of the whole slice of the raw data it was decoded from,
+   * that is, whether the layers dropped no bytes of it. This method compares the length of the
+   * slice with {@link #length()}, which needs the payload to be decoded. If you write this subclass
+   * which knows the answer without decoding the payload, e.g. because it keeps the bytes beyond the
+   * payload as a pad, you should override this method.
+   *
+   * @param sourceLength the length of the slice of the raw data this packet was decoded from.
+   * @return true if this packet is made of the whole slice; false otherwise.
+   */
+  protected boolean consumesRawDataSource(int sourceLength) {
+    return sourceLength == length();
+  }
+
+  private boolean hasRawDataSource() {
+    return rawDataSource != null && consumesRawDataSource(rawDataSourceLength);
+  }
+
+  private byte[] getCachedRawData() {
+    byte[] rawData = rawDataCache;
+    if (rawData == null) {
+      rawData = buildRawData();
+      rawDataCache = rawData;
+    }
+    return rawData;
+  }
+
   @Override
   public Iterator<Packet> iterator() {
     return new PacketIterator(this);
@@ -218,7 +281,12 @@ public abstract class AbstractPacket implements Packet {
    * @return a hex string representation of this object
    */
   public String toHexString() {
-    return hexStringCache.getValue();
+    String hexString = hexStringCache;
+    if (hexString == null) {
+      hexString = buildHexString();
+      hexStringCache = hexString;
+    }
+    return hexString;
   }
 
   /**
@@ -249,7 +317,12 @@ public abstract class AbstractPacket implements Packet {
    */
   @Override
   public String toString() {
-    return stringCache.getValue();
+    String string = stringCache;
+    if (string == null) {
+      string = buildString();
+      stringCache = string;
+    }
+    return string;
   }
 
   /**
@@ -315,7 +388,12 @@ public abstract class AbstractPacket implements Packet {
    */
   @Override
   public int hashCode() {
-    return hashCodeCache.getValue();
+    int hashCode = hashCodeCache;
+    if (hashCode == 0) {
+      hashCode = calcHashCode();
+      hashCodeCache = hashCode;
+    }
+    return hashCode;
   }
 
   /**
@@ -376,55 +454,15 @@ public abstract class AbstractPacket implements Packet {
     /** */
     private static final long serialVersionUID = -8916517326403680608L;
 
-    private final LazyValue<Integer> lengthCache;
-    private final LazyValue<byte[]> rawDataCache;
-    private final LazyValue<String> hexStringCache;
-    private final LazyValue<String> stringCache;
-    private final LazyValue<Integer> hashCodeCache;
+    // Lazily computed caches in the same way as AbstractPacket's.
+    private transient int lengthCache;
+    private transient volatile byte[] rawDataCache;
+    private transient String hexStringCache;
+    private transient String stringCache;
+    private transient int hashCodeCache;
 
     /** */
-    protected AbstractHeader() {
-      this.lengthCache =
-          new LazyValue<Integer>(
-              new BuildValueCommand<Integer>() {
-                @Override
-                public Integer buildValue() {
-                  return calcLength();
-                }
-              });
-      this.rawDataCache =
-          new LazyValue<byte[]>(
-              new BuildValueCommand<byte[]>() {
-                @Override
-                public byte[] buildValue() {
-                  return buildRawData();
-                }
-              });
-      this.hexStringCache =
-          new LazyValue<String>(
-              new BuildValueCommand<String>() {
-                @Override
-                public String buildValue() {
-                  return buildHexString();
-                }
-              });
-      this.stringCache =
-          new LazyValue<String>(
-              new BuildValueCommand<String>() {
-                @Override
-                public String buildValue() {
-                  return buildString();
-                }
-              });
-      this.hashCodeCache =
-          new LazyValue<Integer>(
-              new BuildValueCommand<Integer>() {
-                @Override
-                public Integer buildValue() {
-                  return calcHashCode();
-                }
-              });
-    }
+    protected AbstractHeader() {}
 
     /**
      * Returns a list of byte arrays which represents this header's fields. This method is called by
@@ -455,7 +493,12 @@ public abstract class AbstractPacket implements Packet {
      */
     @Override
     public int length() {
-      return lengthCache.getValue();
+      int length = lengthCache;
+      if (length == 0) {
+        length = calcLength();
+        lengthCache = length;
+      }
+      return length;
     }
 
     /**
@@ -476,7 +519,11 @@ public abstract class AbstractPacket implements Packet {
      */
     @Override
     public byte[] getRawData() {
-      byte[] rawData = rawDataCache.getValue();
+      byte[] rawData = rawDataCache;
+      if (rawData == null) {
+        rawData = buildRawData();
+        rawDataCache = rawData;
+      }
 
       byte[] copy = new byte[rawData.length];
       System.arraycopy(rawData, 0, copy, 0, copy.length);
@@ -502,7 +549,12 @@ public abstract class AbstractPacket implements Packet {
      * @return a hex string representation of this object
      */
     public String toHexString() {
-      return hexStringCache.getValue();
+      String hexString = hexStringCache;
+      if (hexString == null) {
+        hexString = buildHexString();
+        hexStringCache = hexString;
+      }
+      return hexString;
     }
 
     /**
@@ -527,7 +579,12 @@ public abstract class AbstractPacket implements Packet {
      */
     @Override
     public String toString() {
-      return stringCache.getValue();
+      String string = stringCache;
+      if (string == null) {
+        string = buildString();
+        stringCache = string;
+      }
+      return string;
     }
 
     /**
@@ -564,7 +621,12 @@ public abstract class AbstractPacket implements Packet {
      */
     @Override
     public int hashCode() {
-      return hashCodeCache.getValue();
+      int hashCode = hashCodeCache;
+      if (hashCode == 0) {
+        hashCode = calcHashCode();
+        hashCodeCache = hashCode;
+      }
+      return hashCode;
     }
   }
 }
@@ -11,6 +11,7 @@ import static org.pcap4j.util.ByteArrays.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
 import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.namednumber.EtherType;
 import org.pcap4j.util.ByteArrays;
@@ -26,6 +27,7 @@ public final class Dot1qVlanTagPacket extends AbstractPacket {
 
   private final Dot1qVlanTagHeader header;
   private final Packet payload;
+  private final LazyPayload<?> lazyPayload;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -45,15 +47,23 @@ public final class Dot1qVlanTagPacket extends AbstractPacket {
 
   private Dot1qVlanTagPacket(byte[] rawData, int offset, int length)
       throws IllegalRawDataException {
+    super(rawData, offset, length);
     this.header = new Dot1qVlanTagHeader(rawData, offset, length);
 
     int payloadLength = length - header.length();
-    if (payloadLength > 0) {
+    if (payloadLength <= 0) {
+      this.payload = null;
+      this.lazyPayload = null;
+    } else if (LazyPayload.isEnabled()) {
+      this.payload = null;
+      this.lazyPayload =
+          new LazyPayload<EtherType>(
+              rawData, offset + header.length(), payloadLength, EtherType.class, header.getType());
+    } else {
       this.payload =
           PacketFactories.getFactory(Packet.class, EtherType.class)
               .newInstance(rawData, offset + header.length(), payloadLength, header.getType());
-    } else {
-      this.payload = null;
+      this.lazyPayload = null;
     }
   }
 
@@ -65,6 +75,7 @@ public final class Dot1qVlanTagPacket extends AbstractPacket {
     }
 
     this.payload = builder.payloadBuilder != null ? builder.payloadBuilder.build() : null;
+    this.lazyPayload = null;
     this.header = new Dot1qVlanTagHeader(builder);
   }
 
@@ -75,7 +86,7 @@ public final class Dot1qVlanTagPacket extends AbstractPacket {
 
   @Override
   public Packet getPayload() {
-    return payload;
+    return lazyPayload != null ? lazyPayload.get() : payload;
   }
 
   @Override
@@ -103,7 +114,7 @@ public final class Dot1qVlanTagPacket extends AbstractPacket {
       this.cfi = packet.header.cfi;
       this.vid = packet.header.vid;
       this.type = packet.header.type;
-      this.payloadBuilder = packet.payload != null ? packet.payload.getBuilder() : null;
+      this.payloadBuilder = packet.getPayload() != null ? packet.getPayload().getBuilder() : null;
     }
 
     /**
@@ -194,16 +205,8 @@ public final class Dot1qVlanTagPacket extends AbstractPacket {
     private Dot1qVlanTagHeader(byte[] rawData, int offset, int length)
         throws IllegalRawDataException {
       if (length < DOT1Q_TAG_HEADER_SIZE) {
-        StringBuilder sb = new StringBuilder(200);
-        sb.append("The data is too short to build an IEEE802.1Q Tag header(")
-            .append(DOT1Q_TAG_HEADER_SIZE)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            Dot1qVlanTagHeader.class, Reason.TOO_SHORT, offset, length, DOT1Q_TAG_HEADER_SIZE);
       }
 
       short priorityAndCfiAndVid =
@@ -12,6 +12,7 @@ import static org.pcap4j.util.ByteArrays.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
 import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.namednumber.EtherType;
 import org.pcap4j.util.ByteArrays;
@@ -33,11 +34,13 @@ public final class EthernetPacket extends AbstractPacket {
 
   private final EthernetHeader header;
   private final Packet payload;
+  private final LazyPayload<EtherType> lazyPayload;
 
   // Ethernet frame must be at least 60 bytes except FCS.
   // If it's less than 60 bytes, it's padded with this field.
   // Although this class handles pad, it's actually responsibility of NIF.
-  private final byte[] pad;
+  // null until the lazy payload is decoded.
+  private volatile byte[] pad;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -56,6 +59,7 @@ public final class EthernetPacket extends AbstractPacket {
   }
 
   private EthernetPacket(byte[] rawData, int offset, int length) throws IllegalRawDataException {
+    super(rawData, offset, length);
     this.header = new EthernetHeader(rawData, offset, length);
 
     if ((header.getType().value() & 0xFFFF) <= EtherType.IEEE802_3_MAX_LENGTH) {
@@ -65,16 +69,26 @@ public final class EthernetPacket extends AbstractPacket {
 
       if (padLength < 0) {
         throw new IllegalRawDataException(
-            "The value of the ether type (length) field seems to be wrong: "
-                + header.getType().value());
+            EthernetPacket.class,
+            Reason.INVALID_LENGTH_FIELD,
+            offset,
+            length,
+            header.getType().value() & 0xFFFF);
       }
 
-      if (payloadLength > 0) {
+      if (payloadLength > 0 && LazyPayload.isEnabled()) {
+        this.payload = null;
+        this.lazyPayload =
+            new LazyPayload<EtherType>(
+                rawData, payloadOffset, payloadLength, EtherType.class, header.getType());
+      } else if (payloadLength > 0) {
         this.payload =
             PacketFactories.getFactory(Packet.class, EtherType.class)
                 .newInstance(rawData, payloadOffset, payloadLength, header.getType());
+        this.lazyPayload = null;
       } else { // payloadLength == 0
         this.payload = null;
+        this.lazyPayload = null;
       }
 
       if (padLength > 0) {
@@ -84,8 +98,20 @@ public final class EthernetPacket extends AbstractPacket {
       }
     } else {
       int payloadAndPadLength = length - header.length();
-      if (payloadAndPadLength > 0) {
+      if (payloadAndPadLength > 0 && LazyPayload.isEnabled()) {
+        // The pad is known after the payload is decoded.
+        this.payload = null;
+        this.lazyPayload =
+            new LazyPayload<EtherType>(
+                rawData,
+                offset + header.length(),
+                payloadAndPadLength,
+                EtherType.class,
+                header.getType());
+        this.pad = null;
+      } else if (payloadAndPadLength > 0) {
         int payloadOffset = offset + header.length();
+        this.lazyPayload = null;
         this.payload =
             PacketFactories.getFactory(Packet.class, EtherType.class)
                 .newInstance(rawData, payloadOffset, payloadAndPadLength, header.getType());
@@ -98,6 +124,7 @@ public final class EthernetPacket extends AbstractPacket {
         }
       } else {
         this.payload = null;
+        this.lazyPayload = null;
         this.pad = new byte[0];
       }
     }
@@ -126,6 +153,7 @@ public final class EthernetPacket extends AbstractPacket {
     }
 
     this.payload = builder.payloadBuilder != null ? builder.payloadBuilder.build() : null;
+    this.lazyPayload = null;
     this.header = new EthernetHeader(builder);
 
     int payloadLength = payload != null ? payload.length() : 0;
@@ -136,8 +164,9 @@ public final class EthernetPacket extends AbstractPacket {
         this.pad = new byte[0];
       }
     } else {
-      this.pad = new byte[builder.pad.length];
-      System.arraycopy(builder.pad, 0, this.pad, 0, builder.pad.length);
+      byte[] padCopy = new byte[builder.pad.length];
+      System.arraycopy(builder.pad, 0, padCopy, 0, builder.pad.length);
+      this.pad = padCopy;
     }
   }
 
@@ -148,11 +177,33 @@ public final class EthernetPacket extends AbstractPacket {
 
   @Override
   public Packet getPayload() {
-    return payload;
+    return lazyPayload != null ? lazyPayload.get() : payload;
+  }
+
+  private byte[] pad() {
+    byte[] p = pad;
+    if (p == null) {
+      int payloadLength = lazyPayload.get().length();
+      int padLength = lazyPayload.length() - payloadLength;
+      p = padLength > 0 ? lazyPayload.getSubArray(payloadLength, padLength) : new byte[0];
+      pad = p;
+    }
+    return p;
+  }
+
+  @Override
+  protected boolean consumesRawDataSource(int sourceLength) {
+    // Unless the type field is a length, the bytes beyond the payload are the pad, so the frame is
+    // made of the whole slice without decoding the payload.
+    if ((header.getType().value() & 0xFFFF) > EtherType.IEEE802_3_MAX_LENGTH) {
+      return true;
+    }
+    return super.consumesRawDataSource(sourceLength);
   }
 
   /** @return pad */
   public byte[] getPad() {
+    byte[] pad = pad();
     byte[] copy = new byte[pad.length];
     System.arraycopy(pad, 0, copy, 0, pad.length);
     return copy;
@@ -161,13 +212,14 @@ public final class EthernetPacket extends AbstractPacket {
   @Override
   protected int calcLength() {
     int length = super.calcLength();
-    length += pad.length;
+    length += pad().length;
     return length;
   }
 
   @Override
   protected byte[] buildRawData() {
     byte[] rawData = super.buildRawData();
+    byte[] pad = pad();
     if (pad.length != 0) {
       System.arraycopy(pad, 0, rawData, rawData.length - pad.length, pad.length);
     }
@@ -179,9 +231,11 @@ public final class EthernetPacket extends AbstractPacket {
     StringBuilder sb = new StringBuilder();
 
     sb.append(header.toString());
+    Packet payload = getPayload();
     if (payload != null) {
       sb.append(payload.toString());
     }
+    byte[] pad = pad();
     if (pad.length != 0) {
       String ls = System.getProperty("line.separator");
       sb.append("[Ethernet Pad (")
@@ -205,7 +259,7 @@ public final class EthernetPacket extends AbstractPacket {
   public boolean equals(Object obj) {
     if (super.equals(obj)) {
       EthernetPacket other = (EthernetPacket) obj;
-      return Arrays.equals(pad, other.pad);
+      return Arrays.equals(pad(), other.pad());
     } else {
       return false;
     }
@@ -213,7 +267,7 @@ public final class EthernetPacket extends AbstractPacket {
 
   @Override
   protected int calcHashCode() {
-    return 31 * super.calcHashCode() + Arrays.hashCode(pad);
+    return 31 * super.calcHashCode() + Arrays.hashCode(pad());
   }
 
   /**
@@ -236,8 +290,8 @@ public final class EthernetPacket extends AbstractPacket {
       this.dstAddr = packet.header.dstAddr;
       this.srcAddr = packet.header.srcAddr;
       this.type = packet.header.type;
-      this.payloadBuilder = packet.payload != null ? packet.payload.getBuilder() : null;
-      this.pad = packet.pad;
+      this.payloadBuilder = packet.getPayload() != null ? packet.getPayload().getBuilder() : null;
+      this.pad = packet.pad();
     }
 
     /**
@@ -344,16 +398,8 @@ public final class EthernetPacket extends AbstractPacket {
 
     private EthernetHeader(byte[] rawData, int offset, int length) throws IllegalRawDataException {
       if (length < ETHERNET_HEADER_SIZE) {
-        StringBuilder sb = new StringBuilder(100);
-        sb.append("The data is too short to build an Ethernet header(")
-            .append(ETHERNET_HEADER_SIZE)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            EthernetHeader.class, Reason.TOO_SHORT, offset, length, ETHERNET_HEADER_SIZE);
       }
 
       this.dstAddr = ByteArrays.getMacAddress(rawData, DST_ADDR_OFFSET + offset);
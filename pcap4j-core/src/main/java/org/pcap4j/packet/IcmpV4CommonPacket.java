@@ -15,6 +15,7 @@ import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.namednumber.IcmpV4Code;
 import org.pcap4j.packet.namednumber.IcmpV4Type;
 import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.InternetChecksum;
 
 /**
  * @author Kaito Yamada
@@ -95,8 +96,7 @@ public final class IcmpV4CommonPacket extends AbstractPacket {
    * @return true if the packet represented by this object has a valid checksum; false otherwise.
    */
   public boolean hasValidChecksum(boolean acceptZero) {
-    byte[] payloadData = payload != null ? payload.getRawData() : new byte[0];
-    short calculatedChecksum = header.calcChecksum(header.getRawData(), payloadData);
+    short calculatedChecksum = InternetChecksum.fold(InternetChecksum.sum(rawDataView()));
     if (calculatedChecksum == 0) {
       return true;
     }
@@ -249,19 +249,9 @@ public final class IcmpV4CommonPacket extends AbstractPacket {
     }
 
     private short calcChecksum(byte[] header, byte[] payload) {
-      byte[] data;
-      int packetLength = payload.length + length();
-
-      if ((packetLength % 2) != 0) {
-        data = new byte[packetLength + 1];
-      } else {
-        data = new byte[packetLength];
-      }
-
-      System.arraycopy(header, 0, data, 0, header.length);
-      System.arraycopy(payload, 0, data, header.length, payload.length);
-
-      return ByteArrays.calcChecksum(data);
+      return InternetChecksum.fold(
+          InternetChecksum.sum(header, 0, header.length)
+              + InternetChecksum.sum(payload, 0, payload.length));
     }
 
     /** @return type */
@@ -20,6 +20,7 @@ import org.pcap4j.packet.namednumber.IcmpV6Type;
 import org.pcap4j.packet.namednumber.IpNumber;
 import org.pcap4j.packet.namednumber.IpV6NeighborDiscoveryOptionType;
 import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.InternetChecksum;
 
 /**
  * @author Kaito Yamada
@@ -123,9 +124,11 @@ public final class IcmpV6CommonPacket extends AbstractPacket {
       throw new IllegalArgumentException(sb.toString());
     }
 
-    byte[] payloadData = payload != null ? payload.getRawData() : new byte[0];
+    // The raw data of this packet is the header followed by the payload.
     short calculatedChecksum =
-        header.calcChecksum(srcAddr, dstAddr, header.getRawData(), payloadData);
+        InternetChecksum.fold(
+            InternetChecksum.pseudoHeaderSum(srcAddr, dstAddr, IpNumber.ICMPV6, length())
+                + InternetChecksum.sum(rawDataView()));
     if (calculatedChecksum == 0) {
       return true;
     }
@@ -261,8 +264,6 @@ public final class IcmpV6CommonPacket extends AbstractPacket {
     private static final int CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
     private static final int ICMPV6_COMMON_HEADER_SIZE = CHECKSUM_OFFSET + CHECKSUM_SIZE;
 
-    private static final int ICMPV6_PSEUDO_HEADER_SIZE = 40;
-
     private final IcmpV6Type type;
     private final IcmpV6Code code;
     private final short checksum;
@@ -306,38 +307,12 @@ public final class IcmpV6CommonPacket extends AbstractPacket {
 
     private short calcChecksum(
         Inet6Address srcAddr, Inet6Address dstAddr, byte[] header, byte[] payload) {
-      byte[] data;
-      int destPos;
-      int totalLength = payload.length + length();
-
-      if ((totalLength % 2) != 0) {
-        data = new byte[totalLength + 1 + ICMPV6_PSEUDO_HEADER_SIZE];
-        destPos = totalLength + 1;
-      } else {
-        data = new byte[totalLength + ICMPV6_PSEUDO_HEADER_SIZE];
-        destPos = totalLength;
-      }
-
-      System.arraycopy(header, 0, data, 0, header.length);
-      System.arraycopy(payload, 0, data, header.length, payload.length);
-
-      // pseudo header
-      System.arraycopy(srcAddr.getAddress(), 0, data, destPos, srcAddr.getAddress().length);
-      destPos += srcAddr.getAddress().length;
-
-      System.arraycopy(dstAddr.getAddress(), 0, data, destPos, dstAddr.getAddress().length);
-      destPos += dstAddr.getAddress().length;
-
-      destPos += 3;
-
-      data[destPos] = IpNumber.ICMPV6.value();
-      destPos++;
-
-      System.arraycopy(
-          ByteArrays.toByteArray((short) totalLength), 0, data, destPos, SHORT_SIZE_IN_BYTES);
-      destPos += SHORT_SIZE_IN_BYTES;
-
-      return ByteArrays.calcChecksum(data);
+      long sum =
+          InternetChecksum.pseudoHeaderSum(
+                  srcAddr, dstAddr, IpNumber.ICMPV6, header.length + payload.length)
+              + InternetChecksum.sum(header, 0, header.length)
+              + InternetChecksum.sum(payload, 0, payload.length);
+      return InternetChecksum.fold(sum);
     }
 
     /** @return type */
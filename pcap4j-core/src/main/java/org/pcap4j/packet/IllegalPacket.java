@@ -7,6 +7,7 @@
 
 package org.pcap4j.packet;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.pcap4j.util.ByteArrays;
 
@@ -20,6 +21,7 @@ public final class IllegalPacket extends AbstractPacket {
   private static final long serialVersionUID = -8028013257441150031L;
 
   private final byte[] rawData;
+  private final IllegalRawDataException cause;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -32,12 +34,29 @@ public final class IllegalPacket extends AbstractPacket {
    */
   public static IllegalPacket newPacket(byte[] rawData, int offset, int length) {
     ByteArrays.validateBounds(rawData, offset, length);
-    return new IllegalPacket(rawData, offset, length);
+    return new IllegalPacket(rawData, offset, length, null);
   }
 
-  private IllegalPacket(byte[] rawData, int offset, int length) {
+  /**
+   * A static factory method. This method validates the arguments by {@link
+   * ByteArrays#validateBounds(byte[], int, int)}, which may throw exceptions undocumented here.
+   *
+   * @param rawData rawData
+   * @param offset offset
+   * @param length length
+   * @param cause the exception thrown when the raw data failed to be parsed. May be null.
+   * @return a new IllegalPacket object.
+   */
+  public static IllegalPacket newPacket(
+      byte[] rawData, int offset, int length, IllegalRawDataException cause) {
+    ByteArrays.validateBounds(rawData, offset, length);
+    return new IllegalPacket(rawData, offset, length, cause);
+  }
+
+  private IllegalPacket(byte[] rawData, int offset, int length, IllegalRawDataException cause) {
     this.rawData = new byte[length];
     System.arraycopy(rawData, offset, this.rawData, 0, length);
+    this.cause = cause;
   }
 
   private IllegalPacket(Builder builder) {
@@ -47,6 +66,7 @@ public final class IllegalPacket extends AbstractPacket {
 
     this.rawData = new byte[builder.rawData.length];
     System.arraycopy(builder.rawData, 0, this.rawData, 0, builder.rawData.length);
+    this.cause = builder.cause;
   }
 
   @Override
@@ -61,6 +81,22 @@ public final class IllegalPacket extends AbstractPacket {
     return copy;
   }
 
+  @Override
+  public ByteBuffer rawDataView() {
+    return ByteBuffer.wrap(rawData).asReadOnlyBuffer();
+  }
+
+  /**
+   * Returns the exception thrown when the raw data of this packet failed to be parsed. It tells
+   * which layer failed and why by {@link IllegalRawDataException#getLayer()} and {@link
+   * IllegalRawDataException#getReason()} if it has a structured reason.
+   *
+   * @return the cause. null if unknown.
+   */
+  public IllegalRawDataException getCause() {
+    return cause;
+  }
+
   /** */
   @Override
   public Builder getBuilder() {
@@ -73,6 +109,9 @@ public final class IllegalPacket extends AbstractPacket {
     String ls = System.getProperty("line.separator");
 
     sb.append("[Illegal Packet (").append(length()).append(" bytes)]").append(ls);
+    if (cause != null) {
+      sb.append("  Cause: ").append(cause.getMessage()).append(ls);
+    }
     sb.append("  Hex stream: ").append(ByteArrays.toHexString(rawData, " ")).append(ls);
 
     return sb.toString();
@@ -102,12 +141,14 @@ public final class IllegalPacket extends AbstractPacket {
   public static final class Builder extends AbstractBuilder {
 
     private byte[] rawData = new byte[0];
+    private IllegalRawDataException cause;
 
     /** */
     public Builder() {}
 
     private Builder(IllegalPacket packet) {
       rawData = packet.rawData;
+      cause = packet.cause;
     }
 
     /**
@@ -119,6 +160,15 @@ public final class IllegalPacket extends AbstractPacket {
       return this;
     }
 
+    /**
+     * @param cause cause
+     * @return this Builder object for method chaining.
+     */
+    public Builder cause(IllegalRawDataException cause) {
+      this.cause = cause;
+      return this;
+    }
+
     @Override
     public IllegalPacket build() {
       return new IllegalPacket(this);
@@ -8,6 +8,13 @@
 package org.pcap4j.packet;
 
 /**
+ * Thrown when raw data can't be parsed into a packet or a part of it.
+ *
+ * <p>An exception created by {@link #IllegalRawDataException(Class, Reason, int, int, int)} is a
+ * lightweight one for the path to parse malformed data, which is common in hostile or truncated
+ * traffic. It holds a structured reason and doesn't fill in its stack trace nor build its message
+ * until {@link #getMessage()} is called.
+ *
  * @author Kaito Yamada
  * @since pcap4j 0.9.11
  */
@@ -16,14 +23,35 @@ public final class IllegalRawDataException extends Exception {
   /** */
   private static final long serialVersionUID = -6426401494142677707L;
 
+  private final Class<?> layer;
+  private final Reason reason;
+  private final int offset;
+  private final int length;
+  private final int value;
+  private final boolean stackTraceWritable;
+
   /** */
   public IllegalRawDataException() {
     super();
+    this.layer = null;
+    this.reason = null;
+    this.offset = -1;
+    this.length = -1;
+    this.value = 0;
+    this.stackTraceWritable = true;
+    super.fillInStackTrace();
   }
 
   /** @param message message */
   public IllegalRawDataException(String message) {
     super(message);
+    this.layer = null;
+    this.reason = null;
+    this.offset = -1;
+    this.length = -1;
+    this.value = 0;
+    this.stackTraceWritable = true;
+    super.fillInStackTrace();
   }
 
   /**
@@ -32,10 +60,133 @@ public final class IllegalRawDataException extends Exception {
    */
   public IllegalRawDataException(String message, Throwable cause) {
     super(message, cause);
+    this.layer = null;
+    this.reason = null;
+    this.offset = -1;
+    this.length = -1;
+    this.value = 0;
+    this.stackTraceWritable = true;
+    super.fillInStackTrace();
   }
 
   /** @param cause cause */
   public IllegalRawDataException(Throwable cause) {
     super(cause);
+    this.layer = null;
+    this.reason = null;
+    this.offset = -1;
+    this.length = -1;
+    this.value = 0;
+    this.stackTraceWritable = true;
+    super.fillInStackTrace();
+  }
+
+  /**
+   * Creates a lightweight exception without a stack trace.
+   *
+   * @param layer the class of the packet or the header which failed to be parsed.
+   * @param reason reason
+   * @param offset the offset of the data which failed to be parsed.
+   * @param length the length of the data which failed to be parsed.
+   * @param value the value which caused the failure. e.g. the required length for {@link
+   *     Reason#TOO_SHORT}, or the value of the wrong field for the others.
+   */
+  public IllegalRawDataException(Class<?> layer, Reason reason, int offset, int length, int value) {
+    super();
+    if (layer == null || reason == null) {
+      StringBuilder sb = new StringBuilder(40);
+      sb.append("layer: ").append(layer).append(" reason: ").append(reason);
+      throw new NullPointerException(sb.toString());
+    }
+    this.layer = layer;
+    this.reason = reason;
+    this.offset = offset;
+    this.length = length;
+    this.value = value;
+    this.stackTraceWritable = false;
+  }
+
+  /**
+   * @return the class of the packet or the header which failed to be parsed. null if this exception
+   *     doesn't have a structured reason.
+   */
+  public Class<?> getLayer() {
+    return layer;
+  }
+
+  /** @return reason. null if this exception doesn't have a structured reason. */
+  public Reason getReason() {
+    return reason;
+  }
+
+  /** @return the offset of the data which failed to be parsed. -1 if unknown. */
+  public int getOffset() {
+    return offset;
+  }
+
+  /** @return the length of the data which failed to be parsed. -1 if unknown. */
+  public int getLength() {
+    return length;
+  }
+
+  /** @return the value which caused the failure. 0 if unknown. */
+  public int getValue() {
+    return value;
+  }
+
+  @Override
+  public String getMessage() {
+    if (reason == null) {
+      return super.getMessage();
+    }
+
+    StringBuilder sb = new StringBuilder(120);
+    sb.append(layer.getSimpleName()).append(": ");
+    switch (reason) {
+      case TOO_SHORT:
+        sb.append("The data is too short. It must be at least ").append(value).append(" bytes.");
+        break;
+      case INVALID_LENGTH_FIELD:
+        sb.append("The value of the length field seems to be wrong: ").append(value);
+        break;
+      case INVALID_FIELD:
+        sb.append("A field has an invalid value: ").append(value);
+        break;
+      default:
+        throw new AssertionError("Never get here.");
+    }
+    sb.append(" offset: ").append(offset).append(", length: ").append(length);
+    return sb.toString();
+  }
+
+  /**
+   * Fills in the stack trace only if this exception is not a lightweight one. (Throwable's
+   * constructors call this method before the fields of this class are initialized, so the
+   * constructors of this class call the super class's one explicitly as needed.)
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    if (stackTraceWritable) {
+      return super.fillInStackTrace();
+    }
+    return this;
+  }
+
+  /**
+   * The reasons of the failures to parse raw data.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static enum Reason {
+
+    /** The data is shorter than the packet or the header requires. */
+    TOO_SHORT,
+
+    /** A length field has a value inconsistent with the data or the header. */
+    INVALID_LENGTH_FIELD,
+
+    /** A field other than above has an invalid value. */
+    INVALID_FIELD,
   }
 }
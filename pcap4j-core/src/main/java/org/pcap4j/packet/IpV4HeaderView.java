@@ -0,0 +1,156 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet;
+
+import org.pcap4j.packet.IpV4Packet.IpV4Header;
+
+/**
+ * Flyweight view of an IPv4 header. See {@link AbstractHeaderView}.
+ *
+ * <pre>{@code
+ * IpV4HeaderView ip = new IpV4HeaderView();
+ * TcpHeaderView tcp = new TcpHeaderView();
+ * if (ip.wrap(frame, 14, frame.length - 14)
+ *     && ip.getProtocolAsInt() == 6
+ *     && tcp.wrapPayloadOf(ip)) {
+ *   int srcAddr = ip.getSrcAddrAsInt();
+ *   int dstPort = tcp.getDstPortAsInt();
+ * }
+ * }</pre>
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class IpV4HeaderView extends AbstractHeaderView {
+
+  private static final int MIN_IPV4_HEADER_SIZE = IpV4Header.OPTIONS_OFFSET;
+
+  /** */
+  public IpV4HeaderView() {}
+
+  /**
+   * Checks the length, the version, the IHL, and the total length of the header.
+   *
+   * @return true if the data are valid as an IPv4 header; false otherwise.
+   */
+  @Override
+  protected boolean isValid() {
+    if (getLength() < MIN_IPV4_HEADER_SIZE) {
+      return false;
+    }
+    int headerLength = getHeaderLength();
+    if (getVersionAsInt() != 4
+        || headerLength < MIN_IPV4_HEADER_SIZE
+        || headerLength > getLength()) {
+      return false;
+    }
+    int totalLength = getTotalLengthAsInt();
+    return totalLength == 0 || totalLength >= headerLength;
+  }
+
+  /** @return version */
+  public int getVersionAsInt() {
+    return getUnsignedByte(IpV4Header.VERSION_AND_IHL_OFFSET) >> 4;
+  }
+
+  /** @return ihl */
+  public int getIhlAsInt() {
+    return getUnsignedByte(IpV4Header.VERSION_AND_IHL_OFFSET) & 0x0F;
+  }
+
+  /** @return the length of the header including options in bytes. */
+  @Override
+  public int getHeaderLength() {
+    return getIhlAsInt() * 4;
+  }
+
+  /** @return tos */
+  public byte getTos() {
+    return getByte(IpV4Header.TOS_OFFSET);
+  }
+
+  /** @return totalLength */
+  public int getTotalLengthAsInt() {
+    return getUnsignedShort(IpV4Header.TOTAL_LENGTH_OFFSET);
+  }
+
+  /** @return identification */
+  public int getIdentificationAsInt() {
+    return getUnsignedShort(IpV4Header.IDENTIFICATION_OFFSET);
+  }
+
+  /** @return the 3 bits of the flags field. (reserved, DF, MF) */
+  public int getFlags() {
+    return getUnsignedByte(IpV4Header.FLAGS_AND_FRAGMENT_OFFSET_OFFSET) >> 5;
+  }
+
+  /** @return reservedFlag */
+  public boolean getReservedFlag() {
+    return (getUnsignedByte(IpV4Header.FLAGS_AND_FRAGMENT_OFFSET_OFFSET) & 0x80) != 0;
+  }
+
+  /** @return dontFragmentFlag */
+  public boolean getDontFragmentFlag() {
+    return (getUnsignedByte(IpV4Header.FLAGS_AND_FRAGMENT_OFFSET_OFFSET) & 0x40) != 0;
+  }
+
+  /** @return moreFragmentFlag */
+  public boolean getMoreFragmentFlag() {
+    return (getUnsignedByte(IpV4Header.FLAGS_AND_FRAGMENT_OFFSET_OFFSET) & 0x20) != 0;
+  }
+
+  /** @return fragmentOffset */
+  public short getFragmentOffset() {
+    return (short) (getUnsignedShort(IpV4Header.FLAGS_AND_FRAGMENT_OFFSET_OFFSET) & 0x1FFF);
+  }
+
+  /** @return true if this header is of a fragment; false otherwise. */
+  public boolean isFragment() {
+    return (getUnsignedShort(IpV4Header.FLAGS_AND_FRAGMENT_OFFSET_OFFSET) & 0x3FFF) != 0;
+  }
+
+  /** @return ttl */
+  public int getTtlAsInt() {
+    return getUnsignedByte(IpV4Header.TTL_OFFSET);
+  }
+
+  /** @return protocol */
+  public int getProtocolAsInt() {
+    return getUnsignedByte(IpV4Header.PROTOCOL_OFFSET);
+  }
+
+  /** @return headerChecksum */
+  public short getHeaderChecksum() {
+    return (short) getUnsignedShort(IpV4Header.HEADER_CHECKSUM_OFFSET);
+  }
+
+  /** @return srcAddr as an int in network byte order. */
+  public int getSrcAddrAsInt() {
+    return getInt(IpV4Header.SRC_ADDR_OFFSET);
+  }
+
+  /** @return dstAddr as an int in network byte order. */
+  public int getDstAddrAsInt() {
+    return getInt(IpV4Header.DST_ADDR_OFFSET);
+  }
+
+  /**
+   * Returns the payload length calculated from the total length field in the same way as {@link
+   * IpV4Packet}; if the field is 0, which may be because of segmentation offload, or larger than
+   * the data, the payload is assumed to extend to the end of the data.
+   */
+  @Override
+  public int getPayloadLength() {
+    int remaining = super.getPayloadLength();
+    int totalLength = getTotalLengthAsInt();
+    if (totalLength == 0) {
+      return remaining;
+    }
+    return Math.min(totalLength - getHeaderLength(), remaining);
+  }
+}
@@ -16,12 +16,14 @@ import java.net.Inet4Address;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
 import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.namednumber.IpNumber;
 import org.pcap4j.packet.namednumber.IpV4OptionType;
 import org.pcap4j.packet.namednumber.IpVersion;
 import org.pcap4j.packet.namednumber.NotApplicable;
 import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.InternetChecksum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +42,7 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
 
   private final IpV4Header header;
   private final Packet payload;
+  private final LazyPayload<?> lazyPayload;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -58,6 +61,7 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
   }
 
   private IpV4Packet(byte[] rawData, int offset, int length) throws IllegalRawDataException {
+    super(rawData, offset, length);
     this.header = new IpV4Header(rawData, offset, length);
 
     int remainingRawDataLength = length - header.length();
@@ -70,7 +74,7 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
       payloadLength = totalLength - header.length();
       if (payloadLength < 0) {
         throw new IllegalRawDataException(
-            "The value of total length field seems to be wrong: " + totalLength);
+            IpV4Packet.class, Reason.INVALID_LENGTH_FIELD, offset, length, totalLength);
       }
 
       if (payloadLength > remainingRawDataLength) {
@@ -79,19 +83,43 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
     }
 
     if (payloadLength != 0) { // payloadLength is positive.
-      if (header.getMoreFragmentFlag() || header.getFragmentOffset() != 0) {
-        this.payload =
-            PacketFactories.getFactory(Packet.class, NotApplicable.class)
-                .newInstance(
-                    rawData, header.length() + offset, payloadLength, NotApplicable.FRAGMENTED);
+      boolean fragmented = header.getMoreFragmentFlag() || header.getFragmentOffset() != 0;
+      if (LazyPayload.isEnabled()) {
+        this.payload = null;
+        if (fragmented) {
+          this.lazyPayload =
+              new LazyPayload<NotApplicable>(
+                  rawData,
+                  header.length() + offset,
+                  payloadLength,
+                  NotApplicable.class,
+                  NotApplicable.FRAGMENTED);
+        } else {
+          this.lazyPayload =
+              new LazyPayload<IpNumber>(
+                  rawData,
+                  header.length() + offset,
+                  payloadLength,
+                  IpNumber.class,
+                  header.getProtocol());
+        }
       } else {
-        this.payload =
-            PacketFactories.getFactory(Packet.class, IpNumber.class)
-                .newInstance(
-                    rawData, header.length() + offset, payloadLength, header.getProtocol());
+        if (fragmented) {
+          this.payload =
+              PacketFactories.getFactory(Packet.class, NotApplicable.class)
+                  .newInstance(
+                      rawData, header.length() + offset, payloadLength, NotApplicable.FRAGMENTED);
+        } else {
+          this.payload =
+              PacketFactories.getFactory(Packet.class, IpNumber.class)
+                  .newInstance(
+                      rawData, header.length() + offset, payloadLength, header.getProtocol());
+        }
+        this.lazyPayload = null;
       }
     } else {
       this.payload = null;
+      this.lazyPayload = null;
     }
   }
 
@@ -119,6 +147,7 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
     }
 
     this.payload = builder.payloadBuilder != null ? builder.payloadBuilder.build() : null;
+    this.lazyPayload = null;
     this.header = new IpV4Header(builder, payload);
   }
 
@@ -129,7 +158,7 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
 
   @Override
   public Packet getPayload() {
-    return payload;
+    return lazyPayload != null ? lazyPayload.get() : payload;
   }
 
   @Override
@@ -186,7 +215,7 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
       this.dstAddr = packet.header.dstAddr;
       this.options = packet.header.options;
       this.padding = packet.header.padding;
-      this.payloadBuilder = packet.payload != null ? packet.payload.getBuilder() : null;
+      this.payloadBuilder = packet.getPayload() != null ? packet.getPayload().getBuilder() : null;
     }
 
     /**
@@ -398,29 +427,27 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
 
     private static final Logger logger = LoggerFactory.getLogger(IpV4Header.class);
 
-    private static final int VERSION_AND_IHL_OFFSET = 0;
-    private static final int VERSION_AND_IHL_SIZE = BYTE_SIZE_IN_BYTES;
-    private static final int TOS_OFFSET = VERSION_AND_IHL_OFFSET + VERSION_AND_IHL_SIZE;
-    private static final int TOS_SIZE = BYTE_SIZE_IN_BYTES;
-    private static final int TOTAL_LENGTH_OFFSET = TOS_OFFSET + TOS_SIZE;
-    private static final int TOTAL_LENGTH_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int IDENTIFICATION_OFFSET = TOTAL_LENGTH_OFFSET + TOTAL_LENGTH_SIZE;
-    private static final int IDENTIFICATION_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int FLAGS_AND_FRAGMENT_OFFSET_OFFSET =
-        IDENTIFICATION_OFFSET + IDENTIFICATION_SIZE;
-    private static final int FLAGS_AND_FRAGMENT_OFFSET_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int TTL_OFFSET =
-        FLAGS_AND_FRAGMENT_OFFSET_OFFSET + FLAGS_AND_FRAGMENT_OFFSET_SIZE;
-    private static final int TTL_SIZE = BYTE_SIZE_IN_BYTES;
-    private static final int PROTOCOL_OFFSET = TTL_OFFSET + TTL_SIZE;
-    private static final int PROTOCOL_SIZE = BYTE_SIZE_IN_BYTES;
-    private static final int HEADER_CHECKSUM_OFFSET = PROTOCOL_OFFSET + PROTOCOL_SIZE;
-    private static final int HEADER_CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int SRC_ADDR_OFFSET = HEADER_CHECKSUM_OFFSET + HEADER_CHECKSUM_SIZE;
-    private static final int SRC_ADDR_SIZE = INET4_ADDRESS_SIZE_IN_BYTES;
-    private static final int DST_ADDR_OFFSET = SRC_ADDR_OFFSET + SRC_ADDR_SIZE;
-    private static final int DST_ADDR_SIZE = INET4_ADDRESS_SIZE_IN_BYTES;
-    private static final int OPTIONS_OFFSET = DST_ADDR_OFFSET + DST_ADDR_SIZE;
+    static final int VERSION_AND_IHL_OFFSET = 0;
+    static final int VERSION_AND_IHL_SIZE = BYTE_SIZE_IN_BYTES;
+    static final int TOS_OFFSET = VERSION_AND_IHL_OFFSET + VERSION_AND_IHL_SIZE;
+    static final int TOS_SIZE = BYTE_SIZE_IN_BYTES;
+    static final int TOTAL_LENGTH_OFFSET = TOS_OFFSET + TOS_SIZE;
+    static final int TOTAL_LENGTH_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int IDENTIFICATION_OFFSET = TOTAL_LENGTH_OFFSET + TOTAL_LENGTH_SIZE;
+    static final int IDENTIFICATION_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int FLAGS_AND_FRAGMENT_OFFSET_OFFSET = IDENTIFICATION_OFFSET + IDENTIFICATION_SIZE;
+    static final int FLAGS_AND_FRAGMENT_OFFSET_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int TTL_OFFSET = FLAGS_AND_FRAGMENT_OFFSET_OFFSET + FLAGS_AND_FRAGMENT_OFFSET_SIZE;
+    static final int TTL_SIZE = BYTE_SIZE_IN_BYTES;
+    static final int PROTOCOL_OFFSET = TTL_OFFSET + TTL_SIZE;
+    static final int PROTOCOL_SIZE = BYTE_SIZE_IN_BYTES;
+    static final int HEADER_CHECKSUM_OFFSET = PROTOCOL_OFFSET + PROTOCOL_SIZE;
+    static final int HEADER_CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int SRC_ADDR_OFFSET = HEADER_CHECKSUM_OFFSET + HEADER_CHECKSUM_SIZE;
+    static final int SRC_ADDR_SIZE = INET4_ADDRESS_SIZE_IN_BYTES;
+    static final int DST_ADDR_OFFSET = SRC_ADDR_OFFSET + SRC_ADDR_SIZE;
+    static final int DST_ADDR_SIZE = INET4_ADDRESS_SIZE_IN_BYTES;
+    static final int OPTIONS_OFFSET = DST_ADDR_OFFSET + DST_ADDR_SIZE;
 
     private static final int MIN_IPV4_HEADER_SIZE = DST_ADDR_OFFSET + DST_ADDR_SIZE;
 
@@ -443,17 +470,8 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
 
     private IpV4Header(byte[] rawData, int offset, int length) throws IllegalRawDataException {
       if (length < MIN_IPV4_HEADER_SIZE) {
-        StringBuilder sb = new StringBuilder(110);
-        sb.append("The data is too short to build an IPv4 header. ")
-            .append("It must be at least ")
-            .append(MIN_IPV4_HEADER_SIZE)
-            .append(" bytes. data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            IpV4Header.class, Reason.TOO_SHORT, offset, length, MIN_IPV4_HEADER_SIZE);
       }
 
       byte versionAndIhl = ByteArrays.getByte(rawData, VERSION_AND_IHL_OFFSET + offset);
@@ -481,24 +499,12 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
 
       int headerLength = getIhlAsInt() * 4;
       if (length < headerLength) {
-        StringBuilder sb = new StringBuilder(110);
-        sb.append("The data is too short to build an IPv4 header(")
-            .append(headerLength)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            IpV4Header.class, Reason.TOO_SHORT, offset, length, headerLength);
       }
       if (headerLength < OPTIONS_OFFSET) {
-        StringBuilder sb = new StringBuilder(100);
-        sb.append("The ihl must be equal or more than")
-            .append(OPTIONS_OFFSET / 4)
-            .append("but it is: ")
-            .append(getIhlAsInt());
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            IpV4Header.class, Reason.INVALID_FIELD, offset, length, getIhlAsInt());
       }
 
       this.options = new ArrayList<IpV4Option>();
@@ -600,7 +606,9 @@ public final class IpV4Packet extends AbstractPacket implements IpPacket {
     }
 
     private short calcHeaderChecksum(boolean zeroInsteadOfChecksum) {
-      return ByteArrays.calcChecksum(buildRawData(zeroInsteadOfChecksum));
+      // The cached raw data includes the checksum field, so it's built again only for building.
+      byte[] rawData = zeroInsteadOfChecksum ? buildRawData(true) : getRawData();
+      return InternetChecksum.calc(rawData, 0, rawData.length);
     }
 
     @Override
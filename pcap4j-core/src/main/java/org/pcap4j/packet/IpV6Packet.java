@@ -16,6 +16,7 @@ import java.io.Serializable;
 import java.net.Inet6Address;
 import java.util.ArrayList;
 import java.util.List;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
 import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.factory.PacketFactory;
 import org.pcap4j.packet.namednumber.IpNumber;
@@ -38,6 +39,7 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
 
   private final IpV6Header header;
   private final Packet payload;
+  private final LazyPayload<?> lazyPayload;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -56,6 +58,7 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
   }
 
   private IpV6Packet(byte[] rawData, int offset, int length) throws IllegalRawDataException {
+    super(rawData, offset, length);
     this.header = new IpV6Header(rawData, offset, length);
 
     int remainingRawDataLength = length - header.length();
@@ -67,8 +70,7 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
       payloadLength = header.getPayloadLengthAsInt();
       if (payloadLength < 0) {
         throw new IllegalRawDataException(
-            "The value of payload length field seems to be wrong: "
-                + header.getPayloadLengthAsInt());
+            IpV6Packet.class, Reason.INVALID_LENGTH_FIELD, offset, length, payloadLength);
       }
 
       if (payloadLength > remainingRawDataLength) {
@@ -81,7 +83,10 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
           PacketFactories.getFactory(Packet.class, IpNumber.class);
       Class<? extends Packet> nextPacketClass = factory.getTargetClass(header.getNextHeader());
       Packet nextPacket;
+      LazyPayload<IpNumber> lazyNextPacket = null;
       if (nextPacketClass.equals(factory.getTargetClass())) {
+        // The next header may be an unknown extension header, which can be known only by trying to
+        // decode it. Such a payload is always decoded eagerly.
         nextPacket =
             PacketFactories.getFactory(Packet.class, NotApplicable.class)
                 .newInstance(
@@ -92,6 +97,15 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
         if (nextPacket instanceof IllegalPacket) {
           nextPacket = factory.newInstance(rawData, offset + header.length(), payloadLength);
         }
+      } else if (LazyPayload.isEnabled()) {
+        nextPacket = null;
+        lazyNextPacket =
+            new LazyPayload<IpNumber>(
+                rawData,
+                offset + header.length(),
+                payloadLength,
+                IpNumber.class,
+                header.getNextHeader());
       } else {
         nextPacket =
             factory.newInstance(
@@ -99,8 +113,10 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
       }
 
       this.payload = nextPacket;
+      this.lazyPayload = lazyNextPacket;
     } else {
       this.payload = null;
+      this.lazyPayload = null;
     }
   }
 
@@ -131,6 +147,7 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
     }
 
     this.payload = builder.payloadBuilder != null ? builder.payloadBuilder.build() : null;
+    this.lazyPayload = null;
     this.header = new IpV6Header(builder, payload);
   }
 
@@ -141,7 +158,7 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
 
   @Override
   public Packet getPayload() {
-    return payload;
+    return lazyPayload != null ? lazyPayload.get() : payload;
   }
 
   @Override
@@ -179,7 +196,7 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
       this.hopLimit = packet.header.hopLimit;
       this.srcAddr = packet.header.srcAddr;
       this.dstAddr = packet.header.dstAddr;
-      this.payloadBuilder = packet.payload != null ? packet.payload.getBuilder() : null;
+      this.payloadBuilder = packet.getPayload() != null ? packet.getPayload().getBuilder() : null;
     }
 
     /**
@@ -338,16 +355,8 @@ public final class IpV6Packet extends AbstractPacket implements IpPacket {
 
     private IpV6Header(byte[] rawData, int offset, int length) throws IllegalRawDataException {
       if (length < IPV6_HEADER_SIZE) {
-        StringBuilder sb = new StringBuilder(110);
-        sb.append("The data is too short to build an IPv6 header(")
-            .append(IPV6_HEADER_SIZE)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            IpV6Header.class, Reason.TOO_SHORT, offset, length, IPV6_HEADER_SIZE);
       }
 
       int versionAndTrafficClassAndFlowLabel =
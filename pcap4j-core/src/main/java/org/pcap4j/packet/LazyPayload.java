@@ -0,0 +1,125 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet;
+
+import java.io.Serializable;
+import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.factory.PacketFactoryBinder;
+import org.pcap4j.packet.namednumber.NamedNumber;
+import org.pcap4j.util.ByteArrays;
+
+/**
+ * A payload which is decoded from a part of raw data by {@link PacketFactories} when it's requested
+ * for the first time. Packets hold this instead of a decoded payload if lazy decoding is enabled by
+ * the property {@link PacketPropertiesLoader#LAZY_DECODING_KEY}, so that the cost to decode a
+ * packet scales with the number of layers actually inspected.
+ *
+ * <p>The raw data is referred to, not copied. It must not be modified after this object is created.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ * @param <N> the type of the number to select a factory with.
+ */
+final class LazyPayload<N extends NamedNumber<?, ?>> implements Serializable {
+
+  /** */
+  private static final long serialVersionUID = -4425317064633425718L;
+
+  private static volatile boolean enabled = PacketPropertiesLoader.getInstance().lazyDecoding();
+
+  private final byte[] rawData;
+  private final int offset;
+  private final int length;
+  private final Class<N> numberClass;
+  private final N number;
+  private final transient PacketFactoryBinder binder;
+  private volatile Packet packet = null;
+
+  /**
+   * @param rawData rawData
+   * @param offset the offset of the payload in the rawData.
+   * @param length the length of the payload.
+   * @param numberClass numberClass
+   * @param number number
+   */
+  LazyPayload(byte[] rawData, int offset, int length, Class<N> numberClass, N number) {
+    this.rawData = rawData;
+    this.offset = offset;
+    this.length = length;
+    this.numberClass = numberClass;
+    this.number = number;
+    // Decode the payload later with the same factories as the outer packets.
+    this.binder = PacketFactories.getThreadBinder();
+  }
+
+  /** @return true if lazy decoding is enabled; false otherwise. */
+  static boolean isEnabled() {
+    return enabled;
+  }
+
+  /** @param enabled enabled */
+  static void setEnabled(boolean enabled) {
+    LazyPayload.enabled = enabled;
+  }
+
+  /**
+   * Decodes the payload if it's not been decoded yet. Concurrent first calls may decode it more
+   * than once, which is harmless because packets are immutable.
+   *
+   * @return the decoded payload.
+   */
+  Packet get() {
+    Packet p = packet;
+    if (p == null) {
+      PacketFactoryBinder prev = PacketFactories.setThreadBinder(binder);
+      try {
+        p =
+            PacketFactories.getFactory(Packet.class, numberClass)
+                .newInstance(rawData, offset, length, number);
+      } finally {
+        PacketFactories.setThreadBinder(prev);
+      }
+      packet = p;
+    }
+    return p;
+  }
+
+  /** @return true if the payload has been decoded; false otherwise. */
+  boolean isDecoded() {
+    return packet != null;
+  }
+
+  /** @return the length of the part of the raw data the payload is decoded from. */
+  int length() {
+    return length;
+  }
+
+  /**
+   * @param relativeOffset an offset relative to the beginning of the payload.
+   * @param len len
+   * @return a copy of the part of the raw data.
+   */
+  byte[] getSubArray(int relativeOffset, int len) {
+    return ByteArrays.getSubArray(rawData, offset + relativeOffset, len);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(80);
+    sb.append("[LazyPayload: ")
+        .append(number)
+        .append(" offset: ")
+        .append(offset)
+        .append(" length: ")
+        .append(length)
+        .append(" decoded: ")
+        .append(isDecoded())
+        .append("]");
+    return sb.toString();
+  }
+}
@@ -51,6 +51,14 @@ public final class PacketPropertiesLoader {
   public static final String SCTP_CALC_CHECKSUM_BY_ADLER32_KEY =
       PacketPropertiesLoader.class.getPackage().getName() + ".sctp.calcChecksumByAdler32";
 
+  /** */
+  public static final String LAZY_DECODING_KEY =
+      PacketPropertiesLoader.class.getPackage().getName() + ".lazyDecoding";
+
+  /** */
+  public static final String SHARE_RAW_DATA_KEY =
+      PacketPropertiesLoader.class.getPackage().getName() + ".shareRawData";
+
   private static final PacketPropertiesLoader INSTANCE = new PacketPropertiesLoader();
 
   private PropertiesLoader loader =
@@ -108,4 +116,14 @@ public final class PacketPropertiesLoader {
   public boolean sctpCalcChecksumByAdler32() {
     return loader.getBoolean(SCTP_CALC_CHECKSUM_BY_ADLER32_KEY, Boolean.FALSE).booleanValue();
   }
+
+  /** @return a value of the property. */
+  public boolean lazyDecoding() {
+    return loader.getBoolean(LAZY_DECODING_KEY, Boolean.FALSE).booleanValue();
+  }
+
+  /** @return a value of the property. */
+  public boolean shareRawData() {
+    return loader.getBoolean(SHARE_RAW_DATA_KEY, Boolean.FALSE).booleanValue();
+  }
 }
@@ -7,6 +7,7 @@
 
 package org.pcap4j.packet;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.pcap4j.util.ByteArrays;
 
@@ -49,6 +50,11 @@ abstract class SimplePacket extends AbstractPacket {
     return copy;
   }
 
+  @Override
+  public ByteBuffer rawDataView() {
+    return ByteBuffer.wrap(rawData).asReadOnlyBuffer();
+  }
+
   @Override
   protected String buildString() {
     StringBuilder sb = new StringBuilder();
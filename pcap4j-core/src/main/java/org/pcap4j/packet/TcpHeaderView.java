@@ -0,0 +1,150 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet;
+
+import org.pcap4j.packet.TcpPacket.TcpHeader;
+
+/**
+ * Flyweight view of a TCP header. See {@link AbstractHeaderView}.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class TcpHeaderView extends AbstractHeaderView {
+
+  /** The bit of the URG flag in the value {@link #getFlags()} returns. */
+  public static final int URG = 0x20;
+
+  /** The bit of the ACK flag in the value {@link #getFlags()} returns. */
+  public static final int ACK = 0x10;
+
+  /** The bit of the PSH flag in the value {@link #getFlags()} returns. */
+  public static final int PSH = 0x08;
+
+  /** The bit of the RST flag in the value {@link #getFlags()} returns. */
+  public static final int RST = 0x04;
+
+  /** The bit of the SYN flag in the value {@link #getFlags()} returns. */
+  public static final int SYN = 0x02;
+
+  /** The bit of the FIN flag in the value {@link #getFlags()} returns. */
+  public static final int FIN = 0x01;
+
+  private static final int MIN_TCP_HEADER_SIZE = TcpHeader.OPTIONS_OFFSET;
+
+  /** */
+  public TcpHeaderView() {}
+
+  /**
+   * Checks the length and the data offset of the header.
+   *
+   * @return true if the data are valid as a TCP header; false otherwise.
+   */
+  @Override
+  protected boolean isValid() {
+    if (getLength() < MIN_TCP_HEADER_SIZE) {
+      return false;
+    }
+    int headerLength = getHeaderLength();
+    return headerLength >= MIN_TCP_HEADER_SIZE && headerLength <= getLength();
+  }
+
+  /** @return srcPort */
+  public int getSrcPortAsInt() {
+    return getUnsignedShort(TcpHeader.SRC_PORT_OFFSET);
+  }
+
+  /** @return dstPort */
+  public int getDstPortAsInt() {
+    return getUnsignedShort(TcpHeader.DST_PORT_OFFSET);
+  }
+
+  /** @return sequenceNumber */
+  public int getSequenceNumber() {
+    return getInt(TcpHeader.SEQUENCE_NUMBER_OFFSET);
+  }
+
+  /** @return sequenceNumber */
+  public long getSequenceNumberAsLong() {
+    return getSequenceNumber() & 0xFFFFFFFFL;
+  }
+
+  /** @return acknowledgmentNumber */
+  public int getAcknowledgmentNumber() {
+    return getInt(TcpHeader.ACKNOWLEDGMENT_NUMBER_OFFSET);
+  }
+
+  /** @return acknowledgmentNumber */
+  public long getAcknowledgmentNumberAsLong() {
+    return getAcknowledgmentNumber() & 0xFFFFFFFFL;
+  }
+
+  /** @return dataOffset */
+  public int getDataOffsetAsInt() {
+    return getUnsignedByte(TcpHeader.DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_OFFSET) >> 4;
+  }
+
+  /** @return the length of the header including options in bytes. */
+  @Override
+  public int getHeaderLength() {
+    return getDataOffsetAsInt() * 4;
+  }
+
+  /**
+   * @return the control bits. Test them with {@link #URG}, {@link #ACK}, {@link #PSH}, {@link
+   *     #RST}, {@link #SYN}, and {@link #FIN}.
+   */
+  public int getFlags() {
+    return getUnsignedShort(TcpHeader.DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_OFFSET) & 0x3F;
+  }
+
+  /** @return urg */
+  public boolean getUrg() {
+    return (getFlags() & URG) != 0;
+  }
+
+  /** @return ack */
+  public boolean getAck() {
+    return (getFlags() & ACK) != 0;
+  }
+
+  /** @return psh */
+  public boolean getPsh() {
+    return (getFlags() & PSH) != 0;
+  }
+
+  /** @return rst */
+  public boolean getRst() {
+    return (getFlags() & RST) != 0;
+  }
+
+  /** @return syn */
+  public boolean getSyn() {
+    return (getFlags() & SYN) != 0;
+  }
+
+  /** @return fin */
+  public boolean getFin() {
+    return (getFlags() & FIN) != 0;
+  }
+
+  /** @return window */
+  public int getWindowAsInt() {
+    return getUnsignedShort(TcpHeader.WINDOW_OFFSET);
+  }
+
+  /** @return checksum */
+  public short getChecksum() {
+    return (short) getUnsignedShort(TcpHeader.CHECKSUM_OFFSET);
+  }
+
+  /** @return urgentPointer */
+  public int getUrgentPointerAsInt() {
+    return getUnsignedShort(TcpHeader.URGENT_POINTER_OFFSET);
+  }
+}
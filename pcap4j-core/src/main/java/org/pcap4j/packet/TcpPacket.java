@@ -17,12 +17,14 @@ import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
 import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.factory.PacketFactory;
 import org.pcap4j.packet.namednumber.IpNumber;
 import org.pcap4j.packet.namednumber.TcpOptionKind;
 import org.pcap4j.packet.namednumber.TcpPort;
 import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.InternetChecksum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +41,7 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
 
   private final TcpHeader header;
   private final Packet payload;
+  private final LazyPayload<?> lazyPayload;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -57,6 +60,7 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
   }
 
   private TcpPacket(byte[] rawData, int offset, int length) throws IllegalRawDataException {
+    super(rawData, offset, length);
     this.header = new TcpHeader(rawData, offset, length);
 
     int payloadLength = length - header.length();
@@ -71,10 +75,19 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
       } else {
         serverPort = header.getDstPort();
       }
-      this.payload =
-          factory.newInstance(rawData, offset + header.length(), payloadLength, serverPort);
+      if (LazyPayload.isEnabled()) {
+        this.payload = null;
+        this.lazyPayload =
+            new LazyPayload<TcpPort>(
+                rawData, offset + header.length(), payloadLength, TcpPort.class, serverPort);
+      } else {
+        this.payload =
+            factory.newInstance(rawData, offset + header.length(), payloadLength, serverPort);
+        this.lazyPayload = null;
+      }
     } else {
       this.payload = null;
+      this.lazyPayload = null;
     }
   }
 
@@ -110,6 +123,7 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
     }
 
     this.payload = builder.payloadBuilder != null ? builder.payloadBuilder.build() : null;
+    this.lazyPayload = null;
     this.header = new TcpHeader(builder, payload != null ? payload.getRawData() : new byte[0]);
   }
 
@@ -120,7 +134,7 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
 
   @Override
   public Packet getPayload() {
-    return payload;
+    return lazyPayload != null ? lazyPayload.get() : payload;
   }
 
   /**
@@ -143,9 +157,11 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
       throw new IllegalArgumentException(sb.toString());
     }
 
-    byte[] payloadData = payload != null ? payload.getRawData() : new byte[0];
+    // The raw data of this packet is the header followed by the payload.
     short calculatedChecksum =
-        header.calcChecksum(srcAddr, dstAddr, header.getRawData(), payloadData);
+        InternetChecksum.fold(
+            InternetChecksum.pseudoHeaderSum(srcAddr, dstAddr, IpNumber.TCP, length())
+                + InternetChecksum.sum(rawDataView()));
     if (calculatedChecksum == 0) {
       return true;
     }
@@ -215,7 +231,7 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
       this.urgentPointer = packet.header.urgentPointer;
       this.options = packet.header.options;
       this.padding = packet.header.padding;
-      this.payloadBuilder = packet.payload != null ? packet.payload.getBuilder() : null;
+      this.payloadBuilder = packet.getPayload() != null ? packet.getPayload().getBuilder() : null;
     }
 
     /**
@@ -500,32 +516,28 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
     /** */
     private static final long serialVersionUID = -795185420055823677L;
 
-    private static final int SRC_PORT_OFFSET = 0;
-    private static final int SRC_PORT_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int DST_PORT_OFFSET = SRC_PORT_OFFSET + SRC_PORT_SIZE;
-    private static final int DST_PORT_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int SEQUENCE_NUMBER_OFFSET = DST_PORT_OFFSET + DST_PORT_SIZE;
-    private static final int SEQUENCE_NUMBER_SIZE = INT_SIZE_IN_BYTES;
-    private static final int ACKNOWLEDGMENT_NUMBER_OFFSET =
-        SEQUENCE_NUMBER_OFFSET + SEQUENCE_NUMBER_SIZE;
-    private static final int ACKNOWLEDGMENT_NUMBER_SIZE = INT_SIZE_IN_BYTES;
-    private static final int DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_OFFSET =
+    static final int SRC_PORT_OFFSET = 0;
+    static final int SRC_PORT_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int DST_PORT_OFFSET = SRC_PORT_OFFSET + SRC_PORT_SIZE;
+    static final int DST_PORT_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int SEQUENCE_NUMBER_OFFSET = DST_PORT_OFFSET + DST_PORT_SIZE;
+    static final int SEQUENCE_NUMBER_SIZE = INT_SIZE_IN_BYTES;
+    static final int ACKNOWLEDGMENT_NUMBER_OFFSET = SEQUENCE_NUMBER_OFFSET + SEQUENCE_NUMBER_SIZE;
+    static final int ACKNOWLEDGMENT_NUMBER_SIZE = INT_SIZE_IN_BYTES;
+    static final int DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_OFFSET =
         ACKNOWLEDGMENT_NUMBER_OFFSET + ACKNOWLEDGMENT_NUMBER_SIZE;
-    private static final int DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int WINDOW_OFFSET =
+    static final int DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int WINDOW_OFFSET =
         DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_OFFSET
             + DATA_OFFSET_AND_RESERVED_AND_CONTROL_BITS_SIZE;
-    private static final int WINDOW_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int CHECKSUM_OFFSET = WINDOW_OFFSET + WINDOW_SIZE;
-    private static final int CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int URGENT_POINTER_OFFSET = CHECKSUM_OFFSET + CHECKSUM_SIZE;
-    private static final int URGENT_POINTER_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int OPTIONS_OFFSET = URGENT_POINTER_OFFSET + URGENT_POINTER_SIZE;
+    static final int WINDOW_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int CHECKSUM_OFFSET = WINDOW_OFFSET + WINDOW_SIZE;
+    static final int CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int URGENT_POINTER_OFFSET = CHECKSUM_OFFSET + CHECKSUM_SIZE;
+    static final int URGENT_POINTER_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int OPTIONS_OFFSET = URGENT_POINTER_OFFSET + URGENT_POINTER_SIZE;
 
-    private static final int MIN_TCP_HEADER_SIZE = URGENT_POINTER_OFFSET + URGENT_POINTER_SIZE;
-
-    private static final int IPV4_PSEUDO_HEADER_SIZE = 12;
-    private static final int IPV6_PSEUDO_HEADER_SIZE = 40;
+    static final int MIN_TCP_HEADER_SIZE = URGENT_POINTER_OFFSET + URGENT_POINTER_SIZE;
 
     private final TcpPort srcPort;
     private final TcpPort dstPort;
@@ -547,16 +559,8 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
 
     private TcpHeader(byte[] rawData, int offset, int length) throws IllegalRawDataException {
       if (length < MIN_TCP_HEADER_SIZE) {
-        StringBuilder sb = new StringBuilder(80);
-        sb.append("The data is too short to build this header(")
-            .append(MIN_TCP_HEADER_SIZE)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            TcpHeader.class, Reason.TOO_SHORT, offset, length, MIN_TCP_HEADER_SIZE);
       }
 
       this.srcPort = TcpPort.getInstance(ByteArrays.getShort(rawData, SRC_PORT_OFFSET + offset));
@@ -582,24 +586,12 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
 
       int headerLength = getDataOffsetAsInt() * 4;
       if (length < headerLength) {
-        StringBuilder sb = new StringBuilder(110);
-        sb.append("The data is too short to build this header(")
-            .append(headerLength)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            TcpHeader.class, Reason.TOO_SHORT, offset, length, headerLength);
       }
       if (headerLength < OPTIONS_OFFSET) {
-        StringBuilder sb = new StringBuilder(100);
-        sb.append("The data offset must be equal or more than ")
-            .append(OPTIONS_OFFSET / 4)
-            .append(", but it is: ")
-            .append(getDataOffsetAsInt());
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            TcpHeader.class, Reason.INVALID_FIELD, offset, length, getDataOffsetAsInt());
       }
 
       this.options = new ArrayList<TcpOption>();
@@ -702,46 +694,12 @@ public final class TcpPacket extends AbstractPacket implements TransportPacket {
 
     private short calcChecksum(
         InetAddress srcAddr, InetAddress dstAddr, byte[] header, byte[] payload) {
-      byte[] data;
-      int destPos;
-      int totalLength = payload.length + length();
-      boolean lowerLayerIsIpV4 = srcAddr instanceof Inet4Address;
-
-      int pseudoHeaderSize = lowerLayerIsIpV4 ? IPV4_PSEUDO_HEADER_SIZE : IPV6_PSEUDO_HEADER_SIZE;
-
-      if ((totalLength % 2) != 0) {
-        data = new byte[totalLength + 1 + pseudoHeaderSize];
-        destPos = totalLength + 1;
-      } else {
-        data = new byte[totalLength + pseudoHeaderSize];
-        destPos = totalLength;
-      }
-
-      System.arraycopy(header, 0, data, 0, header.length);
-      System.arraycopy(payload, 0, data, header.length, payload.length);
-
-      // pseudo header
-      System.arraycopy(srcAddr.getAddress(), 0, data, destPos, srcAddr.getAddress().length);
-      destPos += srcAddr.getAddress().length;
-
-      System.arraycopy(dstAddr.getAddress(), 0, data, destPos, dstAddr.getAddress().length);
-      destPos += dstAddr.getAddress().length;
-
-      if (lowerLayerIsIpV4) {
-        // data[destPos] = (byte)0;
-        destPos++;
-      } else {
-        destPos += 3;
-      }
-
-      data[destPos] = IpNumber.TCP.value();
-      destPos++;
-
-      System.arraycopy(
-          ByteArrays.toByteArray((short) totalLength), 0, data, destPos, SHORT_SIZE_IN_BYTES);
-      destPos += SHORT_SIZE_IN_BYTES;
-
-      return ByteArrays.calcChecksum(data);
+      long sum =
+          InternetChecksum.pseudoHeaderSum(
+                  srcAddr, dstAddr, IpNumber.TCP, header.length + payload.length)
+              + InternetChecksum.sum(header, 0, header.length)
+              + InternetChecksum.sum(payload, 0, payload.length);
+      return InternetChecksum.fold(sum);
     }
 
     @Override
@@ -0,0 +1,70 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet;
+
+import org.pcap4j.packet.UdpPacket.UdpHeader;
+
+/**
+ * Flyweight view of a UDP header. See {@link AbstractHeaderView}.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class UdpHeaderView extends AbstractHeaderView {
+
+  /** */
+  public UdpHeaderView() {}
+
+  /**
+   * Checks the length of the header and the length field.
+   *
+   * @return true if the data are valid as a UDP header; false otherwise.
+   */
+  @Override
+  protected boolean isValid() {
+    if (getLength() < UdpHeader.UCP_HEADER_SIZE) {
+      return false;
+    }
+    return getLengthAsInt() >= UdpHeader.UCP_HEADER_SIZE;
+  }
+
+  /** @return srcPort */
+  public int getSrcPortAsInt() {
+    return getUnsignedShort(UdpHeader.SRC_PORT_OFFSET);
+  }
+
+  /** @return dstPort */
+  public int getDstPortAsInt() {
+    return getUnsignedShort(UdpHeader.DST_PORT_OFFSET);
+  }
+
+  /** @return the value of the length field. */
+  public int getLengthAsInt() {
+    return getUnsignedShort(UdpHeader.LENGTH_OFFSET);
+  }
+
+  /** @return checksum */
+  public short getChecksum() {
+    return (short) getUnsignedShort(UdpHeader.CHECKSUM_OFFSET);
+  }
+
+  @Override
+  public int getHeaderLength() {
+    return UdpHeader.UCP_HEADER_SIZE;
+  }
+
+  /**
+   * Returns the payload length calculated from the length field in the same way as {@link
+   * UdpPacket}; if the field is larger than the data, the payload is assumed to extend to the end
+   * of the data.
+   */
+  @Override
+  public int getPayloadLength() {
+    return Math.min(getLengthAsInt() - UdpHeader.UCP_HEADER_SIZE, super.getPayloadLength());
+  }
+}
@@ -14,11 +14,13 @@ import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.List;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
 import org.pcap4j.packet.factory.PacketFactories;
 import org.pcap4j.packet.factory.PacketFactory;
 import org.pcap4j.packet.namednumber.IpNumber;
 import org.pcap4j.packet.namednumber.UdpPort;
 import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.InternetChecksum;
 
 /**
  * @author Kaito Yamada
@@ -31,6 +33,7 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
 
   private final UdpHeader header;
   private final Packet payload;
+  private final LazyPayload<?> lazyPayload;
 
   /**
    * A static factory method. This method validates the arguments by {@link
@@ -49,12 +52,13 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
   }
 
   private UdpPacket(byte[] rawData, int offset, int length) throws IllegalRawDataException {
+    super(rawData, offset, length);
     this.header = new UdpHeader(rawData, offset, length);
 
     int payloadLength = header.getLengthAsInt() - header.length();
     if (payloadLength < 0) {
       throw new IllegalRawDataException(
-          "The value of length field seems to be wrong: " + header.getLengthAsInt());
+          UdpPacket.class, Reason.INVALID_LENGTH_FIELD, offset, length, header.getLengthAsInt());
     }
 
     if (payloadLength > length - header.length()) {
@@ -72,10 +76,19 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
       } else {
         serverPort = header.getDstPort();
       }
-      this.payload =
-          factory.newInstance(rawData, offset + header.length(), payloadLength, serverPort);
+      if (LazyPayload.isEnabled()) {
+        this.payload = null;
+        this.lazyPayload =
+            new LazyPayload<UdpPort>(
+                rawData, offset + header.length(), payloadLength, UdpPort.class, serverPort);
+      } else {
+        this.payload =
+            factory.newInstance(rawData, offset + header.length(), payloadLength, serverPort);
+        this.lazyPayload = null;
+      }
     } else {
       this.payload = null;
+      this.lazyPayload = null;
     }
   }
 
@@ -111,6 +124,7 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
     }
 
     this.payload = builder.payloadBuilder != null ? builder.payloadBuilder.build() : null;
+    this.lazyPayload = null;
     this.header = new UdpHeader(builder, payload != null ? payload.getRawData() : new byte[0]);
   }
 
@@ -121,7 +135,7 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
 
   @Override
   public Packet getPayload() {
-    return payload;
+    return lazyPayload != null ? lazyPayload.get() : payload;
   }
 
   /**
@@ -144,9 +158,11 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
       throw new IllegalArgumentException(sb.toString());
     }
 
-    byte[] payloadData = payload != null ? payload.getRawData() : new byte[0];
+    // The raw data of this packet is the header followed by the payload.
     short calculatedChecksum =
-        header.calcChecksum(srcAddr, dstAddr, header.getRawData(), payloadData);
+        InternetChecksum.fold(
+            InternetChecksum.pseudoHeaderSum(srcAddr, dstAddr, IpNumber.UDP, length())
+                + InternetChecksum.sum(rawDataView()));
     if (calculatedChecksum == 0) {
       return true;
     }
@@ -189,7 +205,7 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
       this.dstPort = packet.header.dstPort;
       this.length = packet.header.length;
       this.checksum = packet.header.checksum;
-      this.payloadBuilder = packet.payload != null ? packet.payload.getBuilder() : null;
+      this.payloadBuilder = packet.getPayload() != null ? packet.getPayload().getBuilder() : null;
     }
 
     /**
@@ -337,18 +353,15 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
     /** */
     private static final long serialVersionUID = -1746545325551976324L;
 
-    private static final int SRC_PORT_OFFSET = 0;
-    private static final int SRC_PORT_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int DST_PORT_OFFSET = SRC_PORT_OFFSET + SRC_PORT_SIZE;
-    private static final int DST_PORT_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int LENGTH_OFFSET = DST_PORT_OFFSET + DST_PORT_SIZE;
-    private static final int LENGTH_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int CHECKSUM_OFFSET = LENGTH_OFFSET + LENGTH_SIZE;
-    private static final int CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
-    private static final int UCP_HEADER_SIZE = CHECKSUM_OFFSET + CHECKSUM_SIZE;
-
-    private static final int IPV4_PSEUDO_HEADER_SIZE = 12;
-    private static final int IPV6_PSEUDO_HEADER_SIZE = 40;
+    static final int SRC_PORT_OFFSET = 0;
+    static final int SRC_PORT_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int DST_PORT_OFFSET = SRC_PORT_OFFSET + SRC_PORT_SIZE;
+    static final int DST_PORT_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int LENGTH_OFFSET = DST_PORT_OFFSET + DST_PORT_SIZE;
+    static final int LENGTH_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int CHECKSUM_OFFSET = LENGTH_OFFSET + LENGTH_SIZE;
+    static final int CHECKSUM_SIZE = SHORT_SIZE_IN_BYTES;
+    static final int UCP_HEADER_SIZE = CHECKSUM_OFFSET + CHECKSUM_SIZE;
 
     private final UdpPort srcPort;
     private final UdpPort dstPort;
@@ -357,16 +370,8 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
 
     private UdpHeader(byte[] rawData, int offset, int length) throws IllegalRawDataException {
       if (length < UCP_HEADER_SIZE) {
-        StringBuilder sb = new StringBuilder(80);
-        sb.append("The data is too short to build a UDP header(")
-            .append(UCP_HEADER_SIZE)
-            .append(" bytes). data: ")
-            .append(ByteArrays.toHexString(rawData, " "))
-            .append(", offset: ")
-            .append(offset)
-            .append(", length: ")
-            .append(length);
-        throw new IllegalRawDataException(sb.toString());
+        throw new IllegalRawDataException(
+            UdpHeader.class, Reason.TOO_SHORT, offset, length, UCP_HEADER_SIZE);
       }
 
       this.srcPort = UdpPort.getInstance(ByteArrays.getShort(rawData, SRC_PORT_OFFSET + offset));
@@ -402,46 +407,12 @@ public final class UdpPacket extends AbstractPacket implements TransportPacket {
 
     private short calcChecksum(
         InetAddress srcAddr, InetAddress dstAddr, byte[] header, byte[] payload) {
-      byte[] data;
-      int destPos;
-      int totalLength = payload.length + length();
-      boolean lowerLayerIsIpV4 = srcAddr instanceof Inet4Address;
-
-      int pseudoHeaderSize = lowerLayerIsIpV4 ? IPV4_PSEUDO_HEADER_SIZE : IPV6_PSEUDO_HEADER_SIZE;
-
-      if ((totalLength % 2) != 0) {
-        data = new byte[totalLength + 1 + pseudoHeaderSize];
-        destPos = totalLength + 1;
-      } else {
-        data = new byte[totalLength + pseudoHeaderSize];
-        destPos = totalLength;
-      }
-
-      System.arraycopy(header, 0, data, 0, header.length);
-      System.arraycopy(payload, 0, data, header.length, payload.length);
-
-      // pseudo header
-      System.arraycopy(srcAddr.getAddress(), 0, data, destPos, srcAddr.getAddress().length);
-      destPos += srcAddr.getAddress().length;
-
-      System.arraycopy(dstAddr.getAddress(), 0, data, destPos, dstAddr.getAddress().length);
-      destPos += dstAddr.getAddress().length;
-
-      if (lowerLayerIsIpV4) {
-        // data[destPos] = (byte)0;
-        destPos++;
-      } else {
-        destPos += 3;
-      }
-
-      data[destPos] = IpNumber.UDP.value();
-      destPos++;
-
-      System.arraycopy(
-          ByteArrays.toByteArray((short) totalLength), 0, data, destPos, SHORT_SIZE_IN_BYTES);
-      destPos += SHORT_SIZE_IN_BYTES;
-
-      return ByteArrays.calcChecksum(data);
+      long sum =
+          InternetChecksum.pseudoHeaderSum(
+                  srcAddr, dstAddr, IpNumber.UDP, header.length + payload.length)
+              + InternetChecksum.sum(header, 0, header.length)
+              + InternetChecksum.sum(payload, 0, payload.length);
+      return InternetChecksum.fold(sum);
     }
 
     @Override
@@ -0,0 +1,334 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet.factory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.pcap4j.packet.ArpPacket;
+import org.pcap4j.packet.BsdLoopbackPacket;
+import org.pcap4j.packet.CompressedPacket;
+import org.pcap4j.packet.Dot1qVlanTagPacket;
+import org.pcap4j.packet.EncryptedPacket;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.FragmentedPacket;
+import org.pcap4j.packet.HdlcPppPacket;
+import org.pcap4j.packet.IcmpV4CommonPacket;
+import org.pcap4j.packet.IcmpV4DestinationUnreachablePacket;
+import org.pcap4j.packet.IcmpV4EchoPacket;
+import org.pcap4j.packet.IcmpV4EchoReplyPacket;
+import org.pcap4j.packet.IcmpV4InformationReplyPacket;
+import org.pcap4j.packet.IcmpV4InformationRequestPacket;
+import org.pcap4j.packet.IcmpV4ParameterProblemPacket;
+import org.pcap4j.packet.IcmpV4RedirectPacket;
+import org.pcap4j.packet.IcmpV4SourceQuenchPacket;
+import org.pcap4j.packet.IcmpV4TimeExceededPacket;
+import org.pcap4j.packet.IcmpV4TimestampPacket;
+import org.pcap4j.packet.IcmpV4TimestampReplyPacket;
+import org.pcap4j.packet.IcmpV6CommonPacket;
+import org.pcap4j.packet.IcmpV6DestinationUnreachablePacket;
+import org.pcap4j.packet.IcmpV6EchoReplyPacket;
+import org.pcap4j.packet.IcmpV6EchoRequestPacket;
+import org.pcap4j.packet.IcmpV6HomeAgentAddressDiscoveryReplyPacket;
+import org.pcap4j.packet.IcmpV6HomeAgentAddressDiscoveryRequestPacket;
+import org.pcap4j.packet.IcmpV6MobilePrefixAdvertisementPacket;
+import org.pcap4j.packet.IcmpV6MobilePrefixSolicitationPacket;
+import org.pcap4j.packet.IcmpV6NeighborAdvertisementPacket;
+import org.pcap4j.packet.IcmpV6NeighborSolicitationPacket;
+import org.pcap4j.packet.IcmpV6PacketTooBigPacket;
+import org.pcap4j.packet.IcmpV6ParameterProblemPacket;
+import org.pcap4j.packet.IcmpV6RedirectPacket;
+import org.pcap4j.packet.IcmpV6RouterAdvertisementPacket;
+import org.pcap4j.packet.IcmpV6RouterSolicitationPacket;
+import org.pcap4j.packet.IcmpV6TimeExceededPacket;
+import org.pcap4j.packet.IpSelector;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.IpV6ExtDestinationOptionsPacket;
+import org.pcap4j.packet.IpV6ExtFragmentPacket;
+import org.pcap4j.packet.IpV6ExtHopByHopOptionsPacket;
+import org.pcap4j.packet.IpV6ExtRoutingPacket;
+import org.pcap4j.packet.IpV6ExtUnknownPacket;
+import org.pcap4j.packet.IpV6Packet;
+import org.pcap4j.packet.LinuxSllPacket;
+import org.pcap4j.packet.LlcPacket;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.PppPacket;
+import org.pcap4j.packet.PppSelector;
+import org.pcap4j.packet.SctpPacket;
+import org.pcap4j.packet.SnapPacket;
+import org.pcap4j.packet.TcpPacket;
+import org.pcap4j.packet.UdpPacket;
+import org.pcap4j.packet.namednumber.NamedNumber;
+
+/**
+ * A set of packet classes to be decoded. A {@link PacketFactoryBinder} filtered by a profile (see
+ * {@link #apply(PacketFactoryBinder)}) provides factories which decode only packets of the classes
+ * in the profile and keep the others as {@link org.pcap4j.packet.UnknownPacket UnknownPacket}, so
+ * that applications which don't need upper layer protocols don't pay for them.
+ *
+ * <p>A profile can be attached to a {@link org.pcap4j.core.PcapHandle PcapHandle} by {@link
+ * org.pcap4j.core.PcapHandle#setDecodingProfile(DecodingProfile)}, or used per call by {@link
+ * #newPacket(byte[], int, int, NamedNumber)}.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class DecodingProfile {
+
+  /**
+   * A profile to decode link layer, network layer, and transport layer protocols (e.g. Ethernet,
+   * IEEE 802.1Q, IPv4, IPv6, TCP, UDP, and ICMP) and not to decode application layer protocols
+   * (e.g. DNS, SSH2, and GTP).
+   */
+  public static final DecodingProfile UP_TO_L4 =
+      new Builder()
+          .decode(EthernetPacket.class)
+          .decode(Dot1qVlanTagPacket.class)
+          .decode(LinuxSllPacket.class)
+          .decode(BsdLoopbackPacket.class)
+          .decode(PppSelector.class)
+          .decode(PppPacket.class)
+          .decode(HdlcPppPacket.class)
+          .decode(LlcPacket.class)
+          .decode(SnapPacket.class)
+          .decode(ArpPacket.class)
+          .decode(IpSelector.class)
+          .decode(IpV4Packet.class)
+          .decode(IpV6Packet.class)
+          .decode(IpV6ExtHopByHopOptionsPacket.class)
+          .decode(IpV6ExtRoutingPacket.class)
+          .decode(IpV6ExtFragmentPacket.class)
+          .decode(IpV6ExtDestinationOptionsPacket.class)
+          .decode(IpV6ExtUnknownPacket.class)
+          .decode(FragmentedPacket.class)
+          .decode(CompressedPacket.class)
+          .decode(EncryptedPacket.class)
+          .decode(TcpPacket.class)
+          .decode(UdpPacket.class)
+          .decode(SctpPacket.class)
+          .decode(IcmpV4CommonPacket.class)
+          .decode(IcmpV4DestinationUnreachablePacket.class)
+          .decode(IcmpV4EchoPacket.class)
+          .decode(IcmpV4EchoReplyPacket.class)
+          .decode(IcmpV4InformationReplyPacket.class)
+          .decode(IcmpV4InformationRequestPacket.class)
+          .decode(IcmpV4ParameterProblemPacket.class)
+          .decode(IcmpV4RedirectPacket.class)
+          .decode(IcmpV4SourceQuenchPacket.class)
+          .decode(IcmpV4TimeExceededPacket.class)
+          .decode(IcmpV4TimestampPacket.class)
+          .decode(IcmpV4TimestampReplyPacket.class)
+          .decode(IcmpV6CommonPacket.class)
+          .decode(IcmpV6DestinationUnreachablePacket.class)
+          .decode(IcmpV6EchoReplyPacket.class)
+          .decode(IcmpV6EchoRequestPacket.class)
+          .decode(IcmpV6HomeAgentAddressDiscoveryReplyPacket.class)
+          .decode(IcmpV6HomeAgentAddressDiscoveryRequestPacket.class)
+          .decode(IcmpV6MobilePrefixAdvertisementPacket.class)
+          .decode(IcmpV6MobilePrefixSolicitationPacket.class)
+          .decode(IcmpV6NeighborAdvertisementPacket.class)
+          .decode(IcmpV6NeighborSolicitationPacket.class)
+          .decode(IcmpV6PacketTooBigPacket.class)
+          .decode(IcmpV6ParameterProblemPacket.class)
+          .decode(IcmpV6RedirectPacket.class)
+          .decode(IcmpV6RouterAdvertisementPacket.class)
+          .decode(IcmpV6RouterSolicitationPacket.class)
+          .decode(IcmpV6TimeExceededPacket.class)
+          .build();
+
+  private final Set<Class<? extends Packet>> packetClasses;
+  private volatile PacketFactoryBinder defaultBinder;
+
+  private DecodingProfile(Builder builder) {
+    if (builder == null) {
+      throw new NullPointerException("builder is null.");
+    }
+    this.packetClasses = new HashSet<Class<? extends Packet>>(builder.packetClasses);
+  }
+
+  /**
+   * @param packetClass packetClass
+   * @return true if this profile decodes packets of the packetClass; false otherwise.
+   */
+  public boolean decodes(Class<?> packetClass) {
+    return packetClasses.contains(packetClass);
+  }
+
+  /** @return the packet classes this profile decodes. */
+  public Set<Class<? extends Packet>> getPacketClasses() {
+    return Collections.unmodifiableSet(packetClasses);
+  }
+
+  /**
+   * @param binder the binder to provide factories which actually decode packets.
+   * @return a binder which provides the factories of the binder filtered by this profile.
+   */
+  public PacketFactoryBinder apply(PacketFactoryBinder binder) {
+    if (binder == null) {
+      throw new NullPointerException("binder is null.");
+    }
+    return new FilteringPacketFactoryBinder(this, binder);
+  }
+
+  /**
+   * Decodes a packet by the default binder (see {@link PacketFactories#getDefaultBinder()})
+   * filtered by this profile.
+   *
+   * @param <N> the type of the number
+   * @param rawData rawData
+   * @param offset offset
+   * @param length length
+   * @param number the number to select the factory to decode the packet with. e.g. a {@link
+   *     org.pcap4j.packet.namednumber.DataLinkType DataLinkType} object.
+   * @return a new Packet object.
+   */
+  public <N extends NamedNumber<?, ?>> Packet newPacket(
+      byte[] rawData, int offset, int length, N number) {
+    PacketFactoryBinder binder = defaultBinder;
+    if (binder == null) {
+      binder = apply(PacketFactories.getDefaultBinder());
+      defaultBinder = binder;
+    }
+    return PacketFactories.newPacket(rawData, offset, length, number, binder);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(60);
+    sb.append("DecodingProfile: ").append(packetClasses);
+    return sb.toString();
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private final Set<Class<? extends Packet>> packetClasses =
+        new HashSet<Class<? extends Packet>>();
+
+    /** */
+    public Builder() {}
+
+    /** @param profile profile */
+    public Builder(DecodingProfile profile) {
+      packetClasses.addAll(profile.packetClasses);
+    }
+
+    /**
+     * @param packetClass packetClass
+     * @return this Builder object for method chaining.
+     */
+    public Builder decode(Class<? extends Packet> packetClass) {
+      if (packetClass == null) {
+        throw new NullPointerException("packetClass is null.");
+      }
+      packetClasses.add(packetClass);
+      return this;
+    }
+
+    /**
+     * @param packetClasses packetClasses
+     * @return this Builder object for method chaining.
+     */
+    public Builder decodeAll(Collection<Class<? extends Packet>> packetClasses) {
+      for (Class<? extends Packet> packetClass : packetClasses) {
+        decode(packetClass);
+      }
+      return this;
+    }
+
+    /**
+     * @param packetClass packetClass
+     * @return this Builder object for method chaining.
+     */
+    public Builder skip(Class<? extends Packet> packetClass) {
+      packetClasses.remove(packetClass);
+      return this;
+    }
+
+    /** @return a new DecodingProfile object. */
+    public DecodingProfile build() {
+      return new DecodingProfile(this);
+    }
+  }
+
+  private static final class FilteringPacketFactoryBinder implements PacketFactoryBinder {
+
+    private final DecodingProfile profile;
+    private final PacketFactoryBinder binder;
+
+    // Factories are singletons in practice, so the filtered ones are cached by the original ones.
+    private final ConcurrentMap<PacketFactory<?, ?>, PacketFactory<?, ?>> factories =
+        new ConcurrentHashMap<PacketFactory<?, ?>, PacketFactory<?, ?>>();
+
+    private FilteringPacketFactoryBinder(DecodingProfile profile, PacketFactoryBinder binder) {
+      this.profile = profile;
+      this.binder = binder;
+    }
+
+    @Override
+    public <T, N extends NamedNumber<?, ?>> PacketFactory<T, N> getPacketFactory(
+        Class<T> targetClass, Class<N> numberClass) {
+      PacketFactory<T, N> factory = binder.getPacketFactory(targetClass, numberClass);
+      if (!Packet.class.isAssignableFrom(targetClass)) {
+        // Only packets are filtered. Options and so on of decoded packets are decoded as usual.
+        return factory;
+      }
+
+      @SuppressWarnings("unchecked")
+      PacketFactory<T, N> filtered = (PacketFactory<T, N>) factories.get(factory);
+      if (filtered == null) {
+        filtered = new FilteringPacketFactory<T, N>(profile, factory);
+        factories.putIfAbsent(factory, filtered);
+      }
+      return filtered;
+    }
+  }
+
+  private static final class FilteringPacketFactory<T, N extends NamedNumber<?, ?>>
+      implements PacketFactory<T, N> {
+
+    private final DecodingProfile profile;
+    private final PacketFactory<T, N> factory;
+
+    private FilteringPacketFactory(DecodingProfile profile, PacketFactory<T, N> factory) {
+      this.profile = profile;
+      this.factory = factory;
+    }
+
+    @Override
+    public T newInstance(byte[] rawData, int offset, int length, N number) {
+      if (profile.decodes(factory.getTargetClass(number))) {
+        return factory.newInstance(rawData, offset, length, number);
+      } else {
+        return factory.newInstance(rawData, offset, length);
+      }
+    }
+
+    @Override
+    public T newInstance(byte[] rawData, int offset, int length) {
+      return factory.newInstance(rawData, offset, length);
+    }
+
+    @Override
+    public Class<? extends T> getTargetClass(N number) {
+      Class<? extends T> targetClass = factory.getTargetClass(number);
+      return profile.decodes(targetClass) ? targetClass : factory.getTargetClass();
+    }
+
+    @Override
+    public Class<? extends T> getTargetClass() {
+      return factory.getTargetClass();
+    }
+  }
+}
@@ -12,6 +12,7 @@ import java.security.ProtectionDomain;
 import java.util.Iterator;
 import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import org.pcap4j.packet.Packet;
 import org.pcap4j.packet.namednumber.NamedNumber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +25,12 @@ public final class PacketFactories {
 
   private static final Logger logger = LoggerFactory.getLogger(PacketFactories.class);
   private static final PacketFactoryBinder FACTORY_BINDER;
+  private static final ThreadLocal<PacketFactoryBinder> threadBinders =
+      new ThreadLocal<PacketFactoryBinder>();
+
+  // Set true once setThreadBinder is called so that getFactory doesn't look up threadBinders until
+  // it's used.
+  private static volatile boolean threadBindersUsed = false;
 
   static {
     PacketFactoryBinder factoryBinder = null;
@@ -73,10 +80,103 @@ public final class PacketFactories {
       throw new NullPointerException(sb.toString());
     }
 
+    if (threadBindersUsed) {
+      PacketFactoryBinder binder = threadBinders.get();
+      if (binder != null) {
+        return binder.getPacketFactory(targetClass, numberClass);
+      }
+    }
+    return getDefaultBinder().getPacketFactory(targetClass, numberClass);
+  }
+
+  /**
+   * Decodes a packet with the factories provided by the given binder instead of the default one.
+   * The binder is used for the payloads, and the payloads of the payloads and so on, as well as the
+   * outermost packet.
+   *
+   * @param <N> the type of the number
+   * @param rawData rawData
+   * @param offset offset
+   * @param length length
+   * @param number the number to select the factory to decode the packet with. e.g. a {@link
+   *     org.pcap4j.packet.namednumber.DataLinkType DataLinkType} object.
+   * @param binder binder. null to use the one set to the current thread or the default one.
+   * @return a new Packet object.
+   */
+  public static <N extends NamedNumber<?, ?>> Packet newPacket(
+      byte[] rawData, int offset, int length, N number, PacketFactoryBinder binder) {
+    if (number == null) {
+      throw new NullPointerException("number is null.");
+    }
+
+    @SuppressWarnings("unchecked")
+    Class<N> numberClass = (Class<N>) number.getClass();
+    if (binder == null) {
+      return getFactory(Packet.class, numberClass).newInstance(rawData, offset, length, number);
+    }
+
+    PacketFactoryBinder prev = setThreadBinder(binder);
+    try {
+      return binder
+          .getPacketFactory(Packet.class, numberClass)
+          .newInstance(rawData, offset, length, number);
+    } finally {
+      setThreadBinder(prev);
+    }
+  }
+
+  /**
+   * @return the {@link PacketFactoryBinder} found by the {@link ServiceLoader}, or a binder which
+   *     provides only a factory of {@link org.pcap4j.packet.UnknownPacket UnknownPacket} if none is
+   *     found.
+   */
+  public static PacketFactoryBinder getDefaultBinder() {
     if (FACTORY_BINDER != null) {
-      return FACTORY_BINDER.getPacketFactory(targetClass, numberClass);
+      return FACTORY_BINDER;
+    } else {
+      return SimplePacketFactoryBinder.getInstance();
+    }
+  }
+
+  /**
+   * @return the {@link PacketFactoryBinder} set to the current thread by {@link
+   *     #setThreadBinder(PacketFactoryBinder)}, or null if none is set.
+   */
+  public static PacketFactoryBinder getThreadBinder() {
+    return threadBindersUsed ? threadBinders.get() : null;
+  }
+
+  /**
+   * Makes {@link #getFactory(Class, Class)} get factories from the given binder instead of the
+   * default one in the current thread. This is used to decode packets with different binders (e.g.
+   * filtered by {@link DecodingProfile}) in the same JVM. Restore the previous binder after
+   * decoding as follows:
+   *
+   * <pre>{@code
+   * PacketFactoryBinder prev = PacketFactories.setThreadBinder(binder);
+   * try {
+   *   packet = EthernetPacket.newPacket(rawData, 0, rawData.length);
+   * } finally {
+   *   PacketFactories.setThreadBinder(prev);
+   * }
+   * }</pre>
+   *
+   * @param binder binder. null to use the default one.
+   * @return the binder which was set to the current thread before. May be null.
+   */
+  public static PacketFactoryBinder setThreadBinder(PacketFactoryBinder binder) {
+    if (!threadBindersUsed) {
+      if (binder == null) {
+        return null;
+      }
+      threadBindersUsed = true;
+    }
+    PacketFactoryBinder prev = threadBinders.get();
+    if (binder != null) {
+      threadBinders.set(binder);
     } else {
-      return SimplePacketFactoryBinder.getInstance().getPacketFactory(targetClass, numberClass);
+      threadBinders.remove();
     }
+    return prev;
   }
 }
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * ARP Hardware Type
  *
@@ -154,8 +151,7 @@ public final class ArpHardwareType extends NamedNumber<Short, ArpHardwareType> {
   /** HW_EXP2: 256 */
   public static final ArpHardwareType HW_EXP2 = new ArpHardwareType((short) 256, "HW_EXP2");
 
-  private static final Map<Short, ArpHardwareType> registry =
-      new HashMap<Short, ArpHardwareType>(40);
+  private static final NamedNumberTable<ArpHardwareType> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(ETHERNET.value(), ETHERNET);
@@ -211,11 +207,19 @@ public final class ArpHardwareType extends NamedNumber<Short, ArpHardwareType> {
    * @return a ArpHardwareType object.
    */
   public static ArpHardwareType getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new ArpHardwareType(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a ArpHardwareType object.
+   */
+  public static ArpHardwareType getInstance(short value) {
+    ArpHardwareType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new ArpHardwareType(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * ARP Operation Code
  *
@@ -101,7 +98,7 @@ public final class ArpOperation extends NamedNumber<Short, ArpOperation> {
   /** OP_EXP2: 25 */
   public static final ArpOperation OP_EXP2 = new ArpOperation((short) 25, "OP_EXP2");
 
-  private static final Map<Short, ArpOperation> registry = new HashMap<Short, ArpOperation>(30);
+  private static final NamedNumberTable<ArpOperation> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(REQUEST.value(), REQUEST);
@@ -144,11 +141,19 @@ public final class ArpOperation extends NamedNumber<Short, ArpOperation> {
    * @return a ArpOperation object.
    */
   public static ArpOperation getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new ArpOperation(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a ArpOperation object.
+   */
+  public static ArpOperation getInstance(short value) {
+    ArpOperation number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new ArpOperation(value, "unknown"));
     }
+    return number;
   }
 
   /**
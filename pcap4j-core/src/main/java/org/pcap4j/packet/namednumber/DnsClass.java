@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * DNS Class
  *
@@ -39,7 +36,7 @@ public final class DnsClass extends NamedNumber<Short, DnsClass> {
   /** ANY: 255 */
   public static final DnsClass ANY = new DnsClass((short) 255, "ANY");
 
-  private static final Map<Short, DnsClass> registry = new HashMap<Short, DnsClass>();
+  private static final NamedNumberTable<DnsClass> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(IN.value(), IN);
@@ -62,11 +59,19 @@ public final class DnsClass extends NamedNumber<Short, DnsClass> {
    * @return a DnsClass object.
    */
   public static DnsClass getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new DnsClass(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a DnsClass object.
+   */
+  public static DnsClass getInstance(short value) {
+    DnsClass number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new DnsClass(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * DNS OpCode
  *
@@ -39,7 +36,7 @@ public final class DnsOpCode extends NamedNumber<Byte, DnsOpCode> {
   /** Update: 5 */
   public static final DnsOpCode UPDATE = new DnsOpCode((byte) 5, "Update");
 
-  private static final Map<Byte, DnsOpCode> registry = new HashMap<Byte, DnsOpCode>();
+  private static final NamedNumberTable<DnsOpCode> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(QUERY.value(), QUERY);
@@ -66,11 +63,19 @@ public final class DnsOpCode extends NamedNumber<Byte, DnsOpCode> {
    * @return a DnsOpCode object.
    */
   public static DnsOpCode getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new DnsOpCode(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a DnsOpCode object.
+   */
+  public static DnsOpCode getInstance(byte value) {
+    DnsOpCode number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new DnsOpCode(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * DNS RCODE
  *
@@ -59,7 +56,7 @@ public final class DnsRCode extends NamedNumber<Byte, DnsRCode> {
   /** Name not contained in zone: 10 */
   public static final DnsRCode NOT_ZONE = new DnsRCode((byte) 10, "Name not contained in zone");
 
-  private static final Map<Byte, DnsRCode> registry = new HashMap<Byte, DnsRCode>();
+  private static final NamedNumberTable<DnsRCode> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(NO_ERROR.value(), NO_ERROR);
@@ -92,11 +89,19 @@ public final class DnsRCode extends NamedNumber<Byte, DnsRCode> {
    * @return a DnsRCode object.
    */
   public static DnsRCode getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new DnsRCode(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a DnsRCode object.
+   */
+  public static DnsRCode getInstance(byte value) {
+    DnsRCode number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new DnsRCode(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * DNS Resource Record (RR) TYPE
  *
@@ -338,8 +335,8 @@ public final class DnsResourceRecordType extends NamedNumber<Short, DnsResourceR
   public static final DnsResourceRecordType DLV =
       new DnsResourceRecordType((short) 32769, "DLV (DNSSEC Lookaside Validation)");
 
-  private static final Map<Short, DnsResourceRecordType> registry =
-      new HashMap<Short, DnsResourceRecordType>();
+  private static final NamedNumberTable<DnsResourceRecordType> registry =
+      NamedNumberTable.forShorts();
 
   static {
     registry.put(A.value(), A);
@@ -441,11 +438,19 @@ public final class DnsResourceRecordType extends NamedNumber<Short, DnsResourceR
    * @return a DnsResourceRecordType object.
    */
   public static DnsResourceRecordType getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new DnsResourceRecordType(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a DnsResourceRecordType object.
+   */
+  public static DnsResourceRecordType getInstance(short value) {
+    DnsResourceRecordType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new DnsResourceRecordType(value, "unknown"));
     }
+    return number;
   }
 
   /**
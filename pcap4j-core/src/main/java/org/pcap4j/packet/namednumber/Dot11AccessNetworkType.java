@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IEEE802.11 Access network type
  *
@@ -54,8 +51,8 @@ public final class Dot11AccessNetworkType extends NamedNumber<Byte, Dot11AccessN
   public static final Dot11AccessNetworkType WILDCARD =
       new Dot11AccessNetworkType((byte) 15, "Wildcard");
 
-  private static final Map<Byte, Dot11AccessNetworkType> registry =
-      new HashMap<Byte, Dot11AccessNetworkType>();
+  private static final NamedNumberTable<Dot11AccessNetworkType> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(PRIVATE_NETWORK.value(), PRIVATE_NETWORK);
@@ -85,11 +82,19 @@ public final class Dot11AccessNetworkType extends NamedNumber<Byte, Dot11AccessN
    * @return a Dot11AccessNetworkType object.
    */
   public static Dot11AccessNetworkType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11AccessNetworkType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11AccessNetworkType object.
+   */
+  public static Dot11AccessNetworkType getInstance(byte value) {
+    Dot11AccessNetworkType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11AccessNetworkType(value, "unknown"));
     }
+    return number;
   }
 
   /**
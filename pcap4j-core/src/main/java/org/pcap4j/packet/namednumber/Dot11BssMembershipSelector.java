@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IEEE802.11 BSS membership selector
  *
@@ -27,8 +24,8 @@ public final class Dot11BssMembershipSelector
   public static final Dot11BssMembershipSelector HT_PHY =
       new Dot11BssMembershipSelector((byte) 127, "HT PHY");
 
-  private static final Map<Byte, Dot11BssMembershipSelector> registry =
-      new HashMap<Byte, Dot11BssMembershipSelector>();
+  private static final NamedNumberTable<Dot11BssMembershipSelector> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(HT_PHY.value(), HT_PHY);
@@ -52,11 +49,19 @@ public final class Dot11BssMembershipSelector
    * @return a Dot11BssMembershipSelector object.
    */
   public static Dot11BssMembershipSelector getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11BssMembershipSelector(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11BssMembershipSelector object.
+   */
+  public static Dot11BssMembershipSelector getInstance(byte value) {
+    Dot11BssMembershipSelector number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11BssMembershipSelector(value, "unknown"));
     }
+    return number;
   }
 
   /**
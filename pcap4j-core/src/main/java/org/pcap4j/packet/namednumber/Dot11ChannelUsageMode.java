@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IEEE802.11 Channel Usage Mode
  *
@@ -30,8 +27,8 @@ public final class Dot11ChannelUsageMode extends NamedNumber<Byte, Dot11ChannelU
   public static final Dot11ChannelUsageMode OFF_CHANNEL_TDLS_DIRECT_LINK =
       new Dot11ChannelUsageMode((byte) 1, "Off-channel TDLS direct link");
 
-  private static final Map<Byte, Dot11ChannelUsageMode> registry =
-      new HashMap<Byte, Dot11ChannelUsageMode>();
+  private static final NamedNumberTable<Dot11ChannelUsageMode> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(NONINFRASTRUCTURE_DOT_11.value(), NONINFRASTRUCTURE_DOT_11);
@@ -51,11 +48,19 @@ public final class Dot11ChannelUsageMode extends NamedNumber<Byte, Dot11ChannelU
    * @return a Dot11ChannelUsageMode object.
    */
   public static Dot11ChannelUsageMode getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11ChannelUsageMode(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11ChannelUsageMode object.
+   */
+  public static Dot11ChannelUsageMode getInstance(byte value) {
+    Dot11ChannelUsageMode number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11ChannelUsageMode(value, "unknown"));
     }
+    return number;
   }
 
   /**
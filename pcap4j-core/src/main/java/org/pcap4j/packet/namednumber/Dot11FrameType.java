@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Type and subtype of an IEEE802.11 frame
  *
@@ -154,7 +151,7 @@ public final class Dot11FrameType extends NamedNumber<Byte, Dot11FrameType> {
   public static final Dot11FrameType QOS_CF_ACK_CF_POLL =
       new Dot11FrameType((byte) 47, "QoS CF-Ack + CF-Poll");
 
-  private static final Map<Byte, Dot11FrameType> registry = new HashMap<Byte, Dot11FrameType>();
+  private static final NamedNumberTable<Dot11FrameType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(ASSOCIATION_REQUEST.value(), ASSOCIATION_REQUEST);
@@ -237,11 +234,19 @@ public final class Dot11FrameType extends NamedNumber<Byte, Dot11FrameType> {
    * @return a Dot11FrameType object.
    */
   public static Dot11FrameType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11FrameType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11FrameType object.
+   */
+  public static Dot11FrameType getInstance(byte value) {
+    Dot11FrameType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11FrameType(value, "unknown"));
     }
+    return number;
   }
 
   /**
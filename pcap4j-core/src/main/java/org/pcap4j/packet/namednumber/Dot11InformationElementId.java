@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IEEE802.11 Information element ID
  *
@@ -502,8 +499,8 @@ public final class Dot11InformationElementId extends NamedNumber<Byte, Dot11Info
   public static final Dot11InformationElementId VENDOR_SPECIFIC =
       new Dot11InformationElementId((byte) 221, "Vendor Specific");
 
-  private static final Map<Byte, Dot11InformationElementId> registry =
-      new HashMap<Byte, Dot11InformationElementId>();
+  private static final NamedNumberTable<Dot11InformationElementId> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(SSID.value(), SSID);
@@ -643,11 +640,19 @@ public final class Dot11InformationElementId extends NamedNumber<Byte, Dot11Info
    * @return a Dot11InformationElementId object.
    */
   public static Dot11InformationElementId getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11InformationElementId(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11InformationElementId object.
+   */
+  public static Dot11InformationElementId getInstance(byte value) {
+    Dot11InformationElementId number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11InformationElementId(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IEEE802.11 Service Interval Granularity
  *
@@ -55,8 +52,8 @@ public final class Dot11ServiceIntervalGranularity
   public static final Dot11ServiceIntervalGranularity SIG_40_MS =
       new Dot11ServiceIntervalGranularity((byte) 7, "40 ms");
 
-  private static final Map<Byte, Dot11ServiceIntervalGranularity> registry =
-      new HashMap<Byte, Dot11ServiceIntervalGranularity>();
+  private static final NamedNumberTable<Dot11ServiceIntervalGranularity> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(SIG_5_MS.value(), SIG_5_MS);
@@ -86,11 +83,19 @@ public final class Dot11ServiceIntervalGranularity
    * @return a Dot11ServiceIntervalGranularity object.
    */
   public static Dot11ServiceIntervalGranularity getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11ServiceIntervalGranularity(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11ServiceIntervalGranularity object.
+   */
+  public static Dot11ServiceIntervalGranularity getInstance(byte value) {
+    Dot11ServiceIntervalGranularity number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11ServiceIntervalGranularity(value, "unknown"));
     }
+    return number;
   }
 
   /**
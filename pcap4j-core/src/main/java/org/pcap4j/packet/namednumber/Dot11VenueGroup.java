@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IEEE802.11 Venue Group
  *
@@ -61,7 +58,7 @@ public final class Dot11VenueGroup extends NamedNumber<Byte, Dot11VenueGroup> {
   /** Outdoor: 11 */
   public static final Dot11VenueGroup OUTDOOR = new Dot11VenueGroup((byte) 11, "Outdoor");
 
-  private static final Map<Byte, Dot11VenueGroup> registry = new HashMap<Byte, Dot11VenueGroup>();
+  private static final NamedNumberTable<Dot11VenueGroup> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(UNSPECIFIED.value(), UNSPECIFIED);
@@ -91,11 +88,19 @@ public final class Dot11VenueGroup extends NamedNumber<Byte, Dot11VenueGroup> {
    * @return a Dot11VenueGroup object.
    */
   public static Dot11VenueGroup getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11VenueGroup(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11VenueGroup object.
+   */
+  public static Dot11VenueGroup getInstance(byte value) {
+    Dot11VenueGroup number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11VenueGroup(value, "unknown"));
     }
+    return number;
   }
 
   /**
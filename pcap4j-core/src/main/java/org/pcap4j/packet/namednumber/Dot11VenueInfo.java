@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -217,7 +215,7 @@ public final class Dot11VenueInfo extends NamedNumber<Short, Dot11VenueInfo> {
   /** Kiosk: 0x0B06 */
   public static final Dot11VenueInfo KIOSK = new Dot11VenueInfo((short) 0x0B06, "Kiosk");
 
-  private static final Map<Short, Dot11VenueInfo> registry = new HashMap<Short, Dot11VenueInfo>();
+  private static final NamedNumberTable<Dot11VenueInfo> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(EMERGENCY_COORDINATION_CENTER.value(), EMERGENCY_COORDINATION_CENTER);
@@ -292,11 +290,19 @@ public final class Dot11VenueInfo extends NamedNumber<Short, Dot11VenueInfo> {
    * @return a Dot11VenueInfo object.
    */
   public static Dot11VenueInfo getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Dot11VenueInfo(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Dot11VenueInfo object.
+   */
+  public static Dot11VenueInfo getInstance(short value) {
+    Dot11VenueInfo number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Dot11VenueInfo(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -61,7 +59,7 @@ public final class EtherType extends NamedNumber<Short, EtherType> {
   public static final EtherType PPPOE_SESSION_STAGE =
       new EtherType((short) 0x8864, "PPPoE Session Stage");
 
-  private static final Map<Short, EtherType> registry = new HashMap<Short, EtherType>();
+  private static final NamedNumberTable<EtherType> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(IPV4.value(), IPV4);
@@ -89,13 +87,25 @@ public final class EtherType extends NamedNumber<Short, EtherType> {
    * @return a EtherType object.
    */
   public static EtherType getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else if ((value & 0xFFFF) <= IEEE802_3_MAX_LENGTH) {
-      return new EtherType(value, "Length");
-    } else {
-      return new EtherType(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a EtherType object.
+   */
+  public static EtherType getInstance(short value) {
+    EtherType number = registry.get(value);
+    if (number == null) {
+      EtherType created;
+      if ((value & 0xFFFF) <= IEEE802_3_MAX_LENGTH) {
+        created = new EtherType(value, "Length");
+      } else {
+        created = new EtherType(value, "unknown");
+      }
+      number = registry.cacheUnknown(value, created);
     }
+    return number;
   }
 
   /**
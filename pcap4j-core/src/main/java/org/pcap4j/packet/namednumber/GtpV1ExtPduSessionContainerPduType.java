@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @see <a
  *     href="https://www.etsi.org/deliver/etsi_ts/138400_138499/138415/15.02.00_60/ts_138415v150200p.pdf">ETSI
@@ -31,8 +28,8 @@ public final class GtpV1ExtPduSessionContainerPduType
   public static final GtpV1ExtPduSessionContainerPduType UL_PDU_SESSION_INFORMATION =
       new GtpV1ExtPduSessionContainerPduType((byte) 1, "UL PDU SESSION INFORMATION");
 
-  private static final Map<Byte, GtpV1ExtPduSessionContainerPduType> registry =
-      new HashMap<Byte, GtpV1ExtPduSessionContainerPduType>();
+  private static final NamedNumberTable<GtpV1ExtPduSessionContainerPduType> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(DL_PDU_SESSION_INFORMATION.value(), DL_PDU_SESSION_INFORMATION);
@@ -57,11 +54,20 @@ public final class GtpV1ExtPduSessionContainerPduType
    * @return a GtpV1ExtPduSessionContainerPduType object.
    */
   public static GtpV1ExtPduSessionContainerPduType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new GtpV1ExtPduSessionContainerPduType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a GtpV1ExtPduSessionContainerPduType object.
+   */
+  public static GtpV1ExtPduSessionContainerPduType getInstance(byte value) {
+    GtpV1ExtPduSessionContainerPduType number = registry.get(value);
+    if (number == null) {
+      number =
+          registry.cacheUnknown(value, new GtpV1ExtPduSessionContainerPduType(value, "unknown"));
     }
+    return number;
   }
 
   /**
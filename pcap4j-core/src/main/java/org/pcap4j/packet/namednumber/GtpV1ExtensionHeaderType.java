@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -84,8 +82,8 @@ public final class GtpV1ExtensionHeaderType extends NamedNumber<Byte, GtpV1Exten
   public static final GtpV1ExtensionHeaderType SUSPEND_RESPONSE =
       new GtpV1ExtensionHeaderType((byte) 0xC2, "Suspend Response");
 
-  private static final Map<Byte, GtpV1ExtensionHeaderType> registry =
-      new HashMap<Byte, GtpV1ExtensionHeaderType>();
+  private static final NamedNumberTable<GtpV1ExtensionHeaderType> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(NO_MORE_EXTENSION_HEADERS.value(), NO_MORE_EXTENSION_HEADERS);
@@ -125,11 +123,19 @@ public final class GtpV1ExtensionHeaderType extends NamedNumber<Byte, GtpV1Exten
    * @return a GtpV1MessageType object.
    */
   public static GtpV1ExtensionHeaderType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new GtpV1ExtensionHeaderType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a GtpV1ExtensionHeaderType object.
+   */
+  public static GtpV1ExtensionHeaderType getInstance(byte value) {
+    GtpV1ExtensionHeaderType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new GtpV1ExtensionHeaderType(value, "unknown"));
     }
+    return number;
   }
 
   /**
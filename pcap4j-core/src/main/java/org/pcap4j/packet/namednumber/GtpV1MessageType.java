@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * GTPv1 Message Type
  *
@@ -290,7 +287,7 @@ public final class GtpV1MessageType extends NamedNumber<Byte, GtpV1MessageType>
   /** Message type 255 (G-PDU) */
   public static final GtpV1MessageType G_PDU = new GtpV1MessageType((byte) 255, "G-PDU");
 
-  private static final Map<Byte, GtpV1MessageType> registry = new HashMap<Byte, GtpV1MessageType>();
+  private static final NamedNumberTable<GtpV1MessageType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(ECHO_REQUEST.value(), ECHO_REQUEST);
@@ -384,11 +381,19 @@ public final class GtpV1MessageType extends NamedNumber<Byte, GtpV1MessageType>
    * @return a GtpV1MessageType object.
    */
   public static GtpV1MessageType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new GtpV1MessageType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a GtpV1MessageType object.
+   */
+  public static GtpV1MessageType getInstance(byte value) {
+    GtpV1MessageType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new GtpV1MessageType(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * GTPv2 Message Type
  *
@@ -299,7 +296,7 @@ public class GtpV2MessageType extends NamedNumber<Byte, GtpV2MessageType> {
   public static final GtpV2MessageType MBMS_SESSION_STOP_RESPONSE =
       new GtpV2MessageType((byte) 236, "MBMS Session Stop Response");
 
-  private static final Map<Byte, GtpV2MessageType> registry = new HashMap<Byte, GtpV2MessageType>();
+  private static final NamedNumberTable<GtpV2MessageType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(ECHO_REQUEST.value(), ECHO_REQUEST);
@@ -401,11 +398,19 @@ public class GtpV2MessageType extends NamedNumber<Byte, GtpV2MessageType> {
    * @return a GtpV2MessageType object.
    */
   public static GtpV2MessageType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new GtpV2MessageType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a GtpV2MessageType object.
+   */
+  public static GtpV2MessageType getInstance(byte value) {
+    GtpV2MessageType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new GtpV2MessageType(value, "unknown"));
     }
+    return number;
   }
 
   /**
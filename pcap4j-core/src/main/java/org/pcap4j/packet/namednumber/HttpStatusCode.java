@@ -8,8 +8,6 @@
 package org.pcap4j.packet.namednumber;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @author Kaito Yamada
@@ -166,7 +164,7 @@ public final class HttpStatusCode extends NamedNumber<Short, HttpStatusCode> {
   public static final HttpStatusCode HTTP_VERSION_NOT_SUPPORTED =
       new HttpStatusCode((short) 505, "HTTP Version not supported");
 
-  private static final Map<Short, HttpStatusCode> registry = new HashMap<Short, HttpStatusCode>();
+  private static final NamedNumberTable<HttpStatusCode> registry = NamedNumberTable.forShorts();
 
   static {
     for (Field field : HttpStatusCode.class.getFields()) {
@@ -223,11 +221,19 @@ public final class HttpStatusCode extends NamedNumber<Short, HttpStatusCode> {
    * @return a HttpStatusCode object.
    */
   public static HttpStatusCode getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new HttpStatusCode(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a HttpStatusCode object.
+   */
+  public static HttpStatusCode getInstance(short value) {
+    HttpStatusCode number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new HttpStatusCode(value, "unknown"));
     }
+    return number;
   }
 
   /**
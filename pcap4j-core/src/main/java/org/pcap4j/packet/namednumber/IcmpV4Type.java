@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * ICMPv4 Type
  *
@@ -118,7 +115,7 @@ public final class IcmpV4Type extends NamedNumber<Byte, IcmpV4Type> {
   /** Photuris: 40 */
   public static final IcmpV4Type PHOTURIS = new IcmpV4Type((byte) 40, "Photuris");
 
-  private static final Map<Byte, IcmpV4Type> registry = new HashMap<Byte, IcmpV4Type>();
+  private static final NamedNumberTable<IcmpV4Type> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(ECHO_REPLY.value(), ECHO_REPLY);
@@ -163,11 +160,19 @@ public final class IcmpV4Type extends NamedNumber<Byte, IcmpV4Type> {
    * @return a IcmpV4Type object.
    */
   public static IcmpV4Type getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IcmpV4Type(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IcmpV4Type object.
+   */
+  public static IcmpV4Type getInstance(byte value) {
+    IcmpV4Type number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IcmpV4Type(value, "unknown"));
     }
+    return number;
   }
 
   /**
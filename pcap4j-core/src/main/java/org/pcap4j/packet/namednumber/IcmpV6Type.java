@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * ICMPv6 Type
  *
@@ -152,7 +149,7 @@ public final class IcmpV6Type extends NamedNumber<Byte, IcmpV6Type> {
   public static final IcmpV6Type DUPLICATE_ADDRESS_CONFIRMATION =
       new IcmpV6Type((byte) 158, "Duplicate Address Confirmation");
 
-  private static final Map<Byte, IcmpV6Type> registry = new HashMap<Byte, IcmpV6Type>();
+  private static final NamedNumberTable<IcmpV6Type> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(DESTINATION_UNREACHABLE.value(), DESTINATION_UNREACHABLE);
@@ -207,11 +204,19 @@ public final class IcmpV6Type extends NamedNumber<Byte, IcmpV6Type> {
    * @return a IcmpV6Type object.
    */
   public static IcmpV6Type getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IcmpV6Type(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IcmpV6Type object.
+   */
+  public static IcmpV6Type getInstance(byte value) {
+    IcmpV6Type number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IcmpV6Type(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IP Number
  *
@@ -442,7 +439,7 @@ public final class IpNumber extends NamedNumber<Byte, IpNumber> {
   /** Robust Header Compression (ROHC): 142 */
   public static final IpNumber ROHC = new IpNumber((byte) 142, "ROHC");
 
-  private static final Map<Byte, IpNumber> registry = new HashMap<Byte, IpNumber>();
+  private static final NamedNumberTable<IpNumber> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(IPV6_HOPOPT.value(), IPV6_HOPOPT);
@@ -599,11 +596,19 @@ public final class IpNumber extends NamedNumber<Byte, IpNumber> {
    * @return a IpNumber object.
    */
   public static IpNumber getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpNumber(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpNumber object.
+   */
+  public static IpNumber getInstance(byte value) {
+    IpNumber number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpNumber(value, "unknown"));
     }
+    return number;
   }
 
   /**
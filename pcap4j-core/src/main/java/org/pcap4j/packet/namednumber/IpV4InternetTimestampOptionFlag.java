@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Flag of IPv4 Internet Timestamp Option
  *
@@ -36,8 +33,8 @@ public final class IpV4InternetTimestampOptionFlag
   public static final IpV4InternetTimestampOptionFlag ADDRESS_PRESPECIFIED =
       new IpV4InternetTimestampOptionFlag((byte) 3, "the internet address fields are prespecified");
 
-  private static final Map<Byte, IpV4InternetTimestampOptionFlag> registry =
-      new HashMap<Byte, IpV4InternetTimestampOptionFlag>();
+  private static final NamedNumberTable<IpV4InternetTimestampOptionFlag> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(TIMESTAMPS_ONLY.value(), TIMESTAMPS_ONLY);
@@ -62,11 +59,19 @@ public final class IpV4InternetTimestampOptionFlag
    * @return a IpV4InternetTimestampOptionFlag object.
    */
   public static IpV4InternetTimestampOptionFlag getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4InternetTimestampOptionFlag(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4InternetTimestampOptionFlag object.
+   */
+  public static IpV4InternetTimestampOptionFlag getInstance(byte value) {
+    IpV4InternetTimestampOptionFlag number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV4InternetTimestampOptionFlag(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IPv4 Option Type
  *
@@ -107,7 +104,7 @@ public final class IpV4OptionType extends NamedNumber<Byte, IpV4OptionType> {
   /** Quick-Start: 25 */
   public static final IpV4OptionType QUICK_START = new IpV4OptionType((byte) 25, "Quick-Start");
 
-  private static final Map<Byte, IpV4OptionType> registry = new HashMap<Byte, IpV4OptionType>();
+  private static final NamedNumberTable<IpV4OptionType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(END_OF_OPTION_LIST.value(), END_OF_OPTION_LIST);
@@ -192,11 +189,19 @@ public final class IpV4OptionType extends NamedNumber<Byte, IpV4OptionType> {
    * @return a IpV4OptionType object.
    */
   public static IpV4OptionType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4OptionType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4OptionType object.
+   */
+  public static IpV4OptionType getInstance(byte value) {
+    IpV4OptionType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV4OptionType(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -28,8 +26,8 @@ public final class IpV4SecurityOptionCompartments
   public static final IpV4SecurityOptionCompartments NOT_COMPARTMENTED =
       new IpV4SecurityOptionCompartments((short) 0x0000, "not compartmented");
 
-  private static final Map<Short, IpV4SecurityOptionCompartments> registry =
-      new HashMap<Short, IpV4SecurityOptionCompartments>();
+  private static final NamedNumberTable<IpV4SecurityOptionCompartments> registry =
+      NamedNumberTable.forShorts();
 
   static {
     registry.put(NOT_COMPARTMENTED.value(), NOT_COMPARTMENTED);
@@ -48,11 +46,19 @@ public final class IpV4SecurityOptionCompartments
    * @return a IpV4SecurityOptionCompartments object.
    */
   public static IpV4SecurityOptionCompartments getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4SecurityOptionCompartments(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4SecurityOptionCompartments object.
+   */
+  public static IpV4SecurityOptionCompartments getInstance(short value) {
+    IpV4SecurityOptionCompartments number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV4SecurityOptionCompartments(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -24,8 +22,8 @@ public final class IpV4SecurityOptionHandlingRestrictions
   /** */
   private static final long serialVersionUID = 3041825811304706489L;
 
-  private static final Map<Short, IpV4SecurityOptionHandlingRestrictions> registry =
-      new HashMap<Short, IpV4SecurityOptionHandlingRestrictions>();
+  private static final NamedNumberTable<IpV4SecurityOptionHandlingRestrictions> registry =
+      NamedNumberTable.forShorts();
 
   static {
   }
@@ -43,11 +41,21 @@ public final class IpV4SecurityOptionHandlingRestrictions
    * @return a IpV4SecurityOptionHandlingRestrictions object.
    */
   public static IpV4SecurityOptionHandlingRestrictions getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4SecurityOptionHandlingRestrictions(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4SecurityOptionHandlingRestrictions object.
+   */
+  public static IpV4SecurityOptionHandlingRestrictions getInstance(short value) {
+    IpV4SecurityOptionHandlingRestrictions number = registry.get(value);
+    if (number == null) {
+      number =
+          registry.cacheUnknown(
+              value, new IpV4SecurityOptionHandlingRestrictions(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -56,8 +54,8 @@ public final class IpV4SecurityOptionSecurity
   public static final IpV4SecurityOptionSecurity TOP_SECRET =
       new IpV4SecurityOptionSecurity((short) 0x6BC5, "Top Secret");
 
-  private static final Map<Short, IpV4SecurityOptionSecurity> registry =
-      new HashMap<Short, IpV4SecurityOptionSecurity>();
+  private static final NamedNumberTable<IpV4SecurityOptionSecurity> registry =
+      NamedNumberTable.forShorts();
 
   static {
     registry.put(UNCLASSIFIED.value(), UNCLASSIFIED);
@@ -83,11 +81,19 @@ public final class IpV4SecurityOptionSecurity
    * @return a IpV4SecurityOptionSecurity object.
    */
   public static IpV4SecurityOptionSecurity getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4SecurityOptionSecurity(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4SecurityOptionSecurity object.
+   */
+  public static IpV4SecurityOptionSecurity getInstance(short value) {
+    IpV4SecurityOptionSecurity number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV4SecurityOptionSecurity(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Precedence of IPv4 TOS
  *
@@ -49,8 +46,7 @@ public final class IpV4TosPrecedence extends NamedNumber<Byte, IpV4TosPrecedence
   public static final IpV4TosPrecedence NETWORK_CONTROL =
       new IpV4TosPrecedence((byte) 7, "Network Control");
 
-  private static final Map<Byte, IpV4TosPrecedence> registry =
-      new HashMap<Byte, IpV4TosPrecedence>();
+  private static final NamedNumberTable<IpV4TosPrecedence> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(ROUTINE.value(), ROUTINE);
@@ -80,11 +76,19 @@ public final class IpV4TosPrecedence extends NamedNumber<Byte, IpV4TosPrecedence
    * @return a IpV4TosPrecedence object.
    */
   public static IpV4TosPrecedence getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4TosPrecedence(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4TosPrecedence object.
+   */
+  public static IpV4TosPrecedence getInstance(byte value) {
+    IpV4TosPrecedence number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV4TosPrecedence(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * TOS of IPv4 TOS
  *
@@ -46,7 +43,7 @@ public final class IpV4TosTos extends NamedNumber<Byte, IpV4TosTos> {
   public static final IpV4TosTos MAXIMIZE_SECURITY =
       new IpV4TosTos((byte) 0xF, "Maximize Security");
 
-  private static final Map<Byte, IpV4TosTos> registry = new HashMap<Byte, IpV4TosTos>();
+  private static final NamedNumberTable<IpV4TosTos> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(DEFAULT.value(), DEFAULT);
@@ -74,11 +71,19 @@ public final class IpV4TosTos extends NamedNumber<Byte, IpV4TosTos> {
    * @return a IpV4TosTos object.
    */
   public static IpV4TosTos getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV4TosTos(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV4TosTos object.
+   */
+  public static IpV4TosTos getInstance(byte value) {
+    IpV4TosTos number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV4TosTos(value, "unknown"));
     }
+    return number;
   }
 
   /**
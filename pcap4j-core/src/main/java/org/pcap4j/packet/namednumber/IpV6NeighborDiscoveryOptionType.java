@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IPv6 Neighbor Discovery Option Type
  *
@@ -169,8 +166,8 @@ public final class IpV6NeighborDiscoveryOptionType
   public static final IpV6NeighborDiscoveryOptionType CARD_REPLY =
       new IpV6NeighborDiscoveryOptionType((byte) 139, "CARD Reply");
 
-  private static final Map<Byte, IpV6NeighborDiscoveryOptionType> registry =
-      new HashMap<Byte, IpV6NeighborDiscoveryOptionType>();
+  private static final NamedNumberTable<IpV6NeighborDiscoveryOptionType> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(SOURCE_LINK_LAYER_ADDRESS.value(), SOURCE_LINK_LAYER_ADDRESS);
@@ -225,11 +222,19 @@ public final class IpV6NeighborDiscoveryOptionType
    * @return a IpV6NeighborDiscoveryOptionType object.
    */
   public static IpV6NeighborDiscoveryOptionType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV6NeighborDiscoveryOptionType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV6NeighborDiscoveryOptionType object.
+   */
+  public static IpV6NeighborDiscoveryOptionType getInstance(byte value) {
+    IpV6NeighborDiscoveryOptionType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV6NeighborDiscoveryOptionType(value, "unknown"));
     }
+    return number;
   }
 
   /**
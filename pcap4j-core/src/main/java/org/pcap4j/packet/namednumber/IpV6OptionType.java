@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -75,7 +73,7 @@ public final class IpV6OptionType extends NamedNumber<Byte, IpV6OptionType> {
   /** IP_DFF: 0xEE */
   public static final IpV6OptionType IP_DFF = new IpV6OptionType((byte) 0xEE, "IP_DFF");
 
-  private static final Map<Byte, IpV6OptionType> registry = new HashMap<Byte, IpV6OptionType>();
+  private static final NamedNumberTable<IpV6OptionType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(PAD1.value(), PAD1);
@@ -127,11 +125,19 @@ public final class IpV6OptionType extends NamedNumber<Byte, IpV6OptionType> {
    * @return a IpV6OptionType object.
    */
   public static IpV6OptionType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV6OptionType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV6OptionType object.
+   */
+  public static IpV6OptionType getInstance(byte value) {
+    IpV6OptionType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV6OptionType(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * IPv6 Routing Type
  *
@@ -38,7 +35,7 @@ public final class IpV6RoutingType extends NamedNumber<Byte, IpV6RoutingType> {
   public static final IpV6RoutingType RPL_SOURCE_ROUTE_HEADER =
       new IpV6RoutingType((byte) 3, "RPL Source Route Header");
 
-  private static final Map<Byte, IpV6RoutingType> registry = new HashMap<Byte, IpV6RoutingType>();
+  private static final NamedNumberTable<IpV6RoutingType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(SOURCE_ROUTE.value(), SOURCE_ROUTE);
@@ -60,11 +57,19 @@ public final class IpV6RoutingType extends NamedNumber<Byte, IpV6RoutingType> {
    * @return a IpV6RoutingHeaderType object.
    */
   public static IpV6RoutingType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpV6RoutingType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpV6RoutingType object.
+   */
+  public static IpV6RoutingType getInstance(byte value) {
+    IpV6RoutingType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpV6RoutingType(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * @see <a href="http://www.iana.org/assignments/version-numbers/version-numbers.xml">IANA
  *     Registry</a>
@@ -39,7 +36,7 @@ public final class IpVersion extends NamedNumber<Byte, IpVersion> {
   /** TUBA: 9 */
   public static final IpVersion TUBA = new IpVersion((byte) 9, "TUBA");
 
-  private static final Map<Byte, IpVersion> registry = new HashMap<Byte, IpVersion>();
+  private static final NamedNumberTable<IpVersion> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(IPV4.value(), IPV4);
@@ -67,11 +64,19 @@ public final class IpVersion extends NamedNumber<Byte, IpVersion> {
    * @return a IpVersion object.
    */
   public static IpVersion getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new IpVersion(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a IpVersion object.
+   */
+  public static IpVersion getInstance(byte value) {
+    IpVersion number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new IpVersion(value, "unknown"));
     }
+    return number;
   }
 
   /**
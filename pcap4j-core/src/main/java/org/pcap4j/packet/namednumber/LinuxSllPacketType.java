@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Linux SLL Packet Type
  *
@@ -42,8 +39,7 @@ public final class LinuxSllPacketType extends NamedNumber<Short, LinuxSllPacketT
   public static final LinuxSllPacketType LINUX_SLL_OUTGOING =
       new LinuxSllPacketType((short) 4, "A packet originated from the local host");
 
-  private static final Map<Short, LinuxSllPacketType> registry =
-      new HashMap<Short, LinuxSllPacketType>();
+  private static final NamedNumberTable<LinuxSllPacketType> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(LINUX_SLL_HOST.value(), LINUX_SLL_HOST);
@@ -66,11 +62,19 @@ public final class LinuxSllPacketType extends NamedNumber<Short, LinuxSllPacketT
    * @return a EtherType object.
    */
   public static LinuxSllPacketType getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new LinuxSllPacketType(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a LinuxSllPacketType object.
+   */
+  public static LinuxSllPacketType getInstance(short value) {
+    LinuxSllPacketType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new LinuxSllPacketType(value, "unknown"));
     }
+    return number;
   }
 
   /**
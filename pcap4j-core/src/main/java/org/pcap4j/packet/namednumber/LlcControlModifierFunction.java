@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * LLC Control Modifier Function
  *
@@ -63,8 +60,8 @@ public final class LlcControlModifierFunction
   public static final LlcControlModifierFunction AC1 =
       new LlcControlModifierFunction((byte) 57, "AC1");
 
-  private static final Map<Byte, LlcControlModifierFunction> registry =
-      new HashMap<Byte, LlcControlModifierFunction>();
+  private static final NamedNumberTable<LlcControlModifierFunction> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(UI.value(), UI);
@@ -96,11 +93,19 @@ public final class LlcControlModifierFunction
    * @return a LlcControlModifierFunction object.
    */
   public static LlcControlModifierFunction getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new LlcControlModifierFunction(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a LlcControlModifierFunction object.
+   */
+  public static LlcControlModifierFunction getInstance(byte value) {
+    LlcControlModifierFunction number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new LlcControlModifierFunction(value, "unknown"));
     }
+    return number;
   }
 
   /**
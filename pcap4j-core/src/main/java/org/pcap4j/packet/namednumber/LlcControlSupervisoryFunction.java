@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * LLC Control Supervisory Function
  *
@@ -35,8 +32,8 @@ public final class LlcControlSupervisoryFunction
   public static final LlcControlSupervisoryFunction REJ =
       new LlcControlSupervisoryFunction((byte) 2, "Reject");
 
-  private static final Map<Byte, LlcControlSupervisoryFunction> registry =
-      new HashMap<Byte, LlcControlSupervisoryFunction>();
+  private static final NamedNumberTable<LlcControlSupervisoryFunction> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(RR.value(), RR);
@@ -60,11 +57,19 @@ public final class LlcControlSupervisoryFunction
    * @return a LlcSupervisoryFunction object.
    */
   public static LlcControlSupervisoryFunction getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new LlcControlSupervisoryFunction(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a LlcControlSupervisoryFunction object.
+   */
+  public static LlcControlSupervisoryFunction getInstance(byte value) {
+    LlcControlSupervisoryFunction number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new LlcControlSupervisoryFunction(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Logical Link Control (LLC) Number
  *
@@ -74,7 +71,7 @@ public final class LlcNumber extends NamedNumber<Byte, LlcNumber> {
   /** Global DSAP: 255 */
   public static final LlcNumber GLOBAL_DSAP = new LlcNumber((byte) 255, "Global DSAP");
 
-  private static final Map<Byte, LlcNumber> registry = new HashMap<Byte, LlcNumber>();
+  private static final NamedNumberTable<LlcNumber> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(NULL_LSAP.value(), NULL_LSAP);
@@ -107,11 +104,19 @@ public final class LlcNumber extends NamedNumber<Byte, LlcNumber> {
    * @return a LlcNumber object.
    */
   public static LlcNumber getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new LlcNumber(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a LlcNumber object.
+   */
+  public static LlcNumber getInstance(byte value) {
+    LlcNumber number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new LlcNumber(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -0,0 +1,119 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet.namednumber;
+
+/**
+ * A registry of {@link NamedNumber} objects indexed by their unsigned 8-bit or 16-bit values, which
+ * is looked up without boxing the values. It also caches the objects created for unknown values so
+ * that looking them up again doesn't allocate anything.
+ *
+ * <p>The objects are held in 256-entry pages, which are created on demand, so that a 16-bit table
+ * which has a few numbers registered doesn't occupy 65536 entries.
+ *
+ * @param <T> the type of the objects
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+final class NamedNumberTable<T extends NamedNumber<?, ?>> {
+
+  private static final int PAGE_SIZE = 256;
+
+  private final int mask;
+  private final Object[][] registered;
+  private final Object[][] unknowns;
+
+  private NamedNumberTable(int size) {
+    this.mask = size - 1;
+    this.registered = new Object[size / PAGE_SIZE][];
+    this.unknowns = new Object[size / PAGE_SIZE][];
+  }
+
+  /**
+   * @param <T> the type of the objects
+   * @return a new table for 8-bit values.
+   */
+  static <T extends NamedNumber<?, ?>> NamedNumberTable<T> forBytes() {
+    return new NamedNumberTable<T>(1 << 8);
+  }
+
+  /**
+   * @param <T> the type of the objects
+   * @return a new table for 16-bit values.
+   */
+  static <T extends NamedNumber<?, ?>> NamedNumberTable<T> forShorts() {
+    return new NamedNumberTable<T>(1 << 16);
+  }
+
+  /**
+   * @param value value
+   * @return the object registered or cached for the value, or null if there is neither.
+   */
+  @SuppressWarnings("unchecked")
+  T get(int value) {
+    int index = value & mask;
+    Object[] page = registered[index / PAGE_SIZE];
+    if (page != null) {
+      Object number = page[index % PAGE_SIZE];
+      if (number != null) {
+        return (T) number;
+      }
+    }
+    page = unknowns[index / PAGE_SIZE];
+    if (page != null) {
+      return (T) page[index % PAGE_SIZE];
+    }
+    return null;
+  }
+
+  /**
+   * @param value value
+   * @return true if an object is registered for the value; false otherwise.
+   */
+  boolean containsKey(int value) {
+    int index = value & mask;
+    Object[] page = registered[index / PAGE_SIZE];
+    return page != null && page[index % PAGE_SIZE] != null;
+  }
+
+  /**
+   * @param value value
+   * @param number number
+   * @return the object registered for the value before, or null if there was none.
+   */
+  @SuppressWarnings("unchecked")
+  T put(int value, T number) {
+    int index = value & mask;
+    Object[] page = registered[index / PAGE_SIZE];
+    if (page == null) {
+      page = new Object[PAGE_SIZE];
+      registered[index / PAGE_SIZE] = page;
+    }
+    T old = (T) page[index % PAGE_SIZE];
+    page[index % PAGE_SIZE] = number;
+    return old;
+  }
+
+  /**
+   * Caches an object created for an unknown value. Racing threads may cache different but equal
+   * objects for the same value, which is harmless.
+   *
+   * @param value value
+   * @param number number
+   * @return number
+   */
+  T cacheUnknown(int value, T number) {
+    int index = value & mask;
+    Object[] page = unknowns[index / PAGE_SIZE];
+    if (page == null) {
+      page = new Object[PAGE_SIZE];
+      unknowns[index / PAGE_SIZE] = page;
+    }
+    page[index % PAGE_SIZE] = number;
+    return number;
+  }
+}
@@ -7,8 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
 import org.pcap4j.util.ByteArrays;
 
 /**
@@ -522,7 +520,7 @@ public final class PppDllProtocol extends NamedNumber<Short, PppDllProtocol> {
   public static final PppDllProtocol PROPRIETARY_NODE_ID_AUTHENTICATION_PROTOCOL =
       new PppDllProtocol((short) 0xc481, "Proprietary Node ID Authentication Protocol");
 
-  private static final Map<Short, PppDllProtocol> registry = new HashMap<Short, PppDllProtocol>();
+  private static final NamedNumberTable<PppDllProtocol> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(PADDING_PROTOCOL.value(), PADDING_PROTOCOL);
@@ -712,11 +710,19 @@ public final class PppDllProtocol extends NamedNumber<Short, PppDllProtocol> {
    * @throws IllegalArgumentException if an invalid value is passed.
    */
   public static PppDllProtocol getInstance(Short value) throws IllegalArgumentException {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new PppDllProtocol(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a PppDllProtocol object.
+   */
+  public static PppDllProtocol getInstance(short value) {
+    PppDllProtocol number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new PppDllProtocol(value, "unknown"));
     }
+    return number;
   }
 
   /**
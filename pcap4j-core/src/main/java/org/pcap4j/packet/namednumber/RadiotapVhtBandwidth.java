@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Radiotap VHT field's Bandwidth
  *
@@ -100,8 +97,8 @@ public final class RadiotapVhtBandwidth extends NamedNumber<Byte, RadiotapVhtBan
   /** 20UUU: 25 */
   public static final RadiotapVhtBandwidth BW_20UUU = new RadiotapVhtBandwidth((byte) 25, "20UUU");
 
-  private static final Map<Byte, RadiotapVhtBandwidth> registry =
-      new HashMap<Byte, RadiotapVhtBandwidth>();
+  private static final NamedNumberTable<RadiotapVhtBandwidth> registry =
+      NamedNumberTable.forBytes();
 
   static {
     registry.put(BW_20.value(), BW_20);
@@ -145,11 +142,19 @@ public final class RadiotapVhtBandwidth extends NamedNumber<Byte, RadiotapVhtBan
    * @return a RadiotapVhtBandwidth object.
    */
   public static RadiotapVhtBandwidth getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new RadiotapVhtBandwidth(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a RadiotapVhtBandwidth object.
+   */
+  public static RadiotapVhtBandwidth getInstance(byte value) {
+    RadiotapVhtBandwidth number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new RadiotapVhtBandwidth(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * SCTP Chunk Type
  *
@@ -73,7 +70,7 @@ public final class SctpChunkType extends NamedNumber<Byte, SctpChunkType> {
   public static final SctpChunkType SHUTDOWN_COMPLETE =
       new SctpChunkType((byte) 14, "Shutdown Complete");
 
-  private static final Map<Byte, SctpChunkType> registry = new HashMap<Byte, SctpChunkType>();
+  private static final NamedNumberTable<SctpChunkType> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(DATA.value(), DATA);
@@ -112,11 +109,19 @@ public final class SctpChunkType extends NamedNumber<Byte, SctpChunkType> {
    * @return a SctpChunkType object.
    */
   public static SctpChunkType getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new SctpChunkType(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a SctpChunkType object.
+   */
+  public static SctpChunkType getInstance(byte value) {
+    SctpChunkType number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new SctpChunkType(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * SCTP Port
  *
@@ -45,7 +42,7 @@ public final class SctpPort extends Port {
   /** HTTPS: 443 */
   public static final SctpPort HTTPS = new SctpPort((short) 443, "HTTPS");
 
-  private static final Map<Short, SctpPort> registry = new HashMap<Short, SctpPort>();
+  private static final NamedNumberTable<SctpPort> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(DISCARD.value(), DISCARD);
@@ -70,11 +67,19 @@ public final class SctpPort extends Port {
    * @return a SctpPort object.
    */
   public static SctpPort getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new SctpPort(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a SctpPort object.
+   */
+  public static SctpPort getInstance(short value) {
+    SctpPort number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new SctpPort(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * SSH2 Message Number
  *
@@ -144,8 +141,7 @@ public final class Ssh2MessageNumber extends NamedNumber<Byte, Ssh2MessageNumber
   public static final Ssh2MessageNumber SSH_MSG_CHANNEL_FAILURE =
       new Ssh2MessageNumber((byte) 100, "SSH_MSG_CHANNEL_FAILURE");
 
-  private static final Map<Byte, Ssh2MessageNumber> registry =
-      new HashMap<Byte, Ssh2MessageNumber>();
+  private static final NamedNumberTable<Ssh2MessageNumber> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(SSH_MSG_DISCONNECT.value(), SSH_MSG_DISCONNECT);
@@ -191,11 +187,19 @@ public final class Ssh2MessageNumber extends NamedNumber<Byte, Ssh2MessageNumber
    * @return a Ssh2MessageNumber object.
    */
   public static Ssh2MessageNumber getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new Ssh2MessageNumber(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a Ssh2MessageNumber object.
+   */
+  public static Ssh2MessageNumber getInstance(byte value) {
+    Ssh2MessageNumber number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new Ssh2MessageNumber(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * TCP Option Kind
  *
@@ -131,7 +128,7 @@ public final class TcpOptionKind extends NamedNumber<Byte, TcpOptionKind> {
   public static final TcpOptionKind TCP_FAST_OPEN_COOKIE =
       new TcpOptionKind((byte) 34, "TCP Fast Open Cookie");
 
-  private static final Map<Byte, TcpOptionKind> registry = new HashMap<Byte, TcpOptionKind>();
+  private static final NamedNumberTable<TcpOptionKind> registry = NamedNumberTable.forBytes();
 
   static {
     registry.put(END_OF_OPTION_LIST.value(), END_OF_OPTION_LIST);
@@ -180,11 +177,19 @@ public final class TcpOptionKind extends NamedNumber<Byte, TcpOptionKind> {
    * @return a TcpOptionKind object.
    */
   public static TcpOptionKind getInstance(Byte value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new TcpOptionKind(value, "unknown");
+    return getInstance(value.byteValue());
+  }
+
+  /**
+   * @param value value
+   * @return a TcpOptionKind object.
+   */
+  public static TcpOptionKind getInstance(byte value) {
+    TcpOptionKind number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new TcpOptionKind(value, "unknown"));
     }
+    return number;
   }
 
   /**
@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * TCP Port
  *
@@ -2141,7 +2138,7 @@ public final class TcpPort extends Port {
   /** surf: 1010 */
   public static final TcpPort SURF = new TcpPort((short) 1010, "surf");
 
-  private static final Map<Short, TcpPort> registry = new HashMap<Short, TcpPort>();
+  private static final NamedNumberTable<TcpPort> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(TCPMUX.value(), TCPMUX);
@@ -2841,11 +2838,19 @@ public final class TcpPort extends Port {
    * @return a TcpPort object.
    */
   public static TcpPort getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new TcpPort(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a TcpPort object.
+   */
+  public static TcpPort getInstance(short value) {
+    TcpPort number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new TcpPort(value, "unknown"));
     }
+    return number;
   }
 
   /**
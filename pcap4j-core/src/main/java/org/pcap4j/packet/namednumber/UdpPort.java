@@ -7,9 +7,6 @@
 
 package org.pcap4j.packet.namednumber;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * UDP Port
  *
@@ -2148,7 +2145,7 @@ public final class UdpPort extends Port {
   /** GTP': 3386 */
   public static final UdpPort GTP_PRIME = new UdpPort((short) 3386, "GTP'");
 
-  private static final Map<Short, UdpPort> registry = new HashMap<Short, UdpPort>();
+  private static final NamedNumberTable<UdpPort> registry = NamedNumberTable.forShorts();
 
   static {
     registry.put(TCPMUX.value(), TCPMUX);
@@ -2850,11 +2847,19 @@ public final class UdpPort extends Port {
    * @return a UdpPort object.
    */
   public static UdpPort getInstance(Short value) {
-    if (registry.containsKey(value)) {
-      return registry.get(value);
-    } else {
-      return new UdpPort(value, "unknown");
+    return getInstance(value.shortValue());
+  }
+
+  /**
+   * @param value value
+   * @return a UdpPort object.
+   */
+  public static UdpPort getInstance(short value) {
+    UdpPort number = registry.get(value);
+    if (number == null) {
+      number = registry.cacheUnknown(value, new UdpPort(value, "unknown"));
     }
+    return number;
   }
 
   /**
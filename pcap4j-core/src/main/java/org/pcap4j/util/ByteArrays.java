@@ -813,19 +813,7 @@ public final class ByteArrays {
    * @return checksum
    */
   public static short calcChecksum(byte[] data) {
-    long sum = 0;
-    for (int i = 1; i < data.length; i += SHORT_SIZE_IN_BYTES) {
-      sum += 0xFFFFL & getShort(data, i - 1);
-    }
-    if (data.length % 2 != 0) {
-      sum += 0xFFFFL & (data[data.length - 1] << BYTE_SIZE_IN_BITS);
-    }
-
-    while ((sum >> (BYTE_SIZE_IN_BITS * SHORT_SIZE_IN_BYTES)) != 0) {
-      sum = (0xFFFFL & sum) + (sum >>> (BYTE_SIZE_IN_BITS * SHORT_SIZE_IN_BYTES));
-    }
-
-    return (short) ~sum;
+    return InternetChecksum.calc(data, 0, data.length);
   }
 
   /**
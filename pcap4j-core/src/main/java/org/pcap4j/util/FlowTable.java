@@ -0,0 +1,810 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.util;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A table of bidirectional flows, which is fed raw frames, e.g. by a {@link
+ * org.pcap4j.core.RawPacketListener RawPacketListener}, and counts the packets and bytes of each
+ * flow. A flow is identified by the IP version, the addresses, the protocol, the ports (for TCP,
+ * UDP, SCTP, and UDP-Lite), and the VLAN ID, and both the directions are counted in the same flow.
+ * A flow is exported to a {@link Listener} as a {@link FlowRecord} and removed when it has been
+ * idle for the idle timeout, when it has lasted for the active timeout, and when {@link #clear()}
+ * is called.
+ *
+ * <p>The 5-tuple is extracted straight from the raw data of a frame without decoding it into a
+ * {@link org.pcap4j.packet.Packet Packet}, and the flows are kept in open-addressing tables of
+ * primitive arrays, so that feeding a frame allocates nothing. Ethernet frames (with 802.1Q or
+ * 802.1ad tags), Linux cooked-mode frames, and raw IP packets are supported. Frames of the other
+ * types and frames which don't contain an IPv4 or IPv6 packet are ignored. Non-first fragments are
+ * counted in the flows without ports.
+ *
+ * <p>The timeouts are checked incrementally while frames are fed. Each frame checks the next slice
+ * of the table, which covers at least a few slots and is sized so that the whole table is checked
+ * about once a second in terms of the timestamps fed, so that the cost of the checks is spread over
+ * the frames instead of stalling one of them. {@link #expire(long)} checks the whole table at once.
+ * This class is not thread-safe, and the listener must not call the methods of this class.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class FlowTable {
+
+  private static final Logger logger = LoggerFactory.getLogger(FlowTable.class);
+
+  /** The default idle timeout in milliseconds. */
+  public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 15 * 1000L;
+
+  /** The default active timeout in milliseconds. */
+  public static final long DEFAULT_ACTIVE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+  /** The default maximum number of flows, for which the table grows up to about 50 MB. */
+  public static final int DEFAULT_MAX_FLOWS = 256 * 1024;
+
+  /** The upper bound of the maximum number of flows. */
+  public static final int MAX_FLOWS_LIMIT = 64 * 1024 * 1024;
+
+  private static final long SWEEP_INTERVAL_MILLIS = 1000L;
+  private static final int MIN_SWEEP_SLOTS = 8;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int NO_VLAN = 0xFFFF;
+
+  // The layout of a key: address A (2 longs), address B (2 longs), and
+  // port A (16 bits) | port B (16 bits) | protocol (8 bits) | IP version (8 bits) | VLAN (16 bits).
+  // The last one is never 0 since the IP version isn't, so 0 marks an empty slot.
+  private static final int KEY_SIZE = 5;
+  private static final int MISC = 4;
+
+  // The layout of values.
+  private static final int VALUE_SIZE = 7;
+  private static final int PACKETS_A_TO_B = 0;
+  private static final int BYTES_A_TO_B = 1;
+  private static final int PACKETS_B_TO_A = 2;
+  private static final int BYTES_B_TO_A = 3;
+  private static final int FIRST_TIMESTAMP = 4;
+  private static final int LAST_TIMESTAMP = 5;
+  private static final int TCP_FLAGS = 6;
+
+  private final Listener listener;
+  private final long idleTimeoutMillis;
+  private final long activeTimeoutMillis;
+  private final int maxFlows;
+  private final int maxCapacity;
+
+  private long[] keys;
+  private long[] values;
+  private int mask;
+  private int size = 0;
+  private long droppedPacketCount = 0;
+  private long lastSweepTimestamp = Long.MIN_VALUE;
+  private int sweepSlot = 0;
+
+  // The fields extracted from the current frame.
+  private long srcHigh;
+  private long srcLow;
+  private long dstHigh;
+  private long dstLow;
+  private int srcPort;
+  private int dstPort;
+  private int protocol;
+  private int ipVersion;
+  private int vlan;
+  private int ipLength;
+  private int tcpFlags;
+
+  private FlowTable(Builder builder) {
+    if (builder == null || builder.listener == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("builder: ").append(builder).append(" builder.listener: ").append(builder.listener);
+      throw new NullPointerException(sb.toString());
+    }
+
+    this.listener = builder.listener;
+    this.idleTimeoutMillis = builder.idleTimeoutMillis;
+    this.activeTimeoutMillis = builder.activeTimeoutMillis;
+    this.maxFlows = builder.maxFlows;
+
+    int capacity = INITIAL_CAPACITY;
+    while (capacity / 4 * 3 < maxFlows) {
+      capacity <<= 1;
+    }
+    this.maxCapacity = capacity;
+    allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new long[capacity * KEY_SIZE];
+    this.values = new long[capacity * VALUE_SIZE];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * @param rawData the raw data of a frame.
+   * @param dlt the data link type of the frame.
+   * @param timestamp the time the frame arrived in milliseconds, e.g. the capture timestamp.
+   * @return true if the frame has been counted in a flow; false otherwise.
+   */
+  public boolean add(byte[] rawData, DataLinkType dlt, long timestamp) {
+    return add(rawData, 0, rawData.length, dlt, timestamp);
+  }
+
+  /**
+   * @param rawData an array which contains the raw data of a frame.
+   * @param offset the offset of the frame in rawData.
+   * @param length the length of the frame.
+   * @param dlt the data link type of the frame.
+   * @param timestamp the time the frame arrived in milliseconds, e.g. the capture timestamp.
+   * @return true if the frame has been counted in a flow; false otherwise.
+   */
+  public boolean add(byte[] rawData, int offset, int length, DataLinkType dlt, long timestamp) {
+    ByteArrays.validateBounds(rawData, offset, length);
+    sweep(timestamp);
+    if (!extract(rawData, offset, offset + length, dlt)) {
+      return false;
+    }
+
+    // Put the endpoint with the smaller address and port first so that both the directions share
+    // the key.
+    boolean aToB = compare(srcHigh, srcLow, srcPort, dstHigh, dstLow, dstPort) <= 0;
+    long k0 = aToB ? srcHigh : dstHigh;
+    long k1 = aToB ? srcLow : dstLow;
+    long k2 = aToB ? dstHigh : srcHigh;
+    long k3 = aToB ? dstLow : srcLow;
+    long k4 =
+        (long) (aToB ? srcPort : dstPort) << 48
+            | (long) (aToB ? dstPort : srcPort) << 32
+            | (long) protocol << 24
+            | (long) ipVersion << 16
+            | vlan;
+
+    int slot = hash(k0, k1, k2, k3, k4) & mask;
+    while (true) {
+      int k = slot * KEY_SIZE;
+      long misc = keys[k + MISC];
+      if (misc == 0) {
+        if (size >= maxFlows) {
+          droppedPacketCount++;
+          return false;
+        }
+        if (size >= (mask + 1) / 4 * 3) {
+          grow();
+          slot = hash(k0, k1, k2, k3, k4) & mask;
+          continue;
+        }
+        keys[k] = k0;
+        keys[k + 1] = k1;
+        keys[k + 2] = k2;
+        keys[k + 3] = k3;
+        keys[k + MISC] = k4;
+        values[slot * VALUE_SIZE + FIRST_TIMESTAMP] = timestamp;
+        size++;
+        break;
+      }
+      if (misc == k4
+          && keys[k] == k0
+          && keys[k + 1] == k1
+          && keys[k + 2] == k2
+          && keys[k + 3] == k3) {
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    int v = slot * VALUE_SIZE;
+    if (aToB) {
+      values[v + PACKETS_A_TO_B]++;
+      values[v + BYTES_A_TO_B] += ipLength;
+    } else {
+      values[v + PACKETS_B_TO_A]++;
+      values[v + BYTES_B_TO_A] += ipLength;
+    }
+    values[v + LAST_TIMESTAMP] = timestamp;
+    values[v + TCP_FLAGS] |= tcpFlags;
+    return true;
+  }
+
+  /**
+   * Exports and removes the flows which have been idle for the idle timeout or have lasted for the
+   * active timeout.
+   *
+   * @param timestamp the current time in milliseconds.
+   * @return the number of the flows exported.
+   */
+  public int expire(long timestamp) {
+    int count = expireSlots(timestamp, 0, mask + 1);
+    if (count != 0) {
+      logger.debug("{} flows expired.", count);
+    }
+    return count;
+  }
+
+  /** Checks the timeouts of the next slice of the table, which wraps around to the first slot. */
+  private void sweep(long timestamp) {
+    int capacity = mask + 1;
+    int slots = MIN_SWEEP_SLOTS;
+    if (lastSweepTimestamp == Long.MIN_VALUE) {
+      lastSweepTimestamp = timestamp;
+    } else if (timestamp > lastSweepTimestamp) {
+      long elapsed = Math.min(timestamp - lastSweepTimestamp, SWEEP_INTERVAL_MILLIS);
+      // Rounded up so that a pass over the table never takes longer than the interval.
+      long share = (capacity * elapsed + SWEEP_INTERVAL_MILLIS - 1) / SWEEP_INTERVAL_MILLIS;
+      slots = (int) Math.max(slots, share);
+      lastSweepTimestamp = timestamp;
+    }
+    slots = Math.min(slots, capacity);
+
+    int end = sweepSlot + slots;
+    if (end <= capacity) {
+      expireSlots(timestamp, sweepSlot, end);
+      sweepSlot = end == capacity ? 0 : end;
+    } else {
+      expireSlots(timestamp, sweepSlot, capacity);
+      sweepSlot = end - capacity;
+      expireSlots(timestamp, 0, sweepSlot);
+    }
+  }
+
+  /** @return the number of the flows exported from the slots in [start, end). */
+  private int expireSlots(long timestamp, int start, int end) {
+    int count = 0;
+    for (int slot = start; slot < end; slot++) {
+      if (keys[slot * KEY_SIZE + MISC] == 0) {
+        continue;
+      }
+      int v = slot * VALUE_SIZE;
+      ExportReason reason;
+      if (timestamp - values[v + LAST_TIMESTAMP] >= idleTimeoutMillis) {
+        reason = ExportReason.IDLE_TIMEOUT;
+      } else if (timestamp - values[v + FIRST_TIMESTAMP] >= activeTimeoutMillis) {
+        reason = ExportReason.ACTIVE_TIMEOUT;
+      } else {
+        continue;
+      }
+      export(slot, reason);
+      remove(slot);
+      count++;
+      slot--; // Another flow may have been shifted into this slot.
+    }
+    return count;
+  }
+
+  /** Exports and removes all the flows. */
+  public void clear() {
+    for (int slot = 0; slot <= mask; slot++) {
+      if (keys[slot * KEY_SIZE + MISC] != 0) {
+        export(slot, ExportReason.CLEARED);
+      }
+    }
+    Arrays.fill(keys, 0);
+    Arrays.fill(values, 0);
+    size = 0;
+  }
+
+  /** @return the number of the flows being tracked. */
+  public int getFlowCount() {
+    return size;
+  }
+
+  /** @return the number of the packets not counted since the table was full. */
+  public long getDroppedPacketCount() {
+    return droppedPacketCount;
+  }
+
+  /** @return the idle timeout in milliseconds. */
+  public long getIdleTimeoutMillis() {
+    return idleTimeoutMillis;
+  }
+
+  /** @return the active timeout in milliseconds. */
+  public long getActiveTimeoutMillis() {
+    return activeTimeoutMillis;
+  }
+
+  /** @return the maximum number of flows. */
+  public int getMaxFlows() {
+    return maxFlows;
+  }
+
+  /**
+   * Extracts the fields of the flow from a frame into the fields of this object.
+   *
+   * @return true if the frame contains an IPv4 or IPv6 packet; false otherwise.
+   */
+  private boolean extract(byte[] data, int offset, int end, DataLinkType dlt) {
+    int type;
+    int pos;
+    vlan = NO_VLAN;
+    if (dlt.equals(DataLinkType.EN10MB)) {
+      if (offset + 14 > end) {
+        return false;
+      }
+      type = getShort(data, offset + 12);
+      pos = offset + 14;
+      while (type == 0x8100 || type == 0x88A8 || type == 0x9100) {
+        if (pos + 4 > end) {
+          return false;
+        }
+        if (vlan == NO_VLAN) {
+          vlan = getShort(data, pos) & 0x0FFF; // The outermost one.
+        }
+        type = getShort(data, pos + 2);
+        pos += 4;
+      }
+    } else if (dlt.equals(DataLinkType.LINUX_SLL)) {
+      if (offset + 16 > end) {
+        return false;
+      }
+      type = getShort(data, offset + 14);
+      pos = offset + 16;
+    } else if (dlt.equals(DataLinkType.RAW)) {
+      if (offset >= end) {
+        return false;
+      }
+      type = (data[offset] & 0xF0) == 0x60 ? 0x86DD : 0x0800;
+      pos = offset;
+    } else {
+      return false;
+    }
+
+    int l4;
+    boolean portsAvailable;
+    if (type == 0x0800) {
+      if (pos + 20 > end || (data[pos] & 0xF0) != 0x40) {
+        return false;
+      }
+      int headerLength = (data[pos] & 0x0F) * 4;
+      if (headerLength < 20) {
+        return false;
+      }
+      ipVersion = 4;
+      ipLength = getShort(data, pos + 2);
+      protocol = data[pos + 9] & 0xFF;
+      srcHigh = 0;
+      srcLow = getInt(data, pos + 12) & 0xFFFFFFFFL;
+      dstHigh = 0;
+      dstLow = getInt(data, pos + 16) & 0xFFFFFFFFL;
+      portsAvailable = (getShort(data, pos + 6) & 0x1FFF) == 0;
+      l4 = pos + headerLength;
+    } else if (type == 0x86DD) {
+      if (pos + 40 > end || (data[pos] & 0xF0) != 0x60) {
+        return false;
+      }
+      ipVersion = 6;
+      ipLength = getShort(data, pos + 4) + 40;
+      protocol = data[pos + 6] & 0xFF;
+      srcHigh = getLong(data, pos + 8);
+      srcLow = getLong(data, pos + 16);
+      dstHigh = getLong(data, pos + 24);
+      dstLow = getLong(data, pos + 32);
+      portsAvailable = true;
+      l4 = pos + 40;
+      // Skip the extension headers.
+      while (portsAvailable && isIpV6ExtensionHeader(protocol)) {
+        if (l4 + 8 > end) {
+          portsAvailable = false;
+          break;
+        }
+        int next = data[l4] & 0xFF;
+        if (protocol == 44) { // Fragment
+          portsAvailable = (getShort(data, l4 + 2) & 0xFFF8) == 0;
+          l4 += 8;
+        } else if (protocol == 51) { // Authentication Header
+          l4 += ((data[l4 + 1] & 0xFF) + 2) * 4;
+        } else {
+          l4 += ((data[l4 + 1] & 0xFF) + 1) * 8;
+        }
+        protocol = next;
+      }
+    } else {
+      return false;
+    }
+    if (ipLength == 0) {
+      ipLength = end - pos; // Segmentation offload.
+    }
+
+    srcPort = 0;
+    dstPort = 0;
+    tcpFlags = 0;
+    if (portsAvailable && hasPorts(protocol) && l4 + 4 <= end) {
+      srcPort = getShort(data, l4);
+      dstPort = getShort(data, l4 + 2);
+      if (protocol == 6 && l4 + 14 <= end) {
+        tcpFlags = data[l4 + 13] & 0xFF;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isIpV6ExtensionHeader(int protocol) {
+    // Hop-by-Hop Options, Routing, Fragment, Authentication Header, and Destination Options.
+    return protocol == 0 || protocol == 43 || protocol == 44 || protocol == 51 || protocol == 60;
+  }
+
+  private static boolean hasPorts(int protocol) {
+    // TCP, UDP, SCTP, and UDP-Lite.
+    return protocol == 6 || protocol == 17 || protocol == 132 || protocol == 136;
+  }
+
+  private static int getShort(byte[] data, int offset) {
+    return (data[offset] & 0xFF) << 8 | (data[offset + 1] & 0xFF);
+  }
+
+  private static int getInt(byte[] data, int offset) {
+    return getShort(data, offset) << 16 | getShort(data, offset + 2);
+  }
+
+  private static long getLong(byte[] data, int offset) {
+    return (long) getInt(data, offset) << 32 | (getInt(data, offset + 4) & 0xFFFFFFFFL);
+  }
+
+  private static int compare(long high1, long low1, int port1, long high2, long low2, int port2) {
+    if (high1 != high2) {
+      return high1 + Long.MIN_VALUE < high2 + Long.MIN_VALUE ? -1 : 1;
+    }
+    if (low1 != low2) {
+      return low1 + Long.MIN_VALUE < low2 + Long.MIN_VALUE ? -1 : 1;
+    }
+    return port1 - port2;
+  }
+
+  private static int hash(long k0, long k1, long k2, long k3, long k4) {
+    long h = k0;
+    h = h * 0x9E3779B97F4A7C15L + k1;
+    h = h * 0x9E3779B97F4A7C15L + k2;
+    h = h * 0x9E3779B97F4A7C15L + k3;
+    h = h * 0x9E3779B97F4A7C15L + k4;
+    // The finalizer of MurmurHash3.
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private int hashAt(int slot) {
+    int k = slot * KEY_SIZE;
+    return hash(keys[k], keys[k + 1], keys[k + 2], keys[k + 3], keys[k + MISC]);
+  }
+
+  private void grow() {
+    if (mask + 1 >= maxCapacity) {
+      return;
+    }
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate((mask + 1) * 2);
+    for (int oldSlot = 0; oldSlot < oldKeys.length / KEY_SIZE; oldSlot++) {
+      int k = oldSlot * KEY_SIZE;
+      if (oldKeys[k + MISC] == 0) {
+        continue;
+      }
+      int slot =
+          hash(oldKeys[k], oldKeys[k + 1], oldKeys[k + 2], oldKeys[k + 3], oldKeys[k + MISC])
+              & mask;
+      while (keys[slot * KEY_SIZE + MISC] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      System.arraycopy(oldKeys, k, keys, slot * KEY_SIZE, KEY_SIZE);
+      System.arraycopy(oldValues, oldSlot * VALUE_SIZE, values, slot * VALUE_SIZE, VALUE_SIZE);
+    }
+    logger.debug("Grew the flow table to {} slots.", mask + 1);
+  }
+
+  /** Removes the flow of the slot by shifting the following flows back, leaving no tombstones. */
+  private void remove(int slot) {
+    int hole = slot;
+    int next = slot;
+    while (true) {
+      next = (next + 1) & mask;
+      if (keys[next * KEY_SIZE + MISC] == 0) {
+        break;
+      }
+      // The flow can fill the hole if its home slot isn't cyclically in (hole, next].
+      int home = hashAt(next) & mask;
+      boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+      if (!stays) {
+        System.arraycopy(keys, next * KEY_SIZE, keys, hole * KEY_SIZE, KEY_SIZE);
+        System.arraycopy(values, next * VALUE_SIZE, values, hole * VALUE_SIZE, VALUE_SIZE);
+        hole = next;
+      }
+    }
+    Arrays.fill(keys, hole * KEY_SIZE, (hole + 1) * KEY_SIZE, 0);
+    Arrays.fill(values, hole * VALUE_SIZE, (hole + 1) * VALUE_SIZE, 0);
+    size--;
+  }
+
+  private void export(int slot, ExportReason reason) {
+    int k = slot * KEY_SIZE;
+    int v = slot * VALUE_SIZE;
+    long misc = keys[k + MISC];
+    int version = (int) (misc >>> 16) & 0xFF;
+    int vlanId = (int) misc & 0xFFFF;
+    listener.gotFlowRecord(
+        new FlowRecord(
+            toAddress(version, keys[k], keys[k + 1]),
+            (int) (misc >>> 48) & 0xFFFF,
+            toAddress(version, keys[k + 2], keys[k + 3]),
+            (int) (misc >>> 32) & 0xFFFF,
+            IpNumber.getInstance((byte) (misc >>> 24)),
+            vlanId == NO_VLAN ? -1 : vlanId,
+            values[v + PACKETS_A_TO_B],
+            values[v + BYTES_A_TO_B],
+            values[v + PACKETS_B_TO_A],
+            values[v + BYTES_B_TO_A],
+            values[v + FIRST_TIMESTAMP],
+            values[v + LAST_TIMESTAMP],
+            (int) values[v + TCP_FLAGS],
+            reason));
+  }
+
+  private static InetAddress toAddress(int version, long high, long low) {
+    if (version == 4) {
+      return ByteArrays.getInet4Address(ByteArrays.toByteArray((int) low), 0);
+    }
+    byte[] address = new byte[16];
+    System.arraycopy(ByteArrays.toByteArray(high), 0, address, 0, 8);
+    System.arraycopy(ByteArrays.toByteArray(low), 0, address, 8, 8);
+    return ByteArrays.getInet6Address(address, 0);
+  }
+
+  /**
+   * The listener of the flows exported from a {@link FlowTable}.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public interface Listener {
+
+    /** @param record the record of a flow exported. */
+    public void gotFlowRecord(FlowRecord record);
+  }
+
+  /**
+   * The reason why a flow is exported.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static enum ExportReason {
+
+    /** The flow has been idle for the idle timeout. */
+    IDLE_TIMEOUT,
+
+    /** The flow has lasted for the active timeout. Its later packets are counted in a new flow. */
+    ACTIVE_TIMEOUT,
+
+    /** {@link FlowTable#clear()} has been called. */
+    CLEARED,
+  }
+
+  /**
+   * A record of a flow. The endpoint A is the one with the smaller address (or port if the
+   * addresses are the same), and the endpoint B is the other one.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class FlowRecord {
+
+    private final InetAddress addrA;
+    private final int portA;
+    private final InetAddress addrB;
+    private final int portB;
+    private final IpNumber protocol;
+    private final int vlanId;
+    private final long packetsAToB;
+    private final long bytesAToB;
+    private final long packetsBToA;
+    private final long bytesBToA;
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final int tcpFlags;
+    private final ExportReason reason;
+
+    private FlowRecord(
+        InetAddress addrA,
+        int portA,
+        InetAddress addrB,
+        int portB,
+        IpNumber protocol,
+        int vlanId,
+        long packetsAToB,
+        long bytesAToB,
+        long packetsBToA,
+        long bytesBToA,
+        long firstTimestamp,
+        long lastTimestamp,
+        int tcpFlags,
+        ExportReason reason) {
+      this.addrA = addrA;
+      this.portA = portA;
+      this.addrB = addrB;
+      this.portB = portB;
+      this.protocol = protocol;
+      this.vlanId = vlanId;
+      this.packetsAToB = packetsAToB;
+      this.bytesAToB = bytesAToB;
+      this.packetsBToA = packetsBToA;
+      this.bytesBToA = bytesBToA;
+      this.firstTimestamp = firstTimestamp;
+      this.lastTimestamp = lastTimestamp;
+      this.tcpFlags = tcpFlags;
+      this.reason = reason;
+    }
+
+    /** @return the address of the endpoint A. */
+    public InetAddress getAddrA() {
+      return addrA;
+    }
+
+    /** @return the port of the endpoint A, or 0 if the protocol doesn't have ports. */
+    public int getPortA() {
+      return portA;
+    }
+
+    /** @return the address of the endpoint B. */
+    public InetAddress getAddrB() {
+      return addrB;
+    }
+
+    /** @return the port of the endpoint B, or 0 if the protocol doesn't have ports. */
+    public int getPortB() {
+      return portB;
+    }
+
+    /** @return the protocol of the upper layer of IP. */
+    public IpNumber getProtocol() {
+      return protocol;
+    }
+
+    /** @return the ID of the outermost VLAN tag, or -1 if the frames are untagged. */
+    public int getVlanId() {
+      return vlanId;
+    }
+
+    /** @return the number of the packets from the endpoint A to the endpoint B. */
+    public long getPacketsAToB() {
+      return packetsAToB;
+    }
+
+    /** @return the total length of the IP packets from the endpoint A to the endpoint B. */
+    public long getBytesAToB() {
+      return bytesAToB;
+    }
+
+    /** @return the number of the packets from the endpoint B to the endpoint A. */
+    public long getPacketsBToA() {
+      return packetsBToA;
+    }
+
+    /** @return the total length of the IP packets from the endpoint B to the endpoint A. */
+    public long getBytesBToA() {
+      return bytesBToA;
+    }
+
+    /** @return the timestamp of the first packet in milliseconds. */
+    public long getFirstTimestamp() {
+      return firstTimestamp;
+    }
+
+    /** @return the timestamp of the last packet in milliseconds. */
+    public long getLastTimestamp() {
+      return lastTimestamp;
+    }
+
+    /** @return the bitwise OR of the TCP flags (the 14th byte of the headers), or 0 if not TCP. */
+    public int getTcpFlags() {
+      return tcpFlags;
+    }
+
+    /** @return the reason why this flow has been exported. */
+    public ExportReason getReason() {
+      return reason;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder(200);
+      sb.append("[")
+          .append(protocol)
+          .append(" ")
+          .append(addrA)
+          .append(":")
+          .append(portA)
+          .append(" <-> ")
+          .append(addrB)
+          .append(":")
+          .append(portB)
+          .append(", VLAN: ")
+          .append(vlanId)
+          .append(", A->B: ")
+          .append(packetsAToB)
+          .append(" packets ")
+          .append(bytesAToB)
+          .append(" bytes, B->A: ")
+          .append(packetsBToA)
+          .append(" packets ")
+          .append(bytesBToA)
+          .append(" bytes, reason: ")
+          .append(reason)
+          .append("]");
+      return sb.toString();
+    }
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private Listener listener;
+    private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private long activeTimeoutMillis = DEFAULT_ACTIVE_TIMEOUT_MILLIS;
+    private int maxFlows = DEFAULT_MAX_FLOWS;
+
+    /**
+     * @param listener listener
+     * @return this Builder object for method chaining.
+     */
+    public Builder listener(Listener listener) {
+      this.listener = listener;
+      return this;
+    }
+
+    /**
+     * @param idleTimeoutMillis the time in milliseconds a flow is exported after its last packet.
+     *     If this method isn't called, {@link #DEFAULT_IDLE_TIMEOUT_MILLIS} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+      if (idleTimeoutMillis <= 0) {
+        throw new IllegalArgumentException("idleTimeoutMillis: " + idleTimeoutMillis);
+      }
+      this.idleTimeoutMillis = idleTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * @param activeTimeoutMillis the time in milliseconds a flow is exported after its first
+     *     packet. If this method isn't called, {@link #DEFAULT_ACTIVE_TIMEOUT_MILLIS} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder activeTimeoutMillis(long activeTimeoutMillis) {
+      if (activeTimeoutMillis <= 0) {
+        throw new IllegalArgumentException("activeTimeoutMillis: " + activeTimeoutMillis);
+      }
+      this.activeTimeoutMillis = activeTimeoutMillis;
+      return this;
+    }
+
+    /**
+     * @param maxFlows the maximum number of flows, up to {@link #MAX_FLOWS_LIMIT}. The packets of
+     *     new flows aren't counted when it's reached. The table grows up to the size for it as
+     *     needed. If this method isn't called, {@link #DEFAULT_MAX_FLOWS} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxFlows(int maxFlows) {
+      if (maxFlows <= 0 || maxFlows > MAX_FLOWS_LIMIT) {
+        throw new IllegalArgumentException("maxFlows: " + maxFlows);
+      }
+      this.maxFlows = maxFlows;
+      return this;
+    }
+
+    /** @return a new FlowTable object. */
+    public FlowTable build() {
+      return new FlowTable(this);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.util;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.pcap4j.packet.namednumber.IpNumber;
+
+/**
+ * Utilities to calculate the Internet checksum (RFC 1071) over parts of arrays and buffers without
+ * copying them.
+ *
+ * <p>A checksum is calculated in two steps. First, the sums of the data to be covered (e.g. a
+ * pseudo header, a header, and a payload) are calculated by {@link #sum(byte[], int, int)}, {@link
+ * #sum(ByteBuffer)}, and {@link #pseudoHeaderSum(InetAddress, InetAddress, IpNumber, int)}, and
+ * added up. Then, the total is folded into a checksum by {@link #fold(long)}. Each part other than
+ * the last one must have an even length, since the parts are summed in 16-bit words.
+ *
+ * <p>A checksum can also be updated for a modified field without recalculating it over the whole
+ * data by {@link #update(short, short, short)} and {@link #update(short, int, int)}.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc1071">RFC 1071</a>
+ * @see <a href="https://tools.ietf.org/html/rfc1624">RFC 1624</a>
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class InternetChecksum {
+
+  private InternetChecksum() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Sums the data in 32-bit words, 8 bytes at a time. The sum folded into 16 bits is equal to the
+   * ones' complement sum of the data in 16-bit words. If the length is odd, the data is padded with
+   * a zero.
+   *
+   * @param data data
+   * @param offset offset
+   * @param length length
+   * @return the unfolded sum, which can be added to other sums.
+   */
+  public static long sum(byte[] data, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > data.length - length) {
+      StringBuilder sb = new StringBuilder(100);
+      sb.append("data.length: ")
+          .append(data.length)
+          .append(", offset: ")
+          .append(offset)
+          .append(", length: ")
+          .append(length);
+      throw new ArrayIndexOutOfBoundsException(sb.toString());
+    }
+
+    return sum(ByteBuffer.wrap(data), offset, offset + length);
+  }
+
+  /**
+   * Sums the remaining data of the buffer in the same way as {@link #sum(byte[], int, int)}. The
+   * position, limit, and byte order of the buffer are not changed.
+   *
+   * @param buffer buffer
+   * @return the unfolded sum, which can be added to other sums.
+   */
+  public static long sum(ByteBuffer buffer) {
+    ByteBuffer buf = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    return sum(buf, buf.position(), buf.limit());
+  }
+
+  private static long sum(ByteBuffer buf, int start, int end) {
+    // ByteBuffer.getLong reads 8 bytes at once, which is much faster than assembling them.
+    long sum = 0;
+    int i = start;
+    for (; i + 8 <= end; i += 8) {
+      long value = buf.getLong(i);
+      sum += (value >>> 32) + (value & 0xFFFFFFFFL);
+    }
+    for (; i + 2 <= end; i += 2) {
+      sum += buf.getShort(i) & 0xFFFF;
+    }
+    if (i < end) {
+      sum += (buf.get(i) & 0xFF) << 8;
+    }
+    return sum;
+  }
+
+  /**
+   * Sums the pseudo header of TCP, UDP, or ICMPv6 arithmetically.
+   *
+   * @param srcAddr the source address. An {@link java.net.Inet4Address Inet4Address} or {@link
+   *     java.net.Inet6Address Inet6Address} object.
+   * @param dstAddr the destination address, of the same class as the srcAddr.
+   * @param protocol the protocol of the upper layer.
+   * @param upperLayerLength the length of the upper layer packet.
+   * @return the unfolded sum, which can be added to other sums.
+   */
+  public static long pseudoHeaderSum(
+      InetAddress srcAddr, InetAddress dstAddr, IpNumber protocol, int upperLayerLength) {
+    byte[] src = srcAddr.getAddress();
+    byte[] dst = dstAddr.getAddress();
+    return sum(src, 0, src.length)
+        + sum(dst, 0, dst.length)
+        + (protocol.value() & 0xFF)
+        + (upperLayerLength & 0xFFFFFFFFL);
+  }
+
+  /**
+   * @param sum a sum or a total of sums returned by the other methods of this class.
+   * @return the checksum, which is the ones' complement of the sum folded into 16 bits. When the
+   *     sum covers a valid checksum field, this is 0.
+   */
+  public static short fold(long sum) {
+    while ((sum >>> 16) != 0) {
+      sum = (sum & 0xFFFFL) + (sum >>> 16);
+    }
+    return (short) ~sum;
+  }
+
+  /**
+   * @param data data
+   * @param offset offset
+   * @param length length
+   * @return the Internet checksum of the part of the data.
+   */
+  public static short calc(byte[] data, int offset, int length) {
+    return fold(sum(data, offset, length));
+  }
+
+  /**
+   * Updates a checksum for a 16-bit field (e.g. a port, or TTL and protocol) modified, using the
+   * equation 3 in RFC 1624.
+   *
+   * @param checksum the checksum before the modification.
+   * @param oldValue the value of the field before the modification.
+   * @param newValue the value of the field after the modification.
+   * @return the checksum after the modification.
+   */
+  public static short update(short checksum, short oldValue, short newValue) {
+    return fold((~checksum & 0xFFFFL) + (~oldValue & 0xFFFF) + (newValue & 0xFFFF));
+  }
+
+  /**
+   * Updates a checksum for a 32-bit field (e.g. an IPv4 address or a sequence number) modified,
+   * using the equation 3 in RFC 1624. The field must be aligned to 16 bits in the data.
+   *
+   * @param checksum the checksum before the modification.
+   * @param oldValue the value of the field before the modification.
+   * @param newValue the value of the field after the modification.
+   * @return the checksum after the modification.
+   */
+  public static short update(short checksum, int oldValue, int newValue) {
+    return fold(
+        (~checksum & 0xFFFFL)
+            + (~oldValue >>> 16)
+            + (~oldValue & 0xFFFF)
+            + (newValue >>> 16)
+            + (newValue & 0xFFFF));
+  }
+}
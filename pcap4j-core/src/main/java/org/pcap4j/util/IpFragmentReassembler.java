@@ -0,0 +1,596 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.util;
+
+import java.net.InetAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.pcap4j.packet.AbstractPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.IpV4Packet.IpV4Header;
+import org.pcap4j.packet.IpV6ExtFragmentPacket;
+import org.pcap4j.packet.IpV6ExtFragmentPacket.IpV6ExtFragmentHeader;
+import org.pcap4j.packet.IpV6Packet;
+import org.pcap4j.packet.Packet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A stateful reassembler of IPv4 and IPv6 fragments, which is fed fragments one by one, e.g. from a
+ * live capture, and returns a datagram when all the fragments of it have been fed.
+ *
+ * <p>Fragments are grouped by their source address, destination address, protocol (IPv4 only), and
+ * identification. The data of each datagram is copied into a buffer as its fragments arrive, and
+ * the missing parts are tracked by hole descriptors (RFC 815). A datagram whose fragments don't all
+ * arrive within the timeout is discarded, and the oldest datagrams are discarded when the total
+ * size of the buffers exceeds the limit. How overlapping fragments are treated is configured by
+ * {@link OverlapPolicy}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc815">RFC 815</a>
+ * @see <a href="https://tools.ietf.org/html/rfc5722">RFC 5722</a>
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class IpFragmentReassembler {
+
+  private static final Logger logger = LoggerFactory.getLogger(IpFragmentReassembler.class);
+
+  /** The default timeout in milliseconds. */
+  public static final long DEFAULT_TIMEOUT_MILLIS = 30 * 1000L;
+
+  /** The default limit of the total size of the buffers in bytes. */
+  public static final long DEFAULT_MAX_BUFFERED_BYTES = 4 * 1024 * 1024L;
+
+  private static final int MAX_DATAGRAM_SIZE = 65535;
+  private static final int IPV4_MIN_HEADER_SIZE = 20;
+  private static final int IPV4_FLAGS_OFFSET = 6;
+  private static final int IPV4_TOTAL_LENGTH_OFFSET = 2;
+  private static final int IPV4_HEADER_CHECKSUM_OFFSET = 10;
+  private static final int IPV6_PAYLOAD_LENGTH_OFFSET = 4;
+  private static final int IPV6_NEXT_HEADER_OFFSET = 6;
+  private static final int IPV6_HEADER_SIZE = 40;
+
+  private final long timeoutMillis;
+  private final long maxBufferedBytes;
+  private final OverlapPolicy overlapPolicy;
+
+  // In the order of the arrival of the first fragments, which is also the order of expiry.
+  private final Map<Key, Datagram> datagrams = new LinkedHashMap<Key, Datagram>();
+  private long bufferedBytes = 0;
+
+  private IpFragmentReassembler(Builder builder) {
+    this.timeoutMillis = builder.timeoutMillis;
+    this.maxBufferedBytes = builder.maxBufferedBytes;
+    this.overlapPolicy = builder.overlapPolicy;
+  }
+
+  /**
+   * @param packet packet
+   * @param timestamp the time the packet arrived in milliseconds, e.g. the capture timestamp.
+   * @return the packet itself if it's not a fragment, a reassembled packet if the packet completes
+   *     a datagram, or null otherwise.
+   */
+  public IpV4Packet add(IpV4Packet packet, long timestamp) {
+    IpV4Header header = packet.getHeader();
+    if (!header.getMoreFragmentFlag() && header.getFragmentOffset() == 0) {
+      return packet;
+    }
+
+    expire(timestamp);
+    Key key =
+        new Key(
+            header.getSrcAddr(),
+            header.getDstAddr(),
+            header.getProtocol().value() & 0xFF,
+            header.getIdentification() & 0xFFFF);
+    // The header of the datagram is the one of the first fragment, whose length may differ from the
+    // others', so the length of the datagram is checked against it after the reassembly.
+    Datagram datagram =
+        add(
+            key,
+            timestamp,
+            packet.getPayload(),
+            header.getFragmentOffset() * 8,
+            header.getMoreFragmentFlag(),
+            MAX_DATAGRAM_SIZE - IPV4_MIN_HEADER_SIZE);
+    if (datagram == null) {
+      return null;
+    }
+
+    if (takesHeader(datagram, header.getFragmentOffset())) {
+      int fragmentHeaderLength = header.length();
+      bufferedBytes -= datagram.setHeader(new byte[fragmentHeaderLength]);
+      copy(packet, 0, datagram.header, 0, fragmentHeaderLength);
+      bufferedBytes += fragmentHeaderLength;
+    }
+    if (!datagram.isComplete()) {
+      evict();
+      return null;
+    }
+
+    remove(key);
+    int headerLength = datagram.header.length;
+    if (headerLength + datagram.totalLength > MAX_DATAGRAM_SIZE) {
+      logger.debug("Too large reassembled packet: {}", key);
+      return null;
+    }
+    byte[] rawData = new byte[headerLength + datagram.totalLength];
+    System.arraycopy(datagram.header, 0, rawData, 0, headerLength);
+    System.arraycopy(datagram.data, 0, rawData, headerLength, datagram.totalLength);
+    rawData[IPV4_FLAGS_OFFSET] &= (byte) 0xC0; // Clear the MF flag and the fragment offset.
+    rawData[IPV4_FLAGS_OFFSET + 1] = 0;
+    put(rawData, IPV4_TOTAL_LENGTH_OFFSET, rawData.length);
+    put(rawData, IPV4_HEADER_CHECKSUM_OFFSET, 0);
+    put(rawData, IPV4_HEADER_CHECKSUM_OFFSET, InternetChecksum.calc(rawData, 0, headerLength));
+    try {
+      return IpV4Packet.newPacket(rawData, 0, rawData.length);
+    } catch (IllegalRawDataException e) {
+      logger.debug("Failed to build a reassembled packet: {}", key, e);
+      return null;
+    }
+  }
+
+  /**
+   * @param packet packet
+   * @param timestamp the time the packet arrived in milliseconds, e.g. the capture timestamp.
+   * @return the packet itself if it doesn't contain a fragment header or it's an atomic fragment, a
+   *     reassembled packet if the packet completes a datagram, or null otherwise.
+   */
+  public IpV6Packet add(IpV6Packet packet, long timestamp) {
+    IpV6ExtFragmentPacket fragment = packet.get(IpV6ExtFragmentPacket.class);
+    if (fragment == null) {
+      return packet;
+    }
+    IpV6ExtFragmentHeader fragmentHeader = fragment.getHeader();
+    if (!fragmentHeader.getM() && fragmentHeader.getFragmentOffset() == 0) {
+      return packet;
+    }
+
+    expire(timestamp);
+    Key key =
+        new Key(
+            packet.getHeader().getSrcAddr(),
+            packet.getHeader().getDstAddr(),
+            0,
+            fragmentHeader.getIdentification());
+    Datagram datagram =
+        add(
+            key,
+            timestamp,
+            fragment.getPayload(),
+            fragmentHeader.getFragmentOffset() * 8,
+            fragmentHeader.getM(),
+            MAX_DATAGRAM_SIZE);
+    if (datagram == null) {
+      return null;
+    }
+
+    if (takesHeader(datagram, fragmentHeader.getFragmentOffset())) {
+      // The unfragmentable part, which is the IPv6 header and the extension headers preceding the
+      // fragment header.
+      int unfragmentableLength = packet.length() - fragment.length();
+      Packet preceding = packet;
+      while (preceding.getPayload() != fragment) {
+        preceding = preceding.getPayload();
+      }
+      bufferedBytes -= datagram.setHeader(new byte[unfragmentableLength]);
+      copy(packet, 0, datagram.header, 0, unfragmentableLength);
+      datagram.nextHeaderOffset =
+          preceding == packet ? IPV6_NEXT_HEADER_OFFSET : packet.length() - preceding.length();
+      datagram.nextHeader = fragmentHeader.getNextHeader().value();
+      bufferedBytes += unfragmentableLength;
+    }
+    if (!datagram.isComplete()) {
+      evict();
+      return null;
+    }
+
+    remove(key);
+    int headerLength = datagram.header.length;
+    int payloadLength = headerLength - IPV6_HEADER_SIZE + datagram.totalLength;
+    if (payloadLength > MAX_DATAGRAM_SIZE) {
+      logger.debug("Too large reassembled packet: {}", key);
+      return null;
+    }
+    byte[] rawData = new byte[headerLength + datagram.totalLength];
+    System.arraycopy(datagram.header, 0, rawData, 0, headerLength);
+    System.arraycopy(datagram.data, 0, rawData, headerLength, datagram.totalLength);
+    rawData[datagram.nextHeaderOffset] = datagram.nextHeader;
+    put(rawData, IPV6_PAYLOAD_LENGTH_OFFSET, payloadLength);
+    try {
+      return IpV6Packet.newPacket(rawData, 0, rawData.length);
+    } catch (IllegalRawDataException e) {
+      logger.debug("Failed to build a reassembled packet: {}", key, e);
+      return null;
+    }
+  }
+
+  /**
+   * Discards the datagrams which have timed out.
+   *
+   * @param timestamp the current time in milliseconds.
+   * @return the number of the datagrams discarded.
+   */
+  public int expire(long timestamp) {
+    int count = 0;
+    Iterator<Datagram> iter = datagrams.values().iterator();
+    while (iter.hasNext()) {
+      Datagram datagram = iter.next();
+      if (timestamp - datagram.firstTimestamp < timeoutMillis) {
+        break;
+      }
+      iter.remove();
+      bufferedBytes -= datagram.size();
+      count++;
+    }
+    if (count != 0) {
+      logger.debug("{} datagrams timed out.", count);
+    }
+    return count;
+  }
+
+  /** Discards all the datagrams being reassembled. */
+  public void clear() {
+    datagrams.clear();
+    bufferedBytes = 0;
+  }
+
+  /** @return the number of the datagrams being reassembled. */
+  public int getDatagramCount() {
+    return datagrams.size();
+  }
+
+  /** @return the total size of the buffers of the datagrams being reassembled in bytes. */
+  public long getBufferedBytes() {
+    return bufferedBytes;
+  }
+
+  /** @return the timeout in milliseconds. */
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  /** @return the limit of the total size of the buffers in bytes. */
+  public long getMaxBufferedBytes() {
+    return maxBufferedBytes;
+  }
+
+  /** @return the overlap policy. */
+  public OverlapPolicy getOverlapPolicy() {
+    return overlapPolicy;
+  }
+
+  /**
+   * Adds the data of a fragment to the datagram of the key.
+   *
+   * @return the datagram if the data has been added, or null if the fragment or the datagram has
+   *     been discarded.
+   */
+  private Datagram add(
+      Key key, long timestamp, Packet data, int offset, boolean more, int maxLength) {
+    int length = data != null ? data.length() : 0;
+    int end = offset + length;
+    if (more && length % 8 != 0) {
+      logger.debug("Discarded a fragment whose length is not a multiple of 8: {}", key);
+      return null;
+    }
+
+    Datagram datagram = datagrams.get(key);
+    if (datagram == null) {
+      datagram = new Datagram(timestamp);
+      datagrams.put(key, datagram);
+    }
+
+    if (end > maxLength
+        || (!more && datagram.totalLength >= 0 && datagram.totalLength != end)
+        || (!more && datagram.receivedEnd > end)
+        || (more && datagram.totalLength >= 0 && end > datagram.totalLength)) {
+      logger.debug("Discarded a datagram due to an inconsistent fragment: {}", key);
+      remove(key);
+      return null;
+    }
+
+    int received = length - datagram.countHoleBytes(offset, end);
+    if (received != 0) {
+      if (overlapPolicy == OverlapPolicy.DROP) {
+        logger.debug("Discarded a datagram due to overlapping fragments: {}", key);
+        remove(key);
+        return null;
+      }
+    }
+
+    if (end > datagram.data.length) {
+      int capacity = Math.max(end, Math.min(datagram.data.length * 2, maxLength));
+      bufferedBytes += capacity - datagram.data.length;
+      datagram.data = Arrays.copyOf(datagram.data, capacity);
+    }
+
+    if (received == 0 || overlapPolicy == OverlapPolicy.LAST) {
+      if (length != 0) {
+        copy(data, 0, datagram.data, offset, length);
+      }
+    } else {
+      // OverlapPolicy.FIRST: fill only the holes.
+      for (Hole hole : datagram.holes) {
+        int from = Math.max(hole.first, offset);
+        int to = (int) Math.min(hole.last + 1L, end);
+        if (from < to) {
+          copy(data, from - offset, datagram.data, from, to - from);
+        }
+      }
+    }
+
+    datagram.fill(offset, end, more);
+    return datagram;
+  }
+
+  /**
+   * The headers of a datagram are taken from its first fragment, whose offset is 0. Like the data,
+   * the headers of a duplicate first fragment win only if the overlap policy is {@link
+   * OverlapPolicy#LAST}.
+   */
+  private boolean takesHeader(Datagram datagram, int fragmentOffset) {
+    return fragmentOffset == 0 && (datagram.header == null || overlapPolicy == OverlapPolicy.LAST);
+  }
+
+  private void remove(Key key) {
+    Datagram datagram = datagrams.remove(key);
+    if (datagram != null) {
+      bufferedBytes -= datagram.size();
+    }
+  }
+
+  private void evict() {
+    Iterator<Datagram> iter = datagrams.values().iterator();
+    while (bufferedBytes > maxBufferedBytes && iter.hasNext()) {
+      Datagram datagram = iter.next();
+      iter.remove();
+      bufferedBytes -= datagram.size();
+      logger.debug("Discarded a datagram due to the buffer limit.");
+    }
+  }
+
+  private static void copy(Packet src, int srcPos, byte[] dest, int destPos, int length) {
+    if (src instanceof AbstractPacket) {
+      ByteBuffer view = ((AbstractPacket) src).rawDataView();
+      ((Buffer) view).position(srcPos);
+      view.get(dest, destPos, length);
+    } else {
+      System.arraycopy(src.getRawData(), srcPos, dest, destPos, length);
+    }
+  }
+
+  private static void put(byte[] array, int offset, int value) {
+    array[offset] = (byte) (value >> 8);
+    array[offset + 1] = (byte) value;
+  }
+
+  /**
+   * How the data of a fragment overlapping the data of fragments received before is treated.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static enum OverlapPolicy {
+
+    /** The data received first is kept. */
+    FIRST,
+
+    /** The data received last overwrites the data received before. */
+    LAST,
+
+    /** The whole datagram is discarded, as RFC 5722 requires for IPv6. */
+    DROP,
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private long maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+    private OverlapPolicy overlapPolicy = OverlapPolicy.FIRST;
+
+    /**
+     * @param timeoutMillis the time in milliseconds a datagram is discarded after its first
+     *     fragment arrives if it's not completed. If this method isn't called, {@link
+     *     #DEFAULT_TIMEOUT_MILLIS} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder timeoutMillis(long timeoutMillis) {
+      if (timeoutMillis <= 0) {
+        throw new IllegalArgumentException("timeoutMillis: " + timeoutMillis);
+      }
+      this.timeoutMillis = timeoutMillis;
+      return this;
+    }
+
+    /**
+     * @param maxBufferedBytes the limit of the total size of the buffers in bytes. The oldest
+     *     datagrams are discarded when it's exceeded. If this method isn't called, {@link
+     *     #DEFAULT_MAX_BUFFERED_BYTES} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxBufferedBytes(long maxBufferedBytes) {
+      if (maxBufferedBytes <= 0) {
+        throw new IllegalArgumentException("maxBufferedBytes: " + maxBufferedBytes);
+      }
+      this.maxBufferedBytes = maxBufferedBytes;
+      return this;
+    }
+
+    /**
+     * @param overlapPolicy overlapPolicy. If this method isn't called, {@link OverlapPolicy#FIRST}
+     *     is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder overlapPolicy(OverlapPolicy overlapPolicy) {
+      if (overlapPolicy == null) {
+        throw new NullPointerException("overlapPolicy must not be null.");
+      }
+      this.overlapPolicy = overlapPolicy;
+      return this;
+    }
+
+    /** @return a new IpFragmentReassembler object. */
+    public IpFragmentReassembler build() {
+      return new IpFragmentReassembler(this);
+    }
+  }
+
+  private static final class Key {
+
+    private final InetAddress srcAddr;
+    private final InetAddress dstAddr;
+    private final int protocol;
+    private final int identification;
+
+    private Key(InetAddress srcAddr, InetAddress dstAddr, int protocol, int identification) {
+      this.srcAddr = srcAddr;
+      this.dstAddr = dstAddr;
+      this.protocol = protocol;
+      this.identification = identification;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return identification == other.identification
+          && protocol == other.protocol
+          && srcAddr.equals(other.srcAddr)
+          && dstAddr.equals(other.dstAddr);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 17;
+      result = 31 * result + identification;
+      result = 31 * result + protocol;
+      result = 31 * result + srcAddr.hashCode();
+      result = 31 * result + dstAddr.hashCode();
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder(100);
+      sb.append("[src: ")
+          .append(srcAddr)
+          .append(", dst: ")
+          .append(dstAddr)
+          .append(", protocol: ")
+          .append(protocol)
+          .append(", id: ")
+          .append(identification & 0xFFFFFFFFL)
+          .append("]");
+      return sb.toString();
+    }
+  }
+
+  private static final class Hole {
+
+    private final int first;
+    private final int last;
+
+    private Hole(int first, int last) {
+      this.first = first;
+      this.last = last;
+    }
+  }
+
+  private static final class Datagram {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final long firstTimestamp;
+    private final List<Hole> holes = new ArrayList<Hole>(4);
+    private byte[] data = EMPTY;
+    private byte[] header = null;
+    private int nextHeaderOffset;
+    private byte nextHeader;
+    private int receivedEnd = 0;
+    private int totalLength = -1;
+
+    private Datagram(long firstTimestamp) {
+      this.firstTimestamp = firstTimestamp;
+      holes.add(new Hole(0, Integer.MAX_VALUE));
+    }
+
+    private int size() {
+      return data.length + (header != null ? header.length : 0);
+    }
+
+    /** Replaces the header and returns the size of the old one. */
+    private int setHeader(byte[] header) {
+      int oldSize = this.header != null ? this.header.length : 0;
+      this.header = header;
+      return oldSize;
+    }
+
+    private boolean isComplete() {
+      return holes.isEmpty() && header != null;
+    }
+
+    /** @return the number of the bytes in [from, to) which have not been received. */
+    private int countHoleBytes(int from, int to) {
+      int count = 0;
+      for (Hole hole : holes) {
+        int start = Math.max(hole.first, from);
+        int end = (int) Math.min(hole.last + 1L, to);
+        if (start < end) {
+          count += end - start;
+        }
+      }
+      return count;
+    }
+
+    /** Updates the hole descriptors for the data in [from, to) received (RFC 815). */
+    private void fill(int from, int to, boolean more) {
+      List<Hole> newHoles = new ArrayList<Hole>(holes.size() + 1);
+      for (Hole hole : holes) {
+        if (!more && hole.first >= to) {
+          continue;
+        }
+        if (from > hole.last || to <= hole.first) {
+          newHoles.add(hole);
+          continue;
+        }
+        if (from > hole.first) {
+          newHoles.add(new Hole(hole.first, from - 1));
+        }
+        if (to - 1 < hole.last && more) {
+          newHoles.add(new Hole(to, hole.last));
+        }
+      }
+      holes.clear();
+      holes.addAll(newHoles);
+
+      receivedEnd = Math.max(receivedEnd, to);
+      if (!more) {
+        totalLength = to;
+      }
+    }
+  }
+}
@@ -0,0 +1,733 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.util;
+
+import java.net.InetAddress;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.pcap4j.packet.IpPacket;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.TcpPacket;
+import org.pcap4j.packet.TcpPacket.TcpHeader;
+import org.pcap4j.packet.TcpPacket.TcpOption;
+import org.pcap4j.packet.TcpWindowScaleOption;
+import org.pcap4j.packet.namednumber.TcpPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A stateful reassembler of TCP streams, which is fed TCP segments one by one, e.g. from a live
+ * capture, and delivers the data of each direction of each connection to a {@link Listener} in
+ * order.
+ *
+ * <p>Data which arrives in order is delivered as a read-only view of the raw data of the segment
+ * (see {@link org.pcap4j.packet.AbstractPacket#rawDataView()}). Data which arrives out of order is
+ * kept as such a view until the data preceding it arrives. The data isn't copied only if the
+ * property {@link org.pcap4j.packet.PacketPropertiesLoader#SHARE_RAW_DATA_KEY} is true, in which
+ * case the views are backed by the arrays the packets have been decoded from. Otherwise, the raw
+ * data of each segment is rebuilt into a new array.
+ *
+ * <p>Retransmitted and overlapping data is delivered only once, and the data received first wins,
+ * i.e. a segment contributes only the bytes which have been neither delivered nor kept, whatever
+ * the offsets of the segments it overlaps. A hole is skipped and reported by {@link
+ * Listener#gotGap(Stream, long)} when the receiver acknowledges data after it (i.e. the hole has
+ * been received by the receiver and so has been lost by the capture), when the data after it lies
+ * beyond the window advertised by the receiver, when the total size of the data kept exceeds the
+ * limit, and when the connection is closed.
+ *
+ * <p>Connections are kept in a table bounded by the maximum number of connections, where the least
+ * recently active one is evicted to make room for a new one. A connection is closed when both the
+ * directions have delivered their FINs, when it's reset, and when it has been idle for the timeout.
+ *
+ * <p>IPv4 fragments must be reassembled before being fed, e.g. by {@link IpFragmentReassembler}.
+ * This class is not thread-safe, and the listener must not call the methods of this class.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+public final class TcpStreamReassembler {
+
+  private static final Logger logger = LoggerFactory.getLogger(TcpStreamReassembler.class);
+
+  /** The default timeout in milliseconds. */
+  public static final long DEFAULT_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+  /** The default maximum number of connections. */
+  public static final int DEFAULT_MAX_CONNECTIONS = 64 * 1024;
+
+  /** The default limit of the total size of the out-of-order data kept in bytes. */
+  public static final long DEFAULT_MAX_BUFFERED_BYTES = 16 * 1024 * 1024L;
+
+  private static final int MAX_WINDOW_SCALE = 14;
+
+  private final Listener listener;
+  private final long timeoutMillis;
+  private final int maxConnections;
+  private final long maxBufferedBytes;
+
+  // In the order of the last activity, which is also the order of expiry and eviction.
+  private final Map<Key, Connection> connections =
+      new LinkedHashMap<Key, Connection>(16, 0.75f, true);
+  private long bufferedBytes = 0;
+
+  private TcpStreamReassembler(Builder builder) {
+    if (builder == null || builder.listener == null) {
+      StringBuilder sb = new StringBuilder();
+      sb.append("builder: ").append(builder).append(" builder.listener: ").append(builder.listener);
+      throw new NullPointerException(sb.toString());
+    }
+
+    this.listener = builder.listener;
+    this.timeoutMillis = builder.timeoutMillis;
+    this.maxConnections = builder.maxConnections;
+    this.maxBufferedBytes = builder.maxBufferedBytes;
+  }
+
+  /**
+   * Feeds a packet. Packets which don't contain a TCP segment are ignored.
+   *
+   * @param packet packet
+   * @param timestamp the time the packet arrived in milliseconds, e.g. the capture timestamp.
+   */
+  public void add(Packet packet, long timestamp) {
+    IpPacket ip = null;
+    TcpPacket tcp = null;
+    for (Packet p : packet) {
+      if (p instanceof TcpPacket) {
+        tcp = (TcpPacket) p;
+        break;
+      }
+      if (p instanceof IpPacket) {
+        ip = (IpPacket) p;
+      }
+    }
+    if (ip == null || tcp == null) {
+      return;
+    }
+
+    expire(timestamp);
+
+    TcpHeader header = tcp.getHeader();
+    InetAddress srcAddr = ip.getHeader().getSrcAddr();
+    InetAddress dstAddr = ip.getHeader().getDstAddr();
+    TcpPort srcPort = header.getSrcPort();
+    TcpPort dstPort = header.getDstPort();
+    int payloadLength = tcp.length() - header.length();
+
+    Key key = new Key(srcAddr, srcPort, dstAddr, dstPort);
+    Connection connection = connections.get(key);
+    if (connection == null) {
+      if (header.getRst() || (!header.getSyn() && payloadLength == 0)) {
+        return;
+      }
+      if (connections.size() >= maxConnections) {
+        Connection eldest = connections.values().iterator().next();
+        connections.remove(eldest.key);
+        close(eldest, CloseReason.EVICTED);
+      }
+      if (header.getSyn() && header.getAck()) {
+        connection = new Connection(key, new Stream(dstAddr, dstPort, srcAddr, srcPort, true));
+      } else {
+        connection = new Connection(key, new Stream(srcAddr, srcPort, dstAddr, dstPort, true));
+      }
+      connections.put(key, connection);
+    }
+    connection.lastTimestamp = timestamp;
+
+    Stream sender;
+    Stream receiver;
+    if (connection.client.srcPort.equals(srcPort) && connection.client.srcAddr.equals(srcAddr)) {
+      sender = connection.client;
+      receiver = connection.server;
+    } else {
+      sender = connection.server;
+      receiver = connection.client;
+    }
+
+    if (header.getRst()) {
+      connections.remove(key);
+      close(connection, CloseReason.RST);
+      return;
+    }
+
+    if (header.getAck() && receiver.started && !receiver.closed) {
+      // The receiver has got all the data before the acknowledgment number, so the holes before it
+      // have been lost by the capture.
+      long ackOffset = receiver.toOffset(header.getAcknowledgmentNumber());
+      if (receiver.finOffset >= 0 && ackOffset > receiver.finOffset) {
+        ackOffset = receiver.finOffset; // The FIN takes a sequence number.
+      }
+      if (ackOffset > receiver.deliveredBytes
+          && receiver.segments != null
+          && !receiver.segments.isEmpty()) {
+        skip(receiver, ackOffset);
+        closeIfFinished(receiver);
+      }
+    }
+
+    int seq = header.getSequenceNumber();
+    if (header.getSyn()) {
+      sender.windowScale = getWindowScale(header);
+      sender.synSeen = true;
+      seq++;
+      if (!sender.started) {
+        sender.start(seq);
+      }
+    }
+    // The window of a SYN segment is never scaled.
+    if (!header.getSyn() && header.getWindowAsInt() > sender.maxWindow) {
+      sender.maxWindow = header.getWindowAsInt();
+    }
+
+    if (!sender.closed) {
+      if (payloadLength != 0) {
+        if (!sender.started) {
+          sender.start(seq);
+        }
+        ByteBuffer data = tcp.rawDataView();
+        ((Buffer) data).position(header.length());
+        receive(sender, sender.toOffset(seq), data, getWindow(sender, receiver));
+      }
+      if (header.getFin() && sender.started) {
+        sender.finOffset = sender.toOffset(seq + payloadLength);
+      }
+      closeIfFinished(sender);
+    }
+
+    if (sender.closed && receiver.closed) {
+      connections.remove(key);
+    }
+    if (bufferedBytes > maxBufferedBytes) {
+      shrink();
+    }
+  }
+
+  /**
+   * Closes the connections which have been idle for the timeout, delivering the data kept for them.
+   *
+   * @param timestamp the current time in milliseconds.
+   * @return the number of the connections closed.
+   */
+  public int expire(long timestamp) {
+    int count = 0;
+    while (!connections.isEmpty()) {
+      Connection eldest = connections.values().iterator().next();
+      if (timestamp - eldest.lastTimestamp < timeoutMillis) {
+        break;
+      }
+      connections.remove(eldest.key);
+      close(eldest, CloseReason.TIMEOUT);
+      count++;
+    }
+    if (count != 0) {
+      logger.debug("{} connections timed out.", count);
+    }
+    return count;
+  }
+
+  /** Closes all the connections, delivering the data kept for them. */
+  public void clear() {
+    while (!connections.isEmpty()) {
+      Connection eldest = connections.values().iterator().next();
+      connections.remove(eldest.key);
+      close(eldest, CloseReason.CLEARED);
+    }
+  }
+
+  /** @return the number of the connections being tracked. */
+  public int getConnectionCount() {
+    return connections.size();
+  }
+
+  /** @return the total size of the out-of-order data kept in bytes. */
+  public long getBufferedBytes() {
+    return bufferedBytes;
+  }
+
+  /** @return the timeout in milliseconds. */
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  /** @return the maximum number of connections. */
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  /** @return the limit of the total size of the out-of-order data kept in bytes. */
+  public long getMaxBufferedBytes() {
+    return maxBufferedBytes;
+  }
+
+  /** Closes the stream if all the data up to its FIN has been delivered. */
+  private void closeIfFinished(Stream stream) {
+    if (stream.finOffset >= 0 && stream.deliveredBytes >= stream.finOffset) {
+      // Data beyond the FIN is bogus.
+      bufferedBytes -= stream.bufferedBytes;
+      stream.bufferedBytes = 0;
+      stream.segments = null;
+      stream.closed = true;
+      listener.closed(stream, CloseReason.FIN);
+    }
+  }
+
+  private static int getWindowScale(TcpHeader header) {
+    for (TcpOption option : header.getOptions()) {
+      if (option instanceof TcpWindowScaleOption) {
+        return Math.min(((TcpWindowScaleOption) option).getShiftCountAsInt(), MAX_WINDOW_SCALE);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return the largest window the receiver has advertised for the data of the sender in bytes, or
+   *     -1 if unknown. The largest one is used since the sender may have sent data before the
+   *     window shrank. If the handshake hasn't been captured in full, the scale is unknown and the
+   *     largest possible one is assumed, so that data is never skipped due to an underestimated
+   *     window.
+   */
+  private static long getWindow(Stream sender, Stream receiver) {
+    if (receiver.maxWindow < 0) {
+      return -1;
+    }
+    if (!sender.synSeen || !receiver.synSeen) {
+      return (long) receiver.maxWindow << MAX_WINDOW_SCALE;
+    }
+    // Windows are scaled only if both the hosts have sent the window scale option.
+    if (sender.windowScale >= 0 && receiver.windowScale >= 0) {
+      return (long) receiver.maxWindow << receiver.windowScale;
+    }
+    return receiver.maxWindow;
+  }
+
+  private void receive(Stream stream, long offset, ByteBuffer data, long window) {
+    long end = offset + data.remaining();
+    if (end <= stream.deliveredBytes) {
+      return; // Retransmitted.
+    }
+    if (window >= 0 && end - stream.deliveredBytes > window) {
+      // The data before the window has been acknowledged, but never skip this segment itself.
+      skip(stream, Math.min(offset, end - window));
+    }
+
+    if (stream.segments == null || stream.segments.isEmpty()) {
+      if (offset <= stream.deliveredBytes) {
+        deliver(stream, offset, data);
+        return;
+      }
+      if (stream.segments == null) {
+        stream.segments = new TreeMap<Long, ByteBuffer>();
+      }
+    }
+
+    keep(stream, Math.max(offset, stream.deliveredBytes), offset, data);
+    drain(stream, stream.deliveredBytes);
+  }
+
+  /**
+   * Keeps the parts of the data from the start offset which aren't covered by the data kept, so
+   * that the data received first wins and the data kept never overlap each other.
+   */
+  private void keep(Stream stream, long start, long offset, ByteBuffer data) {
+    TreeMap<Long, ByteBuffer> segments = stream.segments;
+    long end = offset + data.remaining();
+    for (long cursor = start; cursor < end; ) {
+      Map.Entry<Long, ByteBuffer> floor = segments.floorEntry(cursor);
+      if (floor != null && floor.getKey() + floor.getValue().remaining() > cursor) {
+        cursor = floor.getKey() + floor.getValue().remaining();
+        continue;
+      }
+
+      Map.Entry<Long, ByteBuffer> next = segments.higherEntry(cursor);
+      long pieceEnd = next != null ? Math.min(next.getKey(), end) : end;
+      ByteBuffer piece = data.duplicate();
+      ((Buffer) piece).position(data.position() + (int) (cursor - offset));
+      ((Buffer) piece).limit(data.position() + (int) (pieceEnd - offset));
+      segments.put(cursor, piece);
+      stream.bufferedBytes += piece.remaining();
+      bufferedBytes += piece.remaining();
+      cursor = pieceEnd;
+    }
+  }
+
+  /**
+   * Delivers the data kept which starts before the limit offset, skipping the holes before them.
+   */
+  private void drain(Stream stream, long limit) {
+    while (stream.segments != null && !stream.segments.isEmpty()) {
+      Map.Entry<Long, ByteBuffer> first = stream.segments.firstEntry();
+      long offset = first.getKey();
+      if (offset > stream.deliveredBytes && offset >= limit) {
+        return;
+      }
+      stream.segments.pollFirstEntry();
+      ByteBuffer data = first.getValue();
+      stream.bufferedBytes -= data.remaining();
+      bufferedBytes -= data.remaining();
+      if (offset > stream.deliveredBytes) {
+        gap(stream, offset - stream.deliveredBytes);
+      }
+      if (offset + data.remaining() > stream.deliveredBytes) {
+        deliver(stream, offset, data);
+      }
+    }
+  }
+
+  /** Skips the holes before the offset, delivering the data kept before it. */
+  private void skip(Stream stream, long offset) {
+    drain(stream, offset);
+    if (offset > stream.deliveredBytes) {
+      gap(stream, offset - stream.deliveredBytes);
+      drain(stream, stream.deliveredBytes);
+    }
+  }
+
+  private void deliver(Stream stream, long offset, ByteBuffer data) {
+    if (offset < stream.deliveredBytes) {
+      ((Buffer) data).position(data.position() + (int) (stream.deliveredBytes - offset));
+    }
+    stream.deliveredBytes += data.remaining();
+    listener.gotData(stream, data);
+  }
+
+  private void gap(Stream stream, long length) {
+    stream.deliveredBytes += length;
+    stream.skippedBytes += length;
+    listener.gotGap(stream, length);
+  }
+
+  private void close(Connection connection, CloseReason reason) {
+    close(connection.client, reason);
+    close(connection.server, reason);
+  }
+
+  private void close(Stream stream, CloseReason reason) {
+    if (stream.closed) {
+      return;
+    }
+    drain(stream, Long.MAX_VALUE);
+    stream.closed = true;
+    listener.closed(stream, reason);
+  }
+
+  /** Skips the holes of the least recently active streams until the limit is satisfied. */
+  private void shrink() {
+    Iterator<Connection> iter = connections.values().iterator();
+    while (bufferedBytes > maxBufferedBytes && iter.hasNext()) {
+      Connection connection = iter.next();
+      if (connection.client.bufferedBytes != 0) {
+        drain(connection.client, Long.MAX_VALUE);
+      }
+      if (connection.server.bufferedBytes != 0) {
+        drain(connection.server, Long.MAX_VALUE);
+      }
+    }
+    logger.debug("Skipped holes due to the buffer limit.");
+  }
+
+  /**
+   * The listener of the streams of a {@link TcpStreamReassembler}.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public interface Listener {
+
+    /**
+     * Called when the next data of a stream is available.
+     *
+     * @param stream stream
+     * @param data a read-only view of the data, whose position is the start of the data and limit
+     *     is the end of it. It may be backed by the raw data of a packet, and is valid only until
+     *     this method returns if the array the packet has been decoded from is reused.
+     */
+    public void gotData(Stream stream, ByteBuffer data);
+
+    /**
+     * Called when data of a stream has been lost and is skipped.
+     *
+     * @param stream stream
+     * @param length the number of the bytes skipped.
+     */
+    public void gotGap(Stream stream, long length);
+
+    /**
+     * Called when a stream is closed. No methods of this listener are called for the stream
+     * afterward.
+     *
+     * @param stream stream
+     * @param reason reason
+     */
+    public void closed(Stream stream, CloseReason reason);
+  }
+
+  /**
+   * The reason why a stream is closed.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static enum CloseReason {
+
+    /** All the data up to the FIN has been delivered. */
+    FIN,
+
+    /** The connection has been reset. */
+    RST,
+
+    /** The connection has been idle for the timeout. */
+    TIMEOUT,
+
+    /** The connection has been evicted to make room for a new one. */
+    EVICTED,
+
+    /** {@link TcpStreamReassembler#clear()} has been called. */
+    CLEARED,
+  }
+
+  /**
+   * A direction of a TCP connection.
+   *
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Stream {
+
+    private final InetAddress srcAddr;
+    private final TcpPort srcPort;
+    private final InetAddress dstAddr;
+    private final TcpPort dstPort;
+    private final boolean client;
+    private boolean started = false;
+    private boolean closed = false;
+    private boolean synSeen = false;
+    private int initialSeq;
+    private long deliveredBytes = 0;
+    private long skippedBytes = 0;
+    private long bufferedBytes = 0;
+    private long finOffset = -1;
+    private TreeMap<Long, ByteBuffer> segments = null;
+    private int windowScale = -1;
+    private int maxWindow = -1;
+
+    private Stream(
+        InetAddress srcAddr,
+        TcpPort srcPort,
+        InetAddress dstAddr,
+        TcpPort dstPort,
+        boolean client) {
+      this.srcAddr = srcAddr;
+      this.srcPort = srcPort;
+      this.dstAddr = dstAddr;
+      this.dstPort = dstPort;
+      this.client = client;
+    }
+
+    private Stream reverse() {
+      return new Stream(dstAddr, dstPort, srcAddr, srcPort, !client);
+    }
+
+    private void start(int seq) {
+      this.initialSeq = seq;
+      this.started = true;
+    }
+
+    /** @return the offset in this stream of the sequence number. */
+    private long toOffset(int seq) {
+      return deliveredBytes + (seq - (initialSeq + (int) deliveredBytes));
+    }
+
+    /** @return srcAddr */
+    public InetAddress getSrcAddr() {
+      return srcAddr;
+    }
+
+    /** @return srcPort */
+    public TcpPort getSrcPort() {
+      return srcPort;
+    }
+
+    /** @return dstAddr */
+    public InetAddress getDstAddr() {
+      return dstAddr;
+    }
+
+    /** @return dstPort */
+    public TcpPort getDstPort() {
+      return dstPort;
+    }
+
+    /**
+     * @return true if this stream is sent by the host which has opened the connection (or which has
+     *     sent the first segment captured if the handshake hasn't been captured); false otherwise.
+     */
+    public boolean isClient() {
+      return client;
+    }
+
+    /** @return the number of the bytes delivered and skipped. */
+    public long getDeliveredBytes() {
+      return deliveredBytes;
+    }
+
+    /** @return the number of the bytes skipped. */
+    public long getSkippedBytes() {
+      return skippedBytes;
+    }
+
+    /** @return the number of the bytes of the out-of-order data kept. */
+    public long getBufferedBytes() {
+      return bufferedBytes;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder(100);
+      sb.append("[")
+          .append(srcAddr)
+          .append(":")
+          .append(srcPort.valueAsInt())
+          .append(" -> ")
+          .append(dstAddr)
+          .append(":")
+          .append(dstPort.valueAsInt())
+          .append("]");
+      return sb.toString();
+    }
+  }
+
+  /**
+   * @author Kaito Yamada
+   * @since pcap4j 1.8.3
+   */
+  public static final class Builder {
+
+    private Listener listener;
+    private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private long maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+
+    /**
+     * @param listener listener
+     * @return this Builder object for method chaining.
+     */
+    public Builder listener(Listener listener) {
+      this.listener = listener;
+      return this;
+    }
+
+    /**
+     * @param timeoutMillis the time in milliseconds a connection is closed after its last segment
+     *     arrives. If this method isn't called, {@link #DEFAULT_TIMEOUT_MILLIS} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder timeoutMillis(long timeoutMillis) {
+      if (timeoutMillis <= 0) {
+        throw new IllegalArgumentException("timeoutMillis: " + timeoutMillis);
+      }
+      this.timeoutMillis = timeoutMillis;
+      return this;
+    }
+
+    /**
+     * @param maxConnections the maximum number of connections. The least recently active one is
+     *     evicted when it's exceeded. If this method isn't called, {@link #DEFAULT_MAX_CONNECTIONS}
+     *     is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxConnections(int maxConnections) {
+      if (maxConnections <= 0) {
+        throw new IllegalArgumentException("maxConnections: " + maxConnections);
+      }
+      this.maxConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * @param maxBufferedBytes the limit of the total size of the out-of-order data kept in bytes.
+     *     The holes of the least recently active streams are skipped when it's exceeded. If this
+     *     method isn't called, {@link #DEFAULT_MAX_BUFFERED_BYTES} is used.
+     * @return this Builder object for method chaining.
+     */
+    public Builder maxBufferedBytes(long maxBufferedBytes) {
+      if (maxBufferedBytes <= 0) {
+        throw new IllegalArgumentException("maxBufferedBytes: " + maxBufferedBytes);
+      }
+      this.maxBufferedBytes = maxBufferedBytes;
+      return this;
+    }
+
+    /** @return a new TcpStreamReassembler object. */
+    public TcpStreamReassembler build() {
+      return new TcpStreamReassembler(this);
+    }
+  }
+
+  private static final class Connection {
+
+    private final Key key;
+    private final Stream client;
+    private final Stream server;
+    private long lastTimestamp;
+
+    private Connection(Key key, Stream client) {
+      this.key = key;
+      this.client = client;
+      this.server = client.reverse();
+    }
+  }
+
+  /** A key which is equal to the key of the reverse direction. */
+  private static final class Key {
+
+    private final InetAddress addr1;
+    private final TcpPort port1;
+    private final InetAddress addr2;
+    private final TcpPort port2;
+
+    private Key(InetAddress addr1, TcpPort port1, InetAddress addr2, TcpPort port2) {
+      this.addr1 = addr1;
+      this.port1 = port1;
+      this.addr2 = addr2;
+      this.port2 = port2;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      if (port1.equals(other.port1)
+          && port2.equals(other.port2)
+          && addr1.equals(other.addr1)
+          && addr2.equals(other.addr2)) {
+        return true;
+      }
+      return port1.equals(other.port2)
+          && port2.equals(other.port1)
+          && addr1.equals(other.addr2)
+          && addr2.equals(other.addr1);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash1 = 31 * addr1.hashCode() + port1.hashCode();
+      int hash2 = 31 * addr2.hashCode() + port2.hashCode();
+      return hash1 ^ hash2;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNoException;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.pcap4j.core.BpfProgram.BpfCompileMode;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.pcap4j.util.ByteArrays;
+
+@SuppressWarnings("javadoc")
+public class BpfInterpreterTest {
+
+  // "tcpdump -dd -O ip and tcp dst port 80"
+  private static final BpfInterpreter TCP_DST_PORT_80 =
+      BpfInterpreter.newInstance(
+          insn(0x28, 0, 0, 0x0000000c),
+          insn(0x15, 0, 8, 0x00000800),
+          insn(0x30, 0, 0, 0x00000017),
+          insn(0x15, 0, 6, 0x00000006),
+          insn(0x28, 0, 0, 0x00000014),
+          insn(0x45, 4, 0, 0x00001fff),
+          insn(0xb1, 0, 0, 0x0000000e),
+          insn(0x48, 0, 0, 0x00000010),
+          insn(0x15, 0, 1, 0x00000050),
+          insn(0x06, 0, 0, 0x00040000),
+          insn(0x06, 0, 0, 0x00000000));
+
+  private static BpfInstruction insn(int code, int jt, int jf, int k) {
+    return BpfInstruction.newInstance((short) code, (byte) jt, (byte) jf, k);
+  }
+
+  private static byte[] newFrame(String etherType, String fragment, int protocol, int dstPort) {
+    String tcp = String.format("c350%04x", dstPort) + "0000000000000000" + "50020000" + "00000000";
+    String ip =
+        "45000028"
+            + "0000"
+            + fragment
+            + String.format("40%02x", protocol)
+            + "0000"
+            + "c0000201"
+            + "c6336402";
+    return ByteArrays.parseByteArray("0011223344550066778899aa" + etherType + ip + tcp, "");
+  }
+
+  @Test
+  public void testFilter() throws Exception {
+    byte[] http = newFrame("0800", "4000", 6, 80);
+    assertEquals(0x40000, TCP_DST_PORT_80.execute(http, 0, http.length, http.length));
+    assertTrue(TCP_DST_PORT_80.applyFilter(http));
+    assertFalse(TCP_DST_PORT_80.applyFilter(newFrame("0800", "4000", 6, 81)));
+    assertFalse(TCP_DST_PORT_80.applyFilter(newFrame("0800", "4000", 17, 80)));
+    assertFalse(TCP_DST_PORT_80.applyFilter(newFrame("0800", "2001", 6, 80)));
+    assertFalse(TCP_DST_PORT_80.applyFilter(newFrame("0806", "4000", 6, 80)));
+
+    // The port is beyond the captured part.
+    assertFalse(TCP_DST_PORT_80.applyFilter(http, http.length, 37));
+
+    byte[] shifted = new byte[http.length + 3];
+    System.arraycopy(http, 0, shifted, 3, http.length);
+    assertEquals(0x40000, TCP_DST_PORT_80.execute(shifted, 3, http.length, http.length));
+    try {
+      TCP_DST_PORT_80.execute(shifted, 4, http.length, http.length);
+      fail();
+    } catch (ArrayIndexOutOfBoundsException e) {
+      // expected
+    }
+    try {
+      // offset + packetLen overflows.
+      TCP_DST_PORT_80.execute(shifted, Integer.MAX_VALUE, http.length, 2);
+      fail();
+    } catch (ArrayIndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testArithmetic() throws Exception {
+    BpfInterpreter interpreter =
+        BpfInterpreter.newInstance(
+            insn(0x00, 0, 0, 10), // ld #10
+            insn(0x02, 0, 0, 3), // st M[3]
+            insn(0x01, 0, 0, 3), // ldx #3
+            insn(0x3c, 0, 0, 0), // div x
+            insn(0x24, 0, 0, 7), // mul #7
+            insn(0x1c, 0, 0, 0), // sub x
+            insn(0x94, 0, 0, 5), // mod #5
+            insn(0x64, 0, 0, 30), // lsh #30
+            insn(0x25, 0, 4, 0x80000000), // jgt #0x80000000, which is unsigned
+            insn(0x74, 0, 0, 28), // rsh #28
+            insn(0x61, 0, 0, 3), // ldx M[3]
+            insn(0x0c, 0, 0, 0), // add x
+            insn(0x16, 0, 0, 0), // ret a
+            insn(0x06, 0, 0, 1)); // ret #1
+    assertEquals(22, interpreter.execute(new byte[0], 0, 0, 0));
+
+    // Division by zero rejects the packet.
+    interpreter =
+        BpfInterpreter.newInstance(
+            insn(0x01, 0, 0, 0), insn(0x00, 0, 0, 5), insn(0x3c, 0, 0, 0), insn(0x06, 0, 0, 1));
+    assertEquals(0, interpreter.execute(new byte[0], 0, 0, 0));
+
+    // Shifting by 32 bits results in 0.
+    interpreter =
+        BpfInterpreter.newInstance(
+            insn(0x01, 0, 0, 32), insn(0x00, 0, 0, 1), insn(0x6c, 0, 0, 0), insn(0x16, 0, 0, 0));
+    assertEquals(0, interpreter.execute(new byte[0], 0, 0, 0));
+
+    interpreter =
+        BpfInterpreter.newInstance(
+            insn(0x80, 0, 0, 0), // ld len
+            insn(0x84, 0, 0, 0), // neg
+            insn(0x07, 0, 0, 0), // tax
+            insn(0x00, 0, 0, 2), // ld #2
+            insn(0x4d, 0, 1, 0), // jset x
+            insn(0x87, 0, 0, 0), // txa
+            insn(0x16, 0, 0, 0)); // ret a
+    assertEquals(-98, interpreter.execute(new byte[0], 0, 98, 0));
+    assertEquals(2, interpreter.execute(new byte[0], 0, 100, 0));
+  }
+
+  @Test
+  public void testArithmeticWithX() throws Exception {
+    // add, sub, mul, div, or, and, lsh, rsh, mod, and xor
+    int[] operations = {0x00, 0x10, 0x20, 0x30, 0x40, 0x50, 0x60, 0x70, 0x90, 0xa0};
+    for (int operation : operations) {
+      for (int x : new int[] {3, 33, 0x80000001}) {
+        BpfInterpreter withK =
+            BpfInterpreter.newInstance(
+                insn(0x00, 0, 0, 0xf0f0f0f7), // ld #0xf0f0f0f7
+                insn(0x04 | operation, 0, 0, x), // op #x
+                insn(0x16, 0, 0, 0)); // ret a
+        BpfInterpreter withX =
+            BpfInterpreter.newInstance(
+                insn(0x00, 0, 0, 0xf0f0f0f7), // ld #0xf0f0f0f7
+                insn(0x01, 0, 0, x), // ldx #x
+                insn(0x0c | operation, 0, 0, 0), // op x
+                insn(0x16, 0, 0, 0)); // ret a
+        assertEquals(
+            operation + " " + x,
+            withK.execute(new byte[0], 0, 0, 0),
+            withX.execute(new byte[0], 0, 0, 0));
+      }
+    }
+  }
+
+  @Test
+  public void testValidation() throws Exception {
+    List<BpfInstruction[]> invalids = new ArrayList<BpfInstruction[]>();
+    invalids.add(new BpfInstruction[0]);
+    invalids.add(new BpfInstruction[] {insn(0xff, 0, 0, 0), insn(0x06, 0, 0, 0)});
+    invalids.add(new BpfInstruction[] {insn(0x02, 0, 0, 16), insn(0x06, 0, 0, 0)});
+    invalids.add(new BpfInstruction[] {insn(0x34, 0, 0, 0), insn(0x06, 0, 0, 0)});
+    invalids.add(new BpfInstruction[] {insn(0x15, 1, 0, 0), insn(0x06, 0, 0, 0)});
+    invalids.add(new BpfInstruction[] {insn(0x05, 0, 0, 1), insn(0x06, 0, 0, 0)});
+    invalids.add(new BpfInstruction[] {insn(0x06, 0, 0, 0), insn(0x00, 0, 0, 0)});
+    for (BpfInstruction[] invalid : invalids) {
+      try {
+        BpfInterpreter.newInstance(invalid);
+        fail();
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testConformance() throws Exception {
+    String[] expressions = {
+      "ip",
+      "tcp dst port 80",
+      "udp or icmp",
+      "ip[6:2] & 0x1fff != 0",
+      "len > 60",
+      "ether[0] & 1 = 0"
+    };
+    List<byte[]> frames = new ArrayList<byte[]>();
+    frames.add(newFrame("0800", "4000", 6, 80));
+    frames.add(newFrame("0800", "2001", 6, 80));
+    frames.add(newFrame("0800", "4000", 17, 53));
+    frames.add(newFrame("0800", "4000", 1, 0));
+    frames.add(newFrame("86dd", "4000", 6, 80));
+
+    Inet4Address netmask = (Inet4Address) InetAddress.getByName("255.255.255.255");
+    for (String expression : expressions) {
+      BpfProgram prog;
+      try {
+        prog =
+            Pcaps.compileFilter(
+                65536, DataLinkType.EN10MB, expression, BpfCompileMode.OPTIMIZE, netmask);
+      } catch (PcapNativeException e) {
+        assumeNoException(e);
+        return;
+      } catch (LinkageError e) {
+        assumeNoException(e);
+        return;
+      }
+
+      try {
+        BpfInterpreter interpreter = prog.getInterpreter();
+        prog.getProgram().read();
+        for (byte[] frame : frames) {
+          for (int len = 0; len <= frame.length; len += 7) {
+            int expected = NativeMappings.bpf_filter(prog.getProgram().bf_insns, frame, 100, len);
+            assertEquals(expression, expected, interpreter.execute(frame, 0, 100, len));
+          }
+        }
+      } finally {
+        prog.free();
+      }
+    }
+  }
+}
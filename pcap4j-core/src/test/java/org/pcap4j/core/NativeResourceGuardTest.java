@@ -0,0 +1,161 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class NativeResourceGuardTest {
+
+  @Test
+  public void testEnterAndExit() {
+    NativeResourceGuard guard = new NativeResourceGuard();
+    assertTrue(guard.enter());
+    assertTrue(guard.enter());
+    guard.exit();
+    guard.exit();
+    assertFalse(guard.isClosed());
+    assertTrue(guard.close());
+    assertTrue(guard.isClosed());
+    assertFalse(guard.enter());
+    assertFalse(guard.close());
+  }
+
+  @Test
+  public void testCloseWaitsForUsers() throws Exception {
+    final NativeResourceGuard guard = new NativeResourceGuard();
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicBoolean inUse = new AtomicBoolean();
+    Thread user =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                if (!guard.enter()) {
+                  return;
+                }
+                try {
+                  inUse.set(true);
+                  entered.countDown();
+                  release.await();
+                } catch (InterruptedException e) {
+                  // end
+                } finally {
+                  inUse.set(false);
+                  guard.exit();
+                }
+              }
+            });
+    user.start();
+    assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+    final AtomicBoolean usedWhenClosed = new AtomicBoolean(true);
+    Thread closer =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                guard.close();
+                usedWhenClosed.set(inUse.get());
+              }
+            });
+    closer.start();
+    closer.join(200);
+    assertTrue(closer.isAlive());
+    assertFalse(guard.enter());
+
+    release.countDown();
+    closer.join(5000);
+    assertFalse(closer.isAlive());
+    assertFalse(usedWhenClosed.get());
+    user.join();
+  }
+
+  @Test
+  public void testCloseWakesUpUsers() throws Exception {
+    final NativeResourceGuard guard = new NativeResourceGuard();
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch wakeUp = new CountDownLatch(1);
+    Thread user =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                if (!guard.enter()) {
+                  return;
+                }
+                try {
+                  entered.countDown();
+                  // Like a loop which runs until it's broken.
+                  wakeUp.await();
+                } catch (InterruptedException e) {
+                  // end
+                } finally {
+                  guard.exit();
+                }
+              }
+            });
+    user.start();
+    assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+    final AtomicBoolean enterableOnWakeUp = new AtomicBoolean(true);
+    assertTrue(
+        guard.close(
+            new Runnable() {
+              @Override
+              public void run() {
+                enterableOnWakeUp.set(guard.enter());
+                wakeUp.countDown();
+              }
+            }));
+    assertFalse(enterableOnWakeUp.get());
+    user.join(5000);
+    assertFalse(user.isAlive());
+  }
+
+  @Test
+  public void testConcurrentUsersAndClose() throws Exception {
+    final NativeResourceGuard guard = new NativeResourceGuard();
+    final AtomicInteger inUse = new AtomicInteger();
+    final AtomicBoolean freed = new AtomicBoolean();
+    final AtomicBoolean usedAfterFree = new AtomicBoolean();
+    Thread[] users = new Thread[4];
+    for (int i = 0; i < users.length; i++) {
+      users[i] =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  while (guard.enter()) {
+                    try {
+                      inUse.incrementAndGet();
+                      if (freed.get()) {
+                        usedAfterFree.set(true);
+                      }
+                      inUse.decrementAndGet();
+                    } finally {
+                      guard.exit();
+                    }
+                  }
+                }
+              });
+      users[i].start();
+    }
+
+    Thread.sleep(50);
+    assertTrue(guard.close());
+    assertEquals(0, inUse.get());
+    freed.set(true);
+    for (Thread t : users) {
+      t.join();
+    }
+    assertFalse(usedAfterFree.get());
+  }
+}
@@ -0,0 +1,56 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PacketBatchTest {
+
+  @Test
+  public void testAddAndGrow() {
+    PacketBatch batch = new PacketBatch(1, 4);
+    byte[] data = new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    batch.add(data, 0, 3, 60, 100L, 1);
+    batch.add(data, 3, 7, 7, 101L, 2);
+    batch.add(data, 5, 2, 2, 102L, 3);
+
+    assertEquals(3, batch.size());
+    assertArrayEquals(new byte[] {0, 1, 2}, batch.getPacket(0));
+    assertArrayEquals(new byte[] {3, 4, 5, 6, 7, 8, 9}, batch.getPacket(1));
+    assertArrayEquals(new byte[] {5, 6}, batch.getPacket(2));
+    assertEquals(3, batch.getOffset(1));
+    assertEquals(10, batch.getOffset(2));
+    assertEquals(60, batch.getOriginalLength(0));
+    assertEquals(101L, batch.getTimestampSeconds(1));
+    assertEquals(3, batch.getTimestampNanos(2));
+    assertTrue(batch.getBuffer().length >= 12);
+  }
+
+  @Test
+  public void testClear() {
+    PacketBatch batch = new PacketBatch();
+    byte[] data = new byte[] {1, 2, 3};
+    batch.add(data, 0, 3, 3, 0L, 0);
+    byte[] buffer = batch.getBuffer();
+
+    batch.clear();
+    assertTrue(batch.isEmpty());
+    batch.add(data, 1, 2, 2, 0L, 0);
+    assertEquals(1, batch.size());
+    assertEquals(0, batch.getOffset(0));
+    assertArrayEquals(new byte[] {2, 3}, batch.getPacket(0));
+    assertEquals(buffer, batch.getBuffer());
+
+    try {
+      batch.getLength(1);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+}
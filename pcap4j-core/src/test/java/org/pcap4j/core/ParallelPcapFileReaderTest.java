@@ -0,0 +1,176 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.pcap4j.packet.Packet;
+
+@SuppressWarnings("javadoc")
+public class ParallelPcapFileReaderTest {
+
+  private static final String RESOURCE_DIR = "src/test/resources/org/pcap4j/core/";
+
+  private static List<byte[]> readSequentially(String filePath) throws Exception {
+    List<byte[]> packets = new ArrayList<byte[]>();
+    PcapFileReader reader = new PcapFileReader(filePath);
+    try {
+      byte[] packet;
+      while ((packet = reader.getNextRawPacket()) != null) {
+        packets.add(packet);
+      }
+    } finally {
+      reader.close();
+    }
+    return packets;
+  }
+
+  private static List<byte[]> readInParallel(ParallelPcapFileReader reader) throws Exception {
+    final List<byte[]> packets = Collections.synchronizedList(new ArrayList<byte[]>());
+    long count =
+        reader.loop(
+            new PacketListener() {
+              @Override
+              public void gotPacket(Packet packet) {
+                packets.add(packet.getRawData());
+              }
+            });
+    assertEquals(packets.size(), count);
+    return packets;
+  }
+
+  @Test
+  public void testOrderedLoop() throws Exception {
+    for (String file : new String[] {"udp_tcp_icmp.pcap", "PcapFileReaderTest.pcapng"}) {
+      List<byte[]> expected = readSequentially(RESOURCE_DIR + file);
+      ParallelPcapFileReader reader =
+          new ParallelPcapFileReader.Builder(RESOURCE_DIR + file)
+              .chunkSize(1)
+              .parallelism(3)
+              .maxPendingChunks(2)
+              .build();
+      assertEquals(expected.size(), reader.getChunkCount());
+      assertEquals(expected.size(), reader.getPacketCount());
+
+      for (int i = 0; i < 2; i++) {
+        List<byte[]> actual = readInParallel(reader);
+        assertEquals(expected.size(), actual.size());
+        for (int j = 0; j < expected.size(); j++) {
+          assertArrayEquals(expected.get(j), actual.get(j));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUnorderedLoop() throws Exception {
+    List<byte[]> expected = readSequentially(RESOURCE_DIR + "udp_tcp_icmp.pcap");
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ParallelPcapFileReader reader =
+          new ParallelPcapFileReader.Builder(RESOURCE_DIR + "udp_tcp_icmp.pcap")
+              .chunkSize(100)
+              .ordered(false)
+              .executor(executor)
+              .build();
+      assertEquals(2, reader.getChunkCount());
+
+      List<byte[]> actual = readInParallel(reader);
+      assertEquals(expected.size(), actual.size());
+      for (byte[] packet : expected) {
+        boolean found = false;
+        for (byte[] p : actual) {
+          if (Arrays.equals(packet, p)) {
+            found = true;
+          }
+        }
+        assertTrue(found);
+      }
+      assertTrue(!executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testSingleChunk() throws Exception {
+    ParallelPcapFileReader reader =
+        new ParallelPcapFileReader.Builder(RESOURCE_DIR + "udp_tcp_icmp.pcap").build();
+    assertEquals(1, reader.getChunkCount());
+    assertEquals(3, readInParallel(reader).size());
+  }
+
+  @Test
+  public void testInterrupted() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      ParallelPcapFileReader reader =
+          new ParallelPcapFileReader.Builder(RESOURCE_DIR + "udp_tcp_icmp.pcap")
+              .ordered(false)
+              .executor(executor)
+              .build();
+      final AtomicInteger count = new AtomicInteger();
+      try {
+        reader.loop(
+            new PacketListener() {
+              @Override
+              public void gotPacket(Packet packet) {
+                count.incrementAndGet();
+                Thread.currentThread().interrupt();
+              }
+            });
+        fail();
+      } catch (InterruptedIOException e) {
+        // expected
+      }
+      assertEquals(1, count.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testTruncatedFile() throws Exception {
+    File tmp = File.createTempFile("ParallelPcapFileReaderTest", ".pcap");
+    tmp.deleteOnExit();
+    byte[] header = new byte[24 + 16];
+    // little endian, microsecond resolution, version 2.4, EN10MB
+    header[0] = (byte) 0xD4;
+    header[1] = (byte) 0xC3;
+    header[2] = (byte) 0xB2;
+    header[3] = (byte) 0xA1;
+    header[4] = 2;
+    header[6] = 4;
+    header[16] = (byte) 0xFF;
+    header[17] = (byte) 0xFF;
+    header[20] = 1;
+    header[24 + 8] = 10;
+    header[24 + 12] = 10;
+    FileOutputStream out = new FileOutputStream(tmp);
+    try {
+      out.write(header);
+    } finally {
+      out.close();
+    }
+
+    try {
+      new ParallelPcapFileReader.Builder(tmp.getPath()).build();
+      fail();
+    } catch (IOException e) {
+      // expected
+    }
+  }
+}
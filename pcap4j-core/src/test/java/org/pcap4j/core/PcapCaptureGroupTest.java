@@ -0,0 +1,113 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+import static org.junit.Assume.assumeTrue;
+
+import com.sun.jna.Platform;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.pcap4j.core.BpfProgram.BpfCompileMode;
+import org.pcap4j.core.PcapHandle.FanoutMode;
+
+@SuppressWarnings("javadoc")
+public class PcapCaptureGroupTest {
+
+  @Test
+  public void testGetFanoutArg() {
+    assertEquals(0x00001234, PcapHandle.getFanoutArg(0x1234, FanoutMode.HASH, false));
+    assertEquals(0x80001234, PcapHandle.getFanoutArg(0x1234, FanoutMode.HASH, true));
+    assertEquals(0x0002FFFF, PcapHandle.getFanoutArg(0xFFFF, FanoutMode.CPU, false));
+  }
+
+  @Test
+  public void testCaptureOnLoopback() throws Exception {
+    assumeTrue(Platform.isLinux());
+
+    // Needs the pcap library and the privilege to capture on the loopback interface.
+    PcapCaptureGroup group;
+    try {
+      group =
+          new PcapCaptureGroup.Builder("lo", 2, 0x4a34)
+              .timeoutMillis(10)
+              .immediateMode(true)
+              .filter("udp and port 44444", BpfCompileMode.OPTIMIZE)
+              .build();
+    } catch (PcapNativeException e) {
+      assumeNoException(e);
+      return;
+    } catch (LinkageError e) {
+      assumeNoException(e);
+      return;
+    }
+
+    final AtomicInteger count = new AtomicInteger();
+    // source port -> names of the capture threads which got a packet of the flow
+    final ConcurrentMap<Integer, Set<String>> threads =
+        new ConcurrentHashMap<Integer, Set<String>>();
+    try {
+      assertEquals(2, group.getHandles().size());
+      group.start(
+          new RawPacketListener() {
+            @Override
+            public void gotPacket(byte[] packet) {
+              // Ethernet (14 bytes) + IPv4 (20 bytes) + UDP source port
+              Integer srcPort = ((packet[34] & 0xFF) << 8) | (packet[35] & 0xFF);
+              Set<String> names = new CopyOnWriteArraySet<String>();
+              Set<String> prev = threads.putIfAbsent(srcPort, names);
+              (prev != null ? prev : names).add(Thread.currentThread().getName());
+              count.incrementAndGet();
+            }
+          });
+      assertTrue(group.isRunning());
+
+      // 8 flows of 5 packets, each of which is sent from its own source port.
+      InetAddress dst = InetAddress.getByName("127.0.0.1");
+      DatagramSocket[] sockets = new DatagramSocket[8];
+      try {
+        for (int i = 0; i < sockets.length; i++) {
+          sockets[i] = new DatagramSocket();
+        }
+        for (int i = 0; i < 5; i++) {
+          for (DatagramSocket socket : sockets) {
+            byte[] data = new byte[] {(byte) i};
+            socket.send(new DatagramPacket(data, data.length, dst, 44444));
+          }
+        }
+      } finally {
+        for (DatagramSocket socket : sockets) {
+          if (socket != null) {
+            socket.close();
+          }
+        }
+      }
+
+      for (int i = 0; i < 100 && count.get() < 40; i++) {
+        Thread.sleep(20);
+      }
+      assertTrue(group.stop(1000));
+      assertFalse(group.isRunning());
+      assertTrue(group.stop());
+    } finally {
+      group.close();
+    }
+    assertEquals(40, count.get());
+    assertFalse(group.isOpen());
+
+    // In HASH mode, all the packets of a flow must be captured by the same thread.
+    assertEquals(8, threads.size());
+    for (Map.Entry<Integer, Set<String>> entry : threads.entrySet()) {
+      assertEquals(entry.getKey() + ": " + entry.getValue(), 1, entry.getValue().size());
+    }
+  }
+}
@@ -102,6 +102,22 @@ public class PcapDumperTest {
     assertTrue(dumpFile.length() >= packet.length());
   }
 
+  @Test
+  public void testDumpRawWithPrimitiveTimestamp() throws Exception {
+    dumper.dumpRaw(packet.getRawData(), 1434220771L, 517995000);
+    dumper.close();
+    dumper = null;
+
+    PcapHandle reader = Pcaps.openOffline(dumpFile.getAbsolutePath());
+    try {
+      assertArrayEquals(packet.getRawData(), reader.getNextRawPacketEx());
+      assertEquals(1434220771L, reader.getTimestampSeconds());
+      assertEquals(517995000, reader.getTimestampNanos());
+    } finally {
+      reader.close();
+    }
+  }
+
   @Test
   public void testFtell() throws Exception {
     long initialPosition = dumper.ftell();
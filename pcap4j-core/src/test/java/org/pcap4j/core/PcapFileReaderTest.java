@@ -0,0 +1,298 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.packet.factory.PacketFactories;
+import org.pcap4j.packet.factory.PacketFactory;
+import org.pcap4j.packet.factory.PacketFactoryBinder;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.pcap4j.packet.namednumber.NamedNumber;
+
+@SuppressWarnings("javadoc")
+public class PcapFileReaderTest {
+
+  private static final String RESOURCE_DIR = "src/test/resources/org/pcap4j/core/";
+
+  @Test
+  public void testReadPcap() throws Exception {
+    PcapFileReader reader = new PcapFileReader(RESOURCE_DIR + "PcapHandleTest.pcap");
+    try {
+      assertFalse(reader.isPcapNg());
+      assertEquals(DataLinkType.EN10MB, reader.getDlt());
+      assertEquals(TimestampPrecision.MICRO, reader.getTimestampPrecision());
+      assertEquals(2, reader.getMajorVersion());
+      assertEquals(4, reader.getMinorVersion());
+      assertNull(reader.getTimestamp());
+      assertNull(reader.getOriginalLength());
+
+      byte[] packet = reader.getNextRawPacketEx();
+      assertEquals(74, packet.length);
+      assertEquals(Integer.valueOf(74), reader.getOriginalLength());
+      assertEquals(1434220771L, reader.getTimestampSeconds());
+      assertEquals(517995000, reader.getTimestampNanos());
+      assertEquals(1434220771517L, reader.getTimestamp().getTime());
+
+      assertNull(reader.getNextRawPacket());
+      try {
+        reader.getNextRawPacketEx();
+        fail();
+      } catch (EOFException e) {
+        // expected
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testReadNanoPcap() throws Exception {
+    PcapFileReader reader =
+        new PcapFileReader(RESOURCE_DIR + "PcapsTest.testOpenOfflineWithTimestampPrecision.pcap");
+    try {
+      assertEquals(TimestampPrecision.NANO, reader.getTimestampPrecision());
+      reader.getNextRawPacketEx();
+      assertEquals(1434220771L, reader.getTimestampSeconds());
+      assertEquals(517995677, reader.getTimestampNanos());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testReadPcapNg() throws Exception {
+    PcapFileReader pcap = new PcapFileReader(RESOURCE_DIR + "udp_tcp_icmp.pcap");
+    PcapFileReader pcapng = new PcapFileReader(RESOURCE_DIR + "PcapFileReaderTest.pcapng");
+    try {
+      assertTrue(pcapng.isPcapNg());
+      assertEquals(DataLinkType.EN10MB, pcapng.getDlt());
+      assertEquals(65535, pcapng.getSnapshot());
+      assertEquals(1, pcapng.getMajorVersion());
+
+      assertArrayEquals(pcap.getNextRawPacketEx(), pcapng.getNextRawPacketEx());
+      assertEquals(1434220771L, pcapng.getTimestampSeconds());
+      assertEquals(517995000, pcapng.getTimestampNanos());
+
+      // simple packet block
+      assertArrayEquals(pcap.getNextRawPacketEx(), pcapng.getNextRawPacketEx());
+      assertEquals(0L, pcapng.getTimestampSeconds());
+
+      byte[] expected = pcap.getNextRawPacketEx();
+      assertArrayEquals(expected, pcapng.getNextRawPacketEx());
+      assertEquals(Integer.valueOf(expected.length + 4), pcapng.getOriginalLength());
+
+      assertNull(pcapng.getNextRawPacket());
+    } finally {
+      pcap.close();
+      pcapng.close();
+    }
+  }
+
+  @Test
+  public void testLoopBufferWithSmallWindow() throws Exception {
+    final List<byte[]> expected = new ArrayList<byte[]>();
+    PcapFileReader reader = new PcapFileReader(RESOURCE_DIR + "udp_tcp_icmp.pcap");
+    try {
+      assertEquals(
+          3,
+          reader.loop(
+              -1,
+              new RawPacketListener() {
+                @Override
+                public void gotPacket(byte[] packet) {
+                  expected.add(packet);
+                }
+              }));
+    } finally {
+      reader.close();
+    }
+
+    final List<byte[]> actual = new ArrayList<byte[]>();
+    final List<Short> etherTypes = new ArrayList<Short>();
+    reader = new PcapFileReader(RESOURCE_DIR + "udp_tcp_icmp.pcap", 32);
+    try {
+      assertEquals(
+          3,
+          reader.loop(
+              5,
+              new BufferPacketListener() {
+                @Override
+                public void gotPacket(PacketBuffer packet) {
+                  actual.add(packet.copy());
+                  etherTypes.add(packet.getShort(12));
+                  assertEquals(packet.length(), packet.asByteBuffer().remaining());
+                }
+              }));
+    } finally {
+      reader.close();
+    }
+
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(expected.get(i), actual.get(i));
+    }
+    assertEquals(Short.valueOf((short) 0x86dd), etherTypes.get(0));
+    assertEquals(Short.valueOf((short) 0x0800), etherTypes.get(1));
+  }
+
+  @Test
+  public void testPacketBufferBounds() throws Exception {
+    final List<String> errors = new ArrayList<String>();
+    PcapFileReader reader = new PcapFileReader(RESOURCE_DIR + "udp_tcp_icmp.pcap");
+    try {
+      reader.loop(
+          1,
+          new BufferPacketListener() {
+            @Override
+            public void gotPacket(PacketBuffer packet) {
+              byte[] dst = new byte[8];
+              int[][] ranges = {
+                {Integer.MAX_VALUE - 1, 4},
+                {1, Integer.MAX_VALUE},
+                {packet.length() - 3, 4},
+                {-1, 1},
+                {0, -1}
+              };
+              for (int[] range : ranges) {
+                try {
+                  if (range[1] == 4) {
+                    packet.getInt(range[0]);
+                  } else {
+                    packet.getBytes(range[0], dst, 0, range[1]);
+                  }
+                  errors.add(range[0] + ", " + range[1]);
+                } catch (IndexOutOfBoundsException e) {
+                  // expected
+                }
+              }
+              packet.getInt(packet.length() - 4);
+            }
+          });
+    } finally {
+      reader.close();
+    }
+    assertEquals("[]", errors.toString());
+  }
+
+  @Test
+  public void testBreakLoop() throws Exception {
+    final PcapFileReader reader = new PcapFileReader(RESOURCE_DIR + "udp_tcp_icmp.pcap");
+    final List<byte[]> packets = new ArrayList<byte[]>();
+    try {
+      reader.loop(
+          -1,
+          new RawPacketListener() {
+            @Override
+            public void gotPacket(byte[] packet) {
+              packets.add(packet);
+              reader.breakLoop();
+            }
+          });
+      fail();
+    } catch (InterruptedException e) {
+      assertEquals(1, packets.size());
+      assertEquals(
+          2,
+          reader.loop(
+              -1,
+              new RawPacketListener() {
+                @Override
+                public void gotPacket(byte[] packet) {}
+              }));
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testPacketFactoryBinder() throws Exception {
+    final List<Class<?>> numberClasses = new ArrayList<Class<?>>();
+    PacketFactoryBinder binder =
+        new PacketFactoryBinder() {
+          @Override
+          public <T, N extends NamedNumber<?, ?>> PacketFactory<T, N> getPacketFactory(
+              Class<T> targetClass, Class<N> numberClass) {
+            numberClasses.add(numberClass);
+            return PacketFactories.getDefaultBinder().getPacketFactory(targetClass, numberClass);
+          }
+        };
+
+    PcapFileReader reader = new PcapFileReader(RESOURCE_DIR + "udp_tcp_icmp.pcap");
+    try {
+      reader.setPacketFactoryBinder(binder);
+      assertSame(binder, reader.getPacketFactoryBinder());
+      Packet packet = reader.getNextPacketEx();
+      assertTrue(packet instanceof UnknownPacket);
+      assertEquals(1, numberClasses.size());
+      assertSame(DataLinkType.class, numberClasses.get(0));
+      assertNull(PacketFactories.getThreadBinder());
+
+      reader.setPacketFactoryBinder(null);
+      reader.getNextPacketEx();
+      assertEquals(1, numberClasses.size());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testTruncatedFile() throws Exception {
+    File tmp = File.createTempFile("PcapFileReaderTest", ".pcap");
+    try {
+      byte[] data = new byte[24 + 16 + 10];
+      byte[] header = new byte[] {(byte) 0xd4, (byte) 0xc3, (byte) 0xb2, (byte) 0xa1, 2, 0, 4, 0};
+      System.arraycopy(header, 0, data, 0, header.length);
+      data[20] = 1;
+      data[24 + 8] = 20; // incl_len
+      data[24 + 12] = 20; // orig_len
+      FileOutputStream out = new FileOutputStream(tmp);
+      try {
+        out.write(data);
+      } finally {
+        out.close();
+      }
+
+      PcapFileReader reader = new PcapFileReader(tmp.getAbsolutePath());
+      try {
+        reader.getNextRawPacket();
+        fail();
+      } catch (EOFException e) {
+        fail();
+      } catch (IOException e) {
+        assertTrue(e.getMessage().startsWith("Truncated record"));
+      } finally {
+        reader.close();
+      }
+    } finally {
+      tmp.delete();
+    }
+  }
+
+  @Test
+  public void testClosed() throws Exception {
+    PcapFileReader reader = new PcapFileReader(RESOURCE_DIR + "PcapHandleTest.pcap");
+    reader.close();
+    assertFalse(reader.isOpen());
+    try {
+      reader.getNextRawPacket();
+      fail();
+    } catch (NotOpenException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.core.PcapHandle.TimestampPrecision;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.packet.namednumber.DataLinkType;
+
+@SuppressWarnings("javadoc")
+public class PcapFileWriterTest {
+
+  private File file;
+
+  @Before
+  public void setUp() throws Exception {
+    file = File.createTempFile("PcapFileWriterTest", ".pcap");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    file.delete();
+  }
+
+  private static byte[] packet(int length, int seed) {
+    byte[] packet = new byte[length];
+    for (int i = 0; i < length; i++) {
+      packet[i] = (byte) (i + seed);
+    }
+    return packet;
+  }
+
+  private void writeAndRead(PcapFileWriter.Builder builder, TimestampPrecision precision)
+      throws Exception {
+    int[] lengths = {60, 1514, 20, 5000, 0, 128};
+    PcapFileWriter writer = builder.timestampPrecision(precision).bufferSize(2048).build();
+    try {
+      for (int i = 0; i < lengths.length; i++) {
+        writer.dumpRaw(packet(lengths[i], i), 1434220771L + i, 517995677);
+      }
+      assertEquals(lengths.length, writer.getPacketCount());
+    } finally {
+      writer.close();
+    }
+    assertFalse(writer.isOpen());
+
+    PcapFileReader reader = new PcapFileReader(file.getPath());
+    try {
+      assertEquals(DataLinkType.EN10MB, reader.getDlt());
+      assertEquals(precision, reader.getTimestampPrecision());
+      assertEquals(262144, reader.getSnapshot());
+      for (int i = 0; i < lengths.length; i++) {
+        assertArrayEquals(packet(lengths[i], i), reader.getNextRawPacketEx());
+        assertEquals(1434220771L + i, reader.getTimestampSeconds());
+        assertEquals(
+            precision == TimestampPrecision.NANO ? 517995677 : 517995000,
+            reader.getTimestampNanos());
+      }
+      assertNull(reader.getNextRawPacket());
+    } finally {
+      reader.close();
+    }
+    assertEquals(file.length(), writer.getPosition());
+  }
+
+  @Test
+  public void testDumpMicro() throws Exception {
+    writeAndRead(
+        new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB), TimestampPrecision.MICRO);
+  }
+
+  @Test
+  public void testDumpNano() throws Exception {
+    writeAndRead(
+        new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB), TimestampPrecision.NANO);
+  }
+
+  @Test
+  public void testDumpInBackground() throws Exception {
+    writeAndRead(
+        new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB)
+            .backgroundWrite(true)
+            .bufferCount(2),
+        TimestampPrecision.NANO);
+  }
+
+  @Test
+  public void testFlush() throws Exception {
+    PcapFileWriter writer =
+        new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB)
+            .backgroundWrite(true)
+            .build();
+    try {
+      writer.dumpRaw(packet(100, 0), 0, 0);
+      assertEquals(0, file.length());
+      writer.flush();
+      assertEquals(24 + 16 + 100, file.length());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testDumpBuffer() throws Exception {
+    byte[] data = packet(200, 3);
+    ByteBufferPacketBuffer buf = new ByteBufferPacketBuffer();
+    buf.reset(ByteBuffer.wrap(data), 10, 100, 150, 12345L, 678000);
+
+    PcapFileWriter writer = new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB).build();
+    try {
+      writer.dump(buf);
+    } finally {
+      writer.close();
+    }
+
+    PcapFileReader reader = new PcapFileReader(file.getPath());
+    try {
+      byte[] expected = new byte[100];
+      System.arraycopy(data, 10, expected, 0, 100);
+      assertArrayEquals(expected, reader.getNextRawPacketEx());
+      assertEquals(Integer.valueOf(150), reader.getOriginalLength());
+      assertEquals(12345L, reader.getTimestampSeconds());
+      assertEquals(678000, reader.getTimestampNanos());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testDumpPacket() throws Exception {
+    byte[] data = packet(200, 5);
+    Packet packet = UnknownPacket.newPacket(data, 10, 100);
+
+    PcapFileWriter writer = new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB).build();
+    try {
+      writer.dump(packet, 12345L, 678000);
+    } finally {
+      writer.close();
+    }
+
+    PcapFileReader reader = new PcapFileReader(file.getPath());
+    try {
+      assertArrayEquals(packet.getRawData(), reader.getNextRawPacketEx());
+      assertEquals(Integer.valueOf(100), reader.getOriginalLength());
+      assertEquals(12345L, reader.getTimestampSeconds());
+      assertEquals(678000, reader.getTimestampNanos());
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Test
+  public void testClosed() throws Exception {
+    PcapFileWriter writer = new PcapFileWriter.Builder(file.getPath(), DataLinkType.EN10MB).build();
+    writer.close();
+    try {
+      writer.dumpRaw(new byte[10]);
+      fail();
+    } catch (NotOpenException e) {
+      // expected
+    }
+    try {
+      writer.flush();
+      fail();
+    } catch (NotOpenException e) {
+      // expected
+    }
+  }
+}
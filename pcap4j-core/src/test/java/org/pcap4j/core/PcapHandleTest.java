@@ -7,6 +7,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -135,6 +137,36 @@ public class PcapHandleTest {
         });
   }
 
+  @Test
+  public void testGetTimestampPrimitive() throws Exception {
+    try {
+      ph.getTimestampSeconds();
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    ph.getNextRawPacketEx();
+    assertEquals(1434220771L, ph.getTimestampSeconds());
+    assertEquals(517995000, ph.getTimestampNanos());
+  }
+
+  @Test
+  public void testGetTimestampLoopBuffer() throws Exception {
+    final List<Long> seconds = new ArrayList<Long>();
+    final List<Integer> nanos = new ArrayList<Integer>();
+    ph.loop(
+        1,
+        new BufferPacketListener() {
+          @Override
+          public void gotPacket(PacketBuffer packet) {
+            seconds.add(packet.getTimestampSeconds());
+            nanos.add(packet.getTimestampNanos());
+          }
+        });
+    assertEquals(Long.valueOf(1434220771L), seconds.get(0));
+    assertEquals(Integer.valueOf(517995000), nanos.get(0));
+  }
+
   @Test
   public void testGetTimestampRawEx() throws Exception {
     assertNull(ph.getTimestamp());
@@ -202,6 +234,90 @@ public class PcapHandleTest {
         });
   }
 
+  @Test
+  public void testLoopBuffer() throws Exception {
+    final List<byte[]> copies = new ArrayList<byte[]>();
+    final List<Integer> originalLengths = new ArrayList<Integer>();
+    ph.loop(
+        1,
+        new BufferPacketListener() {
+          @Override
+          public void gotPacket(PacketBuffer packet) {
+            copies.add(packet.copy());
+            originalLengths.add(packet.getOriginalLength());
+          }
+        });
+
+    ph.close();
+    ph = Pcaps.openOffline("src/test/resources/org/pcap4j/core/PcapHandleTest.pcap");
+    byte[] expected = ph.getNextRawPacket();
+
+    assertEquals(1, copies.size());
+    assertArrayEquals(expected, copies.get(0));
+    assertEquals(new Integer(74), originalLengths.get(0));
+  }
+
+  @Test
+  public void testLoopBufferInvalidatedAfterCallback() throws Exception {
+    final List<PacketBuffer> buffers = new ArrayList<PacketBuffer>();
+    final List<Short> etherTypes = new ArrayList<Short>();
+    ph.loop(
+        1,
+        new BufferPacketListener() {
+          @Override
+          public void gotPacket(PacketBuffer packet) {
+            buffers.add(packet);
+            etherTypes.add(packet.getShort(12));
+          }
+        });
+
+    assertEquals(1, buffers.size());
+    assertEquals(Short.valueOf((short) 0x0800), etherTypes.get(0));
+    try {
+      buffers.get(0).getByte(0);
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testDispatchBatch() throws Exception {
+    PacketBatch batch = new PacketBatch(1, 1);
+    int count = ph.dispatch(-1, batch);
+
+    ph.close();
+    ph = Pcaps.openOffline("src/test/resources/org/pcap4j/core/PcapHandleTest.pcap");
+    byte[] expected = ph.getNextRawPacket();
+
+    assertEquals(1, count);
+    assertEquals(1, batch.size());
+    assertArrayEquals(expected, batch.getPacket(0));
+    assertEquals(74, batch.getOriginalLength(0));
+    assertEquals(1434220771L, batch.getTimestampSeconds(0));
+    assertEquals(517995000, batch.getTimestampNanos(0));
+    assertEquals(1434220771517L, batch.getTimestamp(0).getTime());
+  }
+
+  @Test
+  public void testDispatchBatchListener() throws Exception {
+    final List<PacketBatch> batches = new ArrayList<PacketBatch>();
+    int count =
+        ph.dispatch(
+            -1,
+            new BatchPacketListener() {
+              @Override
+              public void gotPackets(PacketBatch packets) {
+                batches.add(packets);
+              }
+            });
+
+    assertEquals(1, count);
+    assertEquals(1, batches.size());
+    assertEquals(1, batches.get(0).size());
+    assertEquals(74, batches.get(0).getLength(0));
+  }
+
   @Test
   public void testSetDirection() throws Exception {
     try {
@@ -456,6 +572,85 @@ public class PcapHandleTest {
     }
   }
 
+  @Test
+  public void testSendPackets() throws Exception {
+    if (System.getenv("TRAVIS") != null) {
+      // run only on Travis CI
+      PcapNetworkInterface nif = Pcaps.getDevByName("lo");
+      final PcapHandle handle = nif.openLive(65536, PromiscuousMode.PROMISCUOUS, 10);
+      List<byte[]> packets = new ArrayList<byte[]>();
+      for (int i = 0; i < 3; i++) {
+        byte[] packet = new byte[60];
+        packet[0] = 5;
+        packet[1] = 4;
+        packet[2] = 3;
+        packet[3] = 2;
+        packet[4] = (byte) i;
+        packets.add(packet);
+      }
+
+      ExecutorService pool = Executors.newSingleThreadExecutor();
+      final List<byte[]> result = new ArrayList<byte[]>();
+      final FutureTask<List<byte[]>> future =
+          new FutureTask<List<byte[]>>(
+              new Runnable() {
+
+                @Override
+                public void run() {}
+              },
+              result);
+      pool.execute(
+          new Runnable() {
+
+            @Override
+            public void run() {
+              try {
+                handle.loop(
+                    -1,
+                    new RawPacketListener() {
+
+                      @Override
+                      public void gotPacket(byte[] p) {
+                        if (p[0] == 5 && p[1] == 4 && p[2] == 3 && p[3] == 2) {
+                          result.add(p);
+                          if (result.size() == 6) {
+                            future.run();
+                          }
+                        }
+                      }
+                    });
+              } catch (PcapNativeException e) {
+              } catch (InterruptedException e) {
+              } catch (NotOpenException e) {
+              }
+            }
+          });
+
+      Thread.sleep(1000);
+      assertEquals(3, handle.sendPackets(packets, 1000));
+      ByteBuffer buf = ByteBuffer.allocateDirect(180);
+      for (byte[] packet : packets) {
+        buf.put(packet);
+      }
+      buf.flip();
+      try {
+        // The sum of the lengths overflows int.
+        handle.sendPackets(buf, new int[] {Integer.MAX_VALUE, 2}, 2);
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertEquals(180, buf.remaining());
+      }
+      assertEquals(3, handle.sendPackets(buf, new int[] {60, 60, 60}, 3));
+      assertEquals(0, buf.remaining());
+      future.get(5, TimeUnit.SECONDS);
+      handle.breakLoop();
+      handle.close();
+      for (int i = 0; i < 6; i++) {
+        assertArrayEquals(packets.get(i % 3), result.get(i));
+      }
+    }
+  }
+
   @Test
   public void testImmediateMode() throws Exception {
     if (System.getenv("TRAVIS") != null) {
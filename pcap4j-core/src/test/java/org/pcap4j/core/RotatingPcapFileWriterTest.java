@@ -0,0 +1,162 @@
+package org.pcap4j.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.DataLinkType;
+
+@SuppressWarnings("javadoc")
+public class RotatingPcapFileWriterTest {
+
+  private File dir;
+  private String basePath;
+
+  @Before
+  public void setUp() throws Exception {
+    dir = File.createTempFile("RotatingPcapFileWriterTest", "");
+    dir.delete();
+    dir.mkdir();
+    basePath = new File(dir, "capture.pcap").getPath();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File f : files) {
+        f.delete();
+      }
+    }
+    dir.delete();
+  }
+
+  /** @return the first bytes of the packets in the file. */
+  private static String read(String path) throws Exception {
+    StringBuilder sb = new StringBuilder();
+    PcapFileReader reader = new PcapFileReader(path);
+    try {
+      byte[] packet;
+      while ((packet = reader.getNextRawPacket()) != null) {
+        sb.append(packet[0]);
+      }
+    } finally {
+      reader.close();
+    }
+    return sb.toString();
+  }
+
+  private static byte[] packet(int length, int id) {
+    byte[] packet = new byte[length];
+    packet[0] = (byte) id;
+    return packet;
+  }
+
+  @Test
+  public void testRotateByPacketCountInRing() throws Exception {
+    RotatingPcapFileWriter writer =
+        new RotatingPcapFileWriter.Builder(basePath, DataLinkType.EN10MB)
+            .maxPackets(2)
+            .maxFiles(3)
+            .build();
+    try {
+      for (int i = 0; i < 7; i++) {
+        writer.dumpRaw(packet(60, i), i, 0);
+      }
+      assertEquals(3, writer.getRotationCount());
+      assertEquals(basePath + "3", writer.getCurrentFilePath());
+    } finally {
+      writer.close();
+    }
+    assertFalse(writer.isOpen());
+
+    // The ring holds the 2 latest finished files and the current one. The file 0 had been opened
+    // in advance for the next rotation, overwriting the oldest one, and has been deleted.
+    assertFalse(new File(basePath + "0").exists());
+    assertEquals("23", read(basePath + "1"));
+    assertEquals("45", read(basePath + "2"));
+    assertEquals("6", read(basePath + "3"));
+    assertEquals(3, dir.listFiles().length);
+  }
+
+  @Test
+  public void testRingOfTwo() throws Exception {
+    RotatingPcapFileWriter writer =
+        new RotatingPcapFileWriter.Builder(basePath, DataLinkType.EN10MB)
+            .maxPackets(1)
+            .maxFiles(2)
+            .build();
+    try {
+      for (int i = 0; i < 5; i++) {
+        writer.dumpRaw(packet(60, i), i, 0);
+      }
+    } finally {
+      writer.close();
+    }
+
+    assertEquals("3", read(basePath + "0"));
+    assertEquals("4", read(basePath + "1"));
+    assertEquals(2, dir.listFiles().length);
+  }
+
+  @Test
+  public void testRotateByFileSize() throws Exception {
+    // file header (24) + 2 records (16 + 100 each) = 256 bytes
+    RotatingPcapFileWriter writer =
+        new RotatingPcapFileWriter.Builder(basePath, DataLinkType.EN10MB).maxFileSize(256).build();
+    try {
+      for (int i = 0; i < 5; i++) {
+        writer.dumpRaw(packet(100, i), i, 0);
+      }
+    } finally {
+      writer.close();
+    }
+
+    assertEquals("01", read(basePath + "0"));
+    assertEquals("23", read(basePath + "1"));
+    assertEquals("4", read(basePath + "2"));
+    assertEquals(256, new File(basePath + "0").length());
+    assertFalse(new File(basePath + "3").exists());
+  }
+
+  @Test
+  public void testRotateByDuration() throws Exception {
+    RotatingPcapFileWriter writer =
+        new RotatingPcapFileWriter.Builder(basePath, DataLinkType.EN10MB)
+            .maxDuration(10, TimeUnit.SECONDS)
+            .backgroundWrite(true)
+            .build();
+    try {
+      writer.dumpRaw(packet(60, 1), 100, 500000000);
+      writer.dumpRaw(packet(60, 2), 110, 499999999);
+      writer.dumpRaw(packet(60, 3), 110, 500000000);
+      writer.dumpRaw(packet(60, 4), 115, 0);
+    } finally {
+      writer.close();
+    }
+
+    assertEquals("12", read(basePath + "0"));
+    assertEquals("34", read(basePath + "1"));
+  }
+
+  @Test
+  public void testClosed() throws Exception {
+    RotatingPcapFileWriter writer =
+        new RotatingPcapFileWriter.Builder(basePath, DataLinkType.EN10MB).maxPackets(1).build();
+    writer.close();
+    assertTrue(new File(basePath + "0").exists());
+    assertFalse(new File(basePath + "1").exists());
+    try {
+      writer.dumpRaw(new byte[10]);
+      fail();
+    } catch (NotOpenException e) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package org.pcap4j.packet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.util.ByteArrays;
+
+@SuppressWarnings("javadoc")
+public class AbstractPacketTest {
+
+  private boolean sharing;
+  private boolean lazy;
+
+  @Before
+  public void setUp() {
+    sharing = AbstractPacket.isRawDataSharingEnabled();
+    lazy = LazyPayload.isEnabled();
+    AbstractPacket.setRawDataSharingEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    AbstractPacket.setRawDataSharingEnabled(sharing);
+    LazyPayload.setEnabled(lazy);
+  }
+
+  private static byte[] toArray(ByteBuffer buf) {
+    byte[] array = new byte[buf.remaining()];
+    buf.duplicate().get(array);
+    return array;
+  }
+
+  private static byte[] newData() {
+    byte[] data = new byte[80];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    System.arraycopy(ByteArrays.toByteArray(EtherType.IPV4.value()), 0, data, 22, 2);
+    return data;
+  }
+
+  @Test
+  public void testRawDataSource() throws Exception {
+    byte[] data = newData();
+    byte[] frame = ByteArrays.getSubArray(data, 10, 60);
+
+    EthernetPacket packet = EthernetPacket.newPacket(data, 10, 60);
+    assertEquals(60, packet.length());
+    byte[] rawData = packet.getRawData();
+    assertArrayEquals(frame, rawData);
+    assertNotSame(rawData, packet.getRawData());
+
+    ByteBuffer view = packet.rawDataView();
+    assertTrue(view.isReadOnly());
+    assertEquals(0, view.position());
+    assertEquals(60, view.limit());
+    assertArrayEquals(frame, toArray(view));
+
+    EthernetPacket built = packet.getBuilder().build();
+    assertArrayEquals(frame, built.getRawData());
+    assertArrayEquals(frame, toArray(built.rawDataView()));
+  }
+
+  @Test
+  public void testRawDataSourceNotUsed() throws Exception {
+    byte[] data = new byte[20];
+    data[5] = 12; // The length field says the packet is shorter than the data.
+    UdpPacket packet = UdpPacket.newPacket(data, 0, data.length);
+    assertEquals(12, packet.length());
+    assertArrayEquals(ByteArrays.getSubArray(data, 0, 12), packet.getRawData());
+    assertEquals(12, packet.rawDataView().remaining());
+  }
+
+  @Test
+  public void testRawDataSharingDisabled() throws Exception {
+    AbstractPacket.setRawDataSharingEnabled(false);
+    byte[] data = newData();
+    byte[] frame = ByteArrays.getSubArray(data, 10, 60);
+    EthernetPacket packet = EthernetPacket.newPacket(data, 10, 60);
+
+    // The packet doesn't refer to the caller's array.
+    data[10] = (byte) 0xFF;
+    assertArrayEquals(frame, packet.getRawData());
+    assertArrayEquals(frame, toArray(packet.rawDataView()));
+  }
+
+  @Test
+  public void testLazyPayloadNotDecoded() throws Exception {
+    LazyPayload.setEnabled(true);
+    byte[] data = newData();
+    EthernetPacket packet = EthernetPacket.newPacket(data, 10, 60);
+    assertArrayEquals(ByteArrays.getSubArray(data, 10, 60), toArray(packet.rawDataView()));
+
+    Field field = EthernetPacket.class.getDeclaredField("lazyPayload");
+    field.setAccessible(true);
+    assertFalse(((LazyPayload<?>) field.get(packet)).isDecoded());
+  }
+
+  @Test
+  public void testRawDataViewNotCopied() throws Exception {
+    final byte[] data = newData();
+    final int[] copies = new int[1];
+    AbstractPacket packet =
+        new AbstractPacket() {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          public int length() {
+            return data.length;
+          }
+
+          @Override
+          protected byte[] buildRawData() {
+            return data;
+          }
+
+          @Override
+          public byte[] getRawData() {
+            copies[0]++;
+            return super.getRawData();
+          }
+
+          @Override
+          public Builder getBuilder() {
+            return null;
+          }
+        };
+    assertArrayEquals(data, toArray(packet.rawDataView()));
+
+    // The views are backed by the cached raw data.
+    data[0] = (byte) 0xFF;
+    ByteBuffer view = packet.rawDataView();
+    assertTrue(view.isReadOnly());
+    assertEquals((byte) 0xFF, view.get(0));
+    assertEquals(0, copies[0]);
+  }
+}
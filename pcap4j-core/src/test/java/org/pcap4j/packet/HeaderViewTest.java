@@ -0,0 +1,177 @@
+package org.pcap4j.packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.packet.namednumber.IpVersion;
+import org.pcap4j.packet.namednumber.TcpPort;
+import org.pcap4j.packet.namednumber.UdpPort;
+import org.pcap4j.util.ByteArrays;
+
+@SuppressWarnings("javadoc")
+public class HeaderViewTest {
+
+  private static final byte[] DATA = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+  private static IpV4Packet.Builder ipV4(IpNumber protocol, Packet.Builder payload)
+      throws Exception {
+    return new IpV4Packet.Builder()
+        .version(IpVersion.IPV4)
+        .tos(IpV4Rfc1349Tos.newInstance((byte) 0x10))
+        .identification((short) 0xABCD)
+        .dontFragmentFlag(true)
+        .ttl((byte) 200)
+        .protocol(protocol)
+        .srcAddr((Inet4Address) InetAddress.getByName("192.0.2.1"))
+        .dstAddr((Inet4Address) InetAddress.getByName("198.51.100.254"))
+        .payloadBuilder(payload)
+        .correctChecksumAtBuild(true)
+        .correctLengthAtBuild(true);
+  }
+
+  @Test
+  public void testIpV4AndTcp() throws Exception {
+    TcpPacket.Builder tcpb =
+        new TcpPacket.Builder()
+            .srcPort(TcpPort.getInstance((short) 51000))
+            .dstPort(TcpPort.HTTP)
+            .sequenceNumber(0xF0000001)
+            .acknowledgmentNumber(2)
+            .dataOffset((byte) 5)
+            .syn(true)
+            .ack(true)
+            .window((short) 65000)
+            .srcAddr(InetAddress.getByName("192.0.2.1"))
+            .dstAddr(InetAddress.getByName("198.51.100.254"))
+            .payloadBuilder(new UnknownPacket.Builder().rawData(DATA))
+            .correctChecksumAtBuild(true);
+    IpV4Packet packet = ipV4(IpNumber.TCP, tcpb).build();
+    byte[] frame = new byte[packet.length() + 20];
+    System.arraycopy(packet.getRawData(), 0, frame, 14, packet.length());
+
+    IpV4HeaderView ip = new IpV4HeaderView();
+    TcpHeaderView tcp = new TcpHeaderView();
+    assertTrue(ip.wrap(frame, 14, frame.length - 14));
+    assertEquals(4, ip.getVersionAsInt());
+    assertEquals(5, ip.getIhlAsInt());
+    assertEquals(20, ip.getHeaderLength());
+    assertEquals((byte) 0x10, ip.getTos());
+    assertEquals(packet.length(), ip.getTotalLengthAsInt());
+    assertEquals(0xABCD, ip.getIdentificationAsInt());
+    assertEquals(2, ip.getFlags());
+    assertTrue(ip.getDontFragmentFlag());
+    assertFalse(ip.getMoreFragmentFlag());
+    assertFalse(ip.isFragment());
+    assertEquals(200, ip.getTtlAsInt());
+    assertEquals(6, ip.getProtocolAsInt());
+    assertEquals(packet.getHeader().getHeaderChecksum(), ip.getHeaderChecksum());
+    assertEquals(0xC0000201, ip.getSrcAddrAsInt());
+    assertEquals(
+        ByteArrays.getInt(packet.getHeader().getDstAddr().getAddress(), 0), ip.getDstAddrAsInt());
+    assertEquals(34, ip.getPayloadOffset());
+    // The trailing bytes of the frame are not a part of the IPv4 packet.
+    assertEquals(packet.length() - 20, ip.getPayloadLength());
+
+    assertTrue(tcp.wrapPayloadOf(ip));
+    TcpPacket.TcpHeader tcpHeader = packet.get(TcpPacket.class).getHeader();
+    assertEquals(51000, tcp.getSrcPortAsInt());
+    assertEquals(80, tcp.getDstPortAsInt());
+    assertEquals(0xF0000001, tcp.getSequenceNumber());
+    assertEquals(0xF0000001L, tcp.getSequenceNumberAsLong());
+    assertEquals(2, tcp.getAcknowledgmentNumber());
+    assertEquals(20, tcp.getHeaderLength());
+    assertEquals(TcpHeaderView.SYN | TcpHeaderView.ACK, tcp.getFlags());
+    assertTrue(tcp.getSyn());
+    assertFalse(tcp.getFin());
+    assertEquals(65000, tcp.getWindowAsInt());
+    assertEquals(tcpHeader.getChecksum(), tcp.getChecksum());
+    assertEquals(54, tcp.getPayloadOffset());
+    assertEquals(DATA.length, tcp.getPayloadLength());
+  }
+
+  @Test
+  public void testUdpInByteBuffer() throws Exception {
+    UdpPacket.Builder udpb =
+        new UdpPacket.Builder()
+            .srcPort(UdpPort.getInstance((short) 40000))
+            .dstPort(UdpPort.DOMAIN)
+            .srcAddr(InetAddress.getByName("192.0.2.1"))
+            .dstAddr(InetAddress.getByName("198.51.100.254"))
+            .payloadBuilder(new UnknownPacket.Builder().rawData(DATA))
+            .correctChecksumAtBuild(true)
+            .correctLengthAtBuild(true);
+    IpV4Packet packet = ipV4(IpNumber.UDP, udpb).build();
+    ByteBuffer buf = ByteBuffer.allocateDirect(100);
+    buf.position(10);
+    buf.put(packet.getRawData());
+    buf.flip();
+
+    IpV4HeaderView ip = new IpV4HeaderView();
+    UdpHeaderView udp = new UdpHeaderView();
+    assertTrue(ip.wrap(buf, 10, buf.limit() - 10));
+    assertEquals(17, ip.getProtocolAsInt());
+    assertTrue(udp.wrapPayloadOf(ip));
+    assertEquals(40000, udp.getSrcPortAsInt());
+    assertEquals(53, udp.getDstPortAsInt());
+    assertEquals(8 + DATA.length, udp.getLengthAsInt());
+    assertEquals(packet.get(UdpPacket.class).getHeader().getChecksum(), udp.getChecksum());
+    assertEquals(38, udp.getPayloadOffset());
+    assertEquals(DATA.length, udp.getPayloadLength());
+    assertEquals(0, buf.position());
+  }
+
+  @Test
+  public void testBeyondLimit() throws Exception {
+    ByteBuffer buf = ByteBuffer.allocate(100);
+    buf.limit(30);
+    UdpHeaderView udp = new UdpHeaderView();
+    try {
+      udp.wrap(buf, 0, 40);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+    try {
+      udp.wrap(buf, 25, 8);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+    assertFalse(udp.isWrapping());
+    assertEquals(30, buf.limit());
+  }
+
+  @Test
+  public void testInvalid() {
+    IpV4HeaderView ip = new IpV4HeaderView();
+    byte[] data = new byte[40];
+    assertFalse(ip.wrap(data, 0, data.length)); // version 0
+    assertFalse(ip.isWrapping());
+
+    data[0] = 0x46; // IHL 6 (24 bytes)
+    assertTrue(ip.wrap(data, 0, 24));
+    assertFalse(ip.wrap(data, 0, 23));
+
+    data[3] = 10; // total length shorter than the header
+    assertFalse(ip.wrap(data, 0, data.length));
+
+    TcpHeaderView tcp = new TcpHeaderView();
+    assertFalse(tcp.wrapPayloadOf(ip));
+    assertFalse(tcp.wrap(data, 0, 19));
+    data[12] = 0x40; // data offset 4
+    assertFalse(tcp.wrap(data, 0, data.length));
+
+    UdpHeaderView udp = new UdpHeaderView();
+    assertFalse(udp.wrap(data, 20, 8)); // length 0
+    data[25] = 8;
+    assertTrue(udp.wrap(data, 20, 8));
+    assertEquals(0, udp.getPayloadLength());
+  }
+}
@@ -0,0 +1,98 @@
+package org.pcap4j.packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.pcap4j.packet.EthernetPacket.EthernetHeader;
+import org.pcap4j.packet.IllegalRawDataException.Reason;
+import org.pcap4j.packet.IpV4Packet.IpV4Header;
+
+@SuppressWarnings("javadoc")
+public class IllegalRawDataExceptionTest {
+
+  @Test
+  public void testStructured() {
+    IllegalRawDataException e =
+        new IllegalRawDataException(IpV4Header.class, Reason.TOO_SHORT, 14, 10, 20);
+    assertEquals(0, e.getStackTrace().length);
+    assertSame(IpV4Header.class, e.getLayer());
+    assertSame(Reason.TOO_SHORT, e.getReason());
+    assertEquals(14, e.getOffset());
+    assertEquals(10, e.getLength());
+    assertEquals(20, e.getValue());
+    assertEquals(
+        "IpV4Header: The data is too short. It must be at least 20 bytes. offset: 14, length: 10",
+        e.getMessage());
+  }
+
+  @Test
+  public void testWithMessage() {
+    IllegalRawDataException e = new IllegalRawDataException("message");
+    assertTrue(e.getStackTrace().length > 0);
+    assertEquals(IllegalRawDataExceptionTest.class.getName(), e.getStackTrace()[0].getClassName());
+    assertEquals("message", e.getMessage());
+    assertNull(e.getLayer());
+    assertNull(e.getReason());
+    assertEquals(-1, e.getOffset());
+  }
+
+  @Test
+  public void testThrownByHeaders() {
+    byte[] data = new byte[30];
+    try {
+      EthernetPacket.newPacket(data, 20, 10);
+      fail();
+    } catch (IllegalRawDataException e) {
+      assertSame(EthernetHeader.class, e.getLayer());
+      assertSame(Reason.TOO_SHORT, e.getReason());
+      assertEquals(20, e.getOffset());
+      assertEquals(10, e.getLength());
+      assertEquals(14, e.getValue());
+    }
+
+    data[0] = 0x45;
+    try {
+      IpV4Packet.newPacket(data, 0, 19);
+      fail();
+    } catch (IllegalRawDataException e) {
+      assertSame(IpV4Header.class, e.getLayer());
+      assertSame(Reason.TOO_SHORT, e.getReason());
+    }
+
+    data[0] = 0x44;
+    try {
+      TcpPacket.newPacket(data, 0, 30);
+      fail();
+    } catch (IllegalRawDataException e) {
+      assertSame(TcpPacket.TcpHeader.class, e.getLayer());
+      assertSame(Reason.INVALID_FIELD, e.getReason());
+      assertEquals(0, e.getValue());
+    }
+
+    data[5] = 7;
+    try {
+      UdpPacket.newPacket(data, 0, 30);
+      fail();
+    } catch (IllegalRawDataException e) {
+      assertSame(UdpPacket.class, e.getLayer());
+      assertSame(Reason.INVALID_LENGTH_FIELD, e.getReason());
+      assertEquals(7, e.getValue());
+    }
+  }
+
+  @Test
+  public void testIllegalPacket() {
+    IllegalRawDataException e =
+        new IllegalRawDataException(IpV4Header.class, Reason.INVALID_FIELD, 0, 4, 3);
+    IllegalPacket packet = IllegalPacket.newPacket(new byte[] {1, 2, 3, 4}, 0, 4, e);
+    assertSame(e, packet.getCause());
+    assertTrue(packet.toString().contains(e.getMessage()));
+    assertSame(e, packet.getBuilder().build().getCause());
+    assertEquals(IllegalPacket.newPacket(new byte[] {1, 2, 3, 4}, 0, 4), packet);
+    assertNull(IllegalPacket.newPacket(new byte[] {1}, 0, 1).getCause());
+  }
+}
@@ -0,0 +1,85 @@
+package org.pcap4j.packet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.util.ByteArrays;
+
+@SuppressWarnings("javadoc")
+public class LazyPayloadTest {
+
+  private boolean enabled;
+
+  @Before
+  public void setUp() {
+    enabled = LazyPayload.isEnabled();
+  }
+
+  @After
+  public void tearDown() {
+    LazyPayload.setEnabled(enabled);
+  }
+
+  private static byte[] frame(short type, int length) {
+    byte[] frame = new byte[length];
+    for (int i = 0; i < frame.length; i++) {
+      frame[i] = (byte) i;
+    }
+    System.arraycopy(ByteArrays.toByteArray(type), 0, frame, 12, 2);
+    return frame;
+  }
+
+  @Test
+  public void testGet() {
+    byte[] rawData = frame(EtherType.IPV4.value(), 60);
+    LazyPayload<EtherType> payload =
+        new LazyPayload<EtherType>(rawData, 14, 46, EtherType.class, EtherType.IPV4);
+    assertFalse(payload.isDecoded());
+    assertEquals(46, payload.length());
+
+    Packet packet = payload.get();
+    assertTrue(payload.isDecoded());
+    assertSame(packet, payload.get());
+    assertArrayEquals(ByteArrays.getSubArray(rawData, 14, 46), packet.getRawData());
+    assertArrayEquals(ByteArrays.getSubArray(rawData, 20, 4), payload.getSubArray(6, 4));
+  }
+
+  @Test
+  public void testEthernetPacket() throws Exception {
+    byte[] rawData = frame(EtherType.IPV4.value(), 60);
+
+    LazyPayload.setEnabled(false);
+    EthernetPacket eager = EthernetPacket.newPacket(rawData, 0, rawData.length);
+    LazyPayload.setEnabled(true);
+    EthernetPacket lazy = EthernetPacket.newPacket(rawData, 0, rawData.length);
+
+    assertEquals(eager.getHeader(), lazy.getHeader());
+    assertEquals(eager.getPayload(), lazy.getPayload());
+    assertSame(lazy.getPayload(), lazy.getPayload());
+    assertEquals(eager, lazy);
+    assertEquals(eager.hashCode(), lazy.hashCode());
+    assertArrayEquals(rawData, lazy.getRawData());
+    assertEquals(eager.toString(), lazy.toString());
+  }
+
+  @Test
+  public void testIeee8023EthernetPacketWithPad() throws Exception {
+    byte[] rawData = frame((short) 16, 60);
+
+    LazyPayload.setEnabled(true);
+    EthernetPacket lazy = EthernetPacket.newPacket(rawData, 0, rawData.length);
+    assertArrayEquals(ByteArrays.getSubArray(rawData, 30, 30), lazy.getPad());
+    assertArrayEquals(ByteArrays.getSubArray(rawData, 14, 16), lazy.getPayload().getRawData());
+    assertEquals(60, lazy.length());
+
+    EthernetPacket rebuilt = lazy.getBuilder().build();
+    assertEquals(lazy, rebuilt);
+  }
+}
@@ -0,0 +1,221 @@
+package org.pcap4j.packet.factory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.pcap4j.packet.ArpPacket;
+import org.pcap4j.packet.DnsPacket;
+import org.pcap4j.packet.EthernetPacket;
+import org.pcap4j.packet.IllegalRawDataException;
+import org.pcap4j.packet.IpSelector;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.IpV4Packet.IpV4Tos;
+import org.pcap4j.packet.IpV4Rfc1349Tos;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.TcpPacket;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.NamedNumber;
+import org.pcap4j.packet.namednumber.NotApplicable;
+import org.pcap4j.util.ByteArrays;
+
+@SuppressWarnings("javadoc")
+public class DecodingProfileTest {
+
+  private static final byte[] FRAME =
+      ByteArrays.parseByteArray(
+          "000102030405000102030406"
+              + "0806"
+              + "000108000604000100010203040601020304000000000000c0a80001",
+          "");
+
+  private static final byte[] RAW_IP =
+      ByteArrays.parseByteArray(
+          "4500001c000100004011f97cc0a80001c0a80002" + "d43100350008b6a4", "");
+
+  /** Decodes raw IP packets and only ARP and IPv4 packets from the payloads of Ethernet packets. */
+  private static final PacketFactoryBinder binder =
+      new PacketFactoryBinder() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T, N extends NamedNumber<?, ?>> PacketFactory<T, N> getPacketFactory(
+            Class<T> targetClass, Class<N> numberClass) {
+          if (targetClass == Packet.class && numberClass == EtherType.class) {
+            return (PacketFactory<T, N>) etherTypeFactory;
+          }
+          if (targetClass == Packet.class && numberClass == DataLinkType.class) {
+            return (PacketFactory<T, N>) dataLinkTypeFactory;
+          }
+          if (targetClass == IpV4Tos.class) {
+            return (PacketFactory<T, N>) tosFactory;
+          }
+          return SimplePacketFactoryBinder.getInstance().getPacketFactory(targetClass, numberClass);
+        }
+      };
+
+  private static final PacketFactory<Packet, EtherType> etherTypeFactory =
+      new PacketFactory<Packet, EtherType>() {
+        @Override
+        public Packet newInstance(byte[] rawData, int offset, int length, EtherType number) {
+          try {
+            if (EtherType.ARP.equals(number)) {
+              return ArpPacket.newPacket(rawData, offset, length);
+            }
+            if (EtherType.IPV4.equals(number)) {
+              return IpV4Packet.newPacket(rawData, offset, length);
+            }
+            return newInstance(rawData, offset, length);
+          } catch (IllegalRawDataException e) {
+            throw new AssertionError(e);
+          }
+        }
+
+        @Override
+        public Packet newInstance(byte[] rawData, int offset, int length) {
+          return UnknownPacket.newPacket(rawData, offset, length);
+        }
+
+        @Override
+        public Class<? extends Packet> getTargetClass(EtherType number) {
+          if (EtherType.ARP.equals(number)) {
+            return ArpPacket.class;
+          }
+          if (EtherType.IPV4.equals(number)) {
+            return IpV4Packet.class;
+          }
+          return getTargetClass();
+        }
+
+        @Override
+        public Class<? extends Packet> getTargetClass() {
+          return UnknownPacket.class;
+        }
+      };
+
+  private static final PacketFactory<Packet, DataLinkType> dataLinkTypeFactory =
+      new PacketFactory<Packet, DataLinkType>() {
+        @Override
+        public Packet newInstance(byte[] rawData, int offset, int length, DataLinkType number) {
+          if (!DataLinkType.RAW.equals(number)) {
+            return newInstance(rawData, offset, length);
+          }
+          try {
+            return IpSelector.newPacket(rawData, offset, length);
+          } catch (IllegalRawDataException e) {
+            throw new AssertionError(e);
+          }
+        }
+
+        @Override
+        public Packet newInstance(byte[] rawData, int offset, int length) {
+          return UnknownPacket.newPacket(rawData, offset, length);
+        }
+
+        @Override
+        public Class<? extends Packet> getTargetClass(DataLinkType number) {
+          return DataLinkType.RAW.equals(number) ? IpSelector.class : getTargetClass();
+        }
+
+        @Override
+        public Class<? extends Packet> getTargetClass() {
+          return UnknownPacket.class;
+        }
+      };
+
+  private static final PacketFactory<IpV4Tos, NotApplicable> tosFactory =
+      new PacketFactory<IpV4Tos, NotApplicable>() {
+        @Override
+        public IpV4Tos newInstance(byte[] rawData, int offset, int length, NotApplicable number) {
+          return newInstance(rawData, offset, length);
+        }
+
+        @Override
+        public IpV4Tos newInstance(byte[] rawData, int offset, int length) {
+          return IpV4Rfc1349Tos.newInstance(rawData[offset]);
+        }
+
+        @Override
+        public Class<? extends IpV4Tos> getTargetClass(NotApplicable number) {
+          return getTargetClass();
+        }
+
+        @Override
+        public Class<? extends IpV4Tos> getTargetClass() {
+          return IpV4Rfc1349Tos.class;
+        }
+      };
+
+  @After
+  public void tearDown() {
+    PacketFactories.setThreadBinder(null);
+  }
+
+  @Test
+  public void testBuilder() {
+    DecodingProfile profile =
+        new DecodingProfile.Builder(DecodingProfile.UP_TO_L4).skip(TcpPacket.class).build();
+    assertTrue(DecodingProfile.UP_TO_L4.decodes(TcpPacket.class));
+    assertFalse(DecodingProfile.UP_TO_L4.decodes(DnsPacket.class));
+    assertFalse(profile.decodes(TcpPacket.class));
+    assertTrue(profile.decodes(ArpPacket.class));
+  }
+
+  @Test
+  public void testApply() throws Exception {
+    DecodingProfile all =
+        new DecodingProfile.Builder().decode(EthernetPacket.class).decode(ArpPacket.class).build();
+    DecodingProfile l2 = new DecodingProfile.Builder(all).skip(ArpPacket.class).build();
+
+    PacketFactoryBinder prev = PacketFactories.setThreadBinder(all.apply(binder));
+    assertNull(prev);
+    Packet packet = EthernetPacket.newPacket(FRAME, 0, FRAME.length);
+    assertTrue(packet.getPayload() instanceof ArpPacket);
+
+    PacketFactoryBinder filtered = l2.apply(binder);
+    PacketFactories.setThreadBinder(filtered);
+    packet = EthernetPacket.newPacket(FRAME, 0, FRAME.length);
+    assertTrue(packet.getPayload() instanceof UnknownPacket);
+    assertEquals(28, packet.getPayload().length());
+    assertSame(
+        UnknownPacket.class,
+        filtered.getPacketFactory(Packet.class, EtherType.class).getTargetClass(EtherType.ARP));
+    assertSame(
+        filtered.getPacketFactory(Packet.class, EtherType.class),
+        filtered.getPacketFactory(Packet.class, EtherType.class));
+
+    assertSame(filtered, PacketFactories.setThreadBinder(null));
+    assertNull(PacketFactories.getThreadBinder());
+  }
+
+  @Test
+  public void testNewPacket() {
+    Packet packet = DecodingProfile.UP_TO_L4.newPacket(FRAME, 0, FRAME.length, DataLinkType.EN10MB);
+    assertEquals(FRAME.length, packet.length());
+    assertNull(PacketFactories.getThreadBinder());
+  }
+
+  @Test
+  public void testRawIp() {
+    assertTrue(DecodingProfile.UP_TO_L4.decodes(IpSelector.class));
+
+    PacketFactoryBinder filtered = DecodingProfile.UP_TO_L4.apply(binder);
+    Packet packet =
+        PacketFactories.newPacket(RAW_IP, 0, RAW_IP.length, DataLinkType.RAW, filtered);
+    assertTrue(packet instanceof IpV4Packet);
+    assertEquals(8, packet.getPayload().length());
+
+    DecodingProfile noSelector =
+        new DecodingProfile.Builder(DecodingProfile.UP_TO_L4).skip(IpSelector.class).build();
+    packet =
+        PacketFactories.newPacket(
+            RAW_IP, 0, RAW_IP.length, DataLinkType.RAW, noSelector.apply(binder));
+    assertTrue(packet instanceof UnknownPacket);
+    assertNull(PacketFactories.getThreadBinder());
+  }
+}
@@ -0,0 +1,49 @@
+package org.pcap4j.packet.namednumber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class NamedNumberTableTest {
+
+  @Test
+  public void testTable() {
+    NamedNumberTable<TcpPort> table = NamedNumberTable.forShorts();
+    TcpPort port = new TcpPort((short) 50000, "test");
+    assertNull(table.get(50000));
+    assertNull(table.put(port.value(), port));
+    assertTrue(table.containsKey((short) 50000));
+    assertSame(port, table.get((short) 50000));
+    assertSame(port, table.put(port.value(), TcpPort.HTTP));
+
+    TcpPort unknown = new TcpPort((short) 50001, "unknown");
+    assertSame(unknown, table.cacheUnknown(50001, unknown));
+    assertSame(unknown, table.get(50001));
+    assertFalse(table.containsKey(50001));
+  }
+
+  @Test
+  public void testGetInstance() {
+    assertSame(IpNumber.TCP, IpNumber.getInstance((byte) 6));
+    assertSame(IpNumber.TCP, IpNumber.getInstance(Byte.valueOf((byte) 6)));
+    assertSame(TcpPort.HTTP, TcpPort.getInstance((short) 80));
+    assertSame(EtherType.IPV4, EtherType.getInstance((short) 0x0800));
+
+    IpNumber unknownIpNumber = IpNumber.getInstance((byte) 250);
+    assertEquals("unknown", unknownIpNumber.name());
+    assertSame(unknownIpNumber, IpNumber.getInstance((byte) 250));
+
+    UdpPort ephemeral = UdpPort.getInstance((short) 61234);
+    assertEquals("unknown", ephemeral.name());
+    assertSame(ephemeral, UdpPort.getInstance(Short.valueOf((short) 61234)));
+
+    EtherType length = EtherType.getInstance((short) 100);
+    assertEquals("Length", length.name());
+    assertSame(length, EtherType.getInstance((short) 100));
+  }
+}
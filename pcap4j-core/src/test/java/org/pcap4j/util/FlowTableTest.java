@@ -0,0 +1,182 @@
+package org.pcap4j.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.DataLinkType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.util.FlowTable.ExportReason;
+import org.pcap4j.util.FlowTable.FlowRecord;
+
+@SuppressWarnings("javadoc")
+public class FlowTableTest {
+
+  private static final String ETHER = "0011223344550066778899aa";
+  private final List<FlowRecord> records = new ArrayList<FlowRecord>();
+  private final FlowTable.Listener listener =
+      new FlowTable.Listener() {
+        @Override
+        public void gotFlowRecord(FlowRecord record) {
+          records.add(record);
+        }
+      };
+
+  @Before
+  public void setUp() {
+    records.clear();
+  }
+
+  private static byte[] newIpV4Frame(String vlanTag, int src, int dst, int srcPort, int dstPort) {
+    String udp = String.format("%04x%04x", srcPort, dstPort) + "000c0000" + "cafebabe";
+    String ip =
+        "4500"
+            + String.format("%04x", 20 + udp.length() / 2)
+            + "000000004011"
+            + "0000"
+            + String.format("%08x%08x", src, dst)
+            + udp;
+    return ByteArrays.parseByteArray(ETHER + vlanTag + "0800" + ip, "");
+  }
+
+  @Test
+  public void testFlows() throws Exception {
+    FlowTable table = new FlowTable.Builder().listener(listener).build();
+    assertTrue(
+        table.add(newIpV4Frame("", 0x0a000002, 0x0a000001, 53, 1024), DataLinkType.EN10MB, 0));
+    assertTrue(
+        table.add(newIpV4Frame("", 0x0a000001, 0x0a000002, 1024, 53), DataLinkType.EN10MB, 1));
+    assertTrue(
+        table.add(newIpV4Frame("", 0x0a000002, 0x0a000001, 53, 1024), DataLinkType.EN10MB, 2));
+    assertTrue(
+        table.add(
+            newIpV4Frame("8100000a", 0x0a000001, 0x0a000002, 1024, 53), DataLinkType.EN10MB, 3));
+    assertEquals(2, table.getFlowCount());
+
+    // IPv6 with a hop-by-hop options header over TCP, with SYN and ACK.
+    byte[] rawIpV6 =
+        ByteArrays.parseByteArray(
+            "60000000001c0040"
+                + "20010db8000000000000000000000001"
+                + "20010db8000000000000000000000002"
+                + "0600000000000000"
+                + "c3500050000000000000000050120000"
+                + "00000000",
+            "");
+    assertTrue(table.add(rawIpV6, DataLinkType.RAW, 4));
+    assertFalse(table.add(new byte[] {1, 2, 3}, DataLinkType.EN10MB, 5));
+    assertFalse(table.add(rawIpV6, DataLinkType.PPP, 5));
+    assertEquals(3, table.getFlowCount());
+
+    table.clear();
+    assertEquals(0, table.getFlowCount());
+    assertEquals(3, records.size());
+    FlowRecord untagged = null;
+    FlowRecord tagged = null;
+    FlowRecord v6 = null;
+    for (FlowRecord record : records) {
+      if (record.getProtocol().equals(IpNumber.TCP)) {
+        v6 = record;
+      } else if (record.getVlanId() == 10) {
+        tagged = record;
+      } else {
+        untagged = record;
+      }
+      assertEquals(ExportReason.CLEARED, record.getReason());
+    }
+
+    assertEquals(InetAddress.getByName("10.0.0.1"), untagged.getAddrA());
+    assertEquals(1024, untagged.getPortA());
+    assertEquals(InetAddress.getByName("10.0.0.2"), untagged.getAddrB());
+    assertEquals(53, untagged.getPortB());
+    assertEquals(IpNumber.UDP, untagged.getProtocol());
+    assertEquals(-1, untagged.getVlanId());
+    assertEquals(1, untagged.getPacketsAToB());
+    assertEquals(32, untagged.getBytesAToB());
+    assertEquals(2, untagged.getPacketsBToA());
+    assertEquals(64, untagged.getBytesBToA());
+    assertEquals(0, untagged.getFirstTimestamp());
+    assertEquals(2, untagged.getLastTimestamp());
+    assertEquals(1, tagged.getPacketsAToB());
+
+    assertEquals(InetAddress.getByName("2001:db8::1"), v6.getAddrA());
+    assertEquals(50000, v6.getPortA());
+    assertEquals(80, v6.getPortB());
+    assertEquals(68, v6.getBytesAToB());
+    assertEquals(0x12, v6.getTcpFlags());
+  }
+
+  @Test
+  public void testTimeouts() throws Exception {
+    FlowTable table =
+        new FlowTable.Builder()
+            .listener(listener)
+            .idleTimeoutMillis(1000)
+            .activeTimeoutMillis(3000)
+            .build();
+    table.add(newIpV4Frame("", 1, 2, 3, 5), DataLinkType.EN10MB, 0);
+    // The whole table is checked about once a second.
+    for (long time = 0; time < 3000; time += 500) {
+      table.add(newIpV4Frame("", 1, 2, 3, 4), DataLinkType.EN10MB, time);
+    }
+    assertEquals(1, records.size());
+    assertEquals(ExportReason.IDLE_TIMEOUT, records.get(0).getReason());
+
+    assertEquals(1, table.expire(3000));
+    assertEquals(ExportReason.ACTIVE_TIMEOUT, records.get(1).getReason());
+    assertEquals(6, records.get(1).getPacketsAToB());
+    assertEquals(0, table.getFlowCount());
+  }
+
+  @Test
+  public void testIncrementalExpiry() throws Exception {
+    FlowTable table = new FlowTable.Builder().listener(listener).idleTimeoutMillis(1000).build();
+    for (int i = 0; i < 5000; i++) {
+      table.add(newIpV4Frame("", i, 0, 1, 2), DataLinkType.EN10MB, 0);
+    }
+
+    // Each frame checks only a slice of the table, and all the idle flows are exported within about
+    // a second after they time out.
+    for (long time = 10; time <= 2100; time += 10) {
+      table.add(newIpV4Frame("", 0, 1, 3, 4), DataLinkType.EN10MB, time);
+      if (time == 1000) {
+        assertTrue(records.size() < 5000);
+      }
+    }
+    assertEquals(5000, records.size());
+    for (FlowRecord record : records) {
+      assertEquals(ExportReason.IDLE_TIMEOUT, record.getReason());
+    }
+    assertEquals(1, table.getFlowCount());
+  }
+
+  @Test
+  public void testManyFlows() throws Exception {
+    FlowTable table = new FlowTable.Builder().listener(listener).maxFlows(30000).build();
+    for (int i = 0; i < 40000; i++) {
+      // The odd flows are idle since 0 and the even ones since 1000.
+      boolean added =
+          table.add(newIpV4Frame("", i, 0, 1, 2), DataLinkType.EN10MB, i % 2 == 0 ? 1000 : 0);
+      assertEquals(i < 30000, added);
+    }
+    assertEquals(30000, table.getFlowCount());
+    assertEquals(10000, table.getDroppedPacketCount());
+
+    assertEquals(15000, table.expire(FlowTable.DEFAULT_IDLE_TIMEOUT_MILLIS));
+    assertEquals(15000, table.getFlowCount());
+    for (int i = 0; i < 30000; i += 2) {
+      table.add(newIpV4Frame("", i, 0, 1, 2), DataLinkType.EN10MB, 1000);
+    }
+    assertEquals(15000, table.getFlowCount());
+    records.clear();
+    table.clear();
+    for (FlowRecord record : records) {
+      assertEquals(2, record.getPacketsAToB() + record.getPacketsBToA());
+    }
+  }
+}
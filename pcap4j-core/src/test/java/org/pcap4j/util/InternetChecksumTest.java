@@ -0,0 +1,99 @@
+package org.pcap4j.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.IpNumber;
+
+@SuppressWarnings("javadoc")
+public class InternetChecksumTest {
+
+  /** The straightforward implementation of RFC 1071, summing 16 bits at a time. */
+  private static short reference(byte[] data, int offset, int length) {
+    long sum = 0;
+    for (int i = 0; i < length; i += 2) {
+      int high = data[offset + i] & 0xFF;
+      int low = i + 1 < length ? data[offset + i + 1] & 0xFF : 0;
+      sum += (high << 8) | low;
+    }
+    while ((sum >> 16) != 0) {
+      sum = (sum & 0xFFFF) + (sum >> 16);
+    }
+    return (short) ~sum;
+  }
+
+  @Test
+  public void testCalc() {
+    Random random = new Random(1071);
+    byte[] data = new byte[200];
+    random.nextBytes(data);
+    for (int offset = 0; offset < 9; offset++) {
+      for (int length = 0; length + offset <= data.length; length += 7) {
+        short expected = reference(data, offset, length);
+        assertEquals(expected, InternetChecksum.calc(data, offset, length));
+        assertEquals(
+            expected,
+            InternetChecksum.fold(InternetChecksum.sum(ByteBuffer.wrap(data, offset, length))));
+        ByteBuffer direct = ByteBuffer.allocateDirect(length);
+        direct.put(data, offset, length).flip();
+        assertEquals(expected, InternetChecksum.fold(InternetChecksum.sum(direct)));
+        assertEquals(0, direct.position());
+      }
+    }
+    assertEquals(ByteArrays.calcChecksum(data), reference(data, 0, data.length));
+  }
+
+  @Test
+  public void testBounds() {
+    byte[] data = new byte[8];
+    int[][] ranges = {{-1, 1}, {0, -1}, {1, 8}, {Integer.MAX_VALUE, 2}};
+    for (int[] range : ranges) {
+      try {
+        InternetChecksum.sum(data, range[0], range[1]);
+        fail(range[0] + ", " + range[1]);
+      } catch (ArrayIndexOutOfBoundsException e) {
+        // expected
+      }
+    }
+    assertEquals(0, InternetChecksum.sum(data, 8, 0));
+  }
+
+  @Test
+  public void testPseudoHeaderSum() throws Exception {
+    InetAddress src = InetAddress.getByName("192.0.2.1");
+    InetAddress dst = InetAddress.getByName("198.51.100.2");
+    byte[] pseudoHeader =
+        ByteArrays.parseByteArray("c0000201" + "c6336402" + "00" + "06" + "0014", "");
+    assertEquals(
+        reference(pseudoHeader, 0, pseudoHeader.length),
+        InternetChecksum.fold(InternetChecksum.pseudoHeaderSum(src, dst, IpNumber.TCP, 20)));
+  }
+
+  @Test
+  public void testUpdate() {
+    Random random = new Random(1624);
+    byte[] data = new byte[64];
+    for (int i = 0; i < 1000; i++) {
+      random.nextBytes(data);
+      short checksum = InternetChecksum.calc(data, 0, data.length);
+
+      int pos = random.nextInt(data.length / 2) * 2;
+      short oldShort = ByteArrays.getShort(data, pos);
+      short newShort = (short) random.nextInt();
+      System.arraycopy(ByteArrays.toByteArray(newShort), 0, data, pos, 2);
+      checksum = InternetChecksum.update(checksum, oldShort, newShort);
+      assertEquals(InternetChecksum.calc(data, 0, data.length), checksum);
+
+      pos = random.nextInt(data.length / 2 - 1) * 2;
+      int oldInt = ByteArrays.getInt(data, pos);
+      int newInt = random.nextInt();
+      System.arraycopy(ByteArrays.toByteArray(newInt), 0, data, pos, 4);
+      checksum = InternetChecksum.update(checksum, oldInt, newInt);
+      assertEquals(InternetChecksum.calc(data, 0, data.length), checksum);
+    }
+  }
+}
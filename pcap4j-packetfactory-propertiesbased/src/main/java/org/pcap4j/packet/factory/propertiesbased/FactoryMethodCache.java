@@ -0,0 +1,50 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet.factory.propertiesbased;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A lock-free cache of the static factory methods (e.g. newPacket(byte[], int, int)) of the classes
+ * the properties-based factories instantiate, so that they are looked up once per class instead of
+ * once per packet.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ */
+final class FactoryMethodCache {
+
+  private final String name;
+  private final Class<?>[] parameterTypes;
+  private final ConcurrentMap<Class<?>, Method> methods = new ConcurrentHashMap<Class<?>, Method>();
+
+  /**
+   * @param name the name of the factory method.
+   * @param parameterTypes the parameter types of the factory method.
+   */
+  FactoryMethodCache(String name, Class<?>... parameterTypes) {
+    this.name = name;
+    this.parameterTypes = parameterTypes;
+  }
+
+  /**
+   * @param clazz clazz
+   * @return the factory method of the clazz.
+   * @throws NoSuchMethodException if the clazz doesn't have the factory method.
+   */
+  Method get(Class<?> clazz) throws NoSuchMethodException {
+    Method method = methods.get(clazz);
+    if (method == null) {
+      method = clazz.getMethod(name, parameterTypes);
+      methods.putIfAbsent(clazz, method);
+    }
+    return method;
+  }
+}
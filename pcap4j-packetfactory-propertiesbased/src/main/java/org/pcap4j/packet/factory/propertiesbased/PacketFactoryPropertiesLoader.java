@@ -7,6 +7,8 @@
 
 package org.pcap4j.packet.factory.propertiesbased;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.pcap4j.packet.DnsResourceRecord.DnsRData;
 import org.pcap4j.packet.IcmpV6CommonPacket.IpV6NeighborDiscoveryOption;
 import org.pcap4j.packet.IpV4InternetTimestampOption.IpV4InternetTimestampOptionData;
@@ -147,6 +149,13 @@ public final class PacketFactoryPropertiesLoader {
           true,
           true);
 
+  // Lock-free caches in front of the loader, which caches the properties and so always returns the
+  // same class for the same key. The classes resolved for numbers are cached by the numbers so that
+  // keys don't need to be built for every packet.
+  private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+  private final ConcurrentMap<String, ConcurrentMap<NamedNumber<?, ?>, Class<?>>> resolvedClasses =
+      new ConcurrentHashMap<String, ConcurrentMap<NamedNumber<?, ?>, Class<?>>>();
+
   private PacketFactoryPropertiesLoader() {}
 
   /** @return the singleton instance of PacketFactoryPropertiesLoader. */
@@ -160,6 +169,11 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements Packet for a specified NamedNumber.
    */
   public <T extends NamedNumber<?, ?>> Class<? extends Packet> getPacketClass(T number) {
+    Class<? extends Packet> clazz = getResolvedClass(PACKET_CLASS_KEY_BASE, number);
+    if (clazz != null) {
+      return clazz;
+    }
+
     String val = number.valueAsString();
     if (number instanceof EtherType) {
       EtherType et = (EtherType) number;
@@ -170,12 +184,14 @@ public final class PacketFactoryPropertiesLoader {
 
     StringBuilder sb = new StringBuilder(110);
     sb.append(PACKET_CLASS_KEY_BASE).append(number.getClass().getName()).append(".").append(val);
-    return loader.<Packet>getClass(sb.toString(), getUnknownPacketClass());
+    clazz = this.<Packet>getClass(sb.toString(), getUnknownPacketClass());
+    putResolvedClass(PACKET_CLASS_KEY_BASE, number, clazz);
+    return clazz;
   }
 
   /** @return a class which implements Packet for an unknown packet. */
   public Class<? extends Packet> getUnknownPacketClass() {
-    return loader.<Packet>getClass(UNKNOWN_PACKET_CLASS_KEY, UnknownPacket.class);
+    return this.<Packet>getClass(UNKNOWN_PACKET_CLASS_KEY, UnknownPacket.class);
   }
 
   /**
@@ -215,17 +231,24 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements IpV4Option for a specified type.
    */
   public Class<? extends IpV4Option> getIpV4OptionClass(IpV4OptionType type) {
+    Class<? extends IpV4Option> clazz = getResolvedClass(IPV4_OPTION_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(IPV4_OPTION_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<IpV4Option>getClass(sb.toString(), getUnknownIpV4OptionClass());
+    clazz = this.<IpV4Option>getClass(sb.toString(), getUnknownIpV4OptionClass());
+    putResolvedClass(IPV4_OPTION_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements IpV4Option for an unknown type. */
   public Class<? extends IpV4Option> getUnknownIpV4OptionClass() {
-    return loader.<IpV4Option>getClass(UNKNOWN_IPV4_OPTION_KEY, UnknownIpV4Option.class);
+    return this.<IpV4Option>getClass(UNKNOWN_IPV4_OPTION_KEY, UnknownIpV4Option.class);
   }
 
   /**
@@ -233,17 +256,24 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements TcpOption for a specified type.
    */
   public Class<? extends TcpOption> getTcpOptionClass(TcpOptionKind type) {
+    Class<? extends TcpOption> clazz = getResolvedClass(TCP_OPTION_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(TCP_OPTION_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<TcpOption>getClass(sb.toString(), getUnknownTcpOptionClass());
+    clazz = this.<TcpOption>getClass(sb.toString(), getUnknownTcpOptionClass());
+    putResolvedClass(TCP_OPTION_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements TcpOption for an unknown type. */
   public Class<? extends TcpOption> getUnknownTcpOptionClass() {
-    return loader.<TcpOption>getClass(UNKNOWN_TCP_OPTION_KEY, UnknownTcpOption.class);
+    return this.<TcpOption>getClass(UNKNOWN_TCP_OPTION_KEY, UnknownTcpOption.class);
   }
 
   /**
@@ -252,19 +282,28 @@ public final class PacketFactoryPropertiesLoader {
    */
   public Class<? extends IpV4InternetTimestampOptionData> getIpV4InternetTimestampDataClass(
       IpV4InternetTimestampOptionFlag flag) {
+    Class<? extends IpV4InternetTimestampOptionData> clazz =
+        getResolvedClass(IPV4_INTERNET_TIMESTAMP_DATA_CLASS_KEY_BASE, flag);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(150);
     sb.append(IPV4_INTERNET_TIMESTAMP_DATA_CLASS_KEY_BASE)
         .append(flag.getClass().getName())
         .append(".")
         .append(flag.valueAsString());
-    return loader.<IpV4InternetTimestampOptionData>getClass(
-        sb.toString(), getUnknownIpV4InternetTimestampDataClass());
+    clazz =
+        this.<IpV4InternetTimestampOptionData>getClass(
+            sb.toString(), getUnknownIpV4InternetTimestampDataClass());
+    putResolvedClass(IPV4_INTERNET_TIMESTAMP_DATA_CLASS_KEY_BASE, flag, clazz);
+    return clazz;
   }
 
   /** @return a class which implements IpV4InternetTimestampOptionData for an unknown flag. */
   public Class<? extends IpV4InternetTimestampOptionData>
       getUnknownIpV4InternetTimestampDataClass() {
-    return loader.<IpV4InternetTimestampOptionData>getClass(
+    return this.<IpV4InternetTimestampOptionData>getClass(
         UNKNOWN_IPV4_INTERNET_TIMESTAMP_DATA_KEY, UnknownIpV4InternetTimestampOptionData.class);
   }
 
@@ -273,17 +312,24 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements IpV6Option for a specified type.
    */
   public Class<? extends IpV6Option> getIpV6OptionClass(IpV6OptionType type) {
+    Class<? extends IpV6Option> clazz = getResolvedClass(IPV6_OPTION_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(IPV6_OPTION_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<IpV6Option>getClass(sb.toString(), getUnknownIpV6OptionClass());
+    clazz = this.<IpV6Option>getClass(sb.toString(), getUnknownIpV6OptionClass());
+    putResolvedClass(IPV6_OPTION_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements IpV6Option for an unknown type. */
   public Class<? extends IpV6Option> getUnknownIpV6OptionClass() {
-    return loader.<IpV6Option>getClass(UNKNOWN_IPV6_OPTION_KEY, UnknownIpV6Option.class);
+    return this.<IpV6Option>getClass(UNKNOWN_IPV6_OPTION_KEY, UnknownIpV6Option.class);
   }
 
   /**
@@ -291,17 +337,25 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements IpV6RoutingData for a specified type.
    */
   public Class<? extends IpV6RoutingData> getIpV6RoutingDataClass(IpV6RoutingType type) {
+    Class<? extends IpV6RoutingData> clazz =
+        getResolvedClass(IPV6_ROUTING_DATA_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(IPV6_ROUTING_DATA_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<IpV6RoutingData>getClass(sb.toString(), getUnknownIpV6RoutingDataClass());
+    clazz = this.<IpV6RoutingData>getClass(sb.toString(), getUnknownIpV6RoutingDataClass());
+    putResolvedClass(IPV6_ROUTING_DATA_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements IpV6RoutingData for an unknown type. */
   public Class<? extends IpV6RoutingData> getUnknownIpV6RoutingDataClass() {
-    return loader.<IpV6RoutingData>getClass(
+    return this.<IpV6RoutingData>getClass(
         UNKNOWN_IPV6_ROUTING_DATA_KEY, UnknownIpV6RoutingData.class);
   }
 
@@ -311,18 +365,27 @@ public final class PacketFactoryPropertiesLoader {
    */
   public Class<? extends IpV6NeighborDiscoveryOption> getIpV6NeighborDiscoveryOptionClass(
       IpV6NeighborDiscoveryOptionType type) {
+    Class<? extends IpV6NeighborDiscoveryOption> clazz =
+        getResolvedClass(IPV6_NEIGHBOR_DISCOVERY_OPTION_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(IPV6_NEIGHBOR_DISCOVERY_OPTION_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<IpV6NeighborDiscoveryOption>getClass(
-        sb.toString(), getUnknownIpV6NeighborDiscoveryOptionClass());
+    clazz =
+        this.<IpV6NeighborDiscoveryOption>getClass(
+            sb.toString(), getUnknownIpV6NeighborDiscoveryOptionClass());
+    putResolvedClass(IPV6_NEIGHBOR_DISCOVERY_OPTION_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements IpV6NeighborDiscoveryOption for an unknown type. */
   public Class<? extends IpV6NeighborDiscoveryOption> getUnknownIpV6NeighborDiscoveryOptionClass() {
-    return loader.<IpV6NeighborDiscoveryOption>getClass(
+    return this.<IpV6NeighborDiscoveryOption>getClass(
         UNKNOWN_IPV6_NEIGHBOR_DISCOVERY_OPTION_KEY, UnknownIpV6NeighborDiscoveryOption.class);
   }
 
@@ -331,18 +394,24 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements RadiotapDataField for a specified type.
    */
   public Class<? extends RadiotapData> getRadiotapDataFieldClass(RadiotapPresentBitNumber num) {
+    Class<? extends RadiotapData> clazz = getResolvedClass(RADIOTAP_DATA_FIELD_CLASS_KEY_BASE, num);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(RADIOTAP_DATA_FIELD_CLASS_KEY_BASE)
         .append(num.getClass().getName())
         .append(".")
         .append(num.valueAsString());
-    return loader.<RadiotapData>getClass(sb.toString(), getUnknownRadiotapDataFieldClass());
+    clazz = this.<RadiotapData>getClass(sb.toString(), getUnknownRadiotapDataFieldClass());
+    putResolvedClass(RADIOTAP_DATA_FIELD_CLASS_KEY_BASE, num, clazz);
+    return clazz;
   }
 
   /** @return a class which implements RadiotapDataField for an unknown type. */
   public Class<? extends RadiotapData> getUnknownRadiotapDataFieldClass() {
-    return loader.<RadiotapData>getClass(
-        UNKNOWN_RADIOTAP_DATA_FIELD_KEY, UnknownRadiotapData.class);
+    return this.<RadiotapData>getClass(UNKNOWN_RADIOTAP_DATA_FIELD_KEY, UnknownRadiotapData.class);
   }
 
   /**
@@ -350,17 +419,24 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements SctpChunk for a specified type.
    */
   public Class<? extends SctpChunk> getSctpChunkClass(SctpChunkType type) {
+    Class<? extends SctpChunk> clazz = getResolvedClass(SCTP_CHUNK_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(SCTP_CHUNK_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<SctpChunk>getClass(sb.toString(), getUnknownSctpChunkClass());
+    clazz = this.<SctpChunk>getClass(sb.toString(), getUnknownSctpChunkClass());
+    putResolvedClass(SCTP_CHUNK_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements SctpChunk for an unknown type. */
   public Class<? extends SctpChunk> getUnknownSctpChunkClass() {
-    return loader.<SctpChunk>getClass(UNKNOWN_SCTP_CHUNK_KEY, UnknownSctpChunk.class);
+    return this.<SctpChunk>getClass(UNKNOWN_SCTP_CHUNK_KEY, UnknownSctpChunk.class);
   }
 
   /**
@@ -368,32 +444,78 @@ public final class PacketFactoryPropertiesLoader {
    * @return a class which implements DnsRData for a specified type.
    */
   public Class<? extends DnsRData> getDnsRDataClass(DnsResourceRecordType type) {
+    Class<? extends DnsRData> clazz = getResolvedClass(DNS_RDATA_CLASS_KEY_BASE, type);
+    if (clazz != null) {
+      return clazz;
+    }
+
     StringBuilder sb = new StringBuilder(120);
     sb.append(DNS_RDATA_CLASS_KEY_BASE)
         .append(type.getClass().getName())
         .append(".")
         .append(type.valueAsString());
-    return loader.<DnsRData>getClass(sb.toString(), getUnknownDnsRDataClass());
+    clazz = this.<DnsRData>getClass(sb.toString(), getUnknownDnsRDataClass());
+    putResolvedClass(DNS_RDATA_CLASS_KEY_BASE, type, clazz);
+    return clazz;
   }
 
   /** @return a class which implements DnsRData for an unknown type. */
   public Class<? extends DnsRData> getUnknownDnsRDataClass() {
-    return loader.<DnsRData>getClass(UNKNOWN_DNS_RDATA_KEY, UnknownDnsRData.class);
+    return this.<DnsRData>getClass(UNKNOWN_DNS_RDATA_KEY, UnknownDnsRData.class);
   }
 
   /** @return a class which implements IpV4Tos. */
   public Class<? extends IpV4Tos> getIpV4TosClass() {
-    return loader.<IpV4Tos>getClass(IPV4_TOS_CLASS_KEY, IpV4Rfc1349Tos.class);
+    return this.<IpV4Tos>getClass(IPV4_TOS_CLASS_KEY, IpV4Rfc1349Tos.class);
   }
 
   /** @return a class which implements IpV6TrafficClass. */
   public Class<? extends IpV6TrafficClass> getIpV6TrafficClassClass() {
-    return loader.<IpV6TrafficClass>getClass(
+    return this.<IpV6TrafficClass>getClass(
         IPV6_TRAFFIC_CLASS_CLASS_KEY, IpV6SimpleTrafficClass.class);
   }
 
   /** @return a class which implements IpV6FlowLabel. */
   public Class<? extends IpV6FlowLabel> getIpV6FlowLabelClass() {
-    return loader.<IpV6FlowLabel>getClass(IPV6_FLOW_LABEL_CLASS_KEY, IpV6SimpleFlowLabel.class);
+    return this.<IpV6FlowLabel>getClass(IPV6_FLOW_LABEL_CLASS_KEY, IpV6SimpleFlowLabel.class);
+  }
+
+  private <T> Class<? extends T> getClass(String key, Class<? extends T> defaultValue) {
+    Class<?> clazz = classes.get(key);
+    if (clazz == null) {
+      clazz = loader.<T>getClass(key, defaultValue);
+      if (clazz == null) {
+        return null;
+      }
+      classes.putIfAbsent(key, clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    Class<? extends T> result = (Class<? extends T>) clazz;
+    return result;
+  }
+
+  private <T> Class<? extends T> getResolvedClass(String keyBase, NamedNumber<?, ?> number) {
+    ConcurrentMap<NamedNumber<?, ?>, Class<?>> resolved = resolvedClasses.get(keyBase);
+    if (resolved == null) {
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    Class<? extends T> clazz = (Class<? extends T>) resolved.get(number);
+    return clazz;
+  }
+
+  private void putResolvedClass(String keyBase, NamedNumber<?, ?> number, Class<?> clazz) {
+    ConcurrentMap<NamedNumber<?, ?>, Class<?>> resolved = resolvedClasses.get(keyBase);
+    if (resolved == null) {
+      resolved = new ConcurrentHashMap<NamedNumber<?, ?>, Class<?>>();
+      ConcurrentMap<NamedNumber<?, ?>, Class<?>> old =
+          resolvedClasses.putIfAbsent(keyBase, resolved);
+      if (old != null) {
+        resolved = old;
+      }
+    }
+    resolved.put(number, clazz);
   }
 }
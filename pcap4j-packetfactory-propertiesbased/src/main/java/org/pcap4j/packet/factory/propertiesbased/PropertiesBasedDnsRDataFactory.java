@@ -25,6 +25,9 @@ public final class PropertiesBasedDnsRDataFactory
   private static final PropertiesBasedDnsRDataFactory INSTANCE =
       new PropertiesBasedDnsRDataFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedDnsRDataFactory() {}
 
   /** @return the singleton instance of PropertiesBasedDnsRDataFactory. */
@@ -62,7 +65,7 @@ public final class PropertiesBasedDnsRDataFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (DnsRData) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
@@ -25,6 +25,9 @@ public final class PropertiesBasedIpV4InternetTimestampOptionDataFactory
   private static final PropertiesBasedIpV4InternetTimestampOptionDataFactory INSTANCE =
       new PropertiesBasedIpV4InternetTimestampOptionDataFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedIpV4InternetTimestampOptionDataFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV4InternetTimestampDataFactory. */
@@ -66,7 +69,7 @@ public final class PropertiesBasedIpV4InternetTimestampOptionDataFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (IpV4InternetTimestampOptionData) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
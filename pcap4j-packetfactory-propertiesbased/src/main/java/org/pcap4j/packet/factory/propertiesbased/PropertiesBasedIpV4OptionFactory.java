@@ -25,6 +25,9 @@ public final class PropertiesBasedIpV4OptionFactory
   private static final PropertiesBasedIpV4OptionFactory INSTANCE =
       new PropertiesBasedIpV4OptionFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedIpV4OptionFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV4OptionFactory. */
@@ -62,7 +65,7 @@ public final class PropertiesBasedIpV4OptionFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (IpV4Option) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
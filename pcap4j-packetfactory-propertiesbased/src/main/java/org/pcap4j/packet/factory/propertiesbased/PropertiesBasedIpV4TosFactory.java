@@ -22,6 +22,9 @@ public final class PropertiesBasedIpV4TosFactory implements PacketFactory<IpV4To
 
   private static final PropertiesBasedIpV4TosFactory INSTANCE = new PropertiesBasedIpV4TosFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte.class);
+
   private PropertiesBasedIpV4TosFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV4TosFactory */
@@ -62,7 +65,7 @@ public final class PropertiesBasedIpV4TosFactory implements PacketFactory<IpV4To
     }
 
     try {
-      Method newInstance = tosClass.getMethod("newInstance", byte.class);
+      Method newInstance = newInstanceMethods.get(tosClass);
       return (IpV4Tos) newInstance.invoke(null, rawData[offset]);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
@@ -26,6 +26,9 @@ public final class PropertiesBasedIpV6FlowLabelFactory
   private static final PropertiesBasedIpV6FlowLabelFactory INSTANCE =
       new PropertiesBasedIpV6FlowLabelFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", int.class);
+
   private PropertiesBasedIpV6FlowLabelFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV6FlowLabelFactory. */
@@ -68,7 +71,7 @@ public final class PropertiesBasedIpV6FlowLabelFactory
     }
 
     try {
-      Method newInstance = clazz.getMethod("newInstance", int.class);
+      Method newInstance = newInstanceMethods.get(clazz);
       return (IpV6FlowLabel) newInstance.invoke(null, ByteArrays.getInt(rawData, offset));
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
@@ -25,6 +25,9 @@ public final class PropertiesBasedIpV6NeighborDiscoveryOptionFactory
   private static final PropertiesBasedIpV6NeighborDiscoveryOptionFactory INSTANCE =
       new PropertiesBasedIpV6NeighborDiscoveryOptionFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedIpV6NeighborDiscoveryOptionFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV6NeighborDiscoveryOptionFactory. */
@@ -66,7 +69,7 @@ public final class PropertiesBasedIpV6NeighborDiscoveryOptionFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (IpV6NeighborDiscoveryOption) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
@@ -25,6 +25,9 @@ public final class PropertiesBasedIpV6OptionFactory
   private static final PropertiesBasedIpV6OptionFactory INSTANCE =
       new PropertiesBasedIpV6OptionFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedIpV6OptionFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV6OptionFactory. */
@@ -62,7 +65,7 @@ public final class PropertiesBasedIpV6OptionFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (IpV6Option) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
@@ -25,6 +25,9 @@ public final class PropertiesBasedIpV6RoutingDataFactory
   private static final PropertiesBasedIpV6RoutingDataFactory INSTANCE =
       new PropertiesBasedIpV6RoutingDataFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedIpV6RoutingDataFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV6RoutingDataFactory. */
@@ -62,7 +65,7 @@ public final class PropertiesBasedIpV6RoutingDataFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (IpV6RoutingData) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
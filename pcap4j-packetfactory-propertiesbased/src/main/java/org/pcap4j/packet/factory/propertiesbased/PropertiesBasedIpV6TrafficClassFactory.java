@@ -24,6 +24,9 @@ public final class PropertiesBasedIpV6TrafficClassFactory
   private static final PropertiesBasedIpV6TrafficClassFactory INSTANCE =
       new PropertiesBasedIpV6TrafficClassFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte.class);
+
   private PropertiesBasedIpV6TrafficClassFactory() {}
 
   /** @return the singleton instance of PropertiesBasedIpV6TrafficClassFactory. */
@@ -64,7 +67,7 @@ public final class PropertiesBasedIpV6TrafficClassFactory
     }
 
     try {
-      Method newInstance = clazz.getMethod("newInstance", byte.class);
+      Method newInstance = newInstanceMethods.get(clazz);
       return (IpV6TrafficClass) newInstance.invoke(null, rawData[offset]);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
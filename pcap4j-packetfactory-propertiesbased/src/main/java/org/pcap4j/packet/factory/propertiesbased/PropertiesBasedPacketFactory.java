@@ -24,6 +24,9 @@ public final class PropertiesBasedPacketFactory
 
   private static final PropertiesBasedPacketFactory INSTANCE = new PropertiesBasedPacketFactory();
 
+  private final FactoryMethodCache newPacketMethods =
+      new FactoryMethodCache("newPacket", byte[].class, int.class, int.class);
+
   private PropertiesBasedPacketFactory() {}
 
   /** @return the singleton instance of PropertiesBasedPacketFactory. */
@@ -61,7 +64,7 @@ public final class PropertiesBasedPacketFactory
     }
 
     try {
-      Method newPacket = packetClass.getMethod("newPacket", byte[].class, int.class, int.class);
+      Method newPacket = newPacketMethods.get(packetClass);
       return (Packet) newPacket.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
@@ -73,7 +76,8 @@ public final class PropertiesBasedPacketFactory
       throw new IllegalStateException(e);
     } catch (InvocationTargetException e) {
       if (e.getTargetException() instanceof IllegalRawDataException) {
-        return IllegalPacket.newPacket(rawData, offset, length);
+        return IllegalPacket.newPacket(
+            rawData, offset, length, (IllegalRawDataException) e.getTargetException());
       }
       throw new IllegalArgumentException(e);
     }
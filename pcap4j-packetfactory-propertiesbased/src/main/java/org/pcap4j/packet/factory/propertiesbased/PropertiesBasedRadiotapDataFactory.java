@@ -25,6 +25,9 @@ public final class PropertiesBasedRadiotapDataFactory
   private static final PropertiesBasedRadiotapDataFactory INSTANCE =
       new PropertiesBasedRadiotapDataFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedRadiotapDataFactory() {}
 
   /** @return the singleton instance of PropertiesBasedRadiotapDataFactory. */
@@ -63,7 +66,7 @@ public final class PropertiesBasedRadiotapDataFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (RadiotapData) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
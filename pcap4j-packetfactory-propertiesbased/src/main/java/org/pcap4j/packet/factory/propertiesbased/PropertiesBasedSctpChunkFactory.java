@@ -25,6 +25,9 @@ public final class PropertiesBasedSctpChunkFactory
   private static final PropertiesBasedSctpChunkFactory INSTANCE =
       new PropertiesBasedSctpChunkFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedSctpChunkFactory() {}
 
   /** @return the singleton instance of PropertiesBasedSctpChunkFactory. */
@@ -62,7 +65,7 @@ public final class PropertiesBasedSctpChunkFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (SctpChunk) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
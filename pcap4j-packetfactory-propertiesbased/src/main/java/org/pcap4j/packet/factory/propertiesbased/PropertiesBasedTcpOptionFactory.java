@@ -25,6 +25,9 @@ public final class PropertiesBasedTcpOptionFactory
   private static final PropertiesBasedTcpOptionFactory INSTANCE =
       new PropertiesBasedTcpOptionFactory();
 
+  private final FactoryMethodCache newInstanceMethods =
+      new FactoryMethodCache("newInstance", byte[].class, int.class, int.class);
+
   private PropertiesBasedTcpOptionFactory() {}
 
   /** @return the singleton instance of PropertiesBasedTcpOptionFactory. */
@@ -62,7 +65,7 @@ public final class PropertiesBasedTcpOptionFactory
     }
 
     try {
-      Method newInstance = dataClass.getMethod("newInstance", byte[].class, int.class, int.class);
+      Method newInstance = newInstanceMethods.get(dataClass);
       return (TcpOption) newInstance.invoke(null, rawData, offset, length);
     } catch (SecurityException e) {
       throw new IllegalStateException(e);
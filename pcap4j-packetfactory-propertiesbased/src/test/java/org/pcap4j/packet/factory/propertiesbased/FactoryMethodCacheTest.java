@@ -0,0 +1,55 @@
+package org.pcap4j.packet.factory.propertiesbased;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import org.junit.Test;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.Packet;
+import org.pcap4j.packet.UdpPacket;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.util.ByteArrays;
+
+@SuppressWarnings("javadoc")
+public class FactoryMethodCacheTest {
+
+  private final FactoryMethodCache cache =
+      new FactoryMethodCache("newPacket", byte[].class, int.class, int.class);
+
+  @Test
+  public void testGet() throws Exception {
+    Class<?>[] classes = {IpV4Packet.class, UdpPacket.class, UnknownPacket.class};
+    for (Class<?> clazz : classes) {
+      Method method = cache.get(clazz);
+      assertEquals(clazz.getMethod("newPacket", byte[].class, int.class, int.class), method);
+      assertSame(method, cache.get(clazz));
+    }
+  }
+
+  @Test
+  public void testInvoke() throws Exception {
+    byte[] data = ByteArrays.parseByteArray("0102030405", "");
+    Method cached = cache.get(UnknownPacket.class);
+    Method uncached =
+        UnknownPacket.class.getMethod("newPacket", byte[].class, int.class, int.class);
+    Packet expected = (Packet) uncached.invoke(null, data, 1, 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(expected, cache.get(UnknownPacket.class).invoke(null, data, 1, 3));
+    }
+    assertEquals(expected, cached.invoke(null, data, 1, 3));
+  }
+
+  @Test
+  public void testNoSuchMethod() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.get(String.class);
+        fail();
+      } catch (NoSuchMethodException e) {
+        // expected
+      }
+    }
+  }
+}
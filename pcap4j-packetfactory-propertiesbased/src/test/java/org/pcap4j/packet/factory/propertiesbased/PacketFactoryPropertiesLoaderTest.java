@@ -0,0 +1,108 @@
+package org.pcap4j.packet.factory.propertiesbased;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.pcap4j.packet.factory.propertiesbased.PacketFactoryPropertiesLoader.*;
+
+import org.junit.Test;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.IpV4Rfc1349Tos;
+import org.pcap4j.packet.IpV6SimpleFlowLabel;
+import org.pcap4j.packet.IpV6SimpleTrafficClass;
+import org.pcap4j.packet.LlcPacket;
+import org.pcap4j.packet.TcpMaximumSegmentSizeOption;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.packet.UnknownTcpOption;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.packet.namednumber.NamedNumber;
+import org.pcap4j.packet.namednumber.TcpOptionKind;
+import org.pcap4j.util.PropertiesLoader;
+
+@SuppressWarnings("javadoc")
+public class PacketFactoryPropertiesLoaderTest {
+
+  private final PacketFactoryPropertiesLoader cached = PacketFactoryPropertiesLoader.getInstance();
+
+  // Resolves the classes from the properties file every time.
+  private final PropertiesLoader uncached =
+      new PropertiesLoader(
+          System.getProperty(
+              PACKET_FACTORY_PROPERTIES_PATH_KEY,
+              PacketFactoryPropertiesLoader.class.getPackage().getName().replace('.', '/')
+                  + "/packet-factory.properties"),
+          true,
+          false);
+
+  private Class<?> lookUp(String keyBase, NamedNumber<?, ?> number, String val, Class<?> def) {
+    return uncached.getClass(keyBase + number.getClass().getName() + "." + val, def);
+  }
+
+  @Test
+  public void testGetPacketClass() {
+    NamedNumber<?, ?>[] numbers = {
+      EtherType.IPV4,
+      EtherType.ARP,
+      EtherType.getInstance((short) 0x1234),
+      new EtherType((short) 0x0800, "another IPv4"),
+      IpNumber.TCP,
+      IpNumber.getInstance((byte) 0xFD)
+    };
+    for (NamedNumber<?, ?> number : numbers) {
+      Class<?> expected =
+          lookUp(PACKET_CLASS_KEY_BASE, number, number.valueAsString(), UnknownPacket.class);
+      Class<?> clazz = cached.getPacketClass(number);
+      assertEquals(number.toString(), expected, clazz);
+      for (int i = 0; i < 3; i++) {
+        assertSame(clazz, cached.getPacketClass(number));
+      }
+    }
+    assertEquals(IpV4Packet.class, cached.getPacketClass(EtherType.IPV4));
+    assertEquals(UnknownPacket.class, cached.getPacketClass(EtherType.getInstance((short) 0x1234)));
+
+    // Lengths of IEEE 802.3 frames share the class of LLC.
+    EtherType length = EtherType.getInstance((short) 100);
+    assertEquals(
+        lookUp(PACKET_CLASS_KEY_BASE, length, "LLC", UnknownPacket.class),
+        cached.getPacketClass(length));
+    assertEquals(LlcPacket.class, cached.getPacketClass(length));
+    assertSame(cached.getPacketClass(length), cached.getPacketClass(length));
+  }
+
+  @Test
+  public void testGetTcpOptionClass() {
+    TcpOptionKind[] kinds = {
+      TcpOptionKind.MAXIMUM_SEGMENT_SIZE, TcpOptionKind.SACK, TcpOptionKind.getInstance((byte) 0xF0)
+    };
+    for (TcpOptionKind kind : kinds) {
+      Class<?> expected =
+          lookUp(TCP_OPTION_CLASS_KEY_BASE, kind, kind.valueAsString(), UnknownTcpOption.class);
+      Class<?> clazz = cached.getTcpOptionClass(kind);
+      assertEquals(kind.toString(), expected, clazz);
+      assertSame(clazz, cached.getTcpOptionClass(kind));
+    }
+    assertEquals(
+        TcpMaximumSegmentSizeOption.class,
+        cached.getTcpOptionClass(TcpOptionKind.MAXIMUM_SEGMENT_SIZE));
+    assertEquals(
+        UnknownTcpOption.class, cached.getTcpOptionClass(TcpOptionKind.getInstance((byte) 0xF0)));
+  }
+
+  @Test
+  public void testGetFixedClasses() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(
+          uncached.getClass(UNKNOWN_PACKET_CLASS_KEY, UnknownPacket.class),
+          cached.getUnknownPacketClass());
+      assertEquals(
+          uncached.getClass(IPV4_TOS_CLASS_KEY, IpV4Rfc1349Tos.class), cached.getIpV4TosClass());
+      assertEquals(
+          uncached.getClass(IPV6_TRAFFIC_CLASS_CLASS_KEY, IpV6SimpleTrafficClass.class),
+          cached.getIpV6TrafficClassClass());
+      assertEquals(
+          uncached.getClass(IPV6_FLOW_LABEL_CLASS_KEY, IpV6SimpleFlowLabel.class),
+          cached.getIpV6FlowLabelClass());
+    }
+    assertSame(cached.getIpV4TosClass(), cached.getIpV4TosClass());
+  }
+}
@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalPacket;
 import org.pcap4j.packet.IllegalRawDataException;
@@ -25,7 +24,8 @@ public abstract class AbstractStaticPacketFactory<N extends NamedNumber<?, ?>>
     implements PacketFactory<Packet, N> {
 
   /** */
-  protected final Map<N, PacketInstantiater> instantiaters = new HashMap<N, PacketInstantiater>();
+  protected final Map<N, PacketInstantiater> instantiaters =
+      new NamedNumberDispatchMap<N, PacketInstantiater>();
 
   @Override
   public Packet newInstance(byte[] rawData, int offset, int length, N number) {
@@ -40,7 +40,7 @@ public abstract class AbstractStaticPacketFactory<N extends NamedNumber<?, ?>>
       try {
         return instantiater.newInstance(rawData, offset, length);
       } catch (IllegalRawDataException e) {
-        return IllegalPacket.newPacket(rawData, offset, length);
+        return IllegalPacket.newPacket(rawData, offset, length, e);
       }
     }
 
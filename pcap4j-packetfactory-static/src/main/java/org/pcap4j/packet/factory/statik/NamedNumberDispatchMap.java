@@ -0,0 +1,125 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+
+package org.pcap4j.packet.factory.statik;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.pcap4j.packet.namednumber.NamedNumber;
+
+/**
+ * A map from {@link NamedNumber} objects, which is used by the static factories to dispatch on the
+ * number of a packet or a part of it.
+ *
+ * <p>{@link #get(Object)} looks up an open-addressing table indexed by the numeric values of the
+ * keys instead of calling {@link NamedNumber#hashCode()}, which hashes the name of the number every
+ * time. Since the keys given to the factories are almost always the instances registered in their
+ * classes, a key is compared by identity first, and then by {@link NamedNumber#equals(Object)} so
+ * that the map behaves in the same way as a {@link HashMap}.
+ *
+ * <p>The table is rebuilt on every modification, which is expected to happen only while a factory
+ * is constructed.
+ *
+ * @author Kaito Yamada
+ * @since pcap4j 1.8.3
+ * @param <K> key
+ * @param <V> value
+ */
+final class NamedNumberDispatchMap<K extends NamedNumber<?, ?>, V> extends AbstractMap<K, V> {
+
+  private final Map<K, V> map = new HashMap<K, V>();
+  private volatile Object[] table = new Object[2];
+
+  @Override
+  public V get(Object key) {
+    if (!(key instanceof NamedNumber)) {
+      return null;
+    }
+
+    Object[] table = this.table;
+    int mask = table.length / 2 - 1;
+    int index = hash((NamedNumber<?, ?>) key) & mask;
+    while (true) {
+      Object k = table[index * 2];
+      if (k == null) {
+        return null;
+      }
+      if (k == key || k.equals(key)) {
+        @SuppressWarnings("unchecked")
+        V value = (V) table[index * 2 + 1];
+        return value;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map.containsKey(key);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("key must not be null.");
+    }
+    V old = map.put(key, value);
+    rebuild();
+    return old;
+  }
+
+  @Override
+  public V remove(Object key) {
+    V old = map.remove(key);
+    rebuild();
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    map.clear();
+    rebuild();
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return Collections.unmodifiableMap(map).entrySet();
+  }
+
+  private static int hash(NamedNumber<?, ?> key) {
+    int h = key.value().intValue();
+    return h ^ (h >>> 16);
+  }
+
+  private void rebuild() {
+    int capacity = 2;
+    while (capacity < map.size() * 2) {
+      capacity *= 2;
+    }
+
+    // Each slot holds a key and a value in adjacent elements.
+    Object[] newTable = new Object[capacity * 2];
+    int mask = capacity - 1;
+    for (Entry<K, V> entry : map.entrySet()) {
+      int index = hash(entry.getKey()) & mask;
+      while (newTable[index * 2] != null) {
+        index = (index + 1) & mask;
+      }
+      newTable[index * 2] = entry.getKey();
+      newTable[index * 2 + 1] = entry.getValue();
+    }
+    table = newTable;
+  }
+}
@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.DnsRDataA;
 import org.pcap4j.packet.DnsRDataAaaa;
@@ -42,7 +41,7 @@ public final class StaticDnsRDataFactory implements PacketFactory<DnsRData, DnsR
 
   private static final StaticDnsRDataFactory INSTANCE = new StaticDnsRDataFactory();
   private final Map<DnsResourceRecordType, Instantiater> instantiaters =
-      new HashMap<DnsResourceRecordType, Instantiater>();
+      new NamedNumberDispatchMap<DnsResourceRecordType, Instantiater>();
 
   private StaticDnsRDataFactory() {
     instantiaters.put(
@@ -102,7 +102,7 @@ public final class StaticEtherTypePacketFactory extends AbstractStaticPacketFact
       try {
         return instantiater.newInstance(rawData, offset, length);
       } catch (IllegalRawDataException e) {
-        return IllegalPacket.newPacket(rawData, offset, length);
+        return IllegalPacket.newPacket(rawData, offset, length, e);
       }
     }
 
@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalIpV4InternetTimestampOptionData;
 import org.pcap4j.packet.IllegalRawDataException;
@@ -29,7 +28,7 @@ public final class StaticIpV4InternetTimestampOptionDataFactory
   private static final StaticIpV4InternetTimestampOptionDataFactory INSTANCE =
       new StaticIpV4InternetTimestampOptionDataFactory();
   private final Map<IpV4InternetTimestampOptionFlag, Instantiater> instantiaters =
-      new HashMap<IpV4InternetTimestampOptionFlag, Instantiater>();
+      new NamedNumberDispatchMap<IpV4InternetTimestampOptionFlag, Instantiater>();
 
   private StaticIpV4InternetTimestampOptionDataFactory() {
     instantiaters.put(
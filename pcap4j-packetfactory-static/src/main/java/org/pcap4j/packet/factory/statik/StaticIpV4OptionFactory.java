@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalIpV4Option;
 import org.pcap4j.packet.IllegalRawDataException;
@@ -32,7 +31,7 @@ public final class StaticIpV4OptionFactory implements PacketFactory<IpV4Option,
 
   private static final StaticIpV4OptionFactory INSTANCE = new StaticIpV4OptionFactory();
   private final Map<IpV4OptionType, Instantiater> instantiaters =
-      new HashMap<IpV4OptionType, Instantiater>();
+      new NamedNumberDispatchMap<IpV4OptionType, Instantiater>();
 
   private StaticIpV4OptionFactory() {
     instantiaters.put(
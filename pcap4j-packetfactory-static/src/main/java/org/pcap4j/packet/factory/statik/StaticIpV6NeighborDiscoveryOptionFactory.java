@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IcmpV6CommonPacket.IpV6NeighborDiscoveryOption;
 import org.pcap4j.packet.IllegalIpV6NeighborDiscoveryOption;
@@ -31,7 +30,7 @@ public final class StaticIpV6NeighborDiscoveryOptionFactory
   private static final StaticIpV6NeighborDiscoveryOptionFactory INSTANCE =
       new StaticIpV6NeighborDiscoveryOptionFactory();
   private final Map<IpV6NeighborDiscoveryOptionType, Instantiater> instantiaters =
-      new HashMap<IpV6NeighborDiscoveryOptionType, Instantiater>();
+      new NamedNumberDispatchMap<IpV6NeighborDiscoveryOptionType, Instantiater>();
 
   private StaticIpV6NeighborDiscoveryOptionFactory() {
     instantiaters.put(
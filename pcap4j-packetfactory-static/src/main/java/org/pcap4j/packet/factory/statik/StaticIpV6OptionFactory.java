@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalIpV6Option;
 import org.pcap4j.packet.IllegalRawDataException;
@@ -26,7 +25,7 @@ public final class StaticIpV6OptionFactory implements PacketFactory<IpV6Option,
 
   private static final StaticIpV6OptionFactory INSTANCE = new StaticIpV6OptionFactory();
   private final Map<IpV6OptionType, Instantiater> instantiaters =
-      new HashMap<IpV6OptionType, Instantiater>();
+      new NamedNumberDispatchMap<IpV6OptionType, Instantiater>();
 
   private StaticIpV6OptionFactory() {
     instantiaters.put(
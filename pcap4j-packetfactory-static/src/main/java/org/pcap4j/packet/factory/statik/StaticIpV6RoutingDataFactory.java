@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalIpV6RoutingData;
 import org.pcap4j.packet.IllegalRawDataException;
@@ -26,7 +25,7 @@ public final class StaticIpV6RoutingDataFactory
 
   private static final StaticIpV6RoutingDataFactory INSTANCE = new StaticIpV6RoutingDataFactory();
   private final Map<IpV6RoutingType, Instantiater> instantiaters =
-      new HashMap<IpV6RoutingType, Instantiater>();
+      new NamedNumberDispatchMap<IpV6RoutingType, Instantiater>();
 
   private StaticIpV6RoutingDataFactory() {
     instantiaters.put(
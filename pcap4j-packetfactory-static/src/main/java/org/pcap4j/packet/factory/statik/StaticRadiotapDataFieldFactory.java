@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalRadiotapData;
 import org.pcap4j.packet.IllegalRawDataException;
@@ -44,7 +43,7 @@ public final class StaticRadiotapDataFieldFactory
   private static final StaticRadiotapDataFieldFactory INSTANCE =
       new StaticRadiotapDataFieldFactory();
   private final Map<RadiotapPresentBitNumber, Instantiater> instantiaters =
-      new HashMap<RadiotapPresentBitNumber, Instantiater>();
+      new NamedNumberDispatchMap<RadiotapPresentBitNumber, Instantiater>();
 
   private StaticRadiotapDataFieldFactory() {
     instantiaters.put(
@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalRawDataException;
 import org.pcap4j.packet.IllegalSctpChunk;
@@ -24,7 +23,7 @@ public final class StaticSctpChunkFactory implements PacketFactory<SctpChunk, Sc
 
   private static final StaticSctpChunkFactory INSTANCE = new StaticSctpChunkFactory();
   private final Map<SctpChunkType, Instantiater> instantiaters =
-      new HashMap<SctpChunkType, Instantiater>();
+      new NamedNumberDispatchMap<SctpChunkType, Instantiater>();
 
   private StaticSctpChunkFactory() {
     //    instantiaters.put(
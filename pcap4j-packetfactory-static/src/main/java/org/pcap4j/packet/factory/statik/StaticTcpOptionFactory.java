@@ -7,7 +7,6 @@
 
 package org.pcap4j.packet.factory.statik;
 
-import java.util.HashMap;
 import java.util.Map;
 import org.pcap4j.packet.IllegalRawDataException;
 import org.pcap4j.packet.IllegalTcpOption;
@@ -31,7 +30,7 @@ public final class StaticTcpOptionFactory implements PacketFactory<TcpOption, Tc
 
   private static final StaticTcpOptionFactory INSTANCE = new StaticTcpOptionFactory();
   private final Map<TcpOptionKind, Instantiater> instantiaters =
-      new HashMap<TcpOptionKind, Instantiater>();
+      new NamedNumberDispatchMap<TcpOptionKind, Instantiater>();
 
   private StaticTcpOptionFactory() {
     instantiaters.put(
@@ -0,0 +1,107 @@
+package org.pcap4j.packet.factory.statik;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.pcap4j.packet.namednumber.EtherType;
+import org.pcap4j.packet.namednumber.IpNumber;
+
+@SuppressWarnings("javadoc")
+public class NamedNumberDispatchMapTest {
+
+  private static EtherType etherType(int value) {
+    return new EtherType((short) value, "type " + value);
+  }
+
+  @Test
+  public void testCollisions() {
+    // All the values have the same low bits and land on the same slot of any table.
+    NamedNumberDispatchMap<EtherType, String> map = new NamedNumberDispatchMap<EtherType, String>();
+    Map<EtherType, String> expected = new HashMap<EtherType, String>();
+    for (int i = 0; i < 20; i++) {
+      EtherType key = etherType(i << 8);
+      map.put(key, "v" + i);
+      expected.put(key, "v" + i);
+    }
+
+    assertEquals(expected, map);
+    assertEquals(20, map.size());
+    for (Map.Entry<EtherType, String> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), map.get(entry.getKey()));
+      assertTrue(map.containsKey(entry.getKey()));
+    }
+    assertNull(map.get(etherType(20 << 8)));
+  }
+
+  @Test
+  public void testPutAndRemove() {
+    NamedNumberDispatchMap<EtherType, String> map = new NamedNumberDispatchMap<EtherType, String>();
+    assertNull(map.get(EtherType.IPV4));
+
+    assertNull(map.put(EtherType.IPV4, "a"));
+    assertEquals("a", map.get(EtherType.IPV4));
+    assertEquals("a", map.put(EtherType.IPV4, "b"));
+    assertEquals("b", map.get(EtherType.IPV4));
+    assertEquals(1, map.size());
+
+    // Removing a key in the middle of a probe sequence must keep the following ones reachable.
+    EtherType first = etherType(0x0100);
+    EtherType second = etherType(0x0200);
+    EtherType third = etherType(0x0300);
+    map.put(first, "1");
+    map.put(second, "2");
+    map.put(third, "3");
+    assertEquals("2", map.remove(second));
+    assertNull(map.get(second));
+    assertEquals("1", map.get(first));
+    assertEquals("3", map.get(third));
+    assertEquals("b", map.get(EtherType.IPV4));
+    assertNull(map.remove(second));
+    assertEquals(3, map.size());
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get(first));
+    assertNull(map.get(EtherType.IPV4));
+
+    try {
+      map.put(null, "x");
+      fail();
+    } catch (NullPointerException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testEqualsFallback() {
+    NamedNumberDispatchMap<EtherType, String> map = new NamedNumberDispatchMap<EtherType, String>();
+    EtherType registered = etherType(0x1234);
+    map.put(registered, "registered");
+
+    EtherType equal = etherType(0x1234);
+    assertFalse(registered == equal);
+    assertEquals("registered", map.get(equal));
+    assertTrue(map.containsKey(equal));
+    assertSame(registered, map.keySet().iterator().next());
+  }
+
+  @Test
+  public void testMisses() {
+    NamedNumberDispatchMap<EtherType, String> map = new NamedNumberDispatchMap<EtherType, String>();
+    map.put(EtherType.IPV4, "ipv4");
+
+    // The same value with another name, a key of another type, and non-keys.
+    assertNull(map.get(new EtherType(EtherType.IPV4.value(), "other")));
+    assertNull(map.get(IpNumber.getInstance((byte) 0x00)));
+    assertNull(map.get(Short.valueOf((short) 0x0800)));
+    assertNull(map.get(null));
+    assertNull(map.get(EtherType.IPV6));
+  }
+}
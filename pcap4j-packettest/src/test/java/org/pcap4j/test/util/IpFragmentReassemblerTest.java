@@ -0,0 +1,211 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+package org.pcap4j.test.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.packet.IpV6ExtFragmentPacket;
+import org.pcap4j.packet.IpV6Packet;
+import org.pcap4j.packet.IpV6SimpleFlowLabel;
+import org.pcap4j.packet.IpV6SimpleTrafficClass;
+import org.pcap4j.packet.UnknownPacket;
+import org.pcap4j.packet.namednumber.IpNumber;
+import org.pcap4j.packet.namednumber.IpVersion;
+import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.IpFragmentReassembler;
+import org.pcap4j.util.IpFragmentReassembler.OverlapPolicy;
+
+@SuppressWarnings("javadoc")
+public class IpFragmentReassemblerTest {
+
+  private static byte[] newData(int length) {
+    byte[] data = new byte[length];
+    new Random(length).nextBytes(data);
+    return data;
+  }
+
+  private static IpV4Packet newIpV4Fragment(
+      int id, byte[] data, int offset, int length, boolean more) throws Exception {
+    return newIpV4Fragment(id, data, offset, length, more, 0);
+  }
+
+  private static IpV4Packet newIpV4Fragment(
+      int id, byte[] data, int offset, int length, boolean more, int optionLength)
+      throws Exception {
+    int headerLength = 20 + optionLength;
+    byte[] rawData = new byte[headerLength + length];
+    rawData[0] = (byte) (0x40 | headerLength / 4);
+    rawData[2] = (byte) (rawData.length >> 8);
+    rawData[3] = (byte) rawData.length;
+    rawData[4] = (byte) (id >> 8);
+    rawData[5] = (byte) id;
+    rawData[6] = (byte) ((more ? 0x20 : 0) | (offset / 8) >> 8);
+    rawData[7] = (byte) (offset / 8);
+    rawData[8] = 64;
+    rawData[9] = IpNumber.UDP.value();
+    System.arraycopy(ByteArrays.parseByteArray("c0000201c6336402", ""), 0, rawData, 12, 8);
+    // No Operation options.
+    Arrays.fill(rawData, 20, headerLength, (byte) 1);
+    System.arraycopy(data, offset, rawData, headerLength, length);
+    return IpV4Packet.newPacket(rawData, 0, rawData.length);
+  }
+
+  private static IpV6Packet newIpV6Fragment(
+      int id, byte[] data, int offset, int length, boolean more) throws Exception {
+    IpV6ExtFragmentPacket.Builder fragment =
+        new IpV6ExtFragmentPacket.Builder()
+            .nextHeader(IpNumber.UDP)
+            .fragmentOffset((short) (offset / 8))
+            .m(more)
+            .identification(id)
+            .payloadBuilder(
+                new UnknownPacket.Builder()
+                    .rawData(Arrays.copyOfRange(data, offset, offset + length)));
+    return new IpV6Packet.Builder()
+        .version(IpVersion.IPV6)
+        .trafficClass(IpV6SimpleTrafficClass.newInstance((byte) 0))
+        .flowLabel(IpV6SimpleFlowLabel.newInstance(0))
+        .nextHeader(IpNumber.IPV6_FRAG)
+        .hopLimit((byte) 64)
+        .srcAddr((Inet6Address) InetAddress.getByName("2001:db8::1"))
+        .dstAddr((Inet6Address) InetAddress.getByName("2001:db8::2"))
+        .payloadBuilder(fragment)
+        .correctLengthAtBuild(true)
+        .build();
+  }
+
+  @Test
+  public void testIpV4() throws Exception {
+    IpFragmentReassembler reassembler = new IpFragmentReassembler.Builder().build();
+    byte[] data = newData(70);
+
+    IpV4Packet whole = newIpV4Fragment(1, data, 0, data.length, false);
+    assertSame(whole, reassembler.add(whole, 0));
+
+    assertNull(reassembler.add(newIpV4Fragment(1, data, 48, 22, false), 0));
+    assertNull(reassembler.add(newIpV4Fragment(1, data, 0, 24, true), 1));
+    assertNull(reassembler.add(newIpV4Fragment(2, data, 0, 24, true), 1));
+    assertEquals(2, reassembler.getDatagramCount());
+    IpV4Packet packet = reassembler.add(newIpV4Fragment(1, data, 24, 24, true), 2);
+    assertNotNull(packet);
+    assertEquals(1, reassembler.getDatagramCount());
+
+    assertEquals(90, packet.getHeader().getTotalLengthAsInt());
+    assertFalse(packet.getHeader().getMoreFragmentFlag());
+    assertEquals(0, packet.getHeader().getFragmentOffset());
+    assertTrue(packet.getHeader().hasValidChecksum(false));
+    assertArrayEquals(data, packet.getPayload().getRawData());
+  }
+
+  @Test
+  public void testIpV4HeaderLengths() throws Exception {
+    IpFragmentReassembler reassembler = new IpFragmentReassembler.Builder().build();
+    byte[] data = newData(48);
+
+    // Options only in the first fragment.
+    assertNull(reassembler.add(newIpV4Fragment(1, data, 24, 24, false), 0));
+    IpV4Packet packet = reassembler.add(newIpV4Fragment(1, data, 0, 24, true, 4), 0);
+    assertNotNull(packet);
+    assertEquals(24, packet.getHeader().length());
+    assertEquals(72, packet.getHeader().getTotalLengthAsInt());
+    assertEquals(4, packet.getHeader().getOptions().size());
+    assertTrue(packet.getHeader().hasValidChecksum(false));
+    assertArrayEquals(data, packet.getPayload().getRawData());
+
+    // Options only in a non-first fragment, which completes the datagram.
+    assertNull(reassembler.add(newIpV4Fragment(2, data, 0, 24, true), 0));
+    packet = reassembler.add(newIpV4Fragment(2, data, 24, 24, false, 4), 0);
+    assertNotNull(packet);
+    assertEquals(20, packet.getHeader().length());
+    assertEquals(68, packet.getHeader().getTotalLengthAsInt());
+    assertArrayEquals(data, packet.getPayload().getRawData());
+  }
+
+  @Test
+  public void testIpV6() throws Exception {
+    IpFragmentReassembler reassembler = new IpFragmentReassembler.Builder().build();
+    byte[] data = newData(100);
+
+    IpV6Packet whole = newIpV6Fragment(7, data, 0, data.length, false);
+    assertSame(whole, reassembler.add(whole, 0));
+
+    assertNull(reassembler.add(newIpV6Fragment(7, data, 56, 44, false), 0));
+    assertNull(reassembler.add(newIpV6Fragment(7, data, 0, 24, true), 0));
+    assertEquals(1, reassembler.getDatagramCount());
+    IpV6Packet packet = reassembler.add(newIpV6Fragment(7, data, 24, 32, true), 0);
+    assertNotNull(packet);
+    assertEquals(0, reassembler.getDatagramCount());
+    assertEquals(0, reassembler.getBufferedBytes());
+
+    assertEquals(IpNumber.UDP, packet.getHeader().getNextHeader());
+    assertEquals(data.length, packet.getHeader().getPayloadLengthAsInt());
+    assertNull(packet.get(IpV6ExtFragmentPacket.class));
+    assertArrayEquals(data, packet.getPayload().getRawData());
+  }
+
+  @Test
+  public void testOverlap() throws Exception {
+    byte[] first = newData(32);
+    byte[] last = newData(33);
+    for (OverlapPolicy policy : OverlapPolicy.values()) {
+      IpFragmentReassembler reassembler =
+          new IpFragmentReassembler.Builder().overlapPolicy(policy).build();
+      assertNull(reassembler.add(newIpV4Fragment(1, first, 0, 16, true), 0));
+      assertNull(reassembler.add(newIpV4Fragment(1, last, 8, 16, true), 0));
+      IpV4Packet packet = reassembler.add(newIpV4Fragment(1, last, 24, 8, false), 0);
+      if (policy == OverlapPolicy.DROP) {
+        assertNull(packet);
+        assertEquals(1, reassembler.getDatagramCount()); // Only the last fragment.
+        continue;
+      }
+
+      byte[] payload = packet.getPayload().getRawData();
+      byte[] winner = policy == OverlapPolicy.FIRST ? first : last;
+      assertArrayEquals(Arrays.copyOfRange(first, 0, 8), Arrays.copyOfRange(payload, 0, 8));
+      assertArrayEquals(Arrays.copyOfRange(winner, 8, 16), Arrays.copyOfRange(payload, 8, 16));
+      assertArrayEquals(Arrays.copyOfRange(last, 16, 32), Arrays.copyOfRange(payload, 16, 32));
+    }
+  }
+
+  @Test
+  public void testTimeoutAndLimit() throws Exception {
+    IpFragmentReassembler reassembler =
+        new IpFragmentReassembler.Builder().timeoutMillis(1000).maxBufferedBytes(200).build();
+    byte[] data = newData(72);
+
+    assertNull(reassembler.add(newIpV4Fragment(1, data, 0, 64, true), 0));
+    assertNull(reassembler.add(newIpV4Fragment(2, data, 0, 64, true), 500));
+    assertEquals(2, reassembler.getDatagramCount());
+    assertEquals(2 * (20 + 64), reassembler.getBufferedBytes());
+
+    assertNull(reassembler.add(newIpV4Fragment(3, data, 0, 64, true), 600));
+    assertEquals(2, reassembler.getDatagramCount());
+    assertEquals(2 * (20 + 64), reassembler.getBufferedBytes());
+
+    // The datagram 1 has been evicted, so this fragment starts a new one.
+    assertNull(reassembler.add(newIpV4Fragment(1, data, 64, 8, false), 700));
+    assertEquals(2, reassembler.getDatagramCount());
+
+    assertEquals(1, reassembler.expire(1650));
+    assertEquals(1, reassembler.getDatagramCount());
+    reassembler.clear();
+    assertEquals(0, reassembler.getDatagramCount());
+    assertEquals(0, reassembler.getBufferedBytes());
+  }
+}
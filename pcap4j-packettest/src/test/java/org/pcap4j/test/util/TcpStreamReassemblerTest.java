@@ -0,0 +1,259 @@
+/*_##########################################################################
+  _##
+  _##  Copyright (C) 2019  Pcap4J.org
+  _##
+  _##########################################################################
+*/
+package org.pcap4j.test.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcap4j.packet.IpV4Packet;
+import org.pcap4j.util.ByteArrays;
+import org.pcap4j.util.TcpStreamReassembler;
+import org.pcap4j.util.TcpStreamReassembler.CloseReason;
+import org.pcap4j.util.TcpStreamReassembler.Stream;
+
+@SuppressWarnings("javadoc")
+public class TcpStreamReassemblerTest {
+
+  private static final String CLIENT = "c0000201";
+  private static final String SERVER = "c6336402";
+  private static final int SYN = 0x02;
+  private static final int RST = 0x04;
+  private static final int ACK = 0x10;
+  private static final int FIN = 0x01;
+
+  private final ByteArrayOutputStream clientData = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream serverData = new ByteArrayOutputStream();
+  private final List<String> events = new ArrayList<String>();
+  private final TcpStreamReassembler.Listener listener =
+      new TcpStreamReassembler.Listener() {
+        @Override
+        public void gotData(Stream stream, ByteBuffer data) {
+          byte[] bytes = new byte[data.remaining()];
+          data.get(bytes);
+          (stream.isClient() ? clientData : serverData).write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void gotGap(Stream stream, long length) {
+          events.add((stream.isClient() ? "client" : "server") + " gap " + length);
+        }
+
+        @Override
+        public void closed(Stream stream, CloseReason reason) {
+          events.add((stream.isClient() ? "client" : "server") + " " + reason);
+        }
+      };
+
+  @Before
+  public void setUp() {
+    clientData.reset();
+    serverData.reset();
+    events.clear();
+  }
+
+  private static IpV4Packet newSegment(
+      boolean fromClient, int clientPort, int seq, int ack, int flags, int window, String data)
+      throws Exception {
+    String ports =
+        fromClient
+            ? String.format("%04x%04x", clientPort, 80)
+            : String.format("%04x%04x", 80, clientPort);
+    // The SYN segments carry a window scale option.
+    String options = (flags & SYN) != 0 ? "01030302" : "";
+    String tcp =
+        ports
+            + String.format("%08x%08x", seq, ack)
+            + String.format("%02x%02x%04x", (20 + options.length() / 2) << 2, flags, window)
+            + "00000000"
+            + options
+            + data;
+    String ip = "450000000000400040060000" + (fromClient ? CLIENT + SERVER : SERVER + CLIENT) + tcp;
+    byte[] rawData = ByteArrays.parseByteArray(ip, "");
+    rawData[2] = (byte) (rawData.length >> 8);
+    rawData[3] = (byte) rawData.length;
+    return IpV4Packet.newPacket(rawData, 0, rawData.length);
+  }
+
+  @Test
+  public void testReorderAndRetransmit() throws Exception {
+    TcpStreamReassembler reassembler =
+        new TcpStreamReassembler.Builder().listener(listener).build();
+
+    reassembler.add(newSegment(true, 40000, 999, 0, SYN, 65535, ""), 0);
+    reassembler.add(newSegment(false, 40000, 4999, 1000, SYN | ACK, 65535, ""), 0);
+    reassembler.add(newSegment(true, 40000, 1000, 5000, ACK, 1024, ""), 0);
+    reassembler.add(newSegment(true, 40000, 1004, 5000, ACK, 1024, "44556677"), 0);
+    reassembler.add(newSegment(true, 40000, 1002, 5000, ACK, 1024, "2233"), 0);
+    assertEquals(0, clientData.size());
+    assertEquals(6, reassembler.getBufferedBytes());
+
+    reassembler.add(newSegment(true, 40000, 1000, 5000, ACK, 1024, "0011"), 0);
+    assertEquals("0011223344556677", ByteArrays.toHexString(clientData.toByteArray(), ""));
+    assertEquals(0, reassembler.getBufferedBytes());
+
+    // A retransmission overlapping the data delivered.
+    reassembler.add(newSegment(true, 40000, 1006, 5000, ACK, 1024, "ffff8899"), 0);
+    assertEquals("00112233445566778899", ByteArrays.toHexString(clientData.toByteArray(), ""));
+
+    reassembler.add(newSegment(false, 40000, 5000, 1010, ACK, 1024, "aabbcc"), 0);
+    reassembler.add(newSegment(false, 40000, 5003, 1010, ACK | FIN, 1024, ""), 0);
+    reassembler.add(newSegment(true, 40000, 1010, 5004, ACK | FIN, 1024, ""), 0);
+    assertEquals("aabbcc", ByteArrays.toHexString(serverData.toByteArray(), ""));
+    assertEquals("[server FIN, client FIN]", events.toString());
+    assertEquals(0, reassembler.getConnectionCount());
+  }
+
+  @Test
+  public void testOverlap() throws Exception {
+    TcpStreamReassembler reassembler =
+        new TcpStreamReassembler.Builder().listener(listener).build();
+
+    reassembler.add(newSegment(true, 40000, 999, 0, SYN, 65535, ""), 0);
+    reassembler.add(newSegment(false, 40000, 4999, 1000, SYN | ACK, 65535, ""), 0);
+    reassembler.add(newSegment(true, 40000, 1004, 5000, ACK, 1024, "44556677"), 0);
+
+    // A longer segment at the same offset only adds the bytes after the data kept.
+    reassembler.add(newSegment(true, 40000, 1004, 5000, ACK, 1024, "a4a5a6a7a8a9"), 0);
+    assertEquals(6, reassembler.getBufferedBytes());
+
+    // A segment at another offset only fills the bytes before the data kept.
+    reassembler.add(newSegment(true, 40000, 1002, 5000, ACK, 1024, "c2c3c4c5"), 0);
+    assertEquals(8, reassembler.getBufferedBytes());
+    assertEquals(0, clientData.size());
+
+    // In-order data overlapping the data kept as well.
+    reassembler.add(newSegment(true, 40000, 1000, 5000, ACK, 1024, "00010203040506"), 0);
+    assertEquals("0001c2c344556677a8a9", ByteArrays.toHexString(clientData.toByteArray(), ""));
+    assertEquals(0, reassembler.getBufferedBytes());
+
+    // A segment spanning several pieces kept only fills the holes between them.
+    reassembler.add(newSegment(true, 40000, 1012, 5000, ACK, 1024, "0c0d"), 0);
+    reassembler.add(newSegment(true, 40000, 1016, 5000, ACK, 1024, "1011"), 0);
+    reassembler.add(newSegment(true, 40000, 1011, 5000, ACK, 1024, "ffffffffffffffff"), 0);
+    assertEquals(8, reassembler.getBufferedBytes());
+    reassembler.add(newSegment(true, 40000, 1010, 5000, ACK, 1024, "0a"), 0);
+    assertEquals(
+        "0001c2c344556677a8a90aff0c0dffff1011ff",
+        ByteArrays.toHexString(clientData.toByteArray(), ""));
+    assertEquals(0, reassembler.getBufferedBytes());
+    assertEquals("[]", events.toString());
+  }
+
+  @Test
+  public void testGap() throws Exception {
+    TcpStreamReassembler reassembler =
+        new TcpStreamReassembler.Builder().listener(listener).timeoutMillis(1000).build();
+
+    // Both the hosts send a window scale of 2, and the server advertises a window of 8 bytes.
+    reassembler.add(newSegment(true, 40000, 99, 0, SYN, 65535, ""), 0);
+    reassembler.add(newSegment(false, 40000, 4999, 100, SYN | ACK, 65535, ""), 0);
+    reassembler.add(newSegment(true, 40000, 100, 5000, ACK, 1024, "0001020304050607"), 0);
+    reassembler.add(newSegment(false, 40000, 5000, 108, ACK, 2, "aa"), 0);
+    reassembler.add(newSegment(true, 40000, 112, 5001, ACK, 1024, "0c0d0e0f"), 0);
+    assertEquals("[]", events.toString());
+
+    // The hole between 108 and 112 has been acknowledged, since this segment is out of the window.
+    reassembler.add(newSegment(true, 40000, 120, 5001, ACK, 1024, "14151617"), 100);
+    assertEquals("[client gap 4]", events.toString());
+    assertEquals("00010203040506070c0d0e0f", ByteArrays.toHexString(clientData.toByteArray(), ""));
+
+    // A segment longer than the window skips the hole before it, but not a part of itself.
+    reassembler.add(
+        newSegment(true, 40000, 124, 5001, ACK, 1024, "18191a1b1c1d1e1f2021222324252627"), 100);
+    assertEquals("[client gap 4, client gap 4]", events.toString());
+    assertEquals(0, reassembler.getBufferedBytes());
+
+    assertEquals(1, reassembler.expire(1100));
+    assertEquals("[client gap 4, client gap 4, client TIMEOUT, server TIMEOUT]", events.toString());
+    assertEquals(
+        "00010203040506070c0d0e0f1415161718191a1b1c1d1e1f2021222324252627",
+        ByteArrays.toHexString(clientData.toByteArray(), ""));
+    assertEquals(0, reassembler.getConnectionCount());
+  }
+
+  @Test
+  public void testMidStream() throws Exception {
+    TcpStreamReassembler reassembler =
+        new TcpStreamReassembler.Builder().listener(listener).build();
+
+    // The handshake isn't captured, so the window of 501 is likely scaled, e.g. by 2^7.
+    StringBuilder data = new StringBuilder();
+    for (int i = 0; i < 1460; i++) {
+      data.append("5a");
+    }
+    reassembler.add(newSegment(false, 40000, 5000, 100, ACK, 501, ""), 0);
+    for (int i = 0; i < 3; i++) {
+      reassembler.add(newSegment(true, 40000, 100 + i * 1460, 5000, ACK, 1024, data.toString()), 0);
+    }
+    assertEquals("[]", events.toString());
+    assertEquals(3 * 1460, clientData.size());
+    assertEquals(0, reassembler.getBufferedBytes());
+  }
+
+  @Test
+  public void testAcknowledgedHole() throws Exception {
+    TcpStreamReassembler reassembler =
+        new TcpStreamReassembler.Builder().listener(listener).build();
+
+    // The handshake isn't captured, and the segment at 104 is lost by the capture.
+    reassembler.add(newSegment(false, 40000, 5000, 100, ACK, 501, ""), 0);
+    reassembler.add(newSegment(true, 40000, 100, 5000, ACK, 1024, "00010203"), 0);
+    reassembler.add(newSegment(true, 40000, 108, 5000, ACK, 1024, "08090a0b"), 0);
+    reassembler.add(newSegment(false, 40000, 5000, 104, ACK, 501, ""), 0);
+    assertEquals("[]", events.toString());
+    assertEquals(4, reassembler.getBufferedBytes());
+
+    // The server has received the data up to 112, so the hole before it has been lost.
+    reassembler.add(newSegment(false, 40000, 5000, 112, ACK, 501, ""), 0);
+    assertEquals("[client gap 4]", events.toString());
+    assertEquals("0001020308090a0b", ByteArrays.toHexString(clientData.toByteArray(), ""));
+    assertEquals(0, reassembler.getBufferedBytes());
+
+    // An acknowledgment of the FIN doesn't skip the FIN itself.
+    reassembler.add(newSegment(true, 40000, 116, 5000, ACK | FIN, 1024, "10111213"), 0);
+    reassembler.add(newSegment(false, 40000, 5000, 121, ACK, 501, ""), 0);
+    assertEquals("[client gap 4, client gap 4, client FIN]", events.toString());
+    assertEquals("0001020308090a0b10111213", ByteArrays.toHexString(clientData.toByteArray(), ""));
+  }
+
+  @Test
+  public void testLimits() throws Exception {
+    TcpStreamReassembler reassembler =
+        new TcpStreamReassembler.Builder()
+            .listener(listener)
+            .maxConnections(2)
+            .maxBufferedBytes(4)
+            .build();
+
+    reassembler.add(newSegment(true, 40001, 100, 0, ACK, 1024, "00"), 0);
+    reassembler.add(newSegment(true, 40002, 100, 0, ACK, 1024, "00"), 1);
+    reassembler.add(newSegment(true, 40002, 102, 0, ACK, 1024, "0203"), 2);
+    assertEquals(2, reassembler.getBufferedBytes());
+    reassembler.add(newSegment(true, 40001, 102, 0, ACK, 1024, "020304"), 3);
+    assertEquals("[client gap 1]", events.toString());
+    assertEquals(3, reassembler.getBufferedBytes());
+
+    // The connection of the port 40002 is the least recently active one.
+    reassembler.add(newSegment(true, 40003, 100, 0, ACK, 1024, "00"), 4);
+    assertEquals("[client gap 1, client EVICTED, server EVICTED]", events.toString());
+    assertEquals(2, reassembler.getConnectionCount());
+
+    reassembler.add(newSegment(false, 40001, 0, 0, RST, 0, ""), 5);
+    assertEquals(
+        "[client gap 1, client EVICTED, server EVICTED, client gap 1, client RST, server RST]",
+        events.toString());
+    assertEquals(0, reassembler.getBufferedBytes());
+    assertEquals(1, reassembler.getConnectionCount());
+    reassembler.clear();
+    assertEquals(0, reassembler.getConnectionCount());
+  }
+}